@@ -29,7 +29,11 @@ public class NeoBerkeleydbBackend extends AbstractNeoBackend {
     private static final String STORE_EXTENSION = "berkeleydb.resource"; // -> neoemf.mapdb.resource
 
     public NeoBerkeleydbBackend() {
-        super(NAME, STORE_EXTENSION);
+        this(NAME, STORE_EXTENSION);
+    }
+
+    protected NeoBerkeleydbBackend(String name, String storeExtension) {
+        super(name, storeExtension);
     }
 
     @Override
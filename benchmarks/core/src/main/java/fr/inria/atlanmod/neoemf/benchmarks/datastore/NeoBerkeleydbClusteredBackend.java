@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+package fr.inria.atlanmod.neoemf.benchmarks.datastore;
+
+import fr.inria.atlanmod.neoemf.core.ClusteredIdAllocator;
+import fr.inria.atlanmod.neoemf.data.berkeleydb.option.BerkeleyDbOptionsBuilder;
+
+import java.util.Map;
+
+/**
+ * A {@link NeoBerkeleydbBackend} whose objects are identified by clusters when the store is created, so that each
+ * containment subtree is stored in sequential pages.
+ *
+ * @see ClusteredIdAllocator
+ */
+public class NeoBerkeleydbClusteredBackend extends NeoBerkeleydbBackend {
+
+    public static final String NAME = "neo-berkeleydb-clustered";
+
+    private static final String STORE_EXTENSION = "berkeleydb-clustered.resource";
+
+    public NeoBerkeleydbClusteredBackend() {
+        super(NAME, STORE_EXTENSION);
+    }
+
+    @Override
+    public Map<String, Object> getOptions() {
+        return BerkeleyDbOptionsBuilder.newBuilder()
+                .directWriteIndices()
+                .autocommit()
+                .clusteredIds()
+                .asMap();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.benchmarks.runner;
+
+import fr.inria.atlanmod.neoemf.benchmarks.datastore.Backend;
+import fr.inria.atlanmod.neoemf.benchmarks.datastore.NeoBerkeleydbBackend;
+import fr.inria.atlanmod.neoemf.benchmarks.datastore.NeoBerkeleydbClusteredBackend;
+import fr.inria.atlanmod.neoemf.benchmarks.query.QueryFactory;
+
+import org.eclipse.emf.ecore.resource.Resource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Timeout;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the traversal of a BerkeleyDB datastore whose objects are identified randomly, and of the same datastore
+ * whose objects are identified by containment clusters.
+ * <p>
+ * The datastores are created from the same resource, so only the locality of the stored objects differs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Timeout(time = 2, timeUnit = TimeUnit.HOURS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(
+        value = 1,
+        jvmArgsPrepend = "-Dfile.encoding=utf-8",
+        jvmArgs = {"-server", "-XX:+UseConcMarkSweepGC"},
+        jvmArgsAppend = "-Xmx8g"
+)
+public class ClusteredIdRunner {
+
+    @Benchmark
+    public Integer traverse(DatastoreState state) throws Exception {
+        return QueryFactory.queryCountAllElements(state.resource).callWithTime();
+    }
+
+    /**
+     * The state holding the resource loaded from a BerkeleyDB datastore, with random or clustered identifiers.
+     */
+    @State(Scope.Thread)
+    public static class DatastoreState {
+
+        @Param({
+                "fr.inria.atlanmod.kyanos.tests.xmi",
+                "org.eclipse.gmt.modisco.java.kyanos.xmi",
+                "org.eclipse.jdt.core.xmi",
+        })
+        public String r;
+
+        @Param({
+                NeoBerkeleydbBackend.NAME,
+                NeoBerkeleydbClusteredBackend.NAME,
+        })
+        public String b;
+
+        Backend backend;
+
+        File resourceFile;
+
+        Resource resource;
+
+        @Setup(Level.Trial)
+        public void initResource() throws Exception {
+            backend = Objects.equals(NeoBerkeleydbClusteredBackend.NAME, b)
+                    ? new NeoBerkeleydbClusteredBackend()
+                    : new NeoBerkeleydbBackend();
+
+            resourceFile = backend.getOrCreateResource(r);
+        }
+
+        @Setup(Level.Iteration)
+        public void loadResource() throws Exception {
+            resource = backend.load(backend.getOrCreateStore(resourceFile));
+        }
+
+        @TearDown(Level.Iteration)
+        public void unloadResource() throws Exception {
+            if (!Objects.isNull(resource)) {
+                backend.unload(resource);
+                resource = null;
+            }
+            Backend.clean();
+        }
+    }
+}
@@ -13,6 +13,7 @@ package fr.inria.atlanmod.neoemf.benchmarks.runner;
 
 import fr.inria.atlanmod.neoemf.benchmarks.query.QueryFactory;
 import fr.inria.atlanmod.neoemf.benchmarks.query.ase2015.QueryFactoryASE2015;
+import fr.inria.atlanmod.neoemf.benchmarks.runner.state.ForkRunnerState;
 import fr.inria.atlanmod.neoemf.benchmarks.runner.state.ReadOnlyRunnerState;
 import fr.inria.atlanmod.neoemf.benchmarks.runner.state.ReadWriteRunnerState;
 import fr.inria.atlanmod.neoemf.benchmarks.runner.state.RunnerState;
@@ -124,6 +125,12 @@ public class Runner {
         return result;
     }
 
+    @Benchmark
+    public Void renameAllMethodsInFork(ForkRunnerState state) throws Exception {
+        String name = UUID.randomUUID().toString();
+        return QueryFactory.queryRenameAllMethods(state.getResource(), name).callWithTime();
+    }
+
     //endregion
 
     //region ASE 2015 queries.
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.benchmarks.runner;
+
+import fr.inria.atlanmod.neoemf.core.DefaultPersistentEObject;
+import fr.inria.atlanmod.neoemf.core.StringId;
+import fr.inria.atlanmod.neoemf.data.store.AbstractPersistentStoreDecorator;
+import fr.inria.atlanmod.neoemf.data.store.FeatureCachingStoreDecorator;
+import fr.inria.atlanmod.neoemf.data.store.FusedStoreDecorator;
+import fr.inria.atlanmod.neoemf.data.store.InvalidStore;
+import fr.inria.atlanmod.neoemf.data.store.IsSetCachingStoreDecorator;
+import fr.inria.atlanmod.neoemf.data.store.LoadedObjectCounterStoreDecorator;
+import fr.inria.atlanmod.neoemf.data.store.PersistentStore;
+import fr.inria.atlanmod.neoemf.data.store.SizeCachingStoreDecorator;
+import fr.inria.atlanmod.neoemf.option.CommonStoreOptions;
+
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-call overhead of the store decorators, by comparing the chain of dedicated decorators with the
+ * {@link FusedStoreDecorator} that runs the same concerns in a single layer.
+ * <p>
+ * The decorated store returns constant values, so only the cost of the decorators is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-server")
+public class StoreDecoratorRunner {
+
+    @Benchmark
+    public Object get(StoreState state) {
+        return state.store.get(state.object, state.singleFeature, PersistentStore.NO_INDEX);
+    }
+
+    @Benchmark
+    public Object getMany(StoreState state) {
+        return state.store.get(state.object, state.manyFeature, 3);
+    }
+
+    @Benchmark
+    public boolean isSet(StoreState state) {
+        return state.store.isSet(state.object, state.singleFeature);
+    }
+
+    @Benchmark
+    public int size(StoreState state) {
+        return state.store.size(state.object, state.manyFeature);
+    }
+
+    @Benchmark
+    public Object set(StoreState state) {
+        return state.store.set(state.object, state.singleFeature, PersistentStore.NO_INDEX, "value");
+    }
+
+    /**
+     * The state holding the decorated store, either as a chain of decorators or as a fused decorator.
+     */
+    @State(Scope.Thread)
+    public static class StoreState {
+
+        @Param({"chain", "fused"})
+        public String pipeline;
+
+        PersistentStore store;
+
+        InternalEObject object;
+
+        EStructuralFeature singleFeature;
+
+        EStructuralFeature manyFeature;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            PersistentStore base = new ConstantStore();
+
+            if ("fused".equals(pipeline)) {
+                store = new FusedStoreDecorator(base, Arrays.asList(
+                        CommonStoreOptions.CACHE_IS_SET,
+                        CommonStoreOptions.CACHE_STRUCTURAL_FEATURE,
+                        CommonStoreOptions.CACHE_SIZE,
+                        CommonStoreOptions.COUNT_LOADED_OBJECT));
+            }
+            else {
+                store = new LoadedObjectCounterStoreDecorator(
+                        new SizeCachingStoreDecorator(
+                                new FeatureCachingStoreDecorator(
+                                        new IsSetCachingStoreDecorator(base))));
+            }
+
+            DefaultPersistentEObject persistentObject = new DefaultPersistentEObject();
+            persistentObject.id(StringId.generate());
+            object = persistentObject;
+
+            singleFeature = EcorePackage.Literals.ENAMED_ELEMENT__NAME;
+            manyFeature = EcorePackage.Literals.ECLASS__ESUPER_TYPES;
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            store.close();
+        }
+    }
+
+    /**
+     * A store that returns constant values, without any persistence.
+     */
+    private static final class ConstantStore extends AbstractPersistentStoreDecorator {
+
+        ConstantStore() {
+            super(new InvalidStore());
+        }
+
+        @Override
+        public Object get(InternalEObject internalObject, EStructuralFeature feature, int index) {
+            return internalObject;
+        }
+
+        @Override
+        public Object set(InternalEObject internalObject, EStructuralFeature feature, int index, Object value) {
+            return value;
+        }
+
+        @Override
+        public boolean isSet(InternalEObject internalObject, EStructuralFeature feature) {
+            return true;
+        }
+
+        @Override
+        public int size(InternalEObject internalObject, EStructuralFeature feature) {
+            return 10;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
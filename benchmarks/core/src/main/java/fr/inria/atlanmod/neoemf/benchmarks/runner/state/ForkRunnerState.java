@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.benchmarks.runner.state;
+
+import fr.inria.atlanmod.neoemf.benchmarks.datastore.Backend;
+import fr.inria.atlanmod.neoemf.resource.PersistentResource;
+
+import org.eclipse.emf.ecore.resource.Resource;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.util.Objects;
+
+/**
+ * This state provided a ready-to-use fork of the default datastore. The modifications of the fork are kept in memory
+ * and discarded automatically, so the default datastore is never modified and never copied.
+ * <p/>
+ * It is used for what-if queries, that modify the model without saving it. The backends that do not support forks use
+ * a temporary copy of the default datastore instead.
+ *
+ * @see PersistentResource#fork()
+ */
+public class ForkRunnerState extends RunnerState {
+
+    protected Resource resource;
+
+    /**
+     * The resource loaded from the default datastore, or {@code null} if the backend does not support forks.
+     */
+    private Resource origin;
+
+    /**
+     * Returns the fork of the resource loaded from the datastore.
+     */
+    public Resource getResource() {
+        if (Objects.isNull(resource)) {
+            throw new NullPointerException();
+        }
+        return resource;
+    }
+
+    /**
+     * Loads the current datastore and forks its resource.
+     * <p/>
+     * This method is automatically called when setup the iteration level.
+     */
+    @Setup(Level.Iteration)
+    public void loadResource() throws Exception {
+        log.info("Initializing the datastore");
+        File storeFile = getBackend().getOrCreateStore(getResourceFile());
+
+        log.info("Loading the resource");
+        Resource loaded = getBackend().load(storeFile);
+        if (loaded instanceof PersistentResource) {
+            log.info("Forking the resource");
+            origin = loaded;
+            resource = ((PersistentResource) loaded).fork();
+        }
+        else {
+            log.info("Forks are not supported: loading a copy of the datastore");
+            getBackend().unload(loaded);
+            resource = getBackend().load(getBackend().copy(storeFile));
+        }
+    }
+
+    /**
+     * Discards the fork and unloads the current resource.
+     * <p/>
+     * This method is automatically called when tear down the iteration level.
+     */
+    @TearDown(Level.Iteration)
+    public void unloadResource() throws Exception {
+        log.info("Unloading the resource");
+        if (!Objects.isNull(resource)) {
+            getBackend().unload(resource);
+            resource = null;
+        }
+        if (!Objects.isNull(origin)) {
+            getBackend().unload(origin);
+            origin = null;
+        }
+        Backend.clean();
+    }
+}
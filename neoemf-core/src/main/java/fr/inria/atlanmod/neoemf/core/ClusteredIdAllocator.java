@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.core;
+
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Allocates consecutive {@link Id}s in a single interval, so that the objects of a containment subtree identified in
+ * pre-order are stored next to each other.
+ * <p>
+ * Each allocator draws a new cluster prefix with {@link EcoreUtil#generateUUID()}, and allocates identifiers made of
+ * this prefix followed by a fixed-width hexadecimal sequence number. When the objects of a subtree are identified in
+ * pre-order, the subtree of each object matches an interval of identifiers, starting with the identifier of the
+ * object. All the identifiers of a cluster have the same length, so their order is kept by the databases that sort
+ * their keys on their serialized form, such as a B-tree: the traversal of a subtree then reads sequential pages.
+ * Hash-based databases do not benefit from this allocation.
+ *
+ * @see fr.inria.atlanmod.neoemf.option.PersistentResourceOptions#CLUSTERED_IDS
+ */
+public class ClusteredIdAllocator {
+
+    /**
+     * The separator between the cluster prefix and the sequence number of an identifier.
+     */
+    private static final char SEPARATOR = '.';
+
+    /**
+     * The number of hexadecimal digits of the sequence number of an identifier.
+     */
+    private static final int SEQUENCE_LENGTH = 12;
+
+    /**
+     * The prefix shared by all the identifiers allocated by this allocator.
+     */
+    @Nonnull
+    private final String prefix;
+
+    /**
+     * The sequence number of the next allocated identifier.
+     */
+    private long sequence;
+
+    /**
+     * Constructs a new {@code ClusteredIdAllocator} with a new cluster prefix.
+     */
+    public ClusteredIdAllocator() {
+        this.prefix = EcoreUtil.generateUUID() + SEPARATOR;
+    }
+
+    /**
+     * Allocates the next identifier of the cluster, greater than all the identifiers previously allocated by this
+     * allocator.
+     *
+     * @return a new identifier
+     */
+    @Nonnull
+    public Id next() {
+        String digits = Long.toHexString(sequence++);
+
+        StringBuilder literal = new StringBuilder(prefix.length() + SEQUENCE_LENGTH).append(prefix);
+        for (int i = digits.length(); i < SEQUENCE_LENGTH; i++) {
+            literal.append('0');
+        }
+        return new StringId(literal.append(digits).toString());
+    }
+}
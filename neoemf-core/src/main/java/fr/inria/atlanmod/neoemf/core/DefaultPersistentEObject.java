@@ -14,10 +14,14 @@ package fr.inria.atlanmod.neoemf.core;
 import fr.inria.atlanmod.neoemf.data.PersistenceBackend;
 import fr.inria.atlanmod.neoemf.data.store.OwnedTransientStore;
 import fr.inria.atlanmod.neoemf.data.store.PersistentStore;
+import fr.inria.atlanmod.neoemf.resource.DefaultPersistentResource;
 import fr.inria.atlanmod.neoemf.resource.PersistentResource;
 import fr.inria.atlanmod.neoemf.util.NeoEContentsEList;
 import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
 
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.NotificationChain;
+import org.eclipse.emf.common.notify.impl.NotificationImpl;
 import org.eclipse.emf.common.util.BasicEMap;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.ecore.EAttribute;
@@ -33,6 +37,14 @@ import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.Resource.Internal;
 import org.eclipse.emf.ecore.util.EcoreEMap;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 
 import javax.annotation.Nonnull;
@@ -58,6 +70,11 @@ public class DefaultPersistentEObject extends MinimalEStoreEObjectImpl implement
      */
     private static final int UNSETTED_FEATURE_ID = -1;
 
+    /**
+     * The value stored in {@link #values} to represent a cached {@code null} value.
+     */
+    private static final Object NULL_VALUE = new Object();
+
     /**
      * The identifier of this object.
      */
@@ -91,6 +108,28 @@ public class DefaultPersistentEObject extends MinimalEStoreEObjectImpl implement
      */
     private EStore store;
 
+    /**
+     * The {@link EStoreEcoreEList}s already created for the multi-valued features of this object, indexed by their
+     * dynamic feature identifier.
+     * <p>
+     * The lists only hold a reference to this object and to their feature: all their operations are forwarded to
+     * {@link #eStore()}, so they can be safely reused when the underlying store changes.
+     */
+    private EStoreEcoreEList[] lists;
+
+    /**
+     * Whether the values of the single-valued features of this object are cached in {@link #values}.
+     *
+     * @see PersistentStore#isCachingInObjects()
+     */
+    private boolean isCaching;
+
+    /**
+     * The cached values of the single-valued features of this object, indexed by their dynamic feature identifier. A
+     * {@code null} element means that the value has not been loaded yet.
+     */
+    private Object[] values;
+
     /**
      * Constructs a new {@code DefaultPersistentEObject} with a generated {@link Id} using {@link StringId#generate()}.
      */
@@ -115,9 +154,18 @@ public class DefaultPersistentEObject extends MinimalEStoreEObjectImpl implement
         return id;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If this object is not attached to a resource yet, the values of its transient store are re-identified.
+     */
     @Override
     public void id(@Nonnull Id id) {
-        this.id = checkNotNull(id);
+        checkNotNull(id);
+        if (store instanceof OwnedTransientStore && !Objects.equals(this.id, id)) {
+            ((OwnedTransientStore) store).ownerIdChanged(id);
+        }
+        this.id = id;
     }
 
     @Override
@@ -138,6 +186,8 @@ public class DefaultPersistentEObject extends MinimalEStoreEObjectImpl implement
 
     @Override
     public void resource(Internal resource) {
+        // The data of an object that stays in the same persistent resource is already stored in its current store
+        boolean isRebinding = resource instanceof PersistentResource && resource == this.resource;
         this.resource = resource;
         EStore oldStore = store;
 
@@ -149,8 +199,19 @@ public class DefaultPersistentEObject extends MinimalEStoreEObjectImpl implement
             store = new OwnedTransientStore(this);
         }
 
+        if (resource instanceof DefaultPersistentResource) {
+            ((DefaultPersistentResource) resource).materialized(this);
+        }
+
+        // The cached values are discarded: they are reloaded from the new store if needed
+        values = null;
+        isCaching = resource instanceof PersistentResource
+                && !((PersistentResource) resource).isDistributed()
+                && store instanceof PersistentStore
+                && ((PersistentStore) store).isCachingInObjects();
+
         // Move contents from oldStore to store
-        if (nonNull(oldStore) && nonNull(store) && store != oldStore) {
+        if (!isRebinding && nonNull(oldStore) && nonNull(store) && store != oldStore) {
             // If the new store is different, initialize the new store with the data stored in the old store
             for (EStructuralFeature feature : eClass().getEAllStructuralFeatures()) {
                 if (oldStore.isSet(this, feature)) {
@@ -233,11 +294,23 @@ public class DefaultPersistentEObject extends MinimalEStoreEObjectImpl implement
         return sb.toString();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the container is attached to another resource, this object is moved to the resource of its container. When
+     * it is moved to a {@link DefaultPersistentResource}, its content is identified before being stored.
+     *
+     * @see DefaultPersistentResource#allocateClusteredIds(PersistentEObject)
+     */
     @Override
     protected void eBasicSetContainer(InternalEObject eContainer) {
         this.eContainer = eContainer;
         if (nonNull(eContainer) && eContainer.eResource() != resource) {
-            resource((Resource.Internal) this.eContainer.eResource());
+            Resource.Internal containerResource = (Resource.Internal) this.eContainer.eResource();
+            if (containerResource instanceof DefaultPersistentResource) {
+                ((DefaultPersistentResource) containerResource).allocateClusteredIds(this);
+            }
+            resource(containerResource);
         }
     }
 
@@ -291,40 +364,245 @@ public class DefaultPersistentEObject extends MinimalEStoreEObjectImpl implement
 
     @Override
     public Object dynamicGet(int dynamicFeatureId) {
+        return dynamicGet(dynamicFeatureId, eDynamicFeature(dynamicFeatureId));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method is the entry point of the accessors generated with the {@code Dynamic} feature delegation: as the
+     * generated code gives both the identifier and the literal of the feature, the value is directly read from the
+     * store, without resolving the feature again nor going through its setting delegate. The setting delegate is
+     * still used when it computes the value itself, i.e. for containers, derived features, map views and proxies.
+     */
+    @Override
+    protected Object eDynamicGet(int dynamicFeatureId, EStructuralFeature feature, boolean resolve, boolean coreType) {
+        if (dynamicFeatureId < 0 || !isDirectlyAccessible(feature) || !coreType && isMap(feature)) {
+            return super.eDynamicGet(dynamicFeatureId, feature, resolve, coreType);
+        }
+
+        Object value = dynamicGet(dynamicFeatureId, feature);
+        if (isNull(value)) {
+            return feature.getDefaultValue();
+        }
+        if (resolve && value instanceof EObject && ((EObject) value).eIsProxy()) {
+            return super.eDynamicGet(dynamicFeatureId, feature, true, coreType);
+        }
+        return value;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * As {@link #eDynamicGet(int, EStructuralFeature, boolean, boolean)}, a non-null value of a single-valued
+     * attribute is directly written in the store when nobody listens to this object. All the other features need their setting
+     * delegate, which handles the notifications and the inverse references.
+     */
+    @Override
+    protected void eDynamicSet(int dynamicFeatureId, EStructuralFeature feature, Object value) {
+        boolean isDirectlySettable = feature instanceof EAttribute
+                && !feature.isMany()
+                && !feature.isUnsettable()
+                && nonNull(value)
+                && isDirectlyAccessible(feature);
+
+        if (dynamicFeatureId < 0 || !isDirectlySettable || eNotificationRequired()) {
+            super.eDynamicSet(dynamicFeatureId, feature, value);
+        }
+        else {
+            dynamicSet(dynamicFeatureId, feature, value);
+        }
+    }
+
+    /**
+     * Returns whether the value of the given {@code feature} is stored as is in {@link #eStore()}, and can be accessed
+     * without its setting delegate.
+     *
+     * @param feature the feature
+     *
+     * @return {@code true} if the feature can be directly accessed
+     */
+    private boolean isDirectlyAccessible(EStructuralFeature feature) {
+        return !feature.isDerived()
+                && !feature.isVolatile()
+                && !(feature instanceof EReference && ((EReference) feature).isContainer());
+    }
+
+    /**
+     * Returns whether the given {@code feature} is a map, represented by an {@link EStoreEcoreEMap}.
+     *
+     * @param feature the feature
+     *
+     * @return {@code true} if the feature is a map
+     */
+    private boolean isMap(EStructuralFeature feature) {
+        return feature.isMany() && Objects.equals(feature.getEType().getInstanceClassName(), java.util.Map.Entry.class.getName());
+    }
+
+    /**
+     * Returns the value of the given {@code feature}, as stored in the settings of this object.
+     *
+     * @param dynamicFeatureId the dynamic identifier of the {@code feature}
+     * @param feature          the feature
+     *
+     * @return the value of the {@code feature}
+     *
+     * @see #dynamicGet(int)
+     */
+    private Object dynamicGet(int dynamicFeatureId, EStructuralFeature feature) {
         Object value;
-        final EStructuralFeature feature = eDynamicFeature(dynamicFeatureId);
         final EClassifier eType = feature.getEType();
         if (feature.isMany()) {
-            if (Objects.equals(eType.getInstanceClassName(), java.util.Map.Entry.class.getName())) {
+            if (isMap(feature)) {
                 value = new EStoreEcoreEMap(eType, feature);
             }
             else {
-                value = new EStoreEcoreEList(feature);
+                value = list(dynamicFeatureId, feature);
             }
         }
+        else if (isCaching && isCacheable(feature)) {
+            value = cachedValue(dynamicFeatureId, feature);
+        }
         else {
-            value = eStore().get(this, feature, PersistentStore.NO_INDEX);
+            value = storedValue(dynamicFeatureId, feature);
         }
         return value;
     }
 
+    /**
+     * Returns the value of the given single-valued {@code feature}, as read from {@link #eStore()}.
+     * <p>
+     * A {@link PersistentStore} is given the identifier of the feature in the metaclass of this object, so that it
+     * can use the description of the feature it computed for this metaclass.
+     *
+     * @param dynamicFeatureId the dynamic identifier of the {@code feature}
+     * @param feature          the single-valued feature
+     *
+     * @return the value of the {@code feature}
+     *
+     * @see PersistentStore#get(InternalEObject, int, int)
+     */
+    private Object storedValue(int dynamicFeatureId, EStructuralFeature feature) {
+        EStore eStore = eStore();
+        if (eStore instanceof PersistentStore) {
+            return ((PersistentStore) eStore).get(this, eStaticFeatureCount() + dynamicFeatureId, PersistentStore.NO_INDEX);
+        }
+        return eStore.get(this, feature, PersistentStore.NO_INDEX);
+    }
+
+    /**
+     * Returns whether the value of the given single-valued {@code feature} can be cached in this object.
+     * <p>
+     * The container of an object can be modified without using it, so container references are never cached.
+     *
+     * @param feature the single-valued feature
+     *
+     * @return {@code true} if the value of the {@code feature} can be cached
+     */
+    private boolean isCacheable(EStructuralFeature feature) {
+        return !(feature instanceof EReference && ((EReference) feature).isContainer());
+    }
+
+    /**
+     * Returns the cached value of the given single-valued {@code feature}, loading it from the store on the first
+     * access.
+     *
+     * @param dynamicFeatureId the dynamic identifier of the {@code feature}
+     * @param feature          the single-valued feature
+     *
+     * @return the value of the {@code feature}
+     */
+    private Object cachedValue(int dynamicFeatureId, EStructuralFeature feature) {
+        if (isNull(values)) {
+            values = new Object[eClass().getFeatureCount()];
+        }
+
+        Object value = values[dynamicFeatureId];
+        if (isNull(value)) {
+            value = storedValue(dynamicFeatureId, feature);
+            values[dynamicFeatureId] = isNull(value) ? NULL_VALUE : value;
+        }
+        return value == NULL_VALUE ? null : value;
+    }
+
+    @Override
+    public void invalidate(EStructuralFeature feature) {
+        if (nonNull(values)) {
+            int dynamicFeatureId = eDynamicFeatureID(feature);
+            if (dynamicFeatureId >= 0 && dynamicFeatureId < values.length) {
+                values[dynamicFeatureId] = null;
+            }
+        }
+    }
+
+    /**
+     * Returns the {@link EStoreEcoreEList} associated to the given multi-valued {@code feature}, creating it on the
+     * first access.
+     *
+     * @param dynamicFeatureId the dynamic identifier of the {@code feature}
+     * @param feature          the multi-valued feature
+     *
+     * @return the list wrapping the values of the {@code feature}
+     */
+    private EStoreEcoreEList list(int dynamicFeatureId, EStructuralFeature feature) {
+        if (isNull(lists)) {
+            lists = new EStoreEcoreEList[eClass().getFeatureCount()];
+        }
+        else if (dynamicFeatureId >= lists.length) {
+            lists = Arrays.copyOf(lists, Math.max(dynamicFeatureId + 1, eClass().getFeatureCount()));
+        }
+
+        EStoreEcoreEList list = lists[dynamicFeatureId];
+        if (isNull(list) || list.getEStructuralFeature() != feature) {
+            list = new EStoreEcoreEList(feature);
+            lists[dynamicFeatureId] = list;
+        }
+        return list;
+    }
+
     @Override
     public void dynamicSet(int dynamicFeatureId, Object value) {
-        EStructuralFeature feature = eDynamicFeature(dynamicFeatureId);
+        dynamicSet(dynamicFeatureId, eDynamicFeature(dynamicFeatureId), value);
+    }
+
+    /**
+     * Sets the value of the given {@code feature} in the settings of this object.
+     *
+     * @param dynamicFeatureId the dynamic identifier of the {@code feature}
+     * @param feature          the feature
+     * @param value            the new value
+     *
+     * @see #dynamicSet(int, Object)
+     */
+    private void dynamicSet(int dynamicFeatureId, EStructuralFeature feature, Object value) {
         if (feature.isMany()) {
             /*
              * TODO This operation should be atomic.
 		     * Reset the old value in case the operation fails in the middle
 		     */
-            eStore().unset(this, feature);
             @SuppressWarnings("rawtypes")
             EList collection = (EList) value;
-            for (int index = 0; index < collection.size(); index++) {
-                eStore().set(this, feature, index, collection.get(index));
+            if (eStore() instanceof PersistentStore && !collection.isEmpty()) {
+                ((PersistentStore) eStore()).setAll(this, feature, collection);
+            }
+            else {
+                eStore().unset(this, feature);
+                for (int index = 0; index < collection.size(); index++) {
+                    eStore().set(this, feature, index, collection.get(index));
+                }
             }
         }
         else {
-            eStore().set(this, feature, PersistentStore.NO_INDEX, value);
+            EStore eStore = eStore();
+            if (eStore instanceof PersistentStore) {
+                ((PersistentStore) eStore).set(this, eStaticFeatureCount() + dynamicFeatureId, PersistentStore.NO_INDEX, value);
+            }
+            else {
+                eStore.set(this, feature, PersistentStore.NO_INDEX, value);
+            }
+            if (nonNull(values) && isCacheable(feature)) {
+                values[dynamicFeatureId] = isNull(value) ? NULL_VALUE : value;
+            }
         }
     }
 
@@ -477,15 +755,55 @@ public class DefaultPersistentEObject extends MinimalEStoreEObjectImpl implement
             return delegateContains(object);
         }
 
+        /**
+         * {@inheritDoc}
+         * <p>
+         * A contained {@code object} is identified before being stored.
+         */
+        @Override
+        protected void delegateAdd(int index, Object object) {
+            allocateClusteredIds(object);
+            super.delegateAdd(index, object);
+        }
+
+        /**
+         * {@inheritDoc}
+         * <p>
+         * A contained {@code object} is identified before being stored.
+         */
+        @Override
+        protected Object delegateSet(int index, Object object) {
+            allocateClusteredIds(object);
+            return super.delegateSet(index, object);
+        }
+
+        /**
+         * {@inheritDoc}
+         * <p>
+         * Overrides the default implementation which relies on {@link #size()} and {@link EStore#get(InternalEObject,
+         * EStructuralFeature, int)} for each element, by iterating over a snapshot of the list retrieved with a single
+         * call to {@link EStore#toArray(InternalEObject, EStructuralFeature)}.
+         */
+        @Override
+        public Iterator<Object> iterator() {
+            return new SnapshotIterator();
+        }
+
         /**
          * {@inheritDoc}
          * <p>
          * Overrides the default implementation which relies on {@link #size()} and {@link EStore#get(InternalEObject, EStructuralFeature, int)}
-         * by delegating the call to the {@link EStore#toArray(InternalEObject, EStructuralFeature)} implementation.
+         * by delegating the call to the {@link PersistentStore#getAll(InternalEObject, EStructuralFeature)}
+         * implementation, or to the {@link EStore#toArray(InternalEObject, EStructuralFeature)} implementation if the
+         * store is not persistent.
          */
         @Override
         public Object[] toArray() {
-            return eStore().toArray(owner, getEStructuralFeature());
+            EStore store = eStore();
+            if (store instanceof PersistentStore) {
+                return ((PersistentStore) store).getAll(owner, getEStructuralFeature());
+            }
+            return store.toArray(owner, getEStructuralFeature());
         };
 
         /**
@@ -525,5 +843,249 @@ public class DefaultPersistentEObject extends MinimalEStoreEObjectImpl implement
                 return true;
             }
         }
+
+        /**
+         * {@inheritDoc}
+         * <p>
+         * Overrides the default implementation which calls {@link EStore#add(InternalEObject, EStructuralFeature,
+         * int, Object)} for each value, by adding all the values with a single call to {@link
+         * PersistentStore#addAll(InternalEObject, EStructuralFeature, int, Collection)}.
+         */
+        @Override
+        protected boolean doAddAllUnique(int index, Collection<?> collection) {
+            if (!(eStore() instanceof PersistentStore)) {
+                return super.doAddAllUnique(index, collection);
+            }
+
+            ++modCount;
+            if (collection.isEmpty()) {
+                return false;
+            }
+
+            List<Object> values = new ArrayList<>(collection.size());
+            for (Object object : collection) {
+                values.add(validate(index + values.size(), object));
+            }
+            for (Object value : values) {
+                allocateClusteredIds(value);
+            }
+            ((PersistentStore) eStore()).addAll(owner, eStructuralFeature, index, values);
+            for (int i = 0; i < values.size(); i++) {
+                didAdd(index + i, values.get(i));
+                didChange();
+            }
+            return true;
+        }
+
+        /**
+         * {@inheritDoc}
+         * <p>
+         * Overrides the default implementation which reads each added value back from the store to update its
+         * inverse, by using the given values instead: reading a contained value back from the store would attach it to
+         * the resource before its container is set.
+         */
+        @Override
+        public boolean addAllUnique(int index, Collection<?> collection) {
+            if (!(eStore() instanceof PersistentStore) || !hasInverse()) {
+                return super.addAllUnique(index, collection);
+            }
+
+            int collectionSize = collection.size();
+            if (collectionSize == 0) {
+                return false;
+            }
+
+            List<Object> values = new ArrayList<>(collection);
+            if (isNotificationRequired()) {
+                boolean oldIsSet = isSet();
+                doAddAllUnique(index, values);
+                NotificationImpl notification = collectionSize == 1
+                        ? createNotification(Notification.ADD, null, values.get(0), index, oldIsSet)
+                        : createNotification(Notification.ADD_MANY, null, values, index, oldIsSet);
+
+                NotificationChain notifications = createNotificationChain(collectionSize);
+                for (Object value : values) {
+                    notifications = inverseAdd(value, notifications);
+                    notifications = shadowAdd(value, notifications);
+                }
+                if (isNull(notifications)) {
+                    dispatchNotification(notification);
+                }
+                else {
+                    notifications.add(notification);
+                    notifications.dispatch();
+                }
+            }
+            else {
+                doAddAllUnique(index, values);
+                NotificationChain notifications = createNotificationChain(collectionSize);
+                for (Object value : values) {
+                    notifications = inverseAdd(value, notifications);
+                }
+                if (nonNull(notifications)) {
+                    notifications.dispatch();
+                }
+            }
+            return true;
+        }
+
+        /**
+         * {@inheritDoc}
+         * <p>
+         * When no notification and no inverse update is required, overrides the default implementation which removes
+         * the values one by one, by removing each range of consecutive values with a single call to {@link
+         * PersistentStore#removeRange(InternalEObject, EStructuralFeature, int, int)}.
+         */
+        @Override
+        public boolean removeAll(Collection<?> collection) {
+            if (!(eStore() instanceof PersistentStore) || isNotificationRequired() || hasInverse() || !isUnique()) {
+                return super.removeAll(collection);
+            }
+
+            PersistentStore store = (PersistentStore) eStore();
+            Object[] values = toArray();
+            boolean modified = false;
+            int toIndex = -1;
+            for (int index = values.length - 1; index >= -1; index--) {
+                if (index >= 0 && collection.contains(values[index])) {
+                    if (toIndex == -1) {
+                        toIndex = index + 1;
+                    }
+                }
+                else if (toIndex != -1) {
+                    store.removeRange(owner, eStructuralFeature, index + 1, toIndex);
+                    modified = true;
+                    toIndex = -1;
+                }
+            }
+            if (modified) {
+                ++modCount;
+                didChange();
+            }
+            return modified;
+        }
+
+        /**
+         * {@inheritDoc}
+         * <p>
+         * When no notification and no inverse update is required, overrides the default implementation which clears
+         * this list before adding the new values one by one, by replacing the content of the list with a single call
+         * to {@link PersistentStore#setAll(InternalEObject, EStructuralFeature, Collection)}.
+         */
+        @Override
+        public void set(Object newValue) {
+            if (!(eStore() instanceof PersistentStore) || isNotificationRequired() || hasInverse()) {
+                super.set(newValue);
+                return;
+            }
+
+            Collection<?> collection = (Collection<?>) newValue;
+            if (isUnique()) {
+                collection = new LinkedHashSet<>(collection);
+            }
+            List<Object> values = new ArrayList<>(collection.size());
+            for (Object object : collection) {
+                values.add(validate(values.size(), object));
+            }
+            ++modCount;
+            ((PersistentStore) eStore()).setAll(owner, eStructuralFeature, values);
+            didChange();
+        }
+
+        /**
+         * Identifies the given {@code value} and its content with the clustered identifiers of the resource of the
+         * owner of this list, before it is stored as a value of this containment list.
+         *
+         * @param value the value about to be stored in this list
+         *
+         * @see DefaultPersistentResource#allocateClusteredIds(PersistentEObject)
+         */
+        private void allocateClusteredIds(Object value) {
+            if (resource instanceof DefaultPersistentResource && isContainment() && nonNull(value)) {
+                ((DefaultPersistentResource) resource).allocateClusteredIds(PersistentEObject.from(value));
+            }
+        }
+
+        /**
+         * An {@link Iterator} over a snapshot of the values of this list.
+         * <p>
+         * The values are fetched from the store once, when the iterator is created. Modifications of the list that are
+         * not made through {@link #remove()} are detected as in standard EMF lists, and result in a
+         * {@link ConcurrentModificationException}.
+         */
+        private class SnapshotIterator implements Iterator<Object> {
+
+            /**
+             * The values of the list when this iterator has been created.
+             */
+            private final Object[] snapshot;
+
+            /**
+             * The index of the next value to return.
+             */
+            private int cursor;
+
+            /**
+             * The index of the last returned value in the {@link #snapshot}, or {@code -1} if {@link #next()} has not
+             * been called since the creation of this iterator or the last call to {@link #remove()}.
+             */
+            private int lastCursor = -1;
+
+            /**
+             * The number of values removed through this iterator, used to compute their current index in the list.
+             */
+            private int removed;
+
+            /**
+             * The expected modification count of the list.
+             */
+            private int expectedModCount;
+
+            /**
+             * Constructs a new {@code SnapshotIterator} on the current values of this list.
+             */
+            public SnapshotIterator() {
+                this.snapshot = EStoreEcoreEList.this.toArray();
+                this.expectedModCount = modCount;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return cursor < snapshot.length;
+            }
+
+            @Override
+            public Object next() {
+                checkModCount();
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                lastCursor = cursor++;
+                return resolve(lastCursor - removed, snapshot[lastCursor]);
+            }
+
+            @Override
+            public void remove() {
+                if (lastCursor == -1) {
+                    throw new IllegalStateException();
+                }
+                checkModCount();
+                EStoreEcoreEList.this.remove(lastCursor - removed);
+                removed++;
+                lastCursor = -1;
+                expectedModCount = modCount;
+            }
+
+            /**
+             * Checks that the list has not been modified since the last operation of this iterator.
+             *
+             * @throws ConcurrentModificationException if the list has been modified
+             */
+            private void checkModCount() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+            }
+        }
     }
 }
@@ -12,6 +12,7 @@
 package fr.inria.atlanmod.neoemf.core;
 
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.InternalEObject;
 import org.eclipse.emf.ecore.resource.Resource;
 
@@ -75,8 +76,26 @@ public interface PersistentEObject extends InternalEObject {
 
     /**
      * Defines the resource that contains this {@code PersistentEObject}.
+     * <p>
+     * The content of this object is copied to the store of the new {@code resource}, unless this object already
+     * belongs to it: in that case, this object is only bound to the current store of the {@code resource}.
      *
      * @param resource the containing resource
      */
     void resource(@Nullable Resource.Internal resource);
+
+    /**
+     * Invalidates the value of the given {@code feature} that may be cached by this {@code PersistentEObject}.
+     * <p>
+     * This method is called by the {@link fr.inria.atlanmod.neoemf.data.store.PersistentStore} when the value of a
+     * single-valued feature is modified without using this object. By default, a {@code PersistentEObject} does not
+     * cache any value, and this method does nothing.
+     *
+     * @param feature the modified feature
+     *
+     * @see fr.inria.atlanmod.neoemf.data.store.InObjectCachingStoreDecorator
+     */
+    default void invalidate(EStructuralFeature feature) {
+        // Nothing to invalidate
+    }
 }
@@ -11,22 +11,34 @@
 
 package fr.inria.atlanmod.neoemf.data;
 
+import fr.inria.atlanmod.neoemf.data.commit.CommitPolicy;
+import fr.inria.atlanmod.neoemf.data.journal.Journal;
+import fr.inria.atlanmod.neoemf.data.store.AutocommitStoreDecorator;
 import fr.inria.atlanmod.neoemf.data.store.FeatureCachingStoreDecorator;
+import fr.inria.atlanmod.neoemf.data.store.FusedStoreDecorator;
+import fr.inria.atlanmod.neoemf.data.store.InObjectCachingStoreDecorator;
+import fr.inria.atlanmod.neoemf.data.store.InverseReferenceStoreDecorator;
 import fr.inria.atlanmod.neoemf.data.store.IsSetCachingStoreDecorator;
+import fr.inria.atlanmod.neoemf.data.store.JournalingStoreDecorator;
 import fr.inria.atlanmod.neoemf.data.store.LoadedObjectCounterStoreDecorator;
 import fr.inria.atlanmod.neoemf.data.store.LoggingStoreDecorator;
 import fr.inria.atlanmod.neoemf.data.store.PersistentStore;
 import fr.inria.atlanmod.neoemf.data.store.SizeCachingStoreDecorator;
+import fr.inria.atlanmod.neoemf.data.store.WarmUpStoreDecorator;
 import fr.inria.atlanmod.neoemf.option.CommonStoreOptions;
 import fr.inria.atlanmod.neoemf.option.PersistentResourceOptions;
 import fr.inria.atlanmod.neoemf.option.PersistentStoreOptions;
 import fr.inria.atlanmod.neoemf.resource.PersistentResource;
+import fr.inria.atlanmod.neoemf.util.PersistenceURI;
 import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
 
 import org.apache.commons.configuration.ConfigurationException;
 import org.apache.commons.configuration.PropertiesConfiguration;
+import org.apache.commons.io.FileUtils;
+import org.eclipse.emf.common.util.URI;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collections;
@@ -37,6 +49,8 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 /**
  * An abstract {@link PersistenceBackendFactory} that processes common store options and manages the configuration.
@@ -86,6 +100,28 @@ public abstract class AbstractPersistenceBackendFactory implements PersistenceBa
         return storeOptions;
     }
 
+    /**
+     * Returns the {@link CommitPolicy} defined in the given {@code options}, or a policy that commits every {@link
+     * AutocommitStoreDecorator#OPS_BETWEEN_COMMITS_DEFAULT} modifications if none is defined.
+     *
+     * @param options the options
+     *
+     * @return the commit policy
+     *
+     * @see PersistentResourceOptions#COMMIT_POLICY
+     */
+    @Nonnull
+    protected static CommitPolicy getCommitPolicy(@Nullable Map<?, ?> options) {
+        Object policy = isNull(options) ? null : options.get(PersistentResourceOptions.COMMIT_POLICY);
+        if (policy instanceof CommitPolicy) {
+            return (CommitPolicy) policy;
+        }
+        else if (nonNull(policy)) {
+            NeoLogger.warn("COMMIT_POLICY must be a CommitPolicy. Consider that there is no policy.");
+        }
+        return CommitPolicy.everyOperations(AutocommitStoreDecorator.OPS_BETWEEN_COMMITS_DEFAULT);
+    }
+
     /**
      * Returns the literal description of the created {@link PersistenceBackend}.
      *
@@ -98,26 +134,116 @@ public abstract class AbstractPersistenceBackendFactory implements PersistenceBa
         PersistentStore store = createSpecificPersistentStore(resource, backend, options);
         List<PersistentStoreOptions> storeOptions = getStoreOptions(options);
 
+        // The inverse references are maintained whatever the way the specific store writes the references
+        if (nonNull(backend) && backend.hasInverseReferenceIndex()) {
+            store = new InverseReferenceStoreDecorator(store, backend);
+        }
+
+        // The journal is written every time the modifications are committed, including by the autocommit decorator
+        if (storeOptions.contains(CommonStoreOptions.JOURNAL)) {
+            store = createJournalingStore(resource, store);
+        }
+
+        if (nonNull(options) && options.containsKey(PersistentResourceOptions.COMMIT_POLICY) && !(store instanceof AutocommitStoreDecorator)) {
+            store = new AutocommitStoreDecorator(store, getCommitPolicy(options));
+        }
+
         if (!storeOptions.isEmpty()) {
-            if (storeOptions.contains(CommonStoreOptions.CACHE_IS_SET)) {
+            // Several common concerns are run by a single decorator, rather than by a chain of decorators
+            if (FusedStoreDecorator.countConcerns(storeOptions) > 1) {
+                store = new FusedStoreDecorator(store, storeOptions);
+            }
+            else if (storeOptions.contains(CommonStoreOptions.CACHE_IS_SET)) {
                 store = new IsSetCachingStoreDecorator(store);
             }
-            if (storeOptions.contains(CommonStoreOptions.CACHE_STRUCTURAL_FEATURE)) {
+            else if (storeOptions.contains(CommonStoreOptions.CACHE_STRUCTURAL_FEATURE)) {
                 store = new FeatureCachingStoreDecorator(store);
             }
-            if (storeOptions.contains(CommonStoreOptions.CACHE_SIZE)) {
+            else if (storeOptions.contains(CommonStoreOptions.CACHE_SIZE)) {
                 store = new SizeCachingStoreDecorator(store);
             }
-            if (storeOptions.contains(CommonStoreOptions.LOG)) {
+            else if (storeOptions.contains(CommonStoreOptions.LOG)) {
                 store = new LoggingStoreDecorator(store);
             }
-            if (storeOptions.contains(CommonStoreOptions.COUNT_LOADED_OBJECT)) {
+            else if (storeOptions.contains(CommonStoreOptions.COUNT_LOADED_OBJECT)) {
                 store = new LoadedObjectCounterStoreDecorator(store);
             }
+            if (storeOptions.contains(CommonStoreOptions.CACHE_IN_OBJECTS)) {
+                store = new InObjectCachingStoreDecorator(store);
+            }
+            if (storeOptions.contains(CommonStoreOptions.WARM_UP)) {
+                store = createWarmUpStore(resource, store);
+            }
         }
         return store;
     }
 
+    /**
+     * Wraps the given {@code store} in a {@link WarmUpStoreDecorator} that records its hot working set beside the
+     * database of the {@code resource}, and starts to prefetch the previously recorded one.
+     * <p>
+     * The hot working set of a remote resource cannot be recorded, so its {@code store} is returned as is.
+     *
+     * @param resource the resource
+     * @param store    the store to wrap
+     *
+     * @return the wrapped store
+     */
+    private PersistentStore createWarmUpStore(PersistentResource resource, PersistentStore store) {
+        URI uri = resource.getURI();
+        if (nonNull(uri.authority())) {
+            NeoLogger.warn("Unable to record the hot working set of the remote resource {0}", uri);
+            return store;
+        }
+
+        WarmUpStoreDecorator warmUpStore = new WarmUpStoreDecorator(store, getSideFile(uri, WarmUpStoreDecorator.FILE_NAME));
+        warmUpStore.warmUp();
+        return warmUpStore;
+    }
+
+    /**
+     * Wraps the given {@code store} in a {@link JournalingStoreDecorator} that records its modifications in a journal
+     * beside the database of the {@code resource}.
+     * <p>
+     * The modifications of a remote resource cannot be recorded, so its {@code store} is returned as is.
+     *
+     * @param resource the resource
+     * @param store    the store to wrap
+     *
+     * @return the wrapped store
+     *
+     * @throws InvalidDataStoreException if the journal cannot be opened
+     */
+    private PersistentStore createJournalingStore(PersistentResource resource, PersistentStore store) throws InvalidDataStoreException {
+        URI uri = resource.getURI();
+        if (nonNull(uri.authority())) {
+            NeoLogger.warn("Unable to record the modifications of the remote resource {0}", uri);
+            return store;
+        }
+
+        File file = getSideFile(uri, JournalingStoreDecorator.FILE_NAME);
+        try {
+            return new JournalingStoreDecorator(store, new Journal(file));
+        }
+        catch (IOException e) {
+            throw new InvalidDataStoreException(e);
+        }
+    }
+
+    /**
+     * Returns the file with the given {@code name} in the directory of the database of a resource. The name is
+     * prefixed by the query of the {@code uri}, so that the resources sharing a database have distinct files.
+     *
+     * @param uri  the URI of the resource
+     * @param name the name of the file
+     *
+     * @return the file
+     */
+    private static File getSideFile(URI uri, String name) {
+        File directory = FileUtils.getFile(PersistenceURI.createURI(uri).toFileString());
+        return new File(directory, isNull(uri.query()) ? name : uri.query() + '.' + name);
+    }
+
     /**
      * Creates a {@link PersistentStore} between the given {@code resource} and the given {@code backend}
      * according to the given {@code options}.
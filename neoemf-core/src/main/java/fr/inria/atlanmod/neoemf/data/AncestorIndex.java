@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data;
+
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.core.StringId;
+import fr.inria.atlanmod.neoemf.data.structure.AncestorInfo;
+import fr.inria.atlanmod.neoemf.data.structure.ContainerInfo;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * An index of the containment tree of a database, that answers the depth and the root of an object in a single
+ * lookup, and its other ancestors and its descendants by following the containment links.
+ * <p>
+ * The index is made of two structures, provided and persisted by the back-end: <ul> <li>the {@link AncestorInfo} of
+ * each contained object, i.e. the identifiers of its direct container and of its root, and its depth;</li> <li>an
+ * ordered set of link keys, each one made of the identifier of a container followed by the identifier of one of its
+ * contents. The contents of an object share the identifier of this object as prefix, so they are read with a single
+ * range query.</li> </ul>
+ * Both structures hold a constant number of identifiers per object, whatever its depth.
+ * <p>
+ * The index is updated every time the container of an object changes: when an object is moved to a different root or
+ * depth, the information of all its descendants is rewritten.
+ */
+public class AncestorIndex {
+
+    /**
+     * The separator between the identifiers of a link key.
+     */
+    private static final char SEPARATOR = '\u0000';
+
+    /**
+     * The character following any other character in a link key, used as upper bound of range queries.
+     */
+    private static final char UPPER_BOUND = '\uffff';
+
+    /**
+     * The ancestors of each contained object, identified by the object {@link Id}.
+     */
+    @Nonnull
+    private final Map<Id, AncestorInfo> ancestors;
+
+    /**
+     * The ordered link keys between all the contained objects and their container.
+     */
+    @Nonnull
+    private final NavigableSet<String> links;
+
+    /**
+     * Constructs a new {@code AncestorIndex} on top of the given structures.
+     *
+     * @param ancestors the map holding the ancestors of each contained object
+     * @param links     the ordered set holding the link keys between the contained objects and their container
+     */
+    public AncestorIndex(@Nonnull Map<Id, AncestorInfo> ancestors, @Nonnull NavigableSet<String> links) {
+        this.ancestors = checkNotNull(ancestors);
+        this.links = checkNotNull(links);
+    }
+
+    /**
+     * Builds the prefix of the link keys of the contents of the object identified by {@code container}.
+     *
+     * @param container the identifier of the container
+     *
+     * @return the prefix, ending with a separator
+     */
+    @Nonnull
+    private static String prefixOf(Id container) {
+        return container.toString() + SEPARATOR;
+    }
+
+    /**
+     * Returns the identifiers of the direct contents of the object identified by {@code container}.
+     *
+     * @param container the identifier of the container
+     *
+     * @return a list of identifiers
+     */
+    @Nonnull
+    private List<Id> contentsOf(Id container) {
+        String prefix = prefixOf(container);
+
+        List<Id> contents = new ArrayList<>();
+        for (String key : links.subSet(prefix, false, prefix + UPPER_BOUND, false)) {
+            contents.add(new StringId(key.substring(prefix.length())));
+        }
+        return contents;
+    }
+
+    /**
+     * Returns whether this index does not contain any object.
+     *
+     * @return {@code true} if this index is empty
+     */
+    public boolean isEmpty() {
+        return ancestors.isEmpty();
+    }
+
+    /**
+     * Returns the ancestors of the object identified by {@code id}.
+     *
+     * @param id the identifier of the object
+     *
+     * @return the ancestors of the object, or {@link AncestorInfo#none()} if it has no container
+     */
+    @Nonnull
+    public AncestorInfo ancestorsOf(Id id) {
+        AncestorInfo info = ancestors.get(id);
+        return isNull(info) ? AncestorInfo.none() : info;
+    }
+
+    /**
+     * Returns the identifiers of all the objects contained, directly or not, by the object identified by {@code id}.
+     * <p>
+     * The descendants are returned in depth-first order, so the descendants of a same object are contiguous, but the
+     * order of the siblings is not the order of their containment feature.
+     *
+     * @param id the identifier of the object
+     *
+     * @return a list of identifiers
+     */
+    @Nonnull
+    public List<Id> descendantsOf(Id id) {
+        List<Id> descendants = new ArrayList<>();
+
+        Deque<Id> remaining = new ArrayDeque<>(contentsOf(id));
+        while (!remaining.isEmpty()) {
+            Id descendant = remaining.pop();
+            descendants.add(descendant);
+            contentsOf(descendant).forEach(remaining::push);
+        }
+        return descendants;
+    }
+
+    /**
+     * Records that the object identified by {@code id} is now contained by the object identified by {@code
+     * container}, and updates the ancestors of all its descendants if its root or its depth changed.
+     *
+     * @param id        the identifier of the object
+     * @param container the identifier of the new container, or {@code null} if the object has no container anymore
+     */
+    public void containerChanged(Id id, @Nullable Id container) {
+        AncestorInfo oldInfo = ancestorsOf(id);
+        AncestorInfo newInfo = isNull(container) ? AncestorInfo.none() : ancestorsOf(container).child(container);
+        if (Objects.equals(oldInfo, newInfo)) {
+            return;
+        }
+
+        if (nonNull(oldInfo.container())) {
+            links.remove(prefixOf(oldInfo.container()) + id);
+        }
+        if (isNull(container)) {
+            ancestors.remove(id);
+        }
+        else {
+            links.add(prefixOf(container) + id);
+            ancestors.put(id, newInfo);
+        }
+
+        // The ancestors of the descendants only depend on the root and the depth of this object
+        if (!Objects.equals(oldInfo.root(), newInfo.root()) || oldInfo.depth() != newInfo.depth()) {
+            Deque<Id> remaining = new ArrayDeque<>(contentsOf(id));
+            while (!remaining.isEmpty()) {
+                Id descendant = remaining.pop();
+                Id descendantContainer = ancestorsOf(descendant).container();
+                ancestors.put(descendant, ancestorsOf(descendantContainer).child(descendantContainer));
+                contentsOf(descendant).forEach(remaining::push);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds this index from the given {@code containers}, i.e. the container of each contained object of the
+     * database.
+     * <p>
+     * This method is used when the index is enabled on a database that already contains objects.
+     *
+     * @param containers the container of each contained object
+     */
+    public void rebuild(Map<Id, ContainerInfo> containers) {
+        ancestors.clear();
+        links.clear();
+
+        Map<Id, AncestorInfo> computed = new HashMap<>();
+        for (Map.Entry<Id, ContainerInfo> entry : containers.entrySet()) {
+            AncestorInfo info = compute(entry.getKey(), containers, computed);
+            ancestors.put(entry.getKey(), info);
+            links.add(prefixOf(entry.getValue().id()) + entry.getKey());
+        }
+    }
+
+    /**
+     * Computes the ancestors of the object identified by {@code id} by navigating its containers, reusing the
+     * ancestors already {@code computed}.
+     *
+     * @param id         the identifier of the object
+     * @param containers the container of each contained object
+     * @param computed   the ancestors already computed
+     *
+     * @return the ancestors of the object
+     */
+    @Nonnull
+    private static AncestorInfo compute(Id id, Map<Id, ContainerInfo> containers, Map<Id, AncestorInfo> computed) {
+        List<Id> unresolved = new ArrayList<>();
+        AncestorInfo info = AncestorInfo.none();
+
+        Id current = id;
+        while (nonNull(current)) {
+            AncestorInfo known = computed.get(current);
+            if (nonNull(known)) {
+                info = known.child(current);
+                break;
+            }
+            unresolved.add(current);
+            ContainerInfo container = containers.get(current);
+            current = isNull(container) || unresolved.contains(container.id()) ? null : container.id();
+        }
+
+        // Resolves the objects from the top-most one
+        for (int i = unresolved.size() - 1; i >= 0; i--) {
+            Id object = unresolved.get(i);
+            computed.put(object, info);
+            info = info.child(object);
+        }
+        return computed.get(id);
+    }
+}
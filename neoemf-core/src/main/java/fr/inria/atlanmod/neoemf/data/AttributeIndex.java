@@ -0,0 +1,384 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data;
+
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.core.StringId;
+import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
+
+import org.eclipse.emf.common.util.Enumerator;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * An index of the values of chosen single-valued attributes, that answers the objects having a given value, a value in
+ * a range, or a value starting with a prefix, with a single range query.
+ * <p>
+ * The index is made of two structures, provided and persisted by the back-end: <ul> <li>the set of the indexed
+ * attributes, identified by the namespace URI of their package, the name of their containing class and their own
+ * name;</li> <li>an ordered set of entry keys, each one made of the identifier of an indexed attribute, of the
+ * {@link #sortKey(EAttribute, Object) sort key} of a value, and of the identifier of the object having this value. All
+ * the objects having the same value are contiguous in the set, and sorted by value.</li> </ul>
+ * <p>
+ * An attribute is indexed once it is {@link #declare(EAttribute) declared}, either explicitly, or by the back-end when
+ * it registers a metaclass whose attribute is annotated with an {@link org.eclipse.emf.ecore.EAnnotation} whose source
+ * is {@link #ANNOTATION_SOURCE}. Multi-valued attributes and {@code null} values are not indexed.
+ */
+public class AttributeIndex {
+
+    /**
+     * The source of the {@link org.eclipse.emf.ecore.EAnnotation} that declares an attribute as indexed in its
+     * metamodel.
+     */
+    public static final String ANNOTATION_SOURCE = "http://atlanmod.github.io/NeoEMF/index";
+
+    /**
+     * The separator between the parts of an entry key.
+     */
+    private static final char SEPARATOR = '\u0000';
+
+    /**
+     * The character following the separator, used as upper bound of all the entries of an attribute.
+     */
+    private static final char AFTER_SEPARATOR = '\u0001';
+
+    /**
+     * The character following any other character in an entry key, used as upper bound of prefix queries.
+     */
+    private static final char UPPER_BOUND = '\uffff';
+
+    /**
+     * The ordered entry keys of all the indexed values.
+     */
+    @Nonnull
+    private final SortedSet<String> entries;
+
+    /**
+     * The identifiers of the indexed attributes.
+     */
+    @Nonnull
+    private final Set<String> attributes;
+
+    /**
+     * Whether an attribute is indexed, cached to avoid computing its identifier on every modification.
+     */
+    private final Map<EAttribute, Boolean> indexedCache = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new {@code AttributeIndex} on top of the given structures.
+     *
+     * @param entries    the ordered set holding the entry keys of all the indexed values, sorted by their characters
+     * @param attributes the set holding the identifiers of the indexed attributes
+     */
+    public AttributeIndex(@Nonnull SortedSet<String> entries, @Nonnull Set<String> attributes) {
+        this.entries = checkNotNull(entries);
+        this.attributes = checkNotNull(attributes);
+    }
+
+    /**
+     * Returns whether the given {@code attribute} is annotated as indexed in its metamodel.
+     *
+     * @param attribute the attribute
+     *
+     * @return {@code true} if the attribute is single-valued and has an annotation whose source is {@link
+     * #ANNOTATION_SOURCE}
+     */
+    public static boolean isAnnotated(EAttribute attribute) {
+        return !attribute.isMany() && nonNull(attribute.getEAnnotation(ANNOTATION_SOURCE));
+    }
+
+    /**
+     * Returns the attributes of the given {@code eClass}, including the inherited ones, that are annotated as indexed
+     * in their metamodel.
+     * <p>
+     * The back-ends call this method once per metaclass, when they register it, to {@link #declare(EAttribute)
+     * declare} the annotated attributes.
+     *
+     * @param eClass the metaclass
+     *
+     * @return a list of attributes
+     *
+     * @see #isAnnotated(EAttribute)
+     */
+    @Nonnull
+    public static List<EAttribute> annotatedAttributes(EClass eClass) {
+        List<EAttribute> attributes = new ArrayList<>();
+        for (EAttribute attribute : eClass.getEAllAttributes()) {
+            if (isAnnotated(attribute)) {
+                attributes.add(attribute);
+            }
+        }
+        return attributes;
+    }
+
+    /**
+     * Returns a string whose lexicographical order is the natural order of the given {@code value} of the {@code
+     * attribute}.
+     * <p>
+     * Integral numbers, dates and enumeration literals are ordered by their numeric value, floating-point numbers by
+     * their numeric value as {@code double}, and booleans with {@code false} first. Any other value is ordered by its
+     * literal, as returned by {@link EcoreUtil#convertToString(EDataType, Object)}. A literal of a value that is not a
+     * string, as stored by some back-ends, is parsed before being converted.
+     *
+     * @param attribute the attribute
+     * @param value     a value of the attribute, or its stored representation
+     *
+     * @return the sort key of the value
+     */
+    @Nonnull
+    public static String sortKey(EAttribute attribute, Object value) {
+        checkNotNull(value);
+
+        EDataType type = attribute.getEAttributeType();
+        Object instance = value;
+        if (instance instanceof String && type.getInstanceClass() != String.class && nonNull(type.getInstanceClass())) {
+            instance = EcoreUtil.createFromString(type, (String) instance);
+        }
+
+        if (instance instanceof Byte || instance instanceof Short || instance instanceof Integer || instance instanceof Long) {
+            return sortKey(((Number) instance).longValue());
+        }
+        else if (instance instanceof Float || instance instanceof Double) {
+            long bits = Double.doubleToLongBits(((Number) instance).doubleValue());
+            return sortKey(bits < 0 ? ~bits ^ Long.MIN_VALUE : bits);
+        }
+        else if (instance instanceof Date) {
+            return sortKey(((Date) instance).getTime());
+        }
+        else if (instance instanceof Enumerator) {
+            return sortKey(((Enumerator) instance).getValue());
+        }
+        else if (instance instanceof Boolean) {
+            return ((Boolean) instance) ? "1" : "0";
+        }
+        else if (instance instanceof String || instance instanceof Character) {
+            return instance.toString();
+        }
+        return EcoreUtil.convertToString(type, instance);
+    }
+
+    /**
+     * Returns a fixed-width string whose lexicographical order is the signed order of the given {@code value}.
+     *
+     * @param value the value
+     *
+     * @return the sort key of the value
+     */
+    @Nonnull
+    private static String sortKey(long value) {
+        String hex = Long.toHexString(value ^ Long.MIN_VALUE);
+        StringBuilder key = new StringBuilder(16);
+        for (int i = hex.length(); i < 16; i++) {
+            key.append('0');
+        }
+        return key.append(hex).toString();
+    }
+
+    /**
+     * Returns the identifier of the given {@code attribute}.
+     *
+     * @param attribute the attribute
+     *
+     * @return the identifier of the attribute
+     */
+    @Nonnull
+    private static String keyOf(EAttribute attribute) {
+        EClass eClass = attribute.getEContainingClass();
+        String nsUri = isNull(eClass) || isNull(eClass.getEPackage()) ? "" : eClass.getEPackage().getNsURI();
+        return nsUri + '#' + (isNull(eClass) ? "" : eClass.getName()) + '.' + attribute.getName();
+    }
+
+    /**
+     * Builds the prefix of all the entry keys of the given {@code attribute}.
+     *
+     * @param attribute the attribute
+     *
+     * @return the prefix, ending with a separator
+     */
+    @Nonnull
+    private static String prefixOf(EAttribute attribute) {
+        return keyOf(attribute) + SEPARATOR;
+    }
+
+    /**
+     * Builds the prefix of all the entry keys of the given {@code value} of the {@code attribute}.
+     *
+     * @param attribute the attribute
+     * @param value     the value
+     *
+     * @return the prefix, ending with a separator
+     */
+    @Nonnull
+    private static String prefixOf(EAttribute attribute, Object value) {
+        return prefixOf(attribute) + sortKey(attribute, value) + SEPARATOR;
+    }
+
+    /**
+     * Extracts the identifier of the object from an entry key.
+     *
+     * @param key the entry key
+     *
+     * @return the identifier of the object
+     */
+    @Nonnull
+    private static Id idOf(String key) {
+        return new StringId(key.substring(key.lastIndexOf(SEPARATOR) + 1));
+    }
+
+    /**
+     * Returns whether the given {@code attribute} has been {@link #declare(EAttribute) declared} as indexed.
+     * <p>
+     * This method has no side effect: an {@link #isAnnotated(EAttribute) annotated} attribute is only indexed once the
+     * back-end has declared it, and has indexed its existing values.
+     *
+     * @param attribute the attribute
+     *
+     * @return {@code true} if the attribute is indexed
+     */
+    public boolean isIndexed(EAttribute attribute) {
+        Boolean indexed = indexedCache.get(attribute);
+        if (isNull(indexed)) {
+            indexed = !attribute.isMany() && attributes.contains(keyOf(attribute));
+            if (indexed) {
+                indexedCache.put(attribute, true);
+            }
+        }
+        return indexed;
+    }
+
+    /**
+     * Declares the given {@code attribute} as indexed. Once declared, the attribute is indexed until the database is
+     * deleted.
+     *
+     * @param attribute the attribute
+     *
+     * @return {@code true} if the attribute was not declared yet, and its existing values must be indexed
+     */
+    public boolean declare(EAttribute attribute) {
+        if (attribute.isMany()) {
+            NeoLogger.warn("Unable to index the multi-valued attribute {0}", attribute.getName());
+            return false;
+        }
+        indexedCache.put(attribute, true);
+
+        // Not relying on the result of add(), which is not reliable for all the persistent sets
+        String key = keyOf(attribute);
+        if (attributes.contains(key)) {
+            return false;
+        }
+        attributes.add(key);
+        return true;
+    }
+
+    /**
+     * Records that the value of the {@code attribute} of the object identified by {@code id} has changed.
+     *
+     * @param id        the identifier of the object
+     * @param attribute the indexed attribute
+     * @param oldValue  the previous value, or {@code null} if the attribute was not set
+     * @param newValue  the new value, or {@code null} if the attribute is unset
+     */
+    public void valueChanged(Id id, EAttribute attribute, @Nullable Object oldValue, @Nullable Object newValue) {
+        if (Objects.equals(oldValue, newValue)) {
+            return;
+        }
+        if (nonNull(oldValue)) {
+            entries.remove(prefixOf(attribute, oldValue) + id);
+        }
+        if (nonNull(newValue)) {
+            entries.add(prefixOf(attribute, newValue) + id);
+        }
+    }
+
+    /**
+     * Returns the identifiers of the objects whose {@code attribute} is equal to the given {@code value}.
+     *
+     * @param attribute the indexed attribute
+     * @param value     the value
+     *
+     * @return a list of identifiers
+     */
+    @Nonnull
+    public List<Id> find(EAttribute attribute, Object value) {
+        String prefix = prefixOf(attribute, value);
+        return idsOf(entries.subSet(prefix, prefix + UPPER_BOUND));
+    }
+
+    /**
+     * Returns the identifiers of the objects whose {@code attribute} is greater than or equal to {@code from}, and
+     * strictly lower than {@code to}, sorted by value.
+     *
+     * @param attribute the indexed attribute
+     * @param from      the lower bound, inclusive, or {@code null} if there is no lower bound
+     * @param to        the upper bound, exclusive, or {@code null} if there is no upper bound
+     *
+     * @return a list of identifiers
+     */
+    @Nonnull
+    public List<Id> findRange(EAttribute attribute, @Nullable Object from, @Nullable Object to) {
+        String lower = isNull(from) ? prefixOf(attribute) : prefixOf(attribute, from);
+        String upper = isNull(to) ? keyOf(attribute) + AFTER_SEPARATOR : prefixOf(attribute, to);
+        if (lower.compareTo(upper) >= 0) {
+            return new ArrayList<>();
+        }
+        return idsOf(entries.subSet(lower, upper));
+    }
+
+    /**
+     * Returns the identifiers of the objects whose {@code attribute} has a {@link #sortKey(EAttribute, Object) sort
+     * key} starting with the given {@code prefix}, sorted by value.
+     *
+     * @param attribute the indexed attribute
+     * @param prefix    the prefix of the values
+     *
+     * @return a list of identifiers
+     */
+    @Nonnull
+    public List<Id> findPrefix(EAttribute attribute, String prefix) {
+        String lower = prefixOf(attribute) + prefix;
+        return idsOf(entries.subSet(lower, lower + UPPER_BOUND));
+    }
+
+    /**
+     * Extracts the identifiers of the objects from the given entry keys.
+     *
+     * @param keys the entry keys
+     *
+     * @return a list of identifiers
+     */
+    @Nonnull
+    private static List<Id> idsOf(Set<String> keys) {
+        List<Id> ids = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            ids.add(idOf(key));
+        }
+        return ids;
+    }
+}
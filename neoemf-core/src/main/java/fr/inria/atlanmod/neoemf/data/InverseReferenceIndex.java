@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data;
+
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.core.StringId;
+import fr.inria.atlanmod.neoemf.data.structure.InverseReferenceInfo;
+
+import org.eclipse.emf.ecore.EReference;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.function.IntFunction;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * An index of the references of a database, that answers the objects referencing an object in a single lookup,
+ * instead of scanning the forward references of all the objects.
+ * <p>
+ * The index is made of one entry per referenced object, referencing object and reference, stored in an ordered map
+ * provided and persisted by the back-end. The key of an entry is made of the identifier of the referenced object, of
+ * the identifier of the referencing object and of the name of the reference, and its value is the number of
+ * occurrences of the referenced object in the reference. All the entries of a referenced object are contiguous in the
+ * map: a reference is added or removed in a single update of an entry, whatever the number of objects referencing the
+ * same object.
+ * <p>
+ * The index is updated every time a reference is set, added or removed. Only the cross-references are indexed: the
+ * inverse of a containment reference is the container of the object, which is already stored.
+ *
+ * @see fr.inria.atlanmod.neoemf.data.store.InverseReferenceStoreDecorator
+ */
+public class InverseReferenceIndex {
+
+    /**
+     * The separator between the parts of an entry key.
+     */
+    private static final char SEPARATOR = '\u0000';
+
+    /**
+     * The character following any other character in an entry key, used as upper bound of the entries of an object.
+     */
+    private static final char UPPER_BOUND = '\uffff';
+
+    /**
+     * The number of occurrences of each referenced object in the reference of each referencing object, identified by
+     * their entry key.
+     */
+    @Nonnull
+    private final SortedMap<String, Integer> occurrences;
+
+    /**
+     * Constructs a new {@code InverseReferenceIndex} on top of the given structure.
+     *
+     * @param occurrences the ordered map holding the number of occurrences of each entry, sorted by the characters of
+     *                    their key
+     */
+    public InverseReferenceIndex(@Nonnull SortedMap<String, Integer> occurrences) {
+        this.occurrences = checkNotNull(occurrences);
+    }
+
+    /**
+     * Returns whether the given {@code reference} is indexed, i.e. whether it is neither a containment nor a container
+     * reference.
+     *
+     * @param reference the reference
+     *
+     * @return {@code true} if the reference is indexed
+     */
+    public static boolean isIndexed(EReference reference) {
+        return !reference.isContainment() && !reference.isContainer();
+    }
+
+    /**
+     * Returns whether this index does not contain any reference.
+     *
+     * @return {@code true} if this index is empty
+     */
+    public boolean isEmpty() {
+        return occurrences.isEmpty();
+    }
+
+    /**
+     * Returns the objects referencing the object identified by {@code id}, sorted by their identifier and by the name
+     * of the reference.
+     *
+     * @param id the identifier of the referenced object
+     *
+     * @return the inverse references of the object, or {@link InverseReferenceInfo#none()} if it is not referenced
+     */
+    @Nonnull
+    public InverseReferenceInfo inverseReferencesOf(Id id) {
+        String prefix = id.toString() + SEPARATOR;
+        List<Id> sources = new ArrayList<>();
+        List<String> references = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : occurrences.subMap(prefix, prefix + UPPER_BOUND).entrySet()) {
+            String key = entry.getKey();
+            int separator = key.lastIndexOf(SEPARATOR);
+            Id source = new StringId(key.substring(prefix.length(), separator));
+            String reference = key.substring(separator + 1);
+            for (int i = 0; i < entry.getValue(); i++) {
+                sources.add(source);
+                references.add(reference);
+            }
+        }
+        return sources.isEmpty() ? InverseReferenceInfo.none() : InverseReferenceInfo.of(sources, references);
+    }
+
+    /**
+     * Returns the key of the entry of the object identified by {@code target} in the {@code reference} of the object
+     * identified by {@code source}.
+     *
+     * @param target    the identifier of the referenced object
+     * @param source    the identifier of the referencing object
+     * @param reference the name of the reference
+     *
+     * @return the entry key
+     */
+    @Nonnull
+    private static String keyOf(Id target, Id source, String reference) {
+        return target.toString() + SEPARATOR + source.toString() + SEPARATOR + reference;
+    }
+
+    /**
+     * Records that an occurrence of the object identified by {@code oldTarget} has been replaced by the object
+     * identified by {@code newTarget} in the {@code reference} of the object identified by {@code source}.
+     * <p>
+     * Non-indexed references are ignored.
+     *
+     * @param source    the identifier of the referencing object
+     * @param reference the reference
+     * @param oldTarget the identifier of the previously referenced object, or {@code null} if a value has been added
+     * @param newTarget the identifier of the newly referenced object, or {@code null} if a value has been removed
+     */
+    public void referenceChanged(Id source, EReference reference, @Nullable Id oldTarget, @Nullable Id newTarget) {
+        if (!isIndexed(reference) || Objects.equals(oldTarget, newTarget)) {
+            return;
+        }
+
+        String name = reference.getName();
+        if (nonNull(oldTarget)) {
+            String key = keyOf(oldTarget, source, name);
+            Integer count = occurrences.get(key);
+            if (isNull(count) || count <= 1) {
+                occurrences.remove(key);
+            }
+            else {
+                occurrences.put(key, count - 1);
+            }
+        }
+        if (nonNull(newTarget)) {
+            String key = keyOf(newTarget, source, name);
+            Integer count = occurrences.get(key);
+            occurrences.put(key, isNull(count) ? 1 : count + 1);
+        }
+    }
+
+    /**
+     * Removes all the references from this index, before rebuilding it with {@link #valueLoaded(Id, EReference,
+     * Object, IntFunction)}.
+     */
+    public void clear() {
+        occurrences.clear();
+    }
+
+    /**
+     * Indexes the references held by the stored {@code value} of the {@code reference} of the object identified by
+     * {@code source}.
+     * <p>
+     * This method is used when the index is built from a database that already contains objects. The value is either
+     * the identifier of the referenced object, an array or a collection of identifiers, or the size of a list whose
+     * elements are stored separately and given by {@code elements}.
+     *
+     * @param source    the identifier of the referencing object
+     * @param reference the reference
+     * @param value     the stored value
+     * @param elements  the function returning the element at a given index, when the elements are stored separately
+     */
+    public void valueLoaded(Id source, EReference reference, @Nullable Object value, IntFunction<Object> elements) {
+        if (value instanceof Id) {
+            referenceChanged(source, reference, null, (Id) value);
+        }
+        else if (value instanceof Object[]) {
+            for (Object element : (Object[]) value) {
+                valueLoaded(source, reference, element, elements);
+            }
+        }
+        else if (value instanceof Iterable) {
+            for (Object element : (Iterable<?>) value) {
+                valueLoaded(source, reference, element, elements);
+            }
+        }
+        else if (value instanceof Integer) {
+            int size = (Integer) value;
+            for (int i = 0; i < size; i++) {
+                Object element = elements.apply(i);
+                if (element instanceof Id) {
+                    referenceChanged(source, reference, null, (Id) element);
+                }
+            }
+        }
+    }
+}
@@ -11,13 +11,21 @@
 
 package fr.inria.atlanmod.neoemf.data;
 
+import fr.inria.atlanmod.neoemf.core.Id;
 import fr.inria.atlanmod.neoemf.data.store.DirectWriteStore;
+import fr.inria.atlanmod.neoemf.data.structure.AncestorInfo;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureCardinality;
+import fr.inria.atlanmod.neoemf.data.structure.InverseReferenceInfo;
 
+import org.eclipse.emf.ecore.EAttribute;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.resource.Resource;
 
 import java.io.Closeable;
+import java.util.List;
 
 /**
  * An adapter on top of a database that provides specific methods for communicating with the database that it uses. Each
@@ -73,5 +81,227 @@ public interface PersistenceBackend extends Closeable {
     default Object getAllInstances(EClass eClass, boolean strict) {
         throw new UnsupportedOperationException("This back-end does not support custom all instances computation");
     }
-}
 
+    /**
+     * Back-end specific computation of the number of instances of the given {@code eClass}.
+     *
+     * @param eClass the class to count the instances of
+     * @param strict {@code true} if only the strict instances are counted
+     *
+     * @return the number of instances of the {@link EClass}
+     *
+     * @throws UnsupportedOperationException if the back-end does not maintain instance statistics
+     * @see StatisticsTable
+     */
+    default long countInstances(EClass eClass, boolean strict) {
+        throw new UnsupportedOperationException("This back-end does not support instance statistics");
+    }
+
+    /**
+     * Back-end specific computation of the cardinality of the given multi-valued {@code feature}.
+     *
+     * @param feature the multi-valued feature
+     *
+     * @return the cardinality of the feature
+     *
+     * @throws UnsupportedOperationException if the back-end does not maintain feature statistics
+     * @see StatisticsTable
+     */
+    default FeatureCardinality cardinalityOf(EStructuralFeature feature) {
+        throw new UnsupportedOperationException("This back-end does not support feature statistics");
+    }
+
+    /**
+     * Back-end specific computation of the ancestors of the object identified by {@code id}, in a single lookup.
+     *
+     * @param id the identifier of the object
+     *
+     * @return the ancestors of the object
+     *
+     * @throws UnsupportedOperationException if the back-end does not maintain an ancestor index
+     * @see AncestorIndex
+     */
+    default AncestorInfo ancestorsOf(Id id) {
+        throw new UnsupportedOperationException("This back-end does not support ancestor index");
+    }
+
+    /**
+     * Back-end specific computation of the identifiers of all the objects contained, directly or not, by the object
+     * identified by {@code id}, with one range query per descendant.
+     *
+     * @param id the identifier of the object
+     *
+     * @return the identifiers of the descendants of the object
+     *
+     * @throws UnsupportedOperationException if the back-end does not maintain an ancestor index
+     * @see AncestorIndex
+     */
+    default List<Id> descendantsOf(Id id) {
+        throw new UnsupportedOperationException("This back-end does not support ancestor index");
+    }
+
+    /**
+     * Notifies this back-end that a new instance of the given {@code eClass} has been stored.
+     * <p>
+     * By default, this method does nothing. The back-ends that index attributes declare the {@link
+     * AttributeIndex#annotatedAttributes(EClass) annotated attributes} of the {@code eClass} the first time it is
+     * registered after they have been opened.
+     *
+     * @param eClass the metaclass of the new instance
+     */
+    default void registerMetaclass(EClass eClass) {
+    }
+
+    /**
+     * Returns whether the values of the given {@code attribute} are indexed by this back-end, and must be notified with
+     * {@link #attributeChanged(Id, EAttribute, Object, Object)}.
+     * <p>
+     * By default, no attribute is indexed. This method must not have any side effect: it is called on every
+     * modification of an attribute.
+     *
+     * @param attribute the attribute
+     *
+     * @return {@code true} if the attribute is indexed
+     *
+     * @see AttributeIndex
+     */
+    default boolean isIndexed(EAttribute attribute) {
+        return false;
+    }
+
+    /**
+     * Notifies this back-end that the value of the indexed {@code attribute} of the object identified by {@code id}
+     * has changed.
+     * <p>
+     * By default, this method does nothing.
+     *
+     * @param id        the identifier of the object
+     * @param attribute the indexed attribute
+     * @param oldValue  the previous value, or {@code null} if the attribute was not set
+     * @param newValue  the new value, or {@code null} if the attribute is unset
+     *
+     * @see #isIndexed(EAttribute)
+     */
+    default void attributeChanged(Id id, EAttribute attribute, Object oldValue, Object newValue) {
+    }
+
+    /**
+     * Back-end specific computation of the identifiers of the objects whose {@code attribute} is equal to the given
+     * {@code value}, with a single range query.
+     *
+     * @param attribute the indexed attribute
+     * @param value     the value
+     *
+     * @return the identifiers of the objects
+     *
+     * @throws UnsupportedOperationException if the back-end does not index the attribute
+     * @see AttributeIndex
+     */
+    default List<Id> findBy(EAttribute attribute, Object value) {
+        throw new UnsupportedOperationException("This back-end does not support attribute index");
+    }
+
+    /**
+     * Back-end specific computation of the identifiers of the objects whose {@code attribute} is between {@code from},
+     * inclusive, and {@code to}, exclusive, with a single range query.
+     *
+     * @param attribute the indexed attribute
+     * @param from      the lower bound, or {@code null} if there is no lower bound
+     * @param to        the upper bound, or {@code null} if there is no upper bound
+     *
+     * @return the identifiers of the objects, sorted by value
+     *
+     * @throws UnsupportedOperationException if the back-end does not index the attribute
+     * @see AttributeIndex
+     */
+    default List<Id> findByRange(EAttribute attribute, Object from, Object to) {
+        throw new UnsupportedOperationException("This back-end does not support attribute index");
+    }
+
+    /**
+     * Back-end specific computation of the identifiers of the objects whose {@code attribute} starts with the given
+     * {@code prefix}, with a single range query.
+     *
+     * @param attribute the indexed attribute
+     * @param prefix    the prefix
+     *
+     * @return the identifiers of the objects, sorted by value
+     *
+     * @throws UnsupportedOperationException if the back-end does not index the attribute
+     * @see AttributeIndex
+     */
+    default List<Id> findByPrefix(EAttribute attribute, String prefix) {
+        throw new UnsupportedOperationException("This back-end does not support attribute index");
+    }
+
+    /**
+     * Returns whether this back-end maintains an index of the inverse references, and must be notified with {@link
+     * #referenceChanged(Id, EReference, Id, Id)}.
+     * <p>
+     * By default, no inverse reference is indexed.
+     *
+     * @return {@code true} if the inverse references are indexed
+     *
+     * @see InverseReferenceIndex
+     */
+    default boolean hasInverseReferenceIndex() {
+        return false;
+    }
+
+    /**
+     * Notifies this back-end that an occurrence of the object identified by {@code oldTarget} has been replaced by
+     * the object identified by {@code newTarget} in the {@code reference} of the object identified by {@code source}.
+     * <p>
+     * By default, this method does nothing.
+     *
+     * @param source    the identifier of the referencing object
+     * @param reference the reference
+     * @param oldTarget the identifier of the previously referenced object, or {@code null} if a value has been added
+     * @param newTarget the identifier of the newly referenced object, or {@code null} if a value has been removed
+     *
+     * @see #hasInverseReferenceIndex()
+     */
+    default void referenceChanged(Id source, EReference reference, Id oldTarget, Id newTarget) {
+    }
+
+    /**
+     * Back-end specific computation of the objects referencing the object identified by {@code id}, in a single
+     * lookup.
+     *
+     * @param id the identifier of the referenced object
+     *
+     * @return the inverse references of the object
+     *
+     * @throws UnsupportedOperationException if the back-end does not maintain an inverse reference index
+     * @see InverseReferenceIndex
+     */
+    default InverseReferenceInfo inverseReferencesOf(Id id) {
+        throw new UnsupportedOperationException("This back-end does not support inverse reference index");
+    }
+
+    /**
+     * Returns whether this back-end tracks the cardinalities of the multi-valued features, and thus has to be notified
+     * of the size changes of their lists with {@link #updateCardinality(EStructuralFeature, int, int)}.
+     * <p>
+     * By default, the cardinalities are not tracked.
+     *
+     * @return {@code true} if the cardinalities are tracked
+     *
+     * @see fr.inria.atlanmod.neoemf.option.PersistentResourceOptions#FEATURE_STATISTICS
+     */
+    default boolean isTrackingCardinalities() {
+        return false;
+    }
+
+    /**
+     * Notifies this back-end that the size of a list of the given multi-valued {@code feature} has changed.
+     * <p>
+     * By default, this method does nothing.
+     *
+     * @param feature the multi-valued feature
+     * @param delta   the number of elements added (or removed, if negative) to the list
+     * @param size    the size of the list after the change, or {@code -1} if it is unknown
+     */
+    default void updateCardinality(EStructuralFeature feature, int delta, int size) {
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data;
+
+import fr.inria.atlanmod.neoemf.resource.PersistentResource;
+import fr.inria.atlanmod.neoemf.util.lifecycle.ShutdownCoordinator;
+import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A reference-counted pool of persistent {@link PersistenceBackend}s, shared by all the {@link PersistentResource}s
+ * pointing at the same store location.
+ * <p>
+ * A back-end is opened by the first {@link #acquire(File, Map, PersistenceBackendFactory)} of its location, and is
+ * shared, with its caches, by all the following acquisitions. When the last user {@link #release(PersistenceBackend)
+ * releases} it, the back-end is kept open during an idle timeout, so that opening it again is immediate, and is then
+ * closed. All the back-ends still open are closed when the application exits.
+ *
+ * @see fr.inria.atlanmod.neoemf.option.PersistentResourceOptions#SHARED_BACKEND
+ */
+public class PersistenceBackendPool {
+
+    /**
+     * The default time, in milliseconds, during which a back-end that is no longer used is kept open.
+     */
+    public static final long DEFAULT_IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * The pooled back-ends, identified by the canonical path of their location.
+     */
+    private static final Map<String, PooledBackend> BACKENDS = new HashMap<>();
+
+    /**
+     * The pooled back-ends, identified by their instance.
+     */
+    private static final Map<PersistenceBackend, PooledBackend> INSTANCES = new IdentityHashMap<>();
+
+    /**
+     * The executor responsible of closing the idle back-ends.
+     */
+    private static final ScheduledExecutorService CLEANER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, PersistenceBackendPool.class.getSimpleName());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The time, in milliseconds, during which a back-end that is no longer used is kept open.
+     */
+    private static long idleTimeout = DEFAULT_IDLE_TIMEOUT;
+
+    static {
+        ShutdownCoordinator.getInstance().register("backend pool", PersistenceBackendPool::closeAll);
+    }
+
+    /**
+     * This class should not be instantiated.
+     *
+     * @throws IllegalStateException every time
+     */
+    private PersistenceBackendPool() {
+        throw new IllegalStateException("This class should not be instantiated");
+    }
+
+    /**
+     * Defines the time during which a back-end that is no longer used is kept open. The new timeout only applies to
+     * the back-ends released after this call.
+     *
+     * @param timeout the timeout, {@code 0} to close the back-ends as soon as they are released
+     * @param unit    the unit of the {@code timeout}
+     */
+    public static synchronized void setIdleTimeout(long timeout, TimeUnit unit) {
+        checkArgument(timeout >= 0, "The timeout cannot be negative");
+        idleTimeout = unit.toMillis(timeout);
+    }
+
+    /**
+     * Returns the back-end stored in the given {@code location}, and opens it with the given {@code factory} if it is
+     * not already open. Each call to this method must be followed by a call to {@link #release(PersistenceBackend)}
+     * when the back-end is no longer used.
+     * <p>
+     * The {@code options} are only used when the back-end is opened: a shared back-end keeps the options of its first
+     * user.
+     *
+     * @param location the location of the back-end
+     * @param options  the options that defines the behaviour of the back-end
+     * @param factory  the factory used to open the back-end
+     *
+     * @return the shared back-end
+     *
+     * @throws InvalidDataStoreException if the back-end cannot be opened
+     */
+    @Nonnull
+    public static synchronized PersistenceBackend acquire(File location, Map<?, ?> options, PersistenceBackendFactory factory) throws InvalidDataStoreException {
+        checkNotNull(location);
+        checkNotNull(factory);
+
+        String key = canonicalPath(location);
+        PooledBackend pooled = BACKENDS.get(key);
+        if (isNull(pooled) || pooled.backend.isClosed()) {
+            if (nonNull(pooled)) {
+                remove(pooled);
+            }
+            pooled = new PooledBackend(key, factory.createPersistentBackend(location, options));
+            BACKENDS.put(key, pooled);
+            INSTANCES.put(pooled.backend, pooled);
+            NeoLogger.info("{0} opened in pool: {1}", PersistenceBackend.class.getSimpleName(), key);
+        }
+        pooled.retain();
+        return pooled.backend;
+    }
+
+    /**
+     * Releases a back-end returned by {@link #acquire(File, Map, PersistenceBackendFactory)}. The back-end is closed
+     * after the idle timeout if it is no longer used.
+     *
+     * @param backend the back-end to release
+     *
+     * @throws IllegalArgumentException if the {@code backend} is not part of this pool
+     */
+    public static synchronized void release(PersistenceBackend backend) {
+        PooledBackend pooled = INSTANCES.get(backend);
+        checkArgument(nonNull(pooled), "The back-end is not part of the pool");
+
+        if (pooled.release() == 0) {
+            if (idleTimeout == 0) {
+                closeIfIdle(pooled);
+            }
+            else {
+                pooled.closeTask = CLEANER.schedule(() -> closeIfIdle(pooled), idleTimeout, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the given {@code backend} is part of this pool.
+     *
+     * @param backend the back-end
+     *
+     * @return {@code true} if the back-end has been returned by {@link #acquire(File, Map, PersistenceBackendFactory)}
+     * and is not closed yet
+     */
+    public static synchronized boolean isPooled(PersistenceBackend backend) {
+        return INSTANCES.containsKey(backend);
+    }
+
+    /**
+     * Returns the number of back-ends currently open in this pool, whether they are used or idle.
+     *
+     * @return the number of back-ends
+     */
+    public static synchronized int size() {
+        return BACKENDS.size();
+    }
+
+    /**
+     * Closes all the back-ends of this pool, even if they are still used.
+     */
+    public static synchronized void closeAll() {
+        for (PooledBackend pooled : BACKENDS.values()) {
+            pooled.cancelClose();
+            close(pooled);
+        }
+        BACKENDS.clear();
+        INSTANCES.clear();
+    }
+
+    /**
+     * Closes the given {@code pooled} back-end if it has not been acquired again since its release.
+     *
+     * @param pooled the pooled back-end
+     */
+    private static synchronized void closeIfIdle(PooledBackend pooled) {
+        if (pooled.references == 0 && INSTANCES.get(pooled.backend) == pooled) {
+            remove(pooled);
+            close(pooled);
+        }
+    }
+
+    /**
+     * Removes the given {@code pooled} back-end from this pool, without closing it.
+     *
+     * @param pooled the pooled back-end
+     */
+    private static void remove(PooledBackend pooled) {
+        pooled.cancelClose();
+        BACKENDS.remove(pooled.key);
+        INSTANCES.remove(pooled.backend);
+    }
+
+    /**
+     * Closes the given {@code pooled} back-end.
+     *
+     * @param pooled the pooled back-end
+     */
+    private static void close(PooledBackend pooled) {
+        if (!pooled.backend.isClosed()) {
+            pooled.backend.close();
+            NeoLogger.info("{0} closed from pool: {1}", PersistenceBackend.class.getSimpleName(), pooled.key);
+        }
+    }
+
+    /**
+     * Returns the canonical path of the given {@code location}, used to identify the back-ends.
+     *
+     * @param location the location of a back-end
+     *
+     * @return the canonical path, or the absolute path if it cannot be resolved
+     */
+    private static String canonicalPath(File location) {
+        try {
+            return location.getCanonicalPath();
+        }
+        catch (IOException e) {
+            return location.getAbsolutePath();
+        }
+    }
+
+    /**
+     * A {@link PersistenceBackend} of this pool, with its reference count.
+     */
+    private static final class PooledBackend {
+
+        /**
+         * The canonical path of the location of the back-end.
+         */
+        private final String key;
+
+        /**
+         * The shared back-end.
+         */
+        private final PersistenceBackend backend;
+
+        /**
+         * The number of users of the back-end.
+         */
+        private int references;
+
+        /**
+         * The scheduled closing of the back-end, if it is idle.
+         */
+        private ScheduledFuture<?> closeTask;
+
+        /**
+         * Constructs a new {@code PooledBackend}.
+         *
+         * @param key     the canonical path of the location of the back-end
+         * @param backend the shared back-end
+         */
+        private PooledBackend(String key, PersistenceBackend backend) {
+            this.key = key;
+            this.backend = backend;
+        }
+
+        /**
+         * Adds a user to the back-end, and cancels its closing if it was idle.
+         */
+        private void retain() {
+            cancelClose();
+            references++;
+        }
+
+        /**
+         * Removes a user of the back-end.
+         *
+         * @return the number of remaining users
+         */
+        private int release() {
+            checkState(references > 0, "The back-end has already been released");
+            return --references;
+        }
+
+        /**
+         * Cancels the scheduled closing of the back-end, if any.
+         */
+        private void cancelClose() {
+            if (nonNull(closeTask)) {
+                closeTask.cancel(false);
+                closeTask = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data;
+
+import fr.inria.atlanmod.neoemf.data.structure.ClassInfo;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureCardinality;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EStructuralFeature;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.nonNull;
+
+/**
+ * An in-memory table of statistics about the content of a {@link PersistenceBackend}: the number of instances of each
+ * concrete {@link EClass}, and the cardinality of each multi-valued {@link EStructuralFeature}.
+ * <p>
+ * The table is maintained incrementally by the back-end that owns it, and is persisted by this back-end as a flat
+ * {@link Map} (see {@link #asMap()} and {@link #load(Map)}). A table is either tracking a category of statistics from
+ * the creation of the database, or does not know it at all: a table loaded from a database created before the
+ * statistics existed, or modified without going through its back-end, has to be rebuilt before being queried.
+ */
+public class StatisticsTable {
+
+    /**
+     * The prefix of the keys holding the number of instances of a class.
+     */
+    private static final String KEY_INSTANCES = "instances:";
+
+    /**
+     * The prefix of the keys holding the sum of the sizes of the lists of a feature.
+     */
+    private static final String KEY_TOTAL_SIZE = "totalSize:";
+
+    /**
+     * The prefix of the keys holding the largest size reached by a list of a feature.
+     */
+    private static final String KEY_MAX_SIZE = "maxSize:";
+
+    /**
+     * The key indicating that the instances are counted.
+     */
+    private static final String KEY_TRACKING_INSTANCES = "tracking:instances";
+
+    /**
+     * The key indicating that the cardinalities of the features are tracked.
+     */
+    private static final String KEY_TRACKING_FEATURES = "tracking:features";
+
+    /**
+     * The statistics, identified by their key.
+     */
+    private final Map<String, Long> entries = new ConcurrentHashMap<>();
+
+    /**
+     * In-memory cache that holds the {@link EClass}es resolved from the keys of {@link #entries}.
+     */
+    private final Map<String, EClass> resolvedClasses = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new empty {@code StatisticsTable}, which does not track anything.
+     */
+    public StatisticsTable() {
+    }
+
+    /**
+     * Builds the key used to identify the given {@code eClass}.
+     *
+     * @param eClass the class
+     *
+     * @return the key
+     */
+    private static String keyOf(EClass eClass) {
+        return KEY_INSTANCES + eClass.getEPackage().getNsURI() + '#' + eClass.getName();
+    }
+
+    /**
+     * Builds the key used to identify the given {@code classInfo}.
+     *
+     * @param classInfo the class
+     *
+     * @return the key
+     */
+    private static String keyOf(ClassInfo classInfo) {
+        return KEY_INSTANCES + classInfo.uri() + '#' + classInfo.name();
+    }
+
+    /**
+     * Builds the suffix of the keys used to identify the given {@code feature}.
+     *
+     * @param feature the feature
+     *
+     * @return the suffix
+     */
+    private static String keyOf(EStructuralFeature feature) {
+        EClass eClass = feature.getEContainingClass();
+        return eClass.getEPackage().getNsURI() + '#' + eClass.getName() + '.' + feature.getName();
+    }
+
+    /**
+     * Replaces the content of this table by the given {@code statistics}, as returned by {@link #asMap()}.
+     *
+     * @param statistics the statistics to load
+     */
+    public void load(Map<String, Long> statistics) {
+        entries.clear();
+        entries.putAll(statistics);
+    }
+
+    /**
+     * Merges the given {@code statistics}, as returned by {@link #asMap()}, into this table, because the content of
+     * the database they describe has been copied into the database of the back-end.
+     * <p>
+     * Instance counts and total sizes are summed, and maximum sizes are combined. A category of statistics remains
+     * tracked only if it is tracked by both tables.
+     *
+     * @param statistics the statistics to merge
+     */
+    public void merge(Map<String, Long> statistics) {
+        for (String key : new String[]{KEY_TRACKING_INSTANCES, KEY_TRACKING_FEATURES}) {
+            if (!statistics.containsKey(key)) {
+                entries.remove(key);
+            }
+        }
+        for (Map.Entry<String, Long> entry : statistics.entrySet()) {
+            String key = entry.getKey();
+            if (key.startsWith(KEY_INSTANCES) || key.startsWith(KEY_TOTAL_SIZE)) {
+                entries.merge(key, entry.getValue(), Long::sum);
+            }
+            else if (key.startsWith(KEY_MAX_SIZE)) {
+                entries.merge(key, entry.getValue(), Math::max);
+            }
+        }
+    }
+
+    /**
+     * Returns a read-only view of the content of this table, which can be persisted and then re-loaded with {@link
+     * #load(Map)}.
+     *
+     * @return a {@link Map} view of this table
+     */
+    public Map<String, Long> asMap() {
+        return Collections.unmodifiableMap(entries);
+    }
+
+    /**
+     * Clears this table and starts counting the instances from scratch. The cardinalities of the features are only
+     * tracked once {@link #trackFeatures()} has been called.
+     * <p>
+     * This method must only be called when the database of the back-end is empty.
+     */
+    public void reset() {
+        entries.clear();
+        entries.put(KEY_TRACKING_INSTANCES, 1L);
+    }
+
+    /**
+     * Starts tracking the cardinalities of the multi-valued features, if no instance has been counted yet: the
+     * cardinalities of a non-empty database cannot be known without reading all its lists.
+     *
+     * @return {@code true} if the cardinalities are tracked by this table
+     */
+    public boolean trackFeatures() {
+        if (!isTrackingFeatures() && isTrackingInstances() && entries.keySet().stream().noneMatch(k -> k.startsWith(KEY_INSTANCES))) {
+            entries.put(KEY_TRACKING_FEATURES, 1L);
+        }
+        return isTrackingFeatures();
+    }
+
+    /**
+     * Clears this table and stops tracking any statistic, for instance because the database of the back-end is going
+     * to be modified without notifying this table.
+     */
+    public void invalidate() {
+        entries.clear();
+    }
+
+    /**
+     * Returns whether the instances of each class are counted by this table.
+     *
+     * @return {@code true} if the instances are counted
+     */
+    public boolean isTrackingInstances() {
+        return entries.containsKey(KEY_TRACKING_INSTANCES);
+    }
+
+    /**
+     * Returns whether the cardinalities of the multi-valued features are tracked by this table.
+     *
+     * @return {@code true} if the cardinalities are tracked
+     */
+    public boolean isTrackingFeatures() {
+        return entries.containsKey(KEY_TRACKING_FEATURES);
+    }
+
+    /**
+     * Rebuilds the instance counts of this table from the given {@code metaclasses}, and starts tracking them.
+     *
+     * @param metaclasses the metaclass of each object stored in the database
+     */
+    public void rebuildInstances(Iterable<ClassInfo> metaclasses) {
+        entries.keySet().removeIf(k -> k.startsWith(KEY_INSTANCES));
+        for (ClassInfo classInfo : metaclasses) {
+            entries.merge(keyOf(classInfo), 1L, Long::sum);
+        }
+        entries.put(KEY_TRACKING_INSTANCES, 1L);
+    }
+
+    /**
+     * Records that a new object of the given {@code metaclass} has been stored.
+     *
+     * @param metaclass the metaclass of the new object
+     */
+    public void instanceCreated(ClassInfo metaclass) {
+        if (isTrackingInstances()) {
+            entries.merge(keyOf(metaclass), 1L, Long::sum);
+        }
+    }
+
+    /**
+     * Records that an object of the given {@code metaclass} has been deleted.
+     *
+     * @param metaclass the metaclass of the deleted object
+     */
+    public void instanceDeleted(ClassInfo metaclass) {
+        if (isTrackingInstances()) {
+            entries.computeIfPresent(keyOf(metaclass), (k, v) -> v > 1 ? v - 1 : null);
+        }
+    }
+
+    /**
+     * Returns the number of instances of the given {@code eClass}.
+     *
+     * @param eClass the class to count the instances of
+     * @param strict {@code true} if only the strict instances are counted, {@code false} to include the instances of
+     *               its sub-classes
+     *
+     * @return the number of instances
+     *
+     * @throws IllegalStateException if the instances are not counted by this table
+     */
+    public long countInstances(EClass eClass, boolean strict) {
+        checkState(isTrackingInstances(), "The instances are not counted");
+
+        if (strict) {
+            return entries.getOrDefault(keyOf(eClass), 0L);
+        }
+
+        long count = 0;
+        for (Map.Entry<String, Long> entry : entries.entrySet()) {
+            if (entry.getKey().startsWith(KEY_INSTANCES)) {
+                EClass instanceClass = resolve(entry.getKey());
+                if (nonNull(instanceClass) && eClass.isSuperTypeOf(instanceClass)) {
+                    count += entry.getValue();
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Records that the size of a list of the given {@code feature} has changed.
+     * <p>
+     * Features that do not belong to a metaclass, such as the contents of a resource, are not tracked.
+     *
+     * @param feature the multi-valued feature
+     * @param delta   the number of elements added (or removed, if negative) to the list
+     * @param size    the size of the list after the change, or {@code -1} if it is unknown
+     */
+    public void updateCardinality(EStructuralFeature feature, int delta, int size) {
+        if (isTrackingFeatures() && nonNull(feature.getEContainingClass())) {
+            String key = keyOf(feature);
+            if (delta != 0) {
+                entries.merge(KEY_TOTAL_SIZE + key, (long) delta, (a, b) -> Math.max(0, a + b));
+            }
+            if (size > 0) {
+                entries.merge(KEY_MAX_SIZE + key, (long) size, Math::max);
+            }
+        }
+    }
+
+    /**
+     * Returns the cardinality of the given multi-valued {@code feature}.
+     *
+     * @param feature the multi-valued feature
+     *
+     * @return the cardinality of the feature
+     *
+     * @throws UnsupportedOperationException if the cardinalities are not tracked by this table
+     * @throws IllegalStateException         if the instances are not counted by this table
+     */
+    public FeatureCardinality cardinalityOf(EStructuralFeature feature) {
+        if (!isTrackingFeatures()) {
+            throw new UnsupportedOperationException("The cardinalities of the features are not tracked");
+        }
+
+        String key = keyOf(feature);
+        return FeatureCardinality.of(
+                countInstances(feature.getEContainingClass(), false),
+                entries.getOrDefault(KEY_TOTAL_SIZE + key, 0L),
+                entries.getOrDefault(KEY_MAX_SIZE + key, 0L).intValue());
+    }
+
+    /**
+     * Retrieves the {@link EClass} identified by the given instance {@code key}.
+     *
+     * @param key the key of the class
+     *
+     * @return the class, or {@code null} if it cannot be found
+     */
+    private EClass resolve(String key) {
+        return resolvedClasses.computeIfAbsent(key, k -> {
+            int separator = k.lastIndexOf('#');
+            String uri = k.substring(KEY_INSTANCES.length(), separator);
+            String name = k.substring(separator + 1);
+            return ClassInfo.of(name, uri).eClass();
+        });
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+
+package fr.inria.atlanmod.neoemf.data.commit;
+
+import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
+
+/**
+ * A {@link CommitPolicy} that adapts the number of modifications between two commits according to the measured
+ * duration of the commits.
+ * <p>
+ * The number of modifications starts at {@link #INITIAL_OPERATIONS}. It is doubled when a commit lasts less than half
+ * of the target duration, because small commits waste synchronizations with the disk, and it is halved when a commit
+ * lasts more than twice the target duration, because the pending modifications are then too large. The adapted
+ * number is kept by each {@link CommitTracker}.
+ *
+ * @see CommitPolicy#adaptive(long)
+ */
+final class AdaptiveCommitPolicy implements CommitPolicy {
+
+    /**
+     * The initial number of modifications between two commits.
+     */
+    static final long INITIAL_OPERATIONS = 10000;
+
+    /**
+     * The minimum number of modifications between two commits.
+     */
+    static final long MIN_OPERATIONS = 100;
+
+    /**
+     * The maximum number of modifications between two commits.
+     */
+    static final long MAX_OPERATIONS = 10000000;
+
+    /**
+     * The expected duration of a commit, in milliseconds.
+     */
+    private final long targetMillis;
+
+    /**
+     * Constructs a new {@code AdaptiveCommitPolicy}.
+     *
+     * @param targetMillis the expected duration of a commit, in milliseconds
+     */
+    AdaptiveCommitPolicy(long targetMillis) {
+        this.targetMillis = targetMillis;
+    }
+
+    @Override
+    public boolean shouldCommit(CommitTracker tracker) {
+        if (tracker.threshold() == 0) {
+            tracker.threshold(INITIAL_OPERATIONS);
+        }
+        return tracker.operations() >= tracker.threshold();
+    }
+
+    @Override
+    public void committed(CommitTracker tracker, long millis) {
+        long threshold = tracker.threshold() == 0 ? INITIAL_OPERATIONS : tracker.threshold();
+        long adapted = threshold;
+        if (millis < targetMillis / 2) {
+            adapted = Math.min(MAX_OPERATIONS, threshold * 2);
+        }
+        else if (millis > targetMillis * 2) {
+            adapted = Math.max(MIN_OPERATIONS, threshold / 2);
+        }
+
+        if (adapted != threshold) {
+            NeoLogger.debug("Commit of {0} operations lasted {1} ms: committing every {2} operations", tracker.operations(), millis, adapted);
+        }
+        tracker.threshold(adapted);
+    }
+}
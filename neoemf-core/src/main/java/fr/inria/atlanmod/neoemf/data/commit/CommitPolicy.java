@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.commit;
+
+import javax.annotation.Nonnull;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A policy that decides when the pending modifications of a persistence back-end must be committed.
+ * <p>
+ * A policy is consulted by a {@link CommitTracker} after each modification, and is notified after each commit. A
+ * policy does not hold any state itself: the number of modifications, the time and the size of the pending
+ * modifications are measured by the tracker, so the same policy can be shared by several stores and handlers.
+ *
+ * @see fr.inria.atlanmod.neoemf.data.store.AutocommitStoreDecorator
+ * @see fr.inria.atlanmod.neoemf.option.PersistentResourceOptions#COMMIT_POLICY
+ */
+@FunctionalInterface
+public interface CommitPolicy {
+
+    /**
+     * Creates a policy that commits every {@code operations} modifications.
+     *
+     * @param operations the number of modifications between two commits
+     *
+     * @return a new policy
+     */
+    @Nonnull
+    static CommitPolicy everyOperations(long operations) {
+        checkArgument(operations > 0, "operations must be > 0");
+        return tracker -> tracker.operations() >= operations;
+    }
+
+    /**
+     * Creates a policy that commits the pending modifications when they are older than {@code millis} milliseconds.
+     *
+     * @param millis the maximum time, in milliseconds, between the first pending modification and the commit
+     *
+     * @return a new policy
+     */
+    @Nonnull
+    static CommitPolicy everyMillis(long millis) {
+        checkArgument(millis > 0, "millis must be > 0");
+        return tracker -> tracker.elapsedMillis() >= millis;
+    }
+
+    /**
+     * Creates a policy that commits when the pending modifications hold more than {@code bytes} bytes in memory, as
+     * estimated from the written values.
+     *
+     * @param bytes the maximum size, in bytes, of the pending modifications
+     *
+     * @return a new policy
+     *
+     * @see CommitTracker#uncommittedBytes()
+     */
+    @Nonnull
+    static CommitPolicy everyBytes(long bytes) {
+        checkArgument(bytes > 0, "bytes must be > 0");
+        return tracker -> tracker.uncommittedBytes() >= bytes;
+    }
+
+    /**
+     * Creates a policy that adapts the number of modifications between two commits, so that a commit lasts about
+     * {@code targetMillis} milliseconds.
+     *
+     * @param targetMillis the expected duration of a commit, in milliseconds
+     *
+     * @return a new policy
+     *
+     * @see AdaptiveCommitPolicy
+     */
+    @Nonnull
+    static CommitPolicy adaptive(long targetMillis) {
+        checkArgument(targetMillis > 0, "targetMillis must be > 0");
+        return new AdaptiveCommitPolicy(targetMillis);
+    }
+
+    /**
+     * Returns whether the pending modifications measured by the given {@code tracker} must be committed.
+     *
+     * @param tracker the tracker of the pending modifications
+     *
+     * @return {@code true} if the pending modifications must be committed
+     */
+    boolean shouldCommit(CommitTracker tracker);
+
+    /**
+     * Notifies this policy that the modifications measured by the given {@code tracker} have been committed, before
+     * the tracker is reset.
+     * <p>
+     * By default, does nothing.
+     *
+     * @param tracker the tracker of the committed modifications
+     * @param millis  the duration of the commit, in milliseconds
+     */
+    default void committed(CommitTracker tracker, long millis) {
+    }
+
+    /**
+     * Creates a policy that commits when this policy, or the {@code other} policy, decides to commit.
+     *
+     * @param other the other policy
+     *
+     * @return a new policy
+     */
+    @Nonnull
+    default CommitPolicy or(CommitPolicy other) {
+        requireNonNull(other);
+        CommitPolicy self = this;
+        return new CommitPolicy() {
+            @Override
+            public boolean shouldCommit(CommitTracker tracker) {
+                return self.shouldCommit(tracker) || other.shouldCommit(tracker);
+            }
+
+            @Override
+            public void committed(CommitTracker tracker, long millis) {
+                self.committed(tracker, millis);
+                other.committed(tracker, millis);
+            }
+        };
+    }
+}
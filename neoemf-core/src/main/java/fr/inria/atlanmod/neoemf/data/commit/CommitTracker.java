@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+
+package fr.inria.atlanmod.neoemf.data.commit;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A tracker of the modifications made on a persistence back-end since its last commit, that commits them as soon as
+ * its {@link CommitPolicy} decides to.
+ * <p>
+ * Each modification must be {@link #record(Object) recorded}. The tracker measures the number of pending
+ * modifications, their age and their size, and consults its policy after each of them.
+ * <p>
+ * <b>Note:</b> This class is not thread-safe.
+ */
+public class CommitTracker {
+
+    /**
+     * The estimated size of a modification in memory, without its value, in bytes.
+     */
+    private static final long OPERATION_SIZE = 64;
+
+    /**
+     * The estimated size of a value that is neither a string nor a collection, in bytes.
+     */
+    private static final long VALUE_SIZE = 16;
+
+    /**
+     * The policy that decides when to commit.
+     */
+    private final CommitPolicy policy;
+
+    /**
+     * The action that commits the pending modifications.
+     */
+    private final Runnable commit;
+
+    /**
+     * The number of pending modifications.
+     */
+    private long operations;
+
+    /**
+     * The estimated size of the pending modifications, in bytes.
+     */
+    private long estimatedBytes;
+
+    /**
+     * The time of the first pending modification, as returned by {@link System#nanoTime()}.
+     */
+    private long firstOperationTime;
+
+    /**
+     * A number of modifications between commits that a policy can adapt from one commit to another, or {@code 0} if it
+     * has not been defined yet.
+     *
+     * @see AdaptiveCommitPolicy
+     */
+    private long threshold;
+
+    /**
+     * Constructs a new {@code CommitTracker}.
+     *
+     * @param policy the policy that decides when to commit
+     * @param commit the action that commits the pending modifications
+     */
+    public CommitTracker(CommitPolicy policy, Runnable commit) {
+        this.policy = requireNonNull(policy);
+        this.commit = requireNonNull(commit);
+    }
+
+    /**
+     * Records a modification that writes the given {@code value}, and commits the pending modifications if the policy
+     * decides to.
+     *
+     * @param value the written value, or {@code null} if the modification does not write any value
+     */
+    public void record(Object value) {
+        record(1, value);
+    }
+
+    /**
+     * Records a bulk modification that counts as the given number of {@code operations}, such as the addition of
+     * several values to a list, and commits the pending modifications if the policy decides to.
+     *
+     * @param operations the number of modifications, at least {@code 1}
+     * @param value      the written value, or {@code null} if the modification does not write any value
+     */
+    public void record(long operations, Object value) {
+        if (this.operations == 0) {
+            firstOperationTime = System.nanoTime();
+        }
+        long count = Math.max(1, operations);
+        this.operations += count;
+        estimatedBytes += OPERATION_SIZE * count + sizeOf(value);
+
+        if (policy.shouldCommit(this)) {
+            commit();
+        }
+    }
+
+    /**
+     * Commits the pending modifications, notifies the policy, and resets this tracker.
+     */
+    public void commit() {
+        long start = System.nanoTime();
+        commit.run();
+        policy.committed(this, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        reset();
+    }
+
+    /**
+     * Resets this tracker without committing, because the pending modifications have been committed by another way.
+     */
+    public void reset() {
+        operations = 0;
+        estimatedBytes = 0;
+    }
+
+    /**
+     * Returns the number of pending modifications.
+     *
+     * @return the number of pending modifications
+     */
+    public long operations() {
+        return operations;
+    }
+
+    /**
+     * Returns the time elapsed since the first pending modification.
+     *
+     * @return the time in milliseconds, or {@code 0} if there is no pending modification
+     */
+    public long elapsedMillis() {
+        return operations == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - firstOperationTime);
+    }
+
+    /**
+     * Returns the estimated size of the pending modifications in memory.
+     * <p>
+     * The size is estimated from the recorded values only: none of the supported databases exposes the size of its
+     * pending modifications, so the memory actually used by the database can differ from this estimate.
+     *
+     * @return the estimated size in bytes
+     */
+    public long uncommittedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * Returns the number of modifications between commits adapted by the policy.
+     *
+     * @return the number of modifications, or {@code 0} if it has not been defined yet
+     */
+    long threshold() {
+        return threshold;
+    }
+
+    /**
+     * Defines the number of modifications between commits adapted by the policy.
+     *
+     * @param threshold the number of modifications
+     */
+    void threshold(long threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Estimates the size in memory of the given {@code value}.
+     *
+     * @param value the value
+     *
+     * @return the estimated size in bytes
+     */
+    private static long sizeOf(Object value) {
+        if (value instanceof CharSequence) {
+            return 2L * ((CharSequence) value).length();
+        }
+        else if (value instanceof Collection) {
+            return VALUE_SIZE * ((Collection<?>) value).size();
+        }
+        return VALUE_SIZE;
+    }
+}
@@ -0,0 +1,551 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.journal;
+
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.core.StringId;
+import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.isNull;
+
+/**
+ * An append-only file recording the mutations of a store, as a sequence of {@link JournalEntry}.
+ * <p>
+ * Mutations are {@link #record(JournalEntry.Operation, Id, String, int, int, String, boolean) recorded} in memory, and
+ * written at the end of the file, in a single write, when they are {@link #commit() committed}. The file therefore only
+ * contains committed mutations, in the order they have been applied to the store, and each entry is numbered with a
+ * sequence number that follows the one of the previous entry. The size of the pending entries is {@link
+ * #pendingBytes() tracked}, so that their owner can commit them in bounded batches.
+ * <p>
+ * The file can be {@link #read(File, long, int) read} from any offset, while it is written: a consumer tails the
+ * journal by resuming from the {@link JournalEntry#nextOffset()} of the last entry it has read. A partially written
+ * entry, e.g. after a crash, is never returned, and is truncated when the journal is opened again.
+ * <p>
+ * This class is not thread-safe, but the commits of the journals opened on the same file are serialized.
+ */
+public class Journal implements Closeable {
+
+    /**
+     * The offset of the first entry of any journal, i.e. the size of its header.
+     */
+    public static final long FIRST_OFFSET = Integer.BYTES * 2;
+
+    /**
+     * The magic number identifying a journal file.
+     */
+    private static final int MAGIC = 0x4E454A4C;
+
+    /**
+     * The version of the format of the entries.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The size of the length prefix of each entry.
+     */
+    private static final int LENGTH_SIZE = Integer.BYTES;
+
+    /**
+     * The kind of an absent value.
+     */
+    private static final byte NO_VALUE = 0;
+
+    /**
+     * The kind of the literal of an attribute value.
+     */
+    private static final byte LITERAL_VALUE = 1;
+
+    /**
+     * The kind of the literal of the identifier of a referenced object.
+     */
+    private static final byte REFERENCE_VALUE = 2;
+
+    /**
+     * The canonical paths of the opened journals, used as monitors to serialize their commits.
+     */
+    private static final Interner<String> PATHS = Interners.newWeakInterner();
+
+    /**
+     * The journal file.
+     */
+    @Nonnull
+    private final File file;
+
+    /**
+     * The channel used to append the committed entries.
+     */
+    @Nonnull
+    private final FileChannel channel;
+
+    /**
+     * The monitor shared by all the journals opened on the same file, in this JVM.
+     */
+    @Nonnull
+    private final Object lock;
+
+    /**
+     * The serialized bodies of the recorded entries that have not been committed yet, without their sequence number.
+     */
+    private final List<byte[]> pending = new ArrayList<>();
+
+    /**
+     * The total size of the {@link #pending} entries, in bytes.
+     */
+    private long pendingBytes;
+
+    /**
+     * The sequence number of the last committed entry.
+     */
+    private long committedSequence;
+
+    /**
+     * The offset following the last committed entry known by this journal.
+     */
+    private long endOffset = FIRST_OFFSET;
+
+    /**
+     * Whether this journal has been closed.
+     */
+    private boolean closed;
+
+    /**
+     * Opens the journal stored in the given {@code file}, creating it if it does not exist.
+     * <p>
+     * The existing entries are scanned to resume the sequence numbers, and a partially written entry at the end of the
+     * file is truncated.
+     * <p>
+     * Several journals can be opened on the same file, e.g. by a resource and its forks: the sequence numbers are
+     * assigned when the entries are committed, after the entries committed by the other journals.
+     *
+     * @param file the journal file
+     *
+     * @throws IOException if the file cannot be opened, or is not a journal
+     */
+    public Journal(@Nonnull File file) throws IOException {
+        this.file = checkNotNull(file);
+        this.lock = PATHS.intern(file.getCanonicalPath());
+
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (!parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Unable to create the directory " + parent);
+        }
+
+        @SuppressWarnings("resource")
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        this.channel = raf.getChannel();
+
+        try {
+            synchronized (lock) {
+                if (channel.size() < FIRST_OFFSET) {
+                    channel.truncate(0);
+                    writeHeader();
+                }
+                else {
+                    checkHeader();
+                    recover();
+                }
+                endOffset = channel.size();
+            }
+        }
+        catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads at most {@code max} committed entries of the journal stored in the given {@code file}, starting from the
+     * given {@code offset}.
+     * <p>
+     * An entry that is not completely written is ignored: it will be returned by a later call, once committed.
+     *
+     * @param file   the journal file
+     * @param offset the offset of the first entry to read, either {@link #FIRST_OFFSET} or the {@link
+     *               JournalEntry#nextOffset()} of a previously read entry
+     * @param max    the maximum number of entries to read
+     *
+     * @return an immutable list of entries, empty if there is no entry after {@code offset}
+     *
+     * @throws IOException if the file cannot be read, or is not a journal
+     */
+    @Nonnull
+    public static List<JournalEntry> read(File file, @Nonnegative long offset, @Nonnegative int max) throws IOException {
+        checkArgument(offset >= FIRST_OFFSET, "offset (%s) must be >= %s", offset, FIRST_OFFSET);
+        checkArgument(max >= 0, "max (%s) must not be negative", max);
+
+        if (!file.exists()) {
+            return Collections.emptyList();
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            if (raf.length() < FIRST_OFFSET) {
+                // The header is being written
+                return Collections.emptyList();
+            }
+            if (raf.readInt() != MAGIC) {
+                throw new IOException(file + " is not a journal");
+            }
+
+            List<JournalEntry> entries = new ArrayList<>();
+            long length = raf.length();
+            long position = offset;
+            while (entries.size() < max && position + LENGTH_SIZE <= length) {
+                raf.seek(position);
+                int size = raf.readInt();
+                long next = position + LENGTH_SIZE + size;
+                if (size <= 0 || next > length) {
+                    break;
+                }
+
+                byte[] bytes = new byte[size];
+                raf.readFully(bytes);
+                entries.add(decode(bytes, position, next));
+                position = next;
+            }
+            return Collections.unmodifiableList(entries);
+        }
+    }
+
+    /**
+     * Returns the journal file.
+     *
+     * @return the file
+     */
+    @Nonnull
+    public File file() {
+        return file;
+    }
+
+    /**
+     * Returns the sequence number of the last committed entry.
+     *
+     * @return the sequence number, or {@code 0} if the journal is empty
+     */
+    @Nonnegative
+    public long lastSequence() {
+        return committedSequence;
+    }
+
+    /**
+     * Returns the number of recorded entries that have not been committed yet.
+     *
+     * @return the number of pending entries
+     */
+    @Nonnegative
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Returns the size of the recorded entries that have not been committed yet, as they will be written in the
+     * journal.
+     *
+     * @return the number of pending bytes
+     */
+    @Nonnegative
+    public long pendingBytes() {
+        return pendingBytes;
+    }
+
+    /**
+     * Records a mutation, that will be written in the journal on the next {@link #commit()}.
+     *
+     * @param operation   the type of the mutation
+     * @param id          the identifier of the mutated object
+     * @param feature     the name of the mutated feature
+     * @param index       the index of the mutated value
+     * @param sourceIndex the source index of a moved value
+     * @param value       the literal of the written value, or {@code null}
+     * @param reference   whether the {@code value} is the identifier of a referenced object
+     */
+    public void record(JournalEntry.Operation operation, Id id, String feature, int index, int sourceIndex, @Nullable String value, boolean reference) {
+        checkState(!closed, "The journal is closed");
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(body)) {
+            out.writeByte(operation.ordinal());
+            writeString(out, id.toString());
+            writeString(out, feature);
+            out.writeInt(index);
+            out.writeInt(sourceIndex);
+            if (isNull(value)) {
+                out.writeByte(NO_VALUE);
+            }
+            else {
+                out.writeByte(reference ? REFERENCE_VALUE : LITERAL_VALUE);
+                writeString(out, value);
+            }
+        }
+        catch (IOException e) {
+            // Never happens with in-memory streams
+            throw new IllegalStateException(e);
+        }
+        byte[] bytes = body.toByteArray();
+        pending.add(bytes);
+        pendingBytes += LENGTH_SIZE + Long.BYTES + bytes.length;
+    }
+
+    /**
+     * Appends all the recorded entries to the journal, in a single write, and forces them to the storage device.
+     *
+     * @throws IOException if the entries cannot be written; they are kept pending, so the commit can be retried
+     */
+    public void commit() throws IOException {
+        checkState(!closed, "The journal is closed");
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        synchronized (lock) {
+            // Skips the entries committed by the other journals opened on the same file
+            endOffset = scan(endOffset);
+            if (channel.size() > endOffset) {
+                channel.truncate(endOffset);
+            }
+
+            long sequence = committedSequence;
+            ByteArrayOutputStream entries = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(entries)) {
+                for (byte[] body : pending) {
+                    out.writeInt(Long.BYTES + body.length);
+                    out.writeLong(++sequence);
+                    out.write(body);
+                }
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(entries.toByteArray());
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer, endOffset + buffer.position());
+                }
+                channel.force(false);
+            }
+            catch (IOException e) {
+                // Removes a partial write, so that the retried entries follow the last committed one
+                channel.truncate(endOffset);
+                throw e;
+            }
+
+            committedSequence = sequence;
+            endOffset += entries.size();
+        }
+        discard();
+    }
+
+    /**
+     * Discards all the recorded entries that have not been committed yet.
+     */
+    public void discard() {
+        pending.clear();
+        pendingBytes = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The recorded entries that have not been committed are discarded.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            discard();
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes the header of a new journal.
+     *
+     * @throws IOException if the header cannot be written
+     */
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate((int) FIRST_OFFSET);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        channel.force(false);
+    }
+
+    /**
+     * Checks the header of an existing journal.
+     *
+     * @throws IOException if the file is not a journal, or if its version is not supported
+     */
+    private void checkHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate((int) FIRST_OFFSET);
+        readFully(header, 0);
+        header.flip();
+
+        if (header.getInt() != MAGIC) {
+            throw new IOException(file + " is not a journal");
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported version " + version + " of the journal " + file);
+        }
+    }
+
+    /**
+     * Scans the existing entries to retrieve the last sequence number, and truncates a partially written entry at the
+     * end of the file.
+     *
+     * @throws IOException if the file cannot be read
+     */
+    private void recover() throws IOException {
+        long length = channel.size();
+        long position = scan(FIRST_OFFSET);
+
+        if (position < length) {
+            NeoLogger.warn("Truncating {0} bytes of a partially written entry of {1}", length - position, file);
+            channel.truncate(position);
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Scans the complete entries following the given {@code position}, and updates the sequence number of the last
+     * committed entry.
+     *
+     * @param position the offset of the first entry to scan
+     *
+     * @return the offset following the last complete entry
+     *
+     * @throws IOException if the file cannot be read
+     */
+    private long scan(long position) throws IOException {
+        long length = channel.size();
+        ByteBuffer prefix = ByteBuffer.allocate(LENGTH_SIZE + Long.BYTES);
+
+        while (position + prefix.capacity() <= length) {
+            prefix.clear();
+            readFully(prefix, position);
+            prefix.flip();
+
+            int size = prefix.getInt();
+            long next = position + LENGTH_SIZE + size;
+            if (size <= 0 || next > length) {
+                break;
+            }
+
+            committedSequence = prefix.getLong();
+            position = next;
+        }
+        return position;
+    }
+
+    /**
+     * Fills the given {@code buffer} with the content of the journal, starting from the given {@code position}.
+     *
+     * @param buffer   the buffer to fill
+     * @param position the position in the journal
+     *
+     * @throws IOException if the end of the journal is reached before the buffer is filled
+     */
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    /**
+     * Decodes the body of an entry.
+     *
+     * @param bytes      the body of the entry, without its length prefix
+     * @param offset     the offset of the entry
+     * @param nextOffset the offset of the following entry
+     *
+     * @return the decoded entry
+     *
+     * @throws IOException if the body is malformed
+     */
+    @Nonnull
+    private static JournalEntry decode(byte[] bytes, long offset, long nextOffset) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            long sequence = in.readLong();
+            int ordinal = in.readByte();
+            JournalEntry.Operation[] operations = JournalEntry.Operation.values();
+            if (ordinal < 0 || ordinal >= operations.length) {
+                throw new IOException("Unknown operation " + ordinal + " at offset " + offset);
+            }
+
+            Id id = new StringId(readString(in));
+            String feature = readString(in);
+            int index = in.readInt();
+            int sourceIndex = in.readInt();
+            byte kind = in.readByte();
+            String value = kind == NO_VALUE ? null : readString(in);
+
+            return new JournalEntry(sequence, offset, nextOffset, operations[ordinal], id, feature, index, sourceIndex, value, kind == REFERENCE_VALUE);
+        }
+    }
+
+    /**
+     * Writes a string as its length followed by its UTF-8 bytes, without the size limit of {@link
+     * DataOutputStream#writeUTF(String)}.
+     *
+     * @param out   the stream to write to
+     * @param value the string to write
+     *
+     * @throws IOException if the string cannot be written
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutputStream, String)}.
+     *
+     * @param in the stream to read from
+     *
+     * @return the string
+     *
+     * @throws IOException if the string cannot be read
+     */
+    @Nonnull
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.journal;
+
+import fr.inria.atlanmod.neoemf.core.Id;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A mutation of a feature of an object, as read from a {@link Journal}.
+ * <p>
+ * The value of an attribute is represented by its literal, as returned by {@link
+ * org.eclipse.emf.ecore.util.EcoreUtil#convertToString(org.eclipse.emf.ecore.EDataType, Object)}, and the value of a
+ * reference by the literal of the {@link Id} of the referenced object. The creation of an object is recorded as a {@link
+ * Operation#CREATE} entry, before the first mutation that refers to it.
+ */
+public class JournalEntry {
+
+    /**
+     * The sequence number of this entry in its journal.
+     */
+    private final long sequence;
+
+    /**
+     * The position of this entry in its journal.
+     */
+    private final long offset;
+
+    /**
+     * The position of the entry following this one in its journal.
+     */
+    private final long nextOffset;
+
+    /**
+     * The type of the mutation.
+     */
+    @Nonnull
+    private final Operation operation;
+
+    /**
+     * The identifier of the mutated object.
+     */
+    @Nonnull
+    private final Id id;
+
+    /**
+     * The name of the mutated feature.
+     */
+    @Nonnull
+    private final String feature;
+
+    /**
+     * The index of the mutated value.
+     */
+    private final int index;
+
+    /**
+     * The source index of a moved value.
+     */
+    private final int sourceIndex;
+
+    /**
+     * The literal of the written value.
+     */
+    @Nullable
+    private final String value;
+
+    /**
+     * Whether the {@link #value} is the identifier of a referenced object.
+     */
+    private final boolean reference;
+
+    /**
+     * Constructs a new {@code JournalEntry}.
+     *
+     * @param sequence    the sequence number of this entry
+     * @param offset      the position of this entry in its journal
+     * @param nextOffset  the position of the following entry in its journal
+     * @param operation   the type of the mutation
+     * @param id          the identifier of the mutated object
+     * @param feature     the name of the mutated feature
+     * @param index       the index of the mutated value
+     * @param sourceIndex the source index of a moved value
+     * @param value       the literal of the written value
+     * @param reference   whether the {@code value} is the identifier of a referenced object
+     */
+    JournalEntry(long sequence, long offset, long nextOffset, Operation operation, Id id, String feature, int index, int sourceIndex, @Nullable String value, boolean reference) {
+        this.sequence = sequence;
+        this.offset = offset;
+        this.nextOffset = nextOffset;
+        this.operation = checkNotNull(operation);
+        this.id = checkNotNull(id);
+        this.feature = checkNotNull(feature);
+        this.index = index;
+        this.sourceIndex = sourceIndex;
+        this.value = value;
+        this.reference = reference;
+    }
+
+    /**
+     * Returns the sequence number of this entry: the entries of a journal are numbered from {@code 1}, without gaps.
+     *
+     * @return the sequence number
+     */
+    @Nonnegative
+    public long sequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns the position of this entry in its journal.
+     *
+     * @return the offset of this entry
+     */
+    @Nonnegative
+    public long offset() {
+        return offset;
+    }
+
+    /**
+     * Returns the position of the entry following this one in its journal, from which a consumer can resume reading.
+     *
+     * @return the offset of the following entry
+     *
+     * @see Journal#read(java.io.File, long, int)
+     */
+    @Nonnegative
+    public long nextOffset() {
+        return nextOffset;
+    }
+
+    /**
+     * Returns the type of the mutation.
+     *
+     * @return the operation
+     */
+    @Nonnull
+    public Operation operation() {
+        return operation;
+    }
+
+    /**
+     * Returns the identifier of the mutated object.
+     *
+     * @return the identifier
+     */
+    @Nonnull
+    public Id id() {
+        return id;
+    }
+
+    /**
+     * Returns the name of the mutated feature.
+     *
+     * @return the name of the feature
+     */
+    @Nonnull
+    public String feature() {
+        return feature;
+    }
+
+    /**
+     * Returns the index of the mutated value, or the target index of a moved value.
+     *
+     * @return the index, or {@link fr.inria.atlanmod.neoemf.data.store.PersistentStore#NO_INDEX} if the feature is
+     * single-valued, or if the value is appended
+     */
+    public int index() {
+        return index;
+    }
+
+    /**
+     * Returns the source index of a moved value.
+     *
+     * @return the source index, or {@link fr.inria.atlanmod.neoemf.data.store.PersistentStore#NO_INDEX} if the
+     * operation is not a {@link Operation#MOVE}
+     */
+    public int sourceIndex() {
+        return sourceIndex;
+    }
+
+    /**
+     * Returns the literal of the written value.
+     *
+     * @return the literal, or {@code null} if the operation does not write any value
+     */
+    @Nullable
+    public String value() {
+        return value;
+    }
+
+    /**
+     * Returns whether the {@link #value()} is the literal of the {@link Id} of a referenced object.
+     *
+     * @return {@code true} if the mutated feature is a reference
+     */
+    public boolean isReference() {
+        return reference;
+    }
+
+    @Override
+    public String toString() {
+        return "JE:" + sequence + '{' + operation + ' ' + id + '.' + feature + '[' + index + "] = " + value + '}';
+    }
+
+    /**
+     * The type of a mutation.
+     * <p>
+     * The bulk mutations of a store are journaled as several simple ones: adding several values is journaled as
+     * {@link #ADD}s, removing a range of values as {@link #REMOVE}s, and replacing the content of a feature as a
+     * {@link #CLEAR} followed by {@link #ADD}s.
+     * <p>
+     * New operations are only appended, so that the journals written by a previous version remain readable.
+     */
+    public enum Operation {
+
+        /**
+         * The value of a single-valued feature, or the value at an index of a multi-valued feature, is replaced.
+         */
+        SET,
+
+        /**
+         * The feature is unset.
+         */
+        UNSET,
+
+        /**
+         * A value is inserted at an index of a multi-valued feature.
+         */
+        ADD,
+
+        /**
+         * The value at an index of a multi-valued feature is removed.
+         */
+        REMOVE,
+
+        /**
+         * A value of a multi-valued feature is moved from a source index to a target index.
+         */
+        MOVE,
+
+        /**
+         * All the values of a multi-valued feature are removed.
+         */
+        CLEAR,
+
+        /**
+         * An object is created in the store. The feature is empty, and the value is the literal of the {@link
+         * org.eclipse.emf.common.util.URI} of its metaclass, as returned by {@link
+         * org.eclipse.emf.ecore.util.EcoreUtil#getURI(org.eclipse.emf.ecore.EObject)}.
+         */
+        CREATE
+    }
+}
@@ -11,12 +11,22 @@
 
 package fr.inria.atlanmod.neoemf.data.store;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import fr.inria.atlanmod.neoemf.core.Id;
 import fr.inria.atlanmod.neoemf.core.PersistentEObject;
 import fr.inria.atlanmod.neoemf.data.PersistenceBackend;
+import fr.inria.atlanmod.neoemf.data.structure.AncestorInfo;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureCardinality;
+import fr.inria.atlanmod.neoemf.data.structure.InverseReferenceInfo;
 
+import org.eclipse.emf.common.util.Enumerator;
 import org.eclipse.emf.ecore.EAttribute;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.EEnum;
+import org.eclipse.emf.ecore.EEnumLiteral;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EReference;
 import org.eclipse.emf.ecore.EStructuralFeature;
@@ -24,9 +34,18 @@ import org.eclipse.emf.ecore.InternalEObject;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.util.EcoreUtil;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import javax.annotation.Nullable;
 
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 /**
  * An abstract {@link DirectWriteStore} that redirects certain methods according to the instance of the encountered
@@ -37,6 +56,30 @@ import static java.util.Objects.isNull;
  */
 public abstract class AbstractDirectWriteStore<P extends PersistenceBackend> extends AbstractPersistentStore implements DirectWriteStore {
 
+    /**
+     * The Java types whose instances are stored as they are, without being converted to a string literal.
+     *
+     * @see #serializeToProperty(EAttribute, Object)
+     */
+    private static final Set<Class<?>> NATIVE_TYPES = new HashSet<>(Arrays.asList(
+            String.class,
+            boolean.class, Boolean.class,
+            byte.class, Byte.class,
+            char.class, Character.class,
+            short.class, Short.class,
+            int.class, Integer.class,
+            long.class, Long.class,
+            float.class, Float.class,
+            double.class, Double.class));
+
+    /**
+     * The descriptions of the features of each metaclass, indexed by their feature identifier. Arrays are filled
+     * lazily, and are dropped with their metaclass.
+     *
+     * @see #slotOf(EClass, int)
+     */
+    private static final Cache<EClass, FeatureSlot[]> SLOTS = Caffeine.newBuilder().weakKeys().build();
+
     /**
      * The persistence back-end used to store the model.
      */
@@ -99,7 +142,11 @@ public abstract class AbstractDirectWriteStore<P extends PersistenceBackend> ext
     public Object set(InternalEObject internalObject, EStructuralFeature feature, int index, Object value) {
         PersistentEObject object = PersistentEObject.from(internalObject);
         if (feature instanceof EAttribute) {
-            return setAttribute(object, (EAttribute) feature, index, value);
+            Object old = setAttribute(object, (EAttribute) feature, index, value);
+            if (isIndexed(feature)) {
+                backend.attributeChanged(object.id(), (EAttribute) feature, old, value);
+            }
+            return old;
         }
         else {
             PersistentEObject referencedObject = PersistentEObject.from(value);
@@ -137,12 +184,18 @@ public abstract class AbstractDirectWriteStore<P extends PersistenceBackend> ext
     @Override
     public void unset(InternalEObject internalObject, EStructuralFeature feature) {
         PersistentEObject object = PersistentEObject.from(internalObject);
+        int size = sizeOfMany(internalObject, feature);
+        Object old = isIndexed(feature) ? getAttribute(object, (EAttribute) feature, NO_INDEX) : null;
         if (feature instanceof EAttribute) {
             unsetAttribute(object, (EAttribute) feature);
         }
         else {
             unsetReference(object, (EReference) feature);
         }
+        updateCardinality(feature, -size, -1);
+        if (nonNull(old)) {
+            backend.attributeChanged(object.id(), (EAttribute) feature, old, null);
+        }
     }
 
     @Override
@@ -232,6 +285,9 @@ public abstract class AbstractDirectWriteStore<P extends PersistenceBackend> ext
             PersistentEObject referencedObject = PersistentEObject.from(value);
             addReference(object, (EReference) feature, index, referencedObject);
         }
+        if (isTrackingCardinality(feature)) {
+            updateCardinality(feature, 1, index == NO_INDEX ? size(internalObject, feature) : index + 1);
+        }
     }
 
     /**
@@ -245,12 +301,15 @@ public abstract class AbstractDirectWriteStore<P extends PersistenceBackend> ext
     @Override
     public Object remove(InternalEObject internalObject, EStructuralFeature feature, int index) {
         PersistentEObject object = PersistentEObject.from(internalObject);
+        Object previousValue;
         if (feature instanceof EAttribute) {
-            return removeAttribute(object, (EAttribute) feature, index);
+            previousValue = removeAttribute(object, (EAttribute) feature, index);
         }
         else {
-            return removeReference(object, (EReference) feature, index);
+            previousValue = removeReference(object, (EReference) feature, index);
         }
+        updateCardinality(feature, -1, -1);
+        return previousValue;
     }
 
     @Override
@@ -271,16 +330,24 @@ public abstract class AbstractDirectWriteStore<P extends PersistenceBackend> ext
     @Override
     public void clear(InternalEObject internalObject, EStructuralFeature feature) {
         PersistentEObject object = PersistentEObject.from(internalObject);
+        int size = sizeOfMany(internalObject, feature);
         if (feature instanceof EAttribute) {
             clearAttribute(object, (EAttribute) feature);
         }
         else {
             clearReference(object, (EReference) feature);
         }
+        updateCardinality(feature, -size, -1);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * By default, calls {@link #get(InternalEObject, EStructuralFeature, int)} for each index. Stores should override
+     * this method to fetch the whole content of the feature with a single back-end call.
+     */
     @Override
-    public Object[] toArray(InternalEObject internalObject, EStructuralFeature feature) {
+    public Object[] getAll(InternalEObject internalObject, EStructuralFeature feature) {
         int size = size(internalObject, feature);
         Object[] array = new Object[size];
         for (int index = 0; index < size; index++) {
@@ -289,14 +356,26 @@ public abstract class AbstractDirectWriteStore<P extends PersistenceBackend> ext
         return array;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Delegates to {@link #getAll(InternalEObject, EStructuralFeature)}.
+     */
+    @Override
+    public Object[] toArray(InternalEObject internalObject, EStructuralFeature feature) {
+        return getAll(internalObject, feature);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Delegates to {@link #getAll(InternalEObject, EStructuralFeature)}.
+     */
     @Override
-    @SuppressWarnings("unchecked") // Unchecked cast 'Object' to 'T'
     public <T> T[] toArray(InternalEObject internalObject, EStructuralFeature feature, T[] array) {
-        int size = size(internalObject, feature);
-        array = array.length < size ? Arrays.copyOf(array, size) : array;
-        for (int index = 0; index < size; index++) {
-            array[index] = (T) get(internalObject, feature, index);
-        }
+        Object[] values = getAll(internalObject, feature);
+        array = array.length < values.length ? Arrays.copyOf(array, values.length) : array;
+        System.arraycopy(values, 0, array, 0, values.length);
         return array;
     }
 
@@ -305,6 +384,103 @@ public abstract class AbstractDirectWriteStore<P extends PersistenceBackend> ext
         return Arrays.hashCode(toArray(internalObject, feature));
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Delegates to {@link PersistenceBackend#countInstances(EClass, boolean)}.
+     */
+    @Override
+    public long countInstances(EClass eClass, boolean strict) {
+        return backend.countInstances(eClass, strict);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Delegates to {@link PersistenceBackend#cardinalityOf(EStructuralFeature)}.
+     */
+    @Override
+    public FeatureCardinality cardinalityOf(EStructuralFeature feature) {
+        return backend.cardinalityOf(feature);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Delegates to {@link PersistenceBackend#ancestorsOf(Id)}.
+     */
+    @Override
+    public AncestorInfo ancestorsOf(Id id) {
+        return backend.ancestorsOf(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Delegates to {@link PersistenceBackend#descendantsOf(Id)}.
+     */
+    @Override
+    public List<Id> descendantsOf(Id id) {
+        return backend.descendantsOf(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Delegates to {@link PersistenceBackend#findBy(EAttribute, Object)}.
+     */
+    @Override
+    public List<Id> findBy(EAttribute attribute, Object value) {
+        return backend.findBy(attribute, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Delegates to {@link PersistenceBackend#findByRange(EAttribute, Object, Object)}.
+     */
+    @Override
+    public List<Id> findByRange(EAttribute attribute, Object from, Object to) {
+        return backend.findByRange(attribute, from, to);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Delegates to {@link PersistenceBackend#findByPrefix(EAttribute, String)}.
+     */
+    @Override
+    public List<Id> findByPrefix(EAttribute attribute, String prefix) {
+        return backend.findByPrefix(attribute, prefix);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The referencing objects are read with {@link PersistenceBackend#inverseReferencesOf(Id)}, and resolved with
+     * {@link #eObject(Id)}. An object that references the given object several times with the same reference gives a
+     * single setting.
+     */
+    @Override
+    public Collection<EStructuralFeature.Setting> getInverseReferences(InternalEObject internalObject, @Nullable EReference reference) {
+        InverseReferenceInfo info = backend.inverseReferencesOf(PersistentEObject.from(internalObject).id());
+
+        Set<String> occurrences = new HashSet<>();
+        List<EStructuralFeature.Setting> settings = new ArrayList<>(info.size());
+        for (int i = 0; i < info.size(); i++) {
+            String name = info.referenceAt(i);
+            if (nonNull(reference) && !Objects.equals(reference.getName(), name) || !occurrences.add(info.sourceAt(i) + "." + name)) {
+                continue;
+            }
+            InternalEObject source = (InternalEObject) eObject(info.sourceAt(i));
+            EStructuralFeature feature = isNull(source) ? null : source.eClass().getEStructuralFeature(name);
+            if (nonNull(feature) && (isNull(reference) || feature == reference)) {
+                settings.add(source.eSetting(feature));
+            }
+        }
+        return settings;
+    }
+
     @Override
     public EObject create(EClass eClass) {
         throw new IllegalStateException("This method should not be called");
@@ -597,30 +773,314 @@ public abstract class AbstractDirectWriteStore<P extends PersistenceBackend> ext
     }
 
     /**
-     * Creates an instance of the {@code attribute}.
+     * Returns the size of the list of the given {@code feature} before it is reset, in order to keep the statistics of
+     * the back-end up to date. The list is not read if the back-end does not track its cardinality.
+     *
+     * @param internalObject the object owning the feature
+     * @param feature        the feature
+     *
+     * @return the size of the list, or {@code 0} if the {@code feature} is single-valued or not tracked
+     *
+     * @see #updateCardinality(EStructuralFeature, int, int)
+     */
+    protected int sizeOfMany(InternalEObject internalObject, EStructuralFeature feature) {
+        return isTrackingCardinality(feature) ? size(internalObject, feature) : 0;
+    }
+
+    /**
+     * Returns whether the back-end tracks the cardinality of the given {@code feature}, and thus has to be notified of
+     * the size changes of its lists.
+     *
+     * @param feature the feature
+     *
+     * @return {@code true} if the {@code feature} is multi-valued and its cardinality is tracked
+     *
+     * @see PersistenceBackend#isTrackingCardinalities()
+     */
+    protected boolean isTrackingCardinality(EStructuralFeature feature) {
+        return feature.isMany() && backend.isTrackingCardinalities();
+    }
+
+    /**
+     * Notifies the back-end that the size of a list of the given {@code feature} has changed. Does nothing if the
+     * {@code feature} is single-valued.
+     * <p>
+     * Sub-classes that override {@link #add(InternalEObject, EStructuralFeature, int, Object)}, {@link
+     * #remove(InternalEObject, EStructuralFeature, int)}, {@link #clear(InternalEObject, EStructuralFeature)}, {@link
+     * #unset(InternalEObject, EStructuralFeature)} or one of the bulk operations of {@link PersistentStore} must call
+     * this method themselves.
+     *
+     * @param feature the feature
+     * @param delta   the number of elements added (or removed, if negative) to the list
+     * @param size    the size of the list after the change, or {@code -1} if it is unknown
+     *
+     * @see PersistenceBackend#updateCardinality(EStructuralFeature, int, int)
+     */
+    protected void updateCardinality(EStructuralFeature feature, int delta, int size) {
+        if (isTrackingCardinality(feature)) {
+            backend.updateCardinality(feature, delta, size);
+        }
+    }
+
+    /**
+     * Returns whether the values of the given {@code feature} are indexed by the back-end, and must be notified with
+     * {@link PersistenceBackend#attributeChanged(Id, EAttribute, Object, Object)} when they change.
+     * <p>
+     * Sub-classes that override {@link #set(InternalEObject, EStructuralFeature, int, Object)} or {@link
+     * #unset(InternalEObject, EStructuralFeature)} must notify the back-end themselves.
+     *
+     * @param feature the feature
+     *
+     * @return {@code true} if the {@code feature} is a single-valued attribute indexed by the back-end
+     *
+     * @see PersistenceBackend#isIndexed(EAttribute)
+     */
+    protected boolean isIndexed(EStructuralFeature feature) {
+        return feature instanceof EAttribute && !feature.isMany() && backend.isIndexed((EAttribute) feature);
+    }
+
+    /**
+     * Returns the description of the feature identified by {@code featureId} in the {@code eClass}.
+     * <p>
+     * The description is computed on the first access, and then shared by all the stores: concurrent accesses can
+     * compute it more than once, but always to an equivalent value.
+     *
+     * @param eClass    the metaclass
+     * @param featureId the identifier of the feature in the {@code eClass}
+     *
+     * @return the description of the feature
+     *
+     * @see EClass#getEStructuralFeature(int)
+     */
+    protected static FeatureSlot slotOf(EClass eClass, int featureId) {
+        FeatureSlot[] slots = SLOTS.get(eClass, c -> new FeatureSlot[c.getFeatureCount()]);
+        FeatureSlot slot = slots[featureId];
+        if (isNull(slot)) {
+            slot = new FeatureSlot(eClass.getEStructuralFeature(featureId));
+            slots[featureId] = slot;
+        }
+        return slot;
+    }
+
+    /**
+     * Creates an instance of the attribute described by the {@code slot} from its stored {@code property}.
+     * <p>
+     * Properties of data types with a native representation are returned without looking at the data type again.
+     * Any other property is parsed by {@link #parseProperty(EAttribute, Object)}.
+     *
+     * @param slot     the description of the attribute to instantiate
+     * @param property the stored value of the attribute
+     *
+     * @return an instance of the attribute
+     */
+    protected Object parseProperty(FeatureSlot slot, Object property) {
+        if (slot.isNative() && (slot.isString() || !(property instanceof String))) {
+            return property;
+        }
+        return parseProperty((EAttribute) slot.feature(), property);
+    }
+
+    /**
+     * Converts an instance of the attribute described by the {@code slot} to the value to store.
+     * <p>
+     * Values of data types with a native representation are returned as they are. Any other value is converted by
+     * {@link #serializeToProperty(EAttribute, Object)}.
+     *
+     * @param slot  the description of the attribute
+     * @param value a value of the attribute
+     *
+     * @return the value to store
+     */
+    protected Object serializeToProperty(FeatureSlot slot, Object value) {
+        return slot.isNative() ? value : serializeToProperty((EAttribute) slot.feature(), value);
+    }
+
+    /**
+     * Creates an instance of the {@code attribute} from its stored {@code property}.
+     * <p>
+     * Values of data types with a native representation (see {@link #serializeToProperty(EAttribute, Object)}) are
+     * returned as they are stored. String literals, written by custom data types or by the previous versions of
+     * NeoEMF for all data types, are still parsed with {@link EcoreUtil#createFromString(EDataType, String)}.
      *
      * @param attribute the attribute to instantiate
-     * @param property  the string value of the attribute
+     * @param property  the stored value of the attribute
      *
      * @return an instance of the attribute
      *
      * @see EcoreUtil#createFromString(EDataType, String)
      */
     protected Object parseProperty(EAttribute attribute, Object property) {
-        return isNull(property) ? null : EcoreUtil.createFromString(attribute.getEAttributeType(), property.toString());
+        if (isNull(property)) {
+            return null;
+        }
+
+        EDataType type = attribute.getEAttributeType();
+        if (property instanceof String) {
+            return type.getInstanceClass() == String.class ? property : EcoreUtil.createFromString(type, (String) property);
+        }
+        else if (type instanceof EEnum && property instanceof Integer) {
+            EEnumLiteral literal = ((EEnum) type).getEEnumLiteral((Integer) property);
+            return isNull(literal) ? null : literal.getInstance();
+        }
+        return property;
     }
 
     /**
-     * Converts an instance of the {@code attribute} to a string literal representation.
+     * Converts an instance of the {@code attribute} to the value to store.
+     * <p>
+     * Values of data types mapped to a Java primitive type, its wrapper or {@link String} are stored as they are,
+     * and enumeration literals are stored as their {@link Enumerator#getValue() integer value}, so that they can be
+     * read back without parsing. Values of any other data type are converted to their string literal
+     * representation.
      *
      * @param attribute the attribute to instantiate
      * @param value     a value of the attribute
      *
-     * @return the string literal representation of the value
+     * @return the value to store
      *
      * @see EcoreUtil#convertToString(EDataType, Object)
      */
     protected Object serializeToProperty(EAttribute attribute, Object value) {
+        if (isNull(value)) {
+            return null;
+        }
+
+        EDataType type = attribute.getEAttributeType();
+        if (NATIVE_TYPES.contains(type.getInstanceClass())) {
+            return value;
+        }
+        else if (type instanceof EEnum && value instanceof Enumerator) {
+            return ((Enumerator) value).getValue();
+        }
+        return EcoreUtil.convertToString(type, value);
+    }
+
+    /**
+     * Converts an instance of the {@code attribute} to its string literal representation, as stored by the previous
+     * versions of NeoEMF.
+     * <p>
+     * This method is used to look for a value in a multi-valued attribute of an existing store, which can still
+     * contain values written before their native representation was used.
+     *
+     * @param attribute the attribute to instantiate
+     * @param value     a value of the attribute
+     *
+     * @return the string literal representation of the value
+     *
+     * @see EcoreUtil#convertToString(EDataType, Object)
+     */
+    protected Object serializeToLegacyProperty(EAttribute attribute, Object value) {
         return isNull(value) ? null : EcoreUtil.convertToString(attribute.getEAttributeType(), value);
     }
+
+    /**
+     * The description of a {@link EStructuralFeature} of a metaclass, computed once and used to access its values
+     * without inspecting the feature and its type on each access.
+     *
+     * @see #slotOf(EClass, int)
+     */
+    protected static final class FeatureSlot {
+
+        /**
+         * The described feature.
+         */
+        private final EStructuralFeature feature;
+
+        /**
+         * The name of the feature, used as key in the back-ends.
+         */
+        private final String name;
+
+        /**
+         * Whether the feature is an {@link EAttribute}.
+         */
+        private final boolean isAttribute;
+
+        /**
+         * Whether the feature is multi-valued.
+         */
+        private final boolean isMany;
+
+        /**
+         * Whether the values of the feature are stored as they are.
+         */
+        private final boolean isNative;
+
+        /**
+         * Whether the values of the feature are {@link String}s.
+         */
+        private final boolean isString;
+
+        /**
+         * Constructs a new {@code FeatureSlot} describing the given {@code feature}.
+         *
+         * @param feature the feature to describe
+         */
+        private FeatureSlot(EStructuralFeature feature) {
+            this.feature = feature;
+            this.name = feature.getName();
+            this.isAttribute = feature instanceof EAttribute;
+            this.isMany = feature.isMany();
+
+            Class<?> type = isAttribute ? ((EAttribute) feature).getEAttributeType().getInstanceClass() : null;
+            this.isNative = NATIVE_TYPES.contains(type);
+            this.isString = type == String.class;
+        }
+
+        /**
+         * Returns the described feature.
+         *
+         * @return the feature
+         */
+        public EStructuralFeature feature() {
+            return feature;
+        }
+
+        /**
+         * Returns the name of the feature.
+         *
+         * @return the name
+         */
+        public String name() {
+            return name;
+        }
+
+        /**
+         * Returns whether the feature is an {@link EAttribute}.
+         *
+         * @return {@code true} if the feature is an attribute
+         */
+        public boolean isAttribute() {
+            return isAttribute;
+        }
+
+        /**
+         * Returns whether the feature is multi-valued.
+         *
+         * @return {@code true} if the feature is multi-valued
+         */
+        public boolean isMany() {
+            return isMany;
+        }
+
+        /**
+         * Returns whether the values of the feature are stored as they are.
+         *
+         * @return {@code true} if the values have a native representation
+         *
+         * @see AbstractDirectWriteStore#serializeToProperty(EAttribute, Object)
+         */
+        public boolean isNative() {
+            return isNative;
+        }
+
+        /**
+         * Returns whether the values of the feature are {@link String}s.
+         *
+         * @return {@code true} if the values are strings
+         */
+        public boolean isString() {
+            return isString;
+        }
+    }
 }
@@ -12,14 +12,23 @@
 package fr.inria.atlanmod.neoemf.data.store;
 
 import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.structure.AncestorInfo;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureCardinality;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureKey;
 
 import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EAttribute;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.InternalEObject;
 import org.eclipse.emf.ecore.resource.Resource;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
 /**
  * An abstract {@link PersistentStore} wrapper that delegates method calls to an internal {@link PersistentStore}.
  */
@@ -104,6 +113,21 @@ public abstract class AbstractPersistentStoreDecorator extends AbstractPersisten
         store.clear(internalObject, feature);
     }
 
+    @Override
+    public void addAll(InternalEObject internalObject, EStructuralFeature feature, int index, Collection<?> values) {
+        store.addAll(internalObject, feature, index, values);
+    }
+
+    @Override
+    public void removeRange(InternalEObject internalObject, EStructuralFeature feature, int fromIndex, int toIndex) {
+        store.removeRange(internalObject, feature, fromIndex, toIndex);
+    }
+
+    @Override
+    public void setAll(InternalEObject internalObject, EStructuralFeature feature, Collection<?> values) {
+        store.setAll(internalObject, feature, values);
+    }
+
     @Override
     public Object[] toArray(InternalEObject internalObject, EStructuralFeature feature) {
         return store.toArray(internalObject, feature);
@@ -114,6 +138,16 @@ public abstract class AbstractPersistentStoreDecorator extends AbstractPersisten
         return store.toArray(internalObject, feature, array);
     }
 
+    @Override
+    public Object[] getAll(InternalEObject internalObject, EStructuralFeature feature) {
+        return store.getAll(internalObject, feature);
+    }
+
+    @Override
+    public List<List<EObject>> eContents(List<? extends InternalEObject> objects) {
+        return store.eContents(objects);
+    }
+
     @Override
     public int hashCode(InternalEObject internalObject, EStructuralFeature feature) {
         return store.hashCode(internalObject, feature);
@@ -144,13 +178,73 @@ public abstract class AbstractPersistentStoreDecorator extends AbstractPersisten
         return store.eObject(id);
     }
 
+    @Override
+    public List<EObject> eObjects(Collection<Id> ids) {
+        return store.eObjects(ids);
+    }
+
     @Override
     public EList<EObject> getAllInstances(EClass eClass, boolean strict) {
         return store.getAllInstances(eClass, strict);
     }
 
+    @Override
+    public long countInstances(EClass eClass, boolean strict) {
+        return store.countInstances(eClass, strict);
+    }
+
+    @Override
+    public FeatureCardinality cardinalityOf(EStructuralFeature feature) {
+        return store.cardinalityOf(feature);
+    }
+
+    @Override
+    public AncestorInfo ancestorsOf(Id id) {
+        return store.ancestorsOf(id);
+    }
+
+    @Override
+    public List<Id> descendantsOf(Id id) {
+        return store.descendantsOf(id);
+    }
+
+    @Override
+    public List<Id> findBy(EAttribute attribute, Object value) {
+        return store.findBy(attribute, value);
+    }
+
+    @Override
+    public List<Id> findByRange(EAttribute attribute, Object from, Object to) {
+        return store.findByRange(attribute, from, to);
+    }
+
+    @Override
+    public List<Id> findByPrefix(EAttribute attribute, String prefix) {
+        return store.findByPrefix(attribute, prefix);
+    }
+
+    @Override
+    public Collection<EStructuralFeature.Setting> getInverseReferences(InternalEObject internalObject, EReference reference) {
+        return store.getInverseReferences(internalObject, reference);
+    }
+
+    @Override
+    public boolean isCachingInObjects() {
+        return store.isCachingInObjects();
+    }
+
+    @Override
+    public void invalidate(Set<FeatureKey> featureKeys) {
+        store.invalidate(featureKeys);
+    }
+
     @Override
     public void save() {
         store.save();
     }
+
+    @Override
+    public void close() {
+        store.close();
+    }
 }
@@ -11,31 +11,36 @@
 
 package fr.inria.atlanmod.neoemf.data.store;
 
+import fr.inria.atlanmod.neoemf.data.commit.CommitPolicy;
+import fr.inria.atlanmod.neoemf.data.commit.CommitTracker;
 import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
 
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.InternalEObject;
 import org.eclipse.emf.ecore.InternalEObject.EStore;
 
+import java.util.Collection;
+
 /**
  * A {@link PersistentStore} wrapper that automatically saves modifications as calls are made.
+ * <p>
+ * The modifications are committed according to a {@link CommitPolicy}, by default every {@value
+ * #OPS_BETWEEN_COMMITS_DEFAULT} modifications. A bulk modification counts as one modification per written or removed
+ * value.
+ *
+ * @see fr.inria.atlanmod.neoemf.option.PersistentResourceOptions#COMMIT_POLICY
  */
 public class AutocommitStoreDecorator extends AbstractPersistentStoreDecorator {
 
     /**
      * Default number of allowed modifications (100000) between commits on the underlying {@link EStore}.
      */
-    private static final long OPS_BETWEEN_COMMITS_DEFAULT = 100000;
-
-    /**
-     * Number of allowed modifications between commits on the underlying {@link EStore} for this store.
-     */
-    private final long opsBetweenCommits;
+    public static final long OPS_BETWEEN_COMMITS_DEFAULT = 100000;
 
     /**
-     * Current number of modifications modulo {@link #opsBetweenCommits}.
+     * The tracker of the modifications made since the last commit.
      */
-    private long opCount;
+    private final CommitTracker tracker;
 
     /**
      * Constructs a new {@code AutocommitStoreDecorator} with the given {@code opsBetweenCommits}.
@@ -44,9 +49,7 @@ public class AutocommitStoreDecorator extends AbstractPersistentStoreDecorator {
      * @param opsBetweenCommits the number of modifications between commit
      */
     public AutocommitStoreDecorator(PersistentStore store, long opsBetweenCommits) {
-        super(store);
-        this.opCount = 0;
-        this.opsBetweenCommits = opsBetweenCommits;
+        this(store, CommitPolicy.everyOperations(opsBetweenCommits));
         NeoLogger.info("{0} chunk = {1}", getClass().getSimpleName(), opsBetweenCommits);
     }
 
@@ -59,68 +62,104 @@ public class AutocommitStoreDecorator extends AbstractPersistentStoreDecorator {
         this(store, OPS_BETWEEN_COMMITS_DEFAULT);
     }
 
+    /**
+     * Constructs a new {@code AutocommitStoreDecorator} with the given commit {@code policy}.
+     *
+     * @param store  the underlying store
+     * @param policy the policy that decides when to commit
+     */
+    public AutocommitStoreDecorator(PersistentStore store, CommitPolicy policy) {
+        super(store);
+        this.tracker = new CommitTracker(policy, this::commit);
+    }
+
     @Override
     public Object set(InternalEObject internalObject, EStructuralFeature feature, int index, Object value) {
         Object old = super.set(internalObject, feature, index, value);
-        incrementAndCommit();
+        tracker.record(value);
         return old;
     }
 
     @Override
     public void unset(InternalEObject internalObject, EStructuralFeature feature) {
         super.unset(internalObject, feature);
-        incrementAndCommit();
+        tracker.record(null);
     }
 
     @Override
     public void add(InternalEObject internalObject, EStructuralFeature feature, int index, Object value) {
         super.add(internalObject, feature, index, value);
-        incrementAndCommit();
+        tracker.record(value);
     }
 
     @Override
     public Object remove(InternalEObject internalObject, EStructuralFeature feature, int index) {
         Object old = super.remove(internalObject, feature, index);
-        incrementAndCommit();
+        tracker.record(null);
         return old;
     }
 
     @Override
     public Object move(InternalEObject internalObject, EStructuralFeature feature, int targetIndex, int sourceIndex) {
         Object old = super.move(internalObject, feature, targetIndex, sourceIndex);
-        incrementAndCommit();
+        tracker.record(null);
         return old;
     }
 
     @Override
     public void clear(InternalEObject internalObject, EStructuralFeature feature) {
         super.clear(internalObject, feature);
-        incrementAndCommit();
+        tracker.record(null);
+    }
+
+    @Override
+    public void addAll(InternalEObject internalObject, EStructuralFeature feature, int index, Collection<?> values) {
+        super.addAll(internalObject, feature, index, values);
+        tracker.record(values.size(), values);
+    }
+
+    @Override
+    public void removeRange(InternalEObject internalObject, EStructuralFeature feature, int fromIndex, int toIndex) {
+        super.removeRange(internalObject, feature, fromIndex, toIndex);
+        tracker.record(toIndex - fromIndex, null);
+    }
+
+    @Override
+    public void setAll(InternalEObject internalObject, EStructuralFeature feature, Collection<?> values) {
+        super.setAll(internalObject, feature, values);
+        tracker.record(values.size(), values);
     }
 
     /**
-     * Increments the number of operation, and commits if necessary, i.e when {@code opCount % opsBetweenCommits == 0}.
+     * {@inheritDoc}
+     * <p>
+     * The policy is notified of this commit.
      */
-    private void incrementAndCommit() {
-        opCount = (opCount + 1) % opsBetweenCommits;
-        if (opCount == 0) {
-            this.save();
-        }
+    @Override
+    public void save() {
+        tracker.commit();
+    }
+
+    /**
+     * Commits the modifications in the underlying store.
+     */
+    private void commit() {
+        super.save();
     }
 
     /**
      * {@inheritDoc}
      * <p>
-     * In our case, it commits the last modifications.
+     * Commits the last modifications before closing the underlying store.
      */
     @Override
-    protected void finalize() throws Throwable {
+    public void close() {
         try {
             this.save();
         }
         catch (Exception e) {
             NeoLogger.error(e);
         }
-        super.finalize();
+        super.close();
     }
 }
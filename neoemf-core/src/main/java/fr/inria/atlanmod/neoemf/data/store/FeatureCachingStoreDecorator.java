@@ -12,14 +12,17 @@
 package fr.inria.atlanmod.neoemf.data.store;
 
 import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 
 import fr.inria.atlanmod.neoemf.data.structure.FeatureKey;
 import fr.inria.atlanmod.neoemf.data.structure.MultivaluedFeatureKey;
+import fr.inria.atlanmod.neoemf.util.cache.CacheGovernor;
 
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.InternalEObject;
 
+import java.util.Collection;
+import java.util.Set;
+
 /**
  * A {@link PersistentStore} wrapper that caches {@link EStructuralFeature}.
  */
@@ -53,18 +56,18 @@ public class FeatureCachingStoreDecorator extends AbstractPersistentStoreDecorat
      */
     public FeatureCachingStoreDecorator(PersistentStore store, int cacheSize) {
         super(store);
-        this.objectsCache = Caffeine.newBuilder().maximumSize(cacheSize).build();
+        this.objectsCache = CacheGovernor.getInstance().newCache(cacheSize);
     }
 
     @Override
     public Object get(InternalEObject internalObject, EStructuralFeature feature, int index) {
-        FeatureKey featureKey = MultivaluedFeatureKey.from(internalObject, feature, index);
+        FeatureKey featureKey = keyOf(internalObject, feature, index);
         return objectsCache.get(featureKey, key -> super.get(internalObject, feature, index));
     }
 
     @Override
     public Object set(InternalEObject internalObject, EStructuralFeature feature, int index, Object value) {
-        FeatureKey featureKey = MultivaluedFeatureKey.from(internalObject, feature, index);
+        FeatureKey featureKey = keyOf(internalObject, feature, index);
         Object old = super.set(internalObject, feature, index, value);
         objectsCache.put(featureKey, value);
         return old;
@@ -72,14 +75,15 @@ public class FeatureCachingStoreDecorator extends AbstractPersistentStoreDecorat
 
     @Override
     public void unset(InternalEObject internalObject, EStructuralFeature feature) {
+        int size = feature.isMany() ? size(internalObject, feature) : 0;
+        super.unset(internalObject, feature);
         if (!feature.isMany()) {
             FeatureKey featureKey = FeatureKey.from(internalObject, feature);
             objectsCache.invalidate(featureKey);
         }
         else {
-            invalidateValues(internalObject, feature, 0);
+            invalidateValues(internalObject, feature, 0, size);
         }
-        super.unset(internalObject, feature);
     }
 
     @Override
@@ -112,6 +116,49 @@ public class FeatureCachingStoreDecorator extends AbstractPersistentStoreDecorat
         invalidateValues(internalObject, feature, 0);
     }
 
+    @Override
+    public void addAll(InternalEObject internalObject, EStructuralFeature feature, int index, Collection<?> values) {
+        int firstIndex = index == NO_INDEX ? size(internalObject, feature) : index;
+        super.addAll(internalObject, feature, index, values);
+        invalidateValues(internalObject, feature, firstIndex);
+    }
+
+    @Override
+    public void removeRange(InternalEObject internalObject, EStructuralFeature feature, int fromIndex, int toIndex) {
+        int size = size(internalObject, feature);
+        super.removeRange(internalObject, feature, fromIndex, toIndex);
+        invalidateValues(internalObject, feature, fromIndex, size);
+    }
+
+    @Override
+    public void setAll(InternalEObject internalObject, EStructuralFeature feature, Collection<?> values) {
+        int size = Math.max(size(internalObject, feature), values.size());
+        super.setAll(internalObject, feature, values);
+        invalidateValues(internalObject, feature, 0, size);
+    }
+
+    @Override
+    public void invalidate(Set<FeatureKey> featureKeys) {
+        super.invalidate(featureKeys);
+        objectsCache.asMap().keySet().removeIf(key -> featureKeys.contains(key.withoutPosition()));
+    }
+
+    /**
+     * Returns the key identifying the value at the given {@code index} of the {@code feature}, or the single value of
+     * the {@code feature} if {@code index} is {@link #NO_INDEX}.
+     *
+     * @param internalObject the concerned object
+     * @param feature        the feature of the {@code internalObject}
+     * @param index          the position of the value
+     *
+     * @return the key of the value
+     */
+    private FeatureKey keyOf(InternalEObject internalObject, EStructuralFeature feature, int index) {
+        return index == NO_INDEX
+                ? FeatureKey.from(internalObject, feature)
+                : MultivaluedFeatureKey.from(internalObject, feature, index);
+    }
+
     /**
      * Remove cached elements, from an initial {@code index} to the size of an element.
      *
@@ -127,4 +174,19 @@ public class FeatureCachingStoreDecorator extends AbstractPersistentStoreDecorat
             objectsCache.invalidate(featureKey.withPosition(i));
         }
     }
+
+    /**
+     * Remove cached elements, from an initial {@code fromIndex}, inclusive, to a final {@code toIndex}, exclusive.
+     *
+     * @param internalObject the concerned object
+     * @param feature        the feature of the {@code internalObject}
+     * @param fromIndex      the index from which to start the removing
+     * @param toIndex        the index at which to stop the removing
+     */
+    private void invalidateValues(InternalEObject internalObject, EStructuralFeature feature, int fromIndex, int toIndex) {
+        FeatureKey featureKey = FeatureKey.from(internalObject, feature);
+        for (int i = fromIndex; i < toIndex; i++) {
+            objectsCache.invalidate(featureKey.withPosition(i));
+        }
+    }
 }
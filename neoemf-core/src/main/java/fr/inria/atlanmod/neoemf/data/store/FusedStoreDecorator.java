@@ -0,0 +1,714 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.store;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import fr.inria.atlanmod.neoemf.annotations.VisibleForTesting;
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.core.PersistentEObject;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureKey;
+import fr.inria.atlanmod.neoemf.option.CommonStoreOptions;
+import fr.inria.atlanmod.neoemf.option.PersistentStoreOptions;
+import fr.inria.atlanmod.neoemf.util.cache.CacheGovernor;
+import fr.inria.atlanmod.neoemf.util.lifecycle.ShutdownCoordinator;
+import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.Resource;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nullable;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A {@link PersistentStore} wrapper that runs several common concerns in a single layer: the caching of the presence
+ * of values, of the values and of the sizes, the logging of the calls, and the counting of the loaded objects.
+ * <p>
+ * Each concern behaves as its dedicated decorator ({@link IsSetCachingStoreDecorator}, {@link
+ * FeatureCachingStoreDecorator}, {@link SizeCachingStoreDecorator}, {@link LoggingStoreDecorator} and {@link
+ * LoadedObjectCounterStoreDecorator}) stacked in this order, but a call crosses a single delegation layer, the object
+ * is adapted once, and a single {@link FeatureKey} is shared by all the enabled concerns. This keeps the call sites of
+ * the underlying store monomorphic, so they can be inlined by the JIT.
+ * <p>
+ * The caches and the loaded objects can be read by other threads, such as the ones of a {@link
+ * WarmUpStoreDecorator}, while this store is modified by a single thread.
+ * <p>
+ * Instances of this class are created by {@link fr.inria.atlanmod.neoemf.data.AbstractPersistenceBackendFactory}
+ * when several of these concerns are enabled.
+ */
+public class FusedStoreDecorator extends AbstractPersistentStoreDecorator {
+
+    /**
+     * The options handled by this decorator.
+     */
+    public static final Set<CommonStoreOptions> CONCERNS = Collections.unmodifiableSet(EnumSet.of(
+            CommonStoreOptions.CACHE_IS_SET,
+            CommonStoreOptions.CACHE_STRUCTURAL_FEATURE,
+            CommonStoreOptions.CACHE_SIZE,
+            CommonStoreOptions.LOG,
+            CommonStoreOptions.COUNT_LOADED_OBJECT));
+
+    /**
+     * The default size of each cache (10 000).
+     */
+    private static final int DEFAULT_CACHE_SIZE = 10000;
+
+    /**
+     * The enabled concerns.
+     */
+    private final Set<CommonStoreOptions> concerns;
+
+    /**
+     * In-memory cache that holds presence of a value, identified by the associated {@link FeatureKey}, or {@code null}
+     * if this concern is disabled.
+     */
+    private final Cache<FeatureKey, Boolean> isSetCache;
+
+    /**
+     * In-memory cache that holds loaded features, identified by their {@link FeatureKey}, or {@code null} if this
+     * concern is disabled.
+     */
+    private final Cache<FeatureKey, Object> valuesCache;
+
+    /**
+     * In-memory cache that holds recently processed sizes, identified by the associated {@link FeatureKey}, or
+     * {@code null} if this concern is disabled.
+     */
+    private final Cache<FeatureKey, Integer> sizesCache;
+
+    /**
+     * Whether every call must be logged.
+     */
+    private final boolean log;
+
+    /**
+     * Set that holds loaded objects, or {@code null} if this concern is disabled.
+     */
+    private final Set<Id> loadedObjects;
+
+    /**
+     * The task that logs the number of loaded objects if the application exits before this store is closed, or
+     * {@code null} if this concern is disabled.
+     */
+    private final ShutdownCoordinator.Task shutdownTask;
+
+    /**
+     * Constructs a new {@code FusedStoreDecorator} with the concerns enabled in the given {@code options}.
+     *
+     * @param store   the underlying store
+     * @param options the store options; the options that are not in {@link #CONCERNS} are ignored
+     */
+    public FusedStoreDecorator(PersistentStore store, Collection<? extends PersistentStoreOptions> options) {
+        super(store);
+
+        EnumSet<CommonStoreOptions> enabled = EnumSet.noneOf(CommonStoreOptions.class);
+        for (PersistentStoreOptions option : options) {
+            if (CONCERNS.contains(option)) {
+                enabled.add((CommonStoreOptions) option);
+            }
+        }
+        this.concerns = Collections.unmodifiableSet(enabled);
+
+        this.isSetCache = enabled.contains(CommonStoreOptions.CACHE_IS_SET) ? CacheGovernor.getInstance().newCache(DEFAULT_CACHE_SIZE) : null;
+        this.valuesCache = enabled.contains(CommonStoreOptions.CACHE_STRUCTURAL_FEATURE) ? CacheGovernor.getInstance().newCache(DEFAULT_CACHE_SIZE) : null;
+        this.sizesCache = enabled.contains(CommonStoreOptions.CACHE_SIZE) ? CacheGovernor.getInstance().newCache(DEFAULT_CACHE_SIZE) : null;
+        this.log = enabled.contains(CommonStoreOptions.LOG);
+
+        if (enabled.contains(CommonStoreOptions.COUNT_LOADED_OBJECT)) {
+            Set<Id> objects = ConcurrentHashMap.newKeySet();
+            this.loadedObjects = objects;
+            this.shutdownTask = ShutdownCoordinator.getInstance().register("loaded object counter", () -> logCount(objects));
+        }
+        else {
+            this.loadedObjects = null;
+            this.shutdownTask = null;
+        }
+    }
+
+    /**
+     * Returns the number of concerns of this decorator that are enabled in the given {@code options}.
+     *
+     * @param options the store options
+     *
+     * @return the number of enabled concerns
+     */
+    public static long countConcerns(Collection<? extends PersistentStoreOptions> options) {
+        return options.stream().filter(CONCERNS::contains).distinct().count();
+    }
+
+    /**
+     * Returns the enabled concerns of this decorator.
+     *
+     * @return an immutable set of options
+     */
+    public Set<CommonStoreOptions> concerns() {
+        return concerns;
+    }
+
+    /**
+     * Returns the number of objects loaded since the creation of this store.
+     *
+     * @return the number of loaded objects, or {@code 0} if they are not counted
+     */
+    @VisibleForTesting
+    int loadedObjectCount() {
+        return nonNull(loadedObjects) ? loadedObjects.size() : 0;
+    }
+
+    @Override
+    public Object get(InternalEObject internalObject, EStructuralFeature feature, int index) {
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        loaded(object);
+        if (log) {
+            NeoLogger.info("Called get for {0}.{1}[{2}]", internalObject, feature.getName(), index);
+        }
+
+        FeatureKey featureKey = FeatureKey.from(object, feature);
+        Object value = nonNull(valuesCache)
+                ? valuesCache.get(keyOf(featureKey, index), key -> load(internalObject, feature, index, featureKey))
+                : load(internalObject, feature, index, featureKey);
+
+        loadedValue(value);
+        return value;
+    }
+
+    @Override
+    public Object set(InternalEObject internalObject, EStructuralFeature feature, int index, Object value) {
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        loaded(object);
+        if (log) {
+            NeoLogger.info("Called set for {0}.{1}[{2}] with value {3}", internalObject, feature.getName(), index, value);
+        }
+
+        FeatureKey featureKey = FeatureKey.from(object, feature);
+        if (nonNull(isSetCache)) {
+            isSetCache.put(featureKey, true);
+        }
+        Object old = super.set(internalObject, feature, index, value);
+        if (nonNull(valuesCache)) {
+            if (nonNull(value)) {
+                valuesCache.put(keyOf(featureKey, index), value);
+            }
+            else {
+                valuesCache.invalidate(keyOf(featureKey, index));
+            }
+        }
+        return old;
+    }
+
+    @Override
+    public boolean isSet(InternalEObject internalObject, EStructuralFeature feature) {
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        loaded(object);
+        if (log) {
+            NeoLogger.info("Called isSet for {0}.{1}", internalObject, feature.getName());
+        }
+
+        return nonNull(isSetCache)
+                ? isSetCache.get(FeatureKey.from(object, feature), key -> super.isSet(internalObject, feature))
+                : super.isSet(internalObject, feature);
+    }
+
+    @Override
+    public void unset(InternalEObject internalObject, EStructuralFeature feature) {
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        loaded(object);
+        if (log) {
+            NeoLogger.info("Called unSet for {0}.{1}", internalObject, feature.getName());
+        }
+
+        FeatureKey featureKey = FeatureKey.from(object, feature);
+        if (nonNull(sizesCache)) {
+            sizesCache.put(featureKey, 0);
+        }
+        int size = nonNull(valuesCache) && feature.isMany() ? super.size(internalObject, feature) : 0;
+        if (nonNull(isSetCache)) {
+            isSetCache.put(featureKey, false);
+        }
+        super.unset(internalObject, feature);
+        retainSize(featureKey, 0);
+        if (nonNull(valuesCache)) {
+            if (!feature.isMany()) {
+                valuesCache.invalidate(featureKey);
+            }
+            else {
+                invalidateValues(featureKey, 0, size);
+            }
+        }
+    }
+
+    @Override
+    public boolean isEmpty(InternalEObject internalObject, EStructuralFeature feature) {
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        loaded(object);
+        if (log) {
+            NeoLogger.info("Called isEmtpy for {0}.{1}", internalObject, feature.getName());
+        }
+
+        Integer size = nonNull(sizesCache) ? sizesCache.getIfPresent(FeatureKey.from(object, feature)) : null;
+        return isNull(size) ? super.isEmpty(internalObject, feature) : (size == 0);
+    }
+
+    @Override
+    public int size(InternalEObject internalObject, EStructuralFeature feature) {
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        loaded(object);
+        if (log) {
+            NeoLogger.info("Called size for {0}.{1}", internalObject, feature.getName());
+        }
+
+        return nonNull(sizesCache)
+                ? sizesCache.get(FeatureKey.from(object, feature), key -> super.size(internalObject, feature))
+                : super.size(internalObject, feature);
+    }
+
+    @Override
+    public boolean contains(InternalEObject internalObject, EStructuralFeature feature, Object value) {
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        loaded(object);
+        if (log) {
+            NeoLogger.info("Called contains for {0}.{1} with value {2}", internalObject, feature.getName(), value);
+        }
+
+        boolean contains = super.contains(internalObject, feature, value);
+        if (contains && nonNull(isSetCache)) {
+            isSetCache.put(FeatureKey.from(object, feature), true);
+        }
+        return contains;
+    }
+
+    @Override
+    public int indexOf(InternalEObject internalObject, EStructuralFeature feature, Object value) {
+        loaded(internalObject);
+        if (log) {
+            NeoLogger.info("Called indexOf for {0}.{1} with value {2}", internalObject, feature.getName(), value);
+        }
+        return super.indexOf(internalObject, feature, value);
+    }
+
+    @Override
+    public int lastIndexOf(InternalEObject internalObject, EStructuralFeature feature, Object value) {
+        loaded(internalObject);
+        if (log) {
+            NeoLogger.info("Called lastIndexOf for {0}.{1} with value {2}", internalObject, feature.getName(), value);
+        }
+        return super.lastIndexOf(internalObject, feature, value);
+    }
+
+    @Override
+    public void add(InternalEObject internalObject, EStructuralFeature feature, int index, Object value) {
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        loaded(object);
+        if (log) {
+            NeoLogger.info("Called add for {0}.{1}[{2}] with value {3}", internalObject, feature.getName(), index, value);
+        }
+
+        FeatureKey featureKey = FeatureKey.from(object, feature);
+        Integer size = updateSize(featureKey, 1);
+        if (nonNull(isSetCache)) {
+            isSetCache.put(featureKey, true);
+        }
+        super.add(internalObject, feature, index, value);
+        retainSize(featureKey, size);
+        if (nonNull(valuesCache)) {
+            valuesCache.put(featureKey.withPosition(index), value);
+            invalidateValues(featureKey, index + 1, super.size(internalObject, feature));
+        }
+    }
+
+    @Override
+    public Object remove(InternalEObject internalObject, EStructuralFeature feature, int index) {
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        loaded(object);
+        if (log) {
+            NeoLogger.info("Called remove for {0}.{1}[{2}]", internalObject, feature.getName(), index);
+        }
+
+        FeatureKey featureKey = FeatureKey.from(object, feature);
+        Integer cachedSize = updateSize(featureKey, -1);
+        int size = nonNull(valuesCache) ? super.size(internalObject, feature) : 0;
+        Object old = super.remove(internalObject, feature, index);
+        retainSize(featureKey, cachedSize);
+        if (nonNull(isSetCache)) {
+            isSetCache.invalidate(featureKey);
+        }
+        invalidateValues(featureKey, index, size);
+        return old;
+    }
+
+    @Override
+    public Object move(InternalEObject internalObject, EStructuralFeature feature, int targetIndex, int sourceIndex) {
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        loaded(object);
+        if (log) {
+            NeoLogger.info("Called move for {0}.{1} from [{2}] to [{3}]", internalObject, feature.getName(), sourceIndex, targetIndex);
+        }
+
+        FeatureKey featureKey = FeatureKey.from(object, feature);
+        if (nonNull(isSetCache)) {
+            isSetCache.put(featureKey, true);
+        }
+        Object old = super.move(internalObject, feature, targetIndex, sourceIndex);
+        if (nonNull(valuesCache)) {
+            invalidateValues(featureKey, Math.min(sourceIndex, targetIndex), super.size(internalObject, feature));
+            valuesCache.put(featureKey.withPosition(targetIndex), old);
+        }
+        return old;
+    }
+
+    @Override
+    public void clear(InternalEObject internalObject, EStructuralFeature feature) {
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        loaded(object);
+        if (log) {
+            NeoLogger.info("Called clear for {0}.{1}", internalObject, feature.getName());
+        }
+
+        FeatureKey featureKey = FeatureKey.from(object, feature);
+        if (nonNull(sizesCache)) {
+            sizesCache.put(featureKey, 0);
+        }
+        int size = nonNull(valuesCache) ? super.size(internalObject, feature) : 0;
+        if (nonNull(isSetCache)) {
+            isSetCache.put(featureKey, false);
+        }
+        super.clear(internalObject, feature);
+        retainSize(featureKey, 0);
+        invalidateValues(featureKey, 0, size);
+    }
+
+    @Override
+    public void addAll(InternalEObject internalObject, EStructuralFeature feature, int index, Collection<?> values) {
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        loaded(object);
+        if (log) {
+            NeoLogger.info("Called addAll for {0}.{1}[{2}] with {3} values", internalObject, feature.getName(), index, values.size());
+        }
+
+        FeatureKey featureKey = FeatureKey.from(object, feature);
+        Integer size = updateSize(featureKey, values.size());
+        int firstIndex = nonNull(valuesCache) && index == NO_INDEX ? super.size(internalObject, feature) : index;
+        if (nonNull(isSetCache) && !values.isEmpty()) {
+            isSetCache.put(featureKey, true);
+        }
+        super.addAll(internalObject, feature, index, values);
+        retainSize(featureKey, size);
+        if (nonNull(valuesCache)) {
+            invalidateValues(featureKey, firstIndex, super.size(internalObject, feature));
+        }
+    }
+
+    @Override
+    public void removeRange(InternalEObject internalObject, EStructuralFeature feature, int fromIndex, int toIndex) {
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        loaded(object);
+        if (log) {
+            NeoLogger.info("Called removeRange for {0}.{1} from [{2}] to [{3}]", internalObject, feature.getName(), fromIndex, toIndex);
+        }
+
+        FeatureKey featureKey = FeatureKey.from(object, feature);
+        Integer cachedSize = updateSize(featureKey, -(toIndex - fromIndex));
+        int size = nonNull(valuesCache) ? super.size(internalObject, feature) : 0;
+        super.removeRange(internalObject, feature, fromIndex, toIndex);
+        retainSize(featureKey, cachedSize);
+        if (nonNull(isSetCache)) {
+            isSetCache.invalidate(featureKey);
+        }
+        invalidateValues(featureKey, fromIndex, size);
+    }
+
+    @Override
+    public void setAll(InternalEObject internalObject, EStructuralFeature feature, Collection<?> values) {
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        loaded(object);
+        if (log) {
+            NeoLogger.info("Called setAll for {0}.{1} with {2} values", internalObject, feature.getName(), values.size());
+        }
+
+        FeatureKey featureKey = FeatureKey.from(object, feature);
+        if (nonNull(sizesCache)) {
+            sizesCache.put(featureKey, values.size());
+        }
+        int size = nonNull(valuesCache) ? Math.max(super.size(internalObject, feature), values.size()) : 0;
+        if (nonNull(isSetCache)) {
+            isSetCache.put(featureKey, !values.isEmpty());
+        }
+        super.setAll(internalObject, feature, values);
+        retainSize(featureKey, values.size());
+        invalidateValues(featureKey, 0, size);
+    }
+
+    @Override
+    public Object[] toArray(InternalEObject internalObject, EStructuralFeature feature) {
+        loaded(internalObject);
+        if (log) {
+            NeoLogger.info("Called toArray for {0}.{1}", internalObject, feature.getName());
+        }
+        return super.toArray(internalObject, feature);
+    }
+
+    @Override
+    public <T> T[] toArray(InternalEObject internalObject, EStructuralFeature feature, T[] array) {
+        loaded(internalObject);
+        if (log) {
+            NeoLogger.info("Called toArray for {0}.{1}", internalObject, feature.getName());
+        }
+        return super.toArray(internalObject, feature, array);
+    }
+
+    @Override
+    public Object[] getAll(InternalEObject internalObject, EStructuralFeature feature) {
+        loaded(internalObject);
+        if (log) {
+            NeoLogger.info("Called getAll for {0}.{1}", internalObject, feature.getName());
+        }
+        return super.getAll(internalObject, feature);
+    }
+
+    @Override
+    public List<List<EObject>> eContents(List<? extends InternalEObject> objects) {
+        if (nonNull(loadedObjects)) {
+            objects.forEach(this::loaded);
+        }
+        if (log) {
+            NeoLogger.info("Called eContents with {0} values", objects.size());
+        }
+        return super.eContents(objects);
+    }
+
+    @Override
+    public int hashCode(InternalEObject internalObject, EStructuralFeature feature) {
+        loaded(internalObject);
+        if (log) {
+            NeoLogger.info("Called hashCode for {0}.{1}", internalObject, feature.getName());
+        }
+        return super.hashCode(internalObject, feature);
+    }
+
+    @Override
+    public InternalEObject getContainer(InternalEObject internalObject) {
+        loaded(internalObject);
+        if (log) {
+            NeoLogger.info("Called getContainer for {0}", internalObject);
+        }
+        return super.getContainer(internalObject);
+    }
+
+    @Override
+    public EStructuralFeature getContainingFeature(InternalEObject internalObject) {
+        loaded(internalObject);
+        if (log) {
+            NeoLogger.info("Called getContainingFeature for {0}", internalObject);
+        }
+        return super.getContainingFeature(internalObject);
+    }
+
+    @Override
+    public EObject create(EClass eClass) {
+        if (log) {
+            NeoLogger.info("Called create for {0}", eClass.getName());
+        }
+        return super.create(eClass);
+    }
+
+    @Override
+    public Resource resource() {
+        if (log) {
+            NeoLogger.info("Called getResource");
+        }
+        return super.resource();
+    }
+
+    @Override
+    public EObject eObject(Id id) {
+        if (log) {
+            NeoLogger.info("Called getEObject with value {0}", id);
+        }
+        return super.eObject(id);
+    }
+
+    @Override
+    public List<EObject> eObjects(Collection<Id> ids) {
+        if (log) {
+            NeoLogger.info("Called getEObjects with {0} values", ids.size());
+        }
+        return super.eObjects(ids);
+    }
+
+    @Override
+    public void invalidate(Set<FeatureKey> featureKeys) {
+        super.invalidate(featureKeys);
+        if (nonNull(isSetCache)) {
+            isSetCache.invalidateAll(featureKeys);
+        }
+        if (nonNull(valuesCache)) {
+            valuesCache.asMap().keySet().removeIf(key -> featureKeys.contains(key.withoutPosition()));
+        }
+        if (nonNull(sizesCache)) {
+            sizesCache.invalidateAll(featureKeys);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Logs the total number of loaded objects, if they are counted.
+     */
+    @Override
+    public void close() {
+        if (nonNull(loadedObjects)) {
+            shutdownTask.cancel();
+            logCount(loadedObjects);
+        }
+        super.close();
+    }
+
+    /**
+     * Reads the value at the given {@code index} of the {@code feature} from the underlying store, and records its
+     * presence.
+     *
+     * @param internalObject the concerned object
+     * @param feature        the feature of the {@code internalObject}
+     * @param index          the position of the value
+     * @param featureKey     the key of the {@code feature}
+     *
+     * @return the value
+     */
+    private Object load(InternalEObject internalObject, EStructuralFeature feature, int index, FeatureKey featureKey) {
+        Object value = super.get(internalObject, feature, index);
+        if (nonNull(isSetCache) && nonNull(value)) {
+            isSetCache.put(featureKey, true);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the key identifying the value at the given {@code index} of a feature, or its single value if
+     * {@code index} is {@link #NO_INDEX}.
+     *
+     * @param featureKey the key of the feature
+     * @param index      the position of the value
+     *
+     * @return the key of the value
+     */
+    private static FeatureKey keyOf(FeatureKey featureKey, int index) {
+        return index == NO_INDEX ? featureKey : featureKey.withPosition(index);
+    }
+
+    /**
+     * Adds the given {@code delta} to the cached size of a feature, if it is cached.
+     * <p>
+     * As in {@link SizeCachingStoreDecorator}, the size is updated atomically.
+     *
+     * @param featureKey the key of the feature
+     * @param delta      the number of added values, negative if values are removed
+     *
+     * @return the new cached size, or {@code null} if the size is not cached
+     */
+    private Integer updateSize(FeatureKey featureKey, int delta) {
+        return nonNull(sizesCache)
+                ? sizesCache.asMap().computeIfPresent(featureKey, (key, size) -> size + delta)
+                : null;
+    }
+
+    /**
+     * Discards the cached size of a feature that has just been modified in the underlying store, unless it is the
+     * {@code expected} size, as in {@link SizeCachingStoreDecorator}.
+     *
+     * @param featureKey the key of the feature
+     * @param expected   the size cached before the modification, or {@code null} if the size was not cached
+     */
+    private void retainSize(FeatureKey featureKey, @Nullable Integer expected) {
+        if (nonNull(sizesCache)) {
+            sizesCache.asMap().computeIfPresent(featureKey, (key, size) -> size.equals(expected) ? size : null);
+        }
+    }
+
+    /**
+     * Removes the cached values of a feature, from an initial {@code fromIndex}, inclusive, to a final {@code
+     * toIndex}, exclusive.
+     *
+     * @param featureKey the key of the feature
+     * @param fromIndex  the index from which to start the removing
+     * @param toIndex    the index at which to stop the removing
+     */
+    private void invalidateValues(FeatureKey featureKey, int fromIndex, int toIndex) {
+        if (nonNull(valuesCache)) {
+            for (int i = fromIndex; i < toIndex; i++) {
+                valuesCache.invalidate(featureKey.withPosition(i));
+            }
+        }
+    }
+
+    /**
+     * Defines the given {@code object} as loaded, if the loaded objects are counted.
+     *
+     * @param object the loaded object
+     */
+    private void loaded(InternalEObject object) {
+        if (nonNull(loadedObjects)) {
+            loadedObjects.add(PersistentEObject.from(object).id());
+        }
+    }
+
+    /**
+     * Defines the given {@code object} as loaded, if the loaded objects are counted.
+     *
+     * @param object the loaded object
+     */
+    private void loaded(PersistentEObject object) {
+        if (nonNull(loadedObjects)) {
+            loadedObjects.add(object.id());
+        }
+    }
+
+    /**
+     * Defines the given {@code value} as loaded if it is a {@link PersistentEObject}, and if the loaded objects are
+     * counted.
+     *
+     * @param value the loaded value
+     */
+    private void loadedValue(Object value) {
+        if (nonNull(loadedObjects)) {
+            if (value instanceof PersistentEObject) {
+                loadedObjects.add(((PersistentEObject) value).id());
+            }
+            else {
+                NeoLogger.debug("Not a {0} : This object will be ignored in the final count.", PersistentEObject.class.getSimpleName());
+            }
+        }
+    }
+
+    /**
+     * Logs the total number of loaded objects.
+     * <p>
+     * This method is static, so that the task registered in the {@link ShutdownCoordinator} does not reference this
+     * store.
+     *
+     * @param loadedObjects the loaded objects
+     */
+    private static void logCount(Set<Id> loadedObjects) {
+        NeoLogger.info("{0} objects loaded during the execution", loadedObjects.size());
+    }
+}
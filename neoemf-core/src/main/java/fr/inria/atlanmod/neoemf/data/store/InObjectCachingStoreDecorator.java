@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.store;
+
+import fr.inria.atlanmod.neoemf.core.PersistentEObject;
+
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.InternalEObject;
+
+/**
+ * A {@link PersistentStore} wrapper that allows {@link PersistentEObject}s to cache the values of their single-valued
+ * {@link EStructuralFeature}s.
+ * <p>
+ * The values are held by the objects themselves, and are read without calling the store once they have been loaded.
+ * This decorator only notifies the objects when one of their single-valued features is modified through the store, so
+ * that they can invalidate the associated value.
+ * <p>
+ * This decorator must not be used with a distributed back-end, where the values can be modified by other clients
+ * without notifying this store.
+ *
+ * @see PersistentEObject#invalidate(EStructuralFeature)
+ */
+public class InObjectCachingStoreDecorator extends AbstractPersistentStoreDecorator {
+
+    /**
+     * Constructs a new {@code InObjectCachingStoreDecorator}.
+     *
+     * @param store the underlying store
+     */
+    public InObjectCachingStoreDecorator(PersistentStore store) {
+        super(store);
+    }
+
+    @Override
+    public boolean isCachingInObjects() {
+        return true;
+    }
+
+    @Override
+    public Object set(InternalEObject internalObject, EStructuralFeature feature, int index, Object value) {
+        Object old = super.set(internalObject, feature, index, value);
+        invalidate(internalObject, feature);
+        return old;
+    }
+
+    @Override
+    public void unset(InternalEObject internalObject, EStructuralFeature feature) {
+        super.unset(internalObject, feature);
+        invalidate(internalObject, feature);
+    }
+
+    /**
+     * Invalidates the value of the {@code feature} cached by the {@code internalObject}, if the {@code feature} is
+     * single-valued.
+     * <p>
+     * Multi-valued features are never cached in objects, so modifying them does not require any invalidation.
+     *
+     * @param internalObject the modified object
+     * @param feature        the modified feature
+     */
+    private void invalidate(InternalEObject internalObject, EStructuralFeature feature) {
+        if (!feature.isMany() && internalObject instanceof PersistentEObject) {
+            ((PersistentEObject) internalObject).invalidate(feature);
+        }
+    }
+}
@@ -12,15 +12,22 @@
 package fr.inria.atlanmod.neoemf.data.store;
 
 import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.structure.AncestorInfo;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureCardinality;
 import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
 
 import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EAttribute;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.InternalEObject;
 import org.eclipse.emf.ecore.resource.Resource;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * {@link PersistentStore} which can be used by back-end implementations that do not provide transient layer.
  * <p>
@@ -108,6 +115,21 @@ public class InvalidStore implements PersistentStore {
         throw new UnsupportedOperationException(MSG);
     }
 
+    @Override
+    public void addAll(InternalEObject internalObject, EStructuralFeature feature, int index, Collection<?> values) {
+        throw new UnsupportedOperationException(MSG);
+    }
+
+    @Override
+    public void removeRange(InternalEObject internalObject, EStructuralFeature feature, int fromIndex, int toIndex) {
+        throw new UnsupportedOperationException(MSG);
+    }
+
+    @Override
+    public void setAll(InternalEObject internalObject, EStructuralFeature feature, Collection<?> values) {
+        throw new UnsupportedOperationException(MSG);
+    }
+
     @Override
     public Object[] toArray(InternalEObject internalObject, EStructuralFeature feature) {
         throw new UnsupportedOperationException(MSG);
@@ -118,6 +140,16 @@ public class InvalidStore implements PersistentStore {
         throw new UnsupportedOperationException(MSG);
     }
 
+    @Override
+    public Object[] getAll(InternalEObject internalObject, EStructuralFeature feature) {
+        throw new UnsupportedOperationException(MSG);
+    }
+
+    @Override
+    public List<List<EObject>> eContents(List<? extends InternalEObject> objects) {
+        throw new UnsupportedOperationException(MSG);
+    }
+
     @Override
     public int hashCode(InternalEObject internalObject, EStructuralFeature feature) {
         throw new UnsupportedOperationException(MSG);
@@ -148,11 +180,56 @@ public class InvalidStore implements PersistentStore {
         throw new UnsupportedOperationException(MSG);
     }
 
+    @Override
+    public List<EObject> eObjects(Collection<Id> ids) {
+        throw new UnsupportedOperationException(MSG);
+    }
+
     @Override
     public EList<EObject> getAllInstances(EClass eClass, boolean strict) {
         throw new UnsupportedOperationException(MSG);
     }
 
+    @Override
+    public long countInstances(EClass eClass, boolean strict) {
+        throw new UnsupportedOperationException(MSG);
+    }
+
+    @Override
+    public FeatureCardinality cardinalityOf(EStructuralFeature feature) {
+        throw new UnsupportedOperationException(MSG);
+    }
+
+    @Override
+    public AncestorInfo ancestorsOf(Id id) {
+        throw new UnsupportedOperationException(MSG);
+    }
+
+    @Override
+    public List<Id> descendantsOf(Id id) {
+        throw new UnsupportedOperationException(MSG);
+    }
+
+    @Override
+    public List<Id> findBy(EAttribute attribute, Object value) {
+        throw new UnsupportedOperationException(MSG);
+    }
+
+    @Override
+    public List<Id> findByRange(EAttribute attribute, Object from, Object to) {
+        throw new UnsupportedOperationException(MSG);
+    }
+
+    @Override
+    public List<Id> findByPrefix(EAttribute attribute, String prefix) {
+        throw new UnsupportedOperationException(MSG);
+    }
+
+    @Override
+    public Collection<EStructuralFeature.Setting> getInverseReferences(InternalEObject internalObject, EReference reference) {
+        throw new UnsupportedOperationException(MSG);
+    }
+
     @Override
     public void save() {
         throw new UnsupportedOperationException(MSG);
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.store;
+
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.core.PersistentEObject;
+import fr.inria.atlanmod.neoemf.data.InverseReferenceIndex;
+import fr.inria.atlanmod.neoemf.data.PersistenceBackend;
+
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.InternalEObject;
+
+import java.util.Collection;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.Objects.isNull;
+
+/**
+ * A {@link PersistentStore} wrapper that notifies the back-end of every modification of the cross-references of the
+ * underlying store, so that it maintains its {@link InverseReferenceIndex}.
+ * <p>
+ * The modifications are notified once they have been applied to the underlying store, whatever the way the store
+ * writes the references in the database. The values removed by a bulk modification, such as {@link
+ * #clear(InternalEObject, EStructuralFeature)}, are read before being removed.
+ *
+ * @see PersistenceBackend#hasInverseReferenceIndex()
+ */
+public class InverseReferenceStoreDecorator extends AbstractPersistentStoreDecorator {
+
+    /**
+     * The back-end that maintains the index.
+     */
+    @Nonnull
+    private final PersistenceBackend backend;
+
+    /**
+     * Constructs a new {@code InverseReferenceStoreDecorator} that notifies the given {@code backend}.
+     *
+     * @param store   the underlying store
+     * @param backend the back-end that maintains the index
+     */
+    public InverseReferenceStoreDecorator(PersistentStore store, PersistenceBackend backend) {
+        super(store);
+        this.backend = checkNotNull(backend);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The replaced object is read before being replaced: the value returned by some underlying stores is not the
+     * previous one.
+     */
+    @Override
+    public Object set(InternalEObject internalObject, EStructuralFeature feature, int index, Object value) {
+        if (!isIndexed(feature)) {
+            return super.set(internalObject, feature, index, value);
+        }
+
+        Object old = get(internalObject, feature, index);
+        Object returned = super.set(internalObject, feature, index, value);
+        referenceChanged(internalObject, feature, old, value);
+        return returned;
+    }
+
+    @Override
+    public void unset(InternalEObject internalObject, EStructuralFeature feature) {
+        if (!isIndexed(feature)) {
+            super.unset(internalObject, feature);
+            return;
+        }
+
+        Object[] oldValues = feature.isMany() ? getAll(internalObject, feature) : new Object[]{get(internalObject, feature, NO_INDEX)};
+        super.unset(internalObject, feature);
+        for (Object old : oldValues) {
+            referenceChanged(internalObject, feature, old, null);
+        }
+    }
+
+    @Override
+    public void add(InternalEObject internalObject, EStructuralFeature feature, int index, Object value) {
+        super.add(internalObject, feature, index, value);
+        referenceChanged(internalObject, feature, null, value);
+    }
+
+    @Override
+    public Object remove(InternalEObject internalObject, EStructuralFeature feature, int index) {
+        Object old = super.remove(internalObject, feature, index);
+        referenceChanged(internalObject, feature, old, null);
+        return old;
+    }
+
+    @Override
+    public void clear(InternalEObject internalObject, EStructuralFeature feature) {
+        if (!isIndexed(feature)) {
+            super.clear(internalObject, feature);
+            return;
+        }
+
+        Object[] oldValues = getAll(internalObject, feature);
+        super.clear(internalObject, feature);
+        for (Object old : oldValues) {
+            referenceChanged(internalObject, feature, old, null);
+        }
+    }
+
+    @Override
+    public void addAll(InternalEObject internalObject, EStructuralFeature feature, int index, Collection<?> values) {
+        super.addAll(internalObject, feature, index, values);
+        for (Object value : values) {
+            referenceChanged(internalObject, feature, null, value);
+        }
+    }
+
+    @Override
+    public void removeRange(InternalEObject internalObject, EStructuralFeature feature, int fromIndex, int toIndex) {
+        if (!isIndexed(feature)) {
+            super.removeRange(internalObject, feature, fromIndex, toIndex);
+            return;
+        }
+
+        Object[] oldValues = new Object[toIndex - fromIndex];
+        for (int i = fromIndex; i < toIndex; i++) {
+            oldValues[i - fromIndex] = get(internalObject, feature, i);
+        }
+        super.removeRange(internalObject, feature, fromIndex, toIndex);
+        for (Object old : oldValues) {
+            referenceChanged(internalObject, feature, old, null);
+        }
+    }
+
+    @Override
+    public void setAll(InternalEObject internalObject, EStructuralFeature feature, Collection<?> values) {
+        if (!isIndexed(feature)) {
+            super.setAll(internalObject, feature, values);
+            return;
+        }
+
+        Object[] oldValues = getAll(internalObject, feature);
+        super.setAll(internalObject, feature, values);
+        for (Object old : oldValues) {
+            referenceChanged(internalObject, feature, old, null);
+        }
+        for (Object value : values) {
+            referenceChanged(internalObject, feature, null, value);
+        }
+    }
+
+    /**
+     * Returns whether the given {@code feature} is a reference indexed by the {@link InverseReferenceIndex}.
+     *
+     * @param feature the feature
+     *
+     * @return {@code true} if the feature is an indexed reference
+     */
+    private static boolean isIndexed(EStructuralFeature feature) {
+        return feature instanceof EReference && InverseReferenceIndex.isIndexed((EReference) feature);
+    }
+
+    /**
+     * Notifies the back-end that the {@code oldValue} has been replaced by the {@code newValue} in the {@code feature}
+     * of the given {@code internalObject}, if the feature is an indexed reference.
+     *
+     * @param internalObject the modified object
+     * @param feature        the modified feature
+     * @param oldValue       the removed object, or {@code null}
+     * @param newValue       the added object, or {@code null}
+     */
+    private void referenceChanged(InternalEObject internalObject, EStructuralFeature feature, @Nullable Object oldValue, @Nullable Object newValue) {
+        if (isIndexed(feature)) {
+            backend.referenceChanged(PersistentEObject.from(internalObject).id(), (EReference) feature, idOf(oldValue), idOf(newValue));
+        }
+    }
+
+    /**
+     * Returns the identifier of the given referenced {@code value}.
+     *
+     * @param value the referenced object
+     *
+     * @return the identifier, or {@code null} if {@code value} is {@code null}
+     */
+    @Nullable
+    private static Id idOf(@Nullable Object value) {
+        return isNull(value) ? null : PersistentEObject.from(value).id();
+    }
+}
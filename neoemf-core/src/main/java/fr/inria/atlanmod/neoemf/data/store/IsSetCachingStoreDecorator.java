@@ -12,13 +12,16 @@
 package fr.inria.atlanmod.neoemf.data.store;
 
 import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 
 import fr.inria.atlanmod.neoemf.data.structure.FeatureKey;
+import fr.inria.atlanmod.neoemf.util.cache.CacheGovernor;
 
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.InternalEObject;
 
+import java.util.Collection;
+import java.util.Set;
+
 import static java.util.Objects.nonNull;
 
 /**
@@ -54,7 +57,7 @@ public class IsSetCachingStoreDecorator extends AbstractPersistentStoreDecorator
      */
     public IsSetCachingStoreDecorator(PersistentStore store, int cacheSize) {
         super(store);
-        this.isSetCache = Caffeine.newBuilder().maximumSize(cacheSize).build();
+        this.isSetCache = CacheGovernor.getInstance().newCache(cacheSize);
     }
 
     @Override
@@ -107,8 +110,9 @@ public class IsSetCachingStoreDecorator extends AbstractPersistentStoreDecorator
     @Override
     public Object remove(InternalEObject internalObject, EStructuralFeature feature, int index) {
         FeatureKey featureKey = FeatureKey.from(internalObject, feature);
+        Object old = super.remove(internalObject, feature, index);
         isSetCache.invalidate(featureKey);
-        return super.remove(internalObject, feature, index);
+        return old;
     }
 
     @Override
@@ -124,4 +128,33 @@ public class IsSetCachingStoreDecorator extends AbstractPersistentStoreDecorator
         isSetCache.put(featureKey, false);
         super.clear(internalObject, feature);
     }
+
+    @Override
+    public void addAll(InternalEObject internalObject, EStructuralFeature feature, int index, Collection<?> values) {
+        FeatureKey featureKey = FeatureKey.from(internalObject, feature);
+        if (!values.isEmpty()) {
+            isSetCache.put(featureKey, true);
+        }
+        super.addAll(internalObject, feature, index, values);
+    }
+
+    @Override
+    public void removeRange(InternalEObject internalObject, EStructuralFeature feature, int fromIndex, int toIndex) {
+        FeatureKey featureKey = FeatureKey.from(internalObject, feature);
+        super.removeRange(internalObject, feature, fromIndex, toIndex);
+        isSetCache.invalidate(featureKey);
+    }
+
+    @Override
+    public void setAll(InternalEObject internalObject, EStructuralFeature feature, Collection<?> values) {
+        FeatureKey featureKey = FeatureKey.from(internalObject, feature);
+        isSetCache.put(featureKey, !values.isEmpty());
+        super.setAll(internalObject, feature, values);
+    }
+
+    @Override
+    public void invalidate(Set<FeatureKey> featureKeys) {
+        super.invalidate(featureKeys);
+        isSetCache.invalidateAll(featureKeys);
+    }
 }
@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.store;
+
+import fr.inria.atlanmod.neoemf.core.PersistentEObject;
+import fr.inria.atlanmod.neoemf.data.journal.Journal;
+import fr.inria.atlanmod.neoemf.data.journal.JournalEntry.Operation;
+import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A {@link PersistentStore} wrapper that records every modification of the underlying store in a {@link Journal}, so
+ * that other processes can follow the changes of a resource without querying its database.
+ * <p>
+ * The modifications are recorded once they have been applied to the underlying store, and are written in the journal
+ * when the underlying store is {@link #save() saved}: the journal only contains the modifications that have been
+ * committed. Bulk modifications are recorded as several simple ones, as described in {@link Operation}, and the objects
+ * that are mapped by the underlying store for the first time are recorded as {@link Operation#CREATE}s, with their
+ * metaclass.
+ * <p>
+ * The recorded modifications are held in memory until they are written: when their size reaches a limit, the
+ * underlying store is saved, and the journal is written, as the {@link AutocommitStoreDecorator} would do.
+ *
+ * @see fr.inria.atlanmod.neoemf.option.CommonStoreOptions#JOURNAL
+ */
+public class JournalingStoreDecorator extends AbstractPersistentStoreDecorator {
+
+    /**
+     * The name of the file that holds the journal, in the directory of the database.
+     */
+    public static final String FILE_NAME = "neojournal.log";
+
+    /**
+     * Default size (4 MiB) of the recorded modifications that triggers a commit of the underlying store.
+     */
+    public static final long MAX_PENDING_BYTES_DEFAULT = 4L * 1024 * 1024;
+
+    /**
+     * The journal where the modifications are recorded.
+     */
+    @Nonnull
+    private final Journal journal;
+
+    /**
+     * The size of the recorded modifications that triggers a commit of the underlying store.
+     */
+    private final long maxPendingBytes;
+
+    /**
+     * Constructs a new {@code JournalingStoreDecorator} on the given {@code journal}, that commits the underlying store
+     * every {@value #MAX_PENDING_BYTES_DEFAULT} bytes of recorded modifications.
+     *
+     * @param store   the underlying store
+     * @param journal the journal where the modifications are recorded, closed with this store
+     */
+    public JournalingStoreDecorator(PersistentStore store, Journal journal) {
+        this(store, journal, MAX_PENDING_BYTES_DEFAULT);
+    }
+
+    /**
+     * Constructs a new {@code JournalingStoreDecorator} on the given {@code journal}.
+     *
+     * @param store           the underlying store
+     * @param journal         the journal where the modifications are recorded, closed with this store
+     * @param maxPendingBytes the size of the recorded modifications that triggers a commit of the underlying store
+     */
+    public JournalingStoreDecorator(PersistentStore store, Journal journal, long maxPendingBytes) {
+        super(store);
+        checkArgument(maxPendingBytes > 0, "maxPendingBytes (%s) must be > 0", maxPendingBytes);
+        this.journal = checkNotNull(journal);
+        this.maxPendingBytes = maxPendingBytes;
+    }
+
+    /**
+     * Returns the journal where the modifications are recorded.
+     *
+     * @return the journal
+     */
+    @Nonnull
+    public Journal journal() {
+        return journal;
+    }
+
+    @Override
+    public Object set(InternalEObject internalObject, EStructuralFeature feature, int index, Object value) {
+        List<PersistentEObject> unmapped = unmapped(internalObject, feature, Collections.singleton(value));
+        Object old = super.set(internalObject, feature, index, value);
+        recordCreated(unmapped);
+        record(Operation.SET, internalObject, feature, index, NO_INDEX, value);
+        commitIfFull();
+        return old;
+    }
+
+    @Override
+    public void unset(InternalEObject internalObject, EStructuralFeature feature) {
+        super.unset(internalObject, feature);
+        record(Operation.UNSET, internalObject, feature, NO_INDEX, NO_INDEX, null);
+        commitIfFull();
+    }
+
+    @Override
+    public void add(InternalEObject internalObject, EStructuralFeature feature, int index, Object value) {
+        List<PersistentEObject> unmapped = unmapped(internalObject, feature, Collections.singleton(value));
+        super.add(internalObject, feature, index, value);
+        recordCreated(unmapped);
+        record(Operation.ADD, internalObject, feature, index, NO_INDEX, value);
+        commitIfFull();
+    }
+
+    @Override
+    public Object remove(InternalEObject internalObject, EStructuralFeature feature, int index) {
+        Object old = super.remove(internalObject, feature, index);
+        record(Operation.REMOVE, internalObject, feature, index, NO_INDEX, null);
+        commitIfFull();
+        return old;
+    }
+
+    @Override
+    public Object move(InternalEObject internalObject, EStructuralFeature feature, int targetIndex, int sourceIndex) {
+        Object moved = super.move(internalObject, feature, targetIndex, sourceIndex);
+        record(Operation.MOVE, internalObject, feature, targetIndex, sourceIndex, moved);
+        commitIfFull();
+        return moved;
+    }
+
+    @Override
+    public void clear(InternalEObject internalObject, EStructuralFeature feature) {
+        super.clear(internalObject, feature);
+        record(Operation.CLEAR, internalObject, feature, NO_INDEX, NO_INDEX, null);
+        commitIfFull();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The values are recorded as {@link Operation#ADD}s, at consecutive indices.
+     */
+    @Override
+    public void addAll(InternalEObject internalObject, EStructuralFeature feature, int index, Collection<?> values) {
+        List<PersistentEObject> unmapped = unmapped(internalObject, feature, values);
+        super.addAll(internalObject, feature, index, values);
+        recordCreated(unmapped);
+        int i = index;
+        for (Object value : values) {
+            record(Operation.ADD, internalObject, feature, index == NO_INDEX ? NO_INDEX : i++, NO_INDEX, value);
+        }
+        commitIfFull();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The range is recorded as {@link Operation#REMOVE}s, all at {@code fromIndex}.
+     */
+    @Override
+    public void removeRange(InternalEObject internalObject, EStructuralFeature feature, int fromIndex, int toIndex) {
+        super.removeRange(internalObject, feature, fromIndex, toIndex);
+        for (int i = fromIndex; i < toIndex; i++) {
+            record(Operation.REMOVE, internalObject, feature, fromIndex, NO_INDEX, null);
+        }
+        commitIfFull();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The values are recorded as a {@link Operation#CLEAR} followed by {@link Operation#ADD}s.
+     */
+    @Override
+    public void setAll(InternalEObject internalObject, EStructuralFeature feature, Collection<?> values) {
+        List<PersistentEObject> unmapped = unmapped(internalObject, feature, values);
+        super.setAll(internalObject, feature, values);
+        recordCreated(unmapped);
+        record(Operation.CLEAR, internalObject, feature, NO_INDEX, NO_INDEX, null);
+        int i = 0;
+        for (Object value : values) {
+            record(Operation.ADD, internalObject, feature, i++, NO_INDEX, value);
+        }
+        commitIfFull();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The recorded modifications are written in the journal once the underlying store has been saved.
+     *
+     * @throws UncheckedIOException if the journal cannot be written
+     */
+    @Override
+    public void save() {
+        super.save();
+        try {
+            journal.commit();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Unable to write the journal " + journal.file(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The modifications saved by the underlying store when it is closed are written in the journal, before closing it.
+     */
+    @Override
+    public void close() {
+        try {
+            super.close();
+            journal.commit();
+        }
+        catch (IOException e) {
+            NeoLogger.error(e, "Unable to write the journal {0}", journal.file());
+        }
+        finally {
+            try {
+                journal.close();
+            }
+            catch (IOException e) {
+                NeoLogger.warn(e, "Unable to close the journal {0}", journal.file());
+            }
+        }
+    }
+
+    /**
+     * Saves the underlying store, and writes the recorded modifications in the journal, if their size has reached
+     * the limit of this store.
+     */
+    private void commitIfFull() {
+        if (journal.pendingBytes() >= maxPendingBytes) {
+            save();
+        }
+    }
+
+    /**
+     * Returns the objects that are not mapped by the underlying store yet, among the given {@code internalObject} and
+     * the objects referenced by the written {@code values}.
+     *
+     * @param internalObject the modified object
+     * @param feature        the modified feature
+     * @param values         the written values
+     *
+     * @return the unmapped objects
+     *
+     * @see PersistentEObject#isMapped()
+     */
+    @Nonnull
+    private static List<PersistentEObject> unmapped(InternalEObject internalObject, EStructuralFeature feature, Collection<?> values) {
+        List<PersistentEObject> unmapped = Collections.emptyList();
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        if (!object.isMapped()) {
+            unmapped = new ArrayList<>();
+            unmapped.add(object);
+        }
+        if (feature instanceof EReference) {
+            for (Object value : values) {
+                if (nonNull(value) && !PersistentEObject.from(value).isMapped()) {
+                    if (unmapped.isEmpty()) {
+                        unmapped = new ArrayList<>();
+                    }
+                    unmapped.add(PersistentEObject.from(value));
+                }
+            }
+        }
+        return unmapped;
+    }
+
+    /**
+     * Records the creation of the given objects that have been mapped by the underlying store.
+     *
+     * @param unmapped the objects that were not mapped before the modification
+     */
+    private void recordCreated(List<PersistentEObject> unmapped) {
+        for (PersistentEObject object : unmapped) {
+            if (object.isMapped()) {
+                journal.record(Operation.CREATE, object.id(), "", NO_INDEX, NO_INDEX, EcoreUtil.getURI(object.eClass()).toString(), false);
+            }
+        }
+    }
+
+    /**
+     * Records a modification of the {@code feature} of the given {@code internalObject}.
+     *
+     * @param operation      the type of the modification
+     * @param internalObject the modified object
+     * @param feature        the modified feature
+     * @param index          the index of the modified value
+     * @param sourceIndex    the source index of a moved value
+     * @param value          the written value, or {@code null}
+     */
+    private void record(Operation operation, InternalEObject internalObject, EStructuralFeature feature, int index, int sourceIndex, @Nullable Object value) {
+        boolean reference = !(feature instanceof EAttribute);
+        journal.record(operation, PersistentEObject.from(internalObject).id(), feature.getName(), index, sourceIndex, literalOf(feature, value), reference);
+    }
+
+    /**
+     * Returns the literal of a value of the given {@code feature}: the literal of an attribute value, or the literal
+     * of the identifier of a referenced object.
+     *
+     * @param feature the feature
+     * @param value   the value
+     *
+     * @return the literal, or {@code null} if {@code value} is {@code null}
+     */
+    @Nullable
+    private static String literalOf(EStructuralFeature feature, @Nullable Object value) {
+        if (isNull(value)) {
+            return null;
+        }
+        if (feature instanceof EAttribute) {
+            return EcoreUtil.convertToString(((EAttribute) feature).getEAttributeType(), value);
+        }
+        return PersistentEObject.from(value).id().toString();
+    }
+}
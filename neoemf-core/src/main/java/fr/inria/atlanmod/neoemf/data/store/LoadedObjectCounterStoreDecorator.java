@@ -11,15 +11,20 @@
 
 package fr.inria.atlanmod.neoemf.data.store;
 
+import fr.inria.atlanmod.neoemf.annotations.VisibleForTesting;
 import fr.inria.atlanmod.neoemf.core.Id;
 import fr.inria.atlanmod.neoemf.core.PersistentEObject;
+import fr.inria.atlanmod.neoemf.util.lifecycle.ShutdownCoordinator;
 import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
 
+import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.InternalEObject;
 
-import java.util.HashSet;
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A {@link PersistentStore} wrapper that count the number elements used.
@@ -29,7 +34,12 @@ public class LoadedObjectCounterStoreDecorator extends AbstractPersistentStoreDe
     /**
      * Set that holds loaded objects.
      */
-    private final Set<Id> loadedObjects = new HashSet<>();
+    private final Set<Id> loadedObjects = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The task that logs the number of loaded objects if the application exits before this store is closed.
+     */
+    private final ShutdownCoordinator.Task shutdownTask;
 
     /**
      * Constructs a new {@code LoadedObjectCounterStoreDecorator}.
@@ -38,7 +48,18 @@ public class LoadedObjectCounterStoreDecorator extends AbstractPersistentStoreDe
      */
     public LoadedObjectCounterStoreDecorator(PersistentStore store) {
         super(store);
-        Runtime.getRuntime().addShutdownHook(new ShutdownHook());
+        Set<Id> objects = loadedObjects;
+        this.shutdownTask = ShutdownCoordinator.getInstance().register("loaded object counter", () -> logCount(objects));
+    }
+
+    /**
+     * Returns the number of objects loaded since the creation of this store.
+     *
+     * @return the number of loaded objects
+     */
+    @VisibleForTesting
+    int loadedObjectCount() {
+        return loadedObjects.size();
     }
 
     @Override
@@ -121,6 +142,24 @@ public class LoadedObjectCounterStoreDecorator extends AbstractPersistentStoreDe
         super.clear(internalObject, feature);
     }
 
+    @Override
+    public void addAll(InternalEObject internalObject, EStructuralFeature feature, int index, Collection<?> values) {
+        setAsLoaded(internalObject);
+        super.addAll(internalObject, feature, index, values);
+    }
+
+    @Override
+    public void removeRange(InternalEObject internalObject, EStructuralFeature feature, int fromIndex, int toIndex) {
+        setAsLoaded(internalObject);
+        super.removeRange(internalObject, feature, fromIndex, toIndex);
+    }
+
+    @Override
+    public void setAll(InternalEObject internalObject, EStructuralFeature feature, Collection<?> values) {
+        setAsLoaded(internalObject);
+        super.setAll(internalObject, feature, values);
+    }
+
     @Override
     public Object[] toArray(InternalEObject internalObject, EStructuralFeature feature) {
         setAsLoaded(internalObject);
@@ -133,6 +172,18 @@ public class LoadedObjectCounterStoreDecorator extends AbstractPersistentStoreDe
         return super.toArray(internalObject, feature, array);
     }
 
+    @Override
+    public Object[] getAll(InternalEObject internalObject, EStructuralFeature feature) {
+        setAsLoaded(internalObject);
+        return super.getAll(internalObject, feature);
+    }
+
+    @Override
+    public List<List<EObject>> eContents(List<? extends InternalEObject> objects) {
+        objects.forEach(this::setAsLoaded);
+        return super.eContents(objects);
+    }
+
     @Override
     public int hashCode(InternalEObject internalObject, EStructuralFeature feature) {
         setAsLoaded(internalObject);
@@ -166,13 +217,26 @@ public class LoadedObjectCounterStoreDecorator extends AbstractPersistentStoreDe
     }
 
     /**
-     * A shutdown hook that logs the total number of loaded objects when then application exits.
+     * {@inheritDoc}
+     * <p>
+     * Logs the total number of loaded objects.
      */
-    private class ShutdownHook extends Thread {
+    @Override
+    public void close() {
+        shutdownTask.cancel();
+        logCount(loadedObjects);
+        super.close();
+    }
 
-        @Override
-        public void run() {
-            NeoLogger.info("{0} objects loaded during the execution", loadedObjects.size());
-        }
+    /**
+     * Logs the total number of loaded objects.
+     * <p>
+     * This method is static, so that the task registered in the {@link ShutdownCoordinator} does not reference this
+     * store.
+     *
+     * @param loadedObjects the loaded objects
+     */
+    private static void logCount(Set<Id> loadedObjects) {
+        NeoLogger.info("{0} objects loaded during the execution", loadedObjects.size());
     }
 }
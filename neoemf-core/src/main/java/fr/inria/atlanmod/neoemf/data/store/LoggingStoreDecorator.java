@@ -20,6 +20,9 @@ import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.InternalEObject;
 import org.eclipse.emf.ecore.resource.Resource;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * A {@link PersistentStore} wrapper that logs every call to its methods in the {@link NeoLogger}.
  */
@@ -112,6 +115,24 @@ public class LoggingStoreDecorator extends AbstractPersistentStoreDecorator {
         super.clear(internalObject, feature);
     }
 
+    @Override
+    public void addAll(InternalEObject internalObject, EStructuralFeature feature, int index, Collection<?> values) {
+        NeoLogger.info("Called addAll for {0}.{1}[{2}] with {3} values", internalObject, feature.getName(), index, values.size());
+        super.addAll(internalObject, feature, index, values);
+    }
+
+    @Override
+    public void removeRange(InternalEObject internalObject, EStructuralFeature feature, int fromIndex, int toIndex) {
+        NeoLogger.info("Called removeRange for {0}.{1} from [{2}] to [{3}]", internalObject, feature.getName(), fromIndex, toIndex);
+        super.removeRange(internalObject, feature, fromIndex, toIndex);
+    }
+
+    @Override
+    public void setAll(InternalEObject internalObject, EStructuralFeature feature, Collection<?> values) {
+        NeoLogger.info("Called setAll for {0}.{1} with {2} values", internalObject, feature.getName(), values.size());
+        super.setAll(internalObject, feature, values);
+    }
+
     @Override
     public Object[] toArray(InternalEObject internalObject, EStructuralFeature feature) {
         NeoLogger.info("Called toArray for {0}.{1}", internalObject, feature.getName());
@@ -124,6 +145,18 @@ public class LoggingStoreDecorator extends AbstractPersistentStoreDecorator {
         return super.toArray(internalObject, feature, array);
     }
 
+    @Override
+    public Object[] getAll(InternalEObject internalObject, EStructuralFeature feature) {
+        NeoLogger.info("Called getAll for {0}.{1}", internalObject, feature.getName());
+        return super.getAll(internalObject, feature);
+    }
+
+    @Override
+    public List<List<EObject>> eContents(List<? extends InternalEObject> objects) {
+        NeoLogger.info("Called eContents with {0} values", objects.size());
+        return super.eContents(objects);
+    }
+
     @Override
     public int hashCode(InternalEObject internalObject, EStructuralFeature feature) {
         NeoLogger.info("Called hashCode for {0}.{1}", internalObject, feature.getName());
@@ -159,4 +192,10 @@ public class LoggingStoreDecorator extends AbstractPersistentStoreDecorator {
         NeoLogger.info("Called getEObject with value {0}", id);
         return super.eObject(id);
     }
+
+    @Override
+    public List<EObject> eObjects(Collection<Id> ids) {
+        NeoLogger.info("Called getEObjects with {0} values", ids.size());
+        return super.eObjects(ids);
+    }
 }
@@ -0,0 +1,776 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.store;
+
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.core.PersistentEObject;
+import fr.inria.atlanmod.neoemf.data.structure.AncestorInfo;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureCardinality;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureKey;
+import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
+
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.InternalEObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import javax.annotation.Nonnegative;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A {@link PersistentStore} wrapper that keeps all the modifications in an in-memory delta, without modifying the
+ * underlying store.
+ * <p>
+ * Read operations fall through to the underlying store for the features that have not been modified, and are answered
+ * from the delta for the others. A multi-valued feature is copied in the delta the first time it is modified, so the
+ * cost of a modification is proportional to the size of the modified feature, and not to the size of the model. As in
+ * the back-ends, the delta holds the {@link Id} of the referenced objects, and not the objects themselves.
+ * <p>
+ * The delta can be {@link #merge() merged} into the underlying store, in a single write per modified feature, or
+ * {@link #discard() discarded}.
+ *
+ * @see fr.inria.atlanmod.neoemf.resource.PersistentResource#fork()
+ */
+public class OverlayStoreDecorator extends AbstractPersistentStoreDecorator {
+
+    /**
+     * The value of a feature that has been unset in the delta.
+     */
+    private static final Object UNSET = new Object();
+
+    /**
+     * The container of an object that has been removed from its containment reference in the delta.
+     */
+    private static final ContainerEntry NO_CONTAINER = new ContainerEntry(null, null);
+
+    /**
+     * The modified features, in the order of their first modification.
+     */
+    private final Map<FeatureKey, Change> changes = new LinkedHashMap<>();
+
+    /**
+     * The containers of the objects that have been added to, or removed from, a containment reference in the delta,
+     * identified by the {@link Id} of the contained object. A removed object is mapped to {@link #NO_CONTAINER}.
+     */
+    private final Map<Id, ContainerEntry> containers = new HashMap<>();
+
+    /**
+     * The objects referenced from the delta, that may be unknown by the underlying store.
+     */
+    private final Map<Id, EObject> objects = new HashMap<>();
+
+    /**
+     * Constructs a new {@code OverlayStoreDecorator} on the given {@code store}.
+     *
+     * @param store the underlying store, that is never modified until the delta is merged
+     */
+    public OverlayStoreDecorator(PersistentStore store) {
+        super(store);
+    }
+
+    /**
+     * Returns whether the delta contains modifications that have not been merged yet.
+     *
+     * @return {@code true} if at least one feature has been modified
+     */
+    public boolean isDirty() {
+        return !changes.isEmpty();
+    }
+
+    /**
+     * Returns the number of features modified in the delta.
+     *
+     * @return the number of modified features
+     */
+    @Nonnegative
+    public int changes() {
+        return changes.size();
+    }
+
+    /**
+     * Writes all the modifications of the delta in the underlying store, and clears the delta.
+     * <p>
+     * Each modified feature is written once, with its final value: a single-valued feature is set or unset, and a
+     * multi-valued feature is replaced with {@link PersistentStore#setAll(InternalEObject, EStructuralFeature,
+     * Collection)}.
+     * <p>
+     * The other stores of the same back-end, and their objects, are not aware of these modifications: they must be
+     * invalidated with the returned keys.
+     *
+     * @return the keys of the merged features
+     *
+     * @see PersistentStore#invalidate(Set)
+     */
+    public Set<FeatureKey> merge() {
+        NeoLogger.debug("Merging {0} modified features", changes.size());
+        for (Change change : changes.values()) {
+            if (change.value == UNSET || isNull(change.value)) {
+                super.unset(change.object, change.feature);
+            }
+            else if (change.feature.isMany()) {
+                List<Object> values = new ArrayList<>(change.values().size());
+                for (Object value : change.values()) {
+                    values.add(fromStoredValue(change.feature, value));
+                }
+                super.setAll(change.object, change.feature, values);
+            }
+            else {
+                super.set(change.object, change.feature, NO_INDEX, fromStoredValue(change.feature, change.value));
+            }
+        }
+        Set<FeatureKey> mergedKeys = new HashSet<>(changes.keySet());
+        discard();
+        return mergedKeys;
+    }
+
+    /**
+     * Forgets all the modifications of the delta.
+     */
+    public void discard() {
+        changes.clear();
+        containers.clear();
+        objects.clear();
+    }
+
+    /**
+     * Returns the modification of the {@code feature} of the {@code object}.
+     *
+     * @param object  the object
+     * @param feature the feature of the {@code object}
+     *
+     * @return the modification, or {@code null} if the feature has not been modified
+     */
+    private Change changeOf(InternalEObject object, EStructuralFeature feature) {
+        return changes.isEmpty() ? null : changes.get(FeatureKey.from(object, feature));
+    }
+
+    /**
+     * Returns the modification of the multi-valued {@code feature} of the {@code object}, and copies its current
+     * content from the underlying store if it has not been modified yet.
+     *
+     * @param object  the object
+     * @param feature a multi-valued feature of the {@code object}
+     *
+     * @return the list of values of the feature, held by the delta
+     */
+    @SuppressWarnings("unchecked")
+    private List<Object> writableValues(InternalEObject object, EStructuralFeature feature) {
+        FeatureKey key = FeatureKey.from(object, feature);
+        Change change = changes.get(key);
+        if (isNull(change)) {
+            List<Object> values = new ArrayList<>();
+            for (Object value : super.getAll(object, feature)) {
+                Object storedValue = toStoredValue(feature, value);
+                if (storedValue instanceof Id) {
+                    // Keeps the objects already materialized, so that they are resolved without the underlying store
+                    objects.putIfAbsent((Id) storedValue, PersistentEObject.from(value));
+                }
+                values.add(storedValue);
+            }
+            change = new Change(object, feature, values);
+            changes.put(key, change);
+        }
+        else if (change.value == UNSET) {
+            change.value = new ArrayList<>();
+        }
+        return (List<Object>) change.value;
+    }
+
+    /**
+     * Records the new single {@code value} of the {@code feature} of the {@code object}.
+     *
+     * @param object  the object
+     * @param feature a single-valued feature of the {@code object}
+     * @param value   the new value, or {@link #UNSET}
+     *
+     * @return the previous value
+     */
+    private Object writeValue(InternalEObject object, EStructuralFeature feature, Object value) {
+        FeatureKey key = FeatureKey.from(object, feature);
+        Change change = changes.get(key);
+        Object storedValue = value == UNSET ? UNSET : toStoredValue(feature, value);
+        Object previous;
+        if (isNull(change)) {
+            previous = super.get(object, feature, NO_INDEX);
+            changes.put(key, new Change(object, feature, storedValue));
+        }
+        else {
+            previous = change.value == UNSET ? null : fromStoredValue(feature, change.value);
+            change.value = storedValue;
+        }
+        return previous;
+    }
+
+    /**
+     * Converts a {@code value} of the {@code feature} to its representation in the delta: the {@link Id} of the
+     * referenced object if the {@code feature} is a reference, the value itself otherwise.
+     *
+     * @param feature the feature the value belongs to
+     * @param value   the value to convert
+     *
+     * @return the value to store in the delta
+     */
+    private static Object toStoredValue(EStructuralFeature feature, Object value) {
+        return feature instanceof EReference && nonNull(value) ? PersistentEObject.from(value).id() : value;
+    }
+
+    /**
+     * Converts a value of the {@code feature} stored in the delta to its model representation.
+     *
+     * @param feature the feature the value belongs to
+     * @param stored  the stored value, as returned by {@link #toStoredValue(EStructuralFeature, Object)}
+     *
+     * @return the value, or the referenced object
+     */
+    private Object fromStoredValue(EStructuralFeature feature, Object stored) {
+        return feature instanceof EReference && nonNull(stored) ? eObject((Id) stored) : stored;
+    }
+
+    /**
+     * Converts the {@code values} of a multi-valued {@code feature} stored in the delta to their model
+     * representation.
+     *
+     * @param feature the feature the values belong to
+     * @param values  the stored values
+     *
+     * @return an array of values, or of referenced objects
+     */
+    private Object[] fromStoredValues(EStructuralFeature feature, List<Object> values) {
+        Object[] result = new Object[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = fromStoredValue(feature, values.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Records the {@code value} of the {@code feature} of the {@code object} as an object referenced from the delta,
+     * and its container if the {@code feature} is a containment.
+     *
+     * @param object  the object
+     * @param feature the feature of the {@code object}
+     * @param value   the new value of the feature
+     */
+    private void referenced(InternalEObject object, EStructuralFeature feature, Object value) {
+        if (feature instanceof EReference && nonNull(value)) {
+            PersistentEObject referencedObject = PersistentEObject.from(value);
+            objects.put(referencedObject.id(), referencedObject);
+            if (((EReference) feature).isContainment()) {
+                containers.put(referencedObject.id(), new ContainerEntry(object, (EReference) feature));
+            }
+        }
+    }
+
+    /**
+     * Records that the {@code value} has been removed from the {@code feature} of the {@code object}: if the {@code
+     * feature} is a containment, the value has no container anymore, unless it has already been added to another
+     * containment in the delta.
+     * <p>
+     * When an object is moved to another container, EMF adds it to its new container before removing it from the
+     * previous one.
+     *
+     * @param object  the object
+     * @param feature the feature of the {@code object}
+     * @param stored  the removed value, as stored in the delta
+     */
+    private void unreferenced(InternalEObject object, EStructuralFeature feature, Object stored) {
+        if (feature instanceof EReference && ((EReference) feature).isContainment() && nonNull(stored)) {
+            Id id = (Id) stored;
+            ContainerEntry entry = containers.get(id);
+            if (isNull(entry) || entry.container == object && entry.reference == feature) {
+                containers.put(id, NO_CONTAINER);
+            }
+        }
+    }
+
+    /**
+     * Records that all the current values of the {@code feature} of the {@code object} are removed.
+     *
+     * @param object  the object
+     * @param feature the feature of the {@code object}
+     *
+     * @see #unreferenced(InternalEObject, EStructuralFeature, Object)
+     */
+    private void unreferencedAll(InternalEObject object, EStructuralFeature feature) {
+        if (feature instanceof EReference && ((EReference) feature).isContainment()) {
+            if (feature.isMany()) {
+                for (Object value : getAll(object, feature)) {
+                    unreferenced(object, feature, toStoredValue(feature, value));
+                }
+            }
+            else {
+                unreferenced(object, feature, toStoredValue(feature, get(object, feature, NO_INDEX)));
+            }
+        }
+    }
+
+    @Override
+    public Object get(InternalEObject internalObject, EStructuralFeature feature, int index) {
+        Change change = changeOf(internalObject, feature);
+        if (isNull(change)) {
+            return super.get(internalObject, feature, index);
+        }
+        else if (!feature.isMany()) {
+            return change.value == UNSET ? null : fromStoredValue(feature, change.value);
+        }
+        return fromStoredValue(feature, change.values().get(index));
+    }
+
+    @Override
+    public Object set(InternalEObject internalObject, EStructuralFeature feature, int index, Object value) {
+        referenced(internalObject, feature, value);
+        Object storedValue = toStoredValue(feature, value);
+        Object previous;
+        Object storedPrevious;
+        if (index == NO_INDEX) {
+            previous = writeValue(internalObject, feature, value);
+            storedPrevious = toStoredValue(feature, previous);
+        }
+        else {
+            storedPrevious = writableValues(internalObject, feature).set(index, storedValue);
+            previous = fromStoredValue(feature, storedPrevious);
+        }
+        if (!Objects.equals(storedPrevious, storedValue)) {
+            unreferenced(internalObject, feature, storedPrevious);
+        }
+        return previous;
+    }
+
+    @Override
+    public boolean isSet(InternalEObject internalObject, EStructuralFeature feature) {
+        Change change = changeOf(internalObject, feature);
+        if (isNull(change)) {
+            return super.isSet(internalObject, feature);
+        }
+        return change.value != UNSET && (!feature.isMany() || !change.values().isEmpty());
+    }
+
+    @Override
+    public void unset(InternalEObject internalObject, EStructuralFeature feature) {
+        unreferencedAll(internalObject, feature);
+        FeatureKey key = FeatureKey.from(internalObject, feature);
+        Change change = changes.get(key);
+        if (isNull(change)) {
+            changes.put(key, new Change(internalObject, feature, UNSET));
+        }
+        else {
+            change.value = UNSET;
+        }
+    }
+
+    @Override
+    public boolean isEmpty(InternalEObject internalObject, EStructuralFeature feature) {
+        return size(internalObject, feature) == 0;
+    }
+
+    @Override
+    public int size(InternalEObject internalObject, EStructuralFeature feature) {
+        Change change = changeOf(internalObject, feature);
+        return isNull(change) ? super.size(internalObject, feature) : change.values().size();
+    }
+
+    @Override
+    public boolean contains(InternalEObject internalObject, EStructuralFeature feature, Object value) {
+        Change change = changeOf(internalObject, feature);
+        return isNull(change)
+                ? super.contains(internalObject, feature, value)
+                : change.values().contains(toStoredValue(feature, value));
+    }
+
+    @Override
+    public int indexOf(InternalEObject internalObject, EStructuralFeature feature, Object value) {
+        Change change = changeOf(internalObject, feature);
+        return isNull(change)
+                ? super.indexOf(internalObject, feature, value)
+                : change.values().indexOf(toStoredValue(feature, value));
+    }
+
+    @Override
+    public int lastIndexOf(InternalEObject internalObject, EStructuralFeature feature, Object value) {
+        Change change = changeOf(internalObject, feature);
+        return isNull(change)
+                ? super.lastIndexOf(internalObject, feature, value)
+                : change.values().lastIndexOf(toStoredValue(feature, value));
+    }
+
+    @Override
+    public void add(InternalEObject internalObject, EStructuralFeature feature, int index, Object value) {
+        referenced(internalObject, feature, value);
+        List<Object> values = writableValues(internalObject, feature);
+        values.add(index == NO_INDEX ? values.size() : index, toStoredValue(feature, value));
+    }
+
+    @Override
+    public Object remove(InternalEObject internalObject, EStructuralFeature feature, int index) {
+        Object removed = writableValues(internalObject, feature).remove(index);
+        unreferenced(internalObject, feature, removed);
+        return fromStoredValue(feature, removed);
+    }
+
+    @Override
+    public Object move(InternalEObject internalObject, EStructuralFeature feature, int targetIndex, int sourceIndex) {
+        List<Object> values = writableValues(internalObject, feature);
+        Object movedValue = values.remove(sourceIndex);
+        values.add(targetIndex, movedValue);
+        return fromStoredValue(feature, movedValue);
+    }
+
+    @Override
+    public void clear(InternalEObject internalObject, EStructuralFeature feature) {
+        unreferencedAll(internalObject, feature);
+        FeatureKey key = FeatureKey.from(internalObject, feature);
+        Change change = changes.get(key);
+        if (isNull(change)) {
+            changes.put(key, new Change(internalObject, feature, new ArrayList<>()));
+        }
+        else {
+            change.value = new ArrayList<>();
+        }
+    }
+
+    @Override
+    public void addAll(InternalEObject internalObject, EStructuralFeature feature, int index, Collection<?> values) {
+        List<Object> storedValues = new ArrayList<>(values.size());
+        for (Object value : values) {
+            referenced(internalObject, feature, value);
+            storedValues.add(toStoredValue(feature, value));
+        }
+        List<Object> currentValues = writableValues(internalObject, feature);
+        currentValues.addAll(index == NO_INDEX ? currentValues.size() : index, storedValues);
+    }
+
+    @Override
+    public void removeRange(InternalEObject internalObject, EStructuralFeature feature, int fromIndex, int toIndex) {
+        List<Object> removedValues = writableValues(internalObject, feature).subList(fromIndex, toIndex);
+        for (Object removed : removedValues) {
+            unreferenced(internalObject, feature, removed);
+        }
+        removedValues.clear();
+    }
+
+    @Override
+    public void setAll(InternalEObject internalObject, EStructuralFeature feature, Collection<?> values) {
+        clear(internalObject, feature);
+        addAll(internalObject, feature, 0, values);
+    }
+
+    @Override
+    public Object[] toArray(InternalEObject internalObject, EStructuralFeature feature) {
+        return getAll(internalObject, feature);
+    }
+
+    @Override
+    public <T> T[] toArray(InternalEObject internalObject, EStructuralFeature feature, T[] array) {
+        Change change = changeOf(internalObject, feature);
+        return isNull(change)
+                ? super.toArray(internalObject, feature, array)
+                : Arrays.asList(fromStoredValues(feature, change.values())).toArray(array);
+    }
+
+    @Override
+    public Object[] getAll(InternalEObject internalObject, EStructuralFeature feature) {
+        Change change = changeOf(internalObject, feature);
+        return isNull(change) ? super.getAll(internalObject, feature) : fromStoredValues(feature, change.values());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The contents are read from the underlying store in a single batch as long as the delta is empty.
+     */
+    @Override
+    public List<List<EObject>> eContents(List<? extends InternalEObject> objects) {
+        if (changes.isEmpty()) {
+            return super.eContents(objects);
+        }
+
+        List<List<EObject>> contents = new ArrayList<>(objects.size());
+        for (InternalEObject object : objects) {
+            List<EObject> objectContents = new ArrayList<>();
+            for (EReference reference : object.eClass().getEAllContainments()) {
+                if (reference.isMany()) {
+                    for (Object value : getAll(object, reference)) {
+                        objectContents.add((EObject) value);
+                    }
+                }
+                else {
+                    Object value = get(object, reference, NO_INDEX);
+                    if (nonNull(value)) {
+                        objectContents.add((EObject) value);
+                    }
+                }
+            }
+            contents.add(objectContents);
+        }
+        return contents;
+    }
+
+    @Override
+    public int hashCode(InternalEObject internalObject, EStructuralFeature feature) {
+        Change change = changeOf(internalObject, feature);
+        return isNull(change)
+                ? super.hashCode(internalObject, feature)
+                : Arrays.hashCode(fromStoredValues(feature, change.values()));
+    }
+
+    @Override
+    public InternalEObject getContainer(InternalEObject internalObject) {
+        ContainerEntry entry = containers.isEmpty() ? null : containers.get(PersistentEObject.from(internalObject).id());
+        return isNull(entry) ? super.getContainer(internalObject) : entry.container;
+    }
+
+    @Override
+    public EStructuralFeature getContainingFeature(InternalEObject internalObject) {
+        ContainerEntry entry = containers.isEmpty() ? null : containers.get(PersistentEObject.from(internalObject).id());
+        return isNull(entry) ? super.getContainingFeature(internalObject) : entry.reference;
+    }
+
+    @Override
+    public EObject eObject(Id id) {
+        EObject object = objects.get(id);
+        return isNull(object) ? super.eObject(id) : object;
+    }
+
+    @Override
+    public List<EObject> eObjects(Collection<Id> ids) {
+        if (objects.isEmpty()) {
+            return super.eObjects(ids);
+        }
+
+        List<EObject> result = new ArrayList<>(ids.size());
+        for (Id id : ids) {
+            result.add(eObject(id));
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException if the delta is not empty
+     */
+    @Override
+    public EList<EObject> getAllInstances(EClass eClass, boolean strict) {
+        checkClean();
+        return super.getAllInstances(eClass, strict);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException if the delta is not empty
+     */
+    @Override
+    public long countInstances(EClass eClass, boolean strict) {
+        checkClean();
+        return super.countInstances(eClass, strict);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException if the delta is not empty
+     */
+    @Override
+    public FeatureCardinality cardinalityOf(EStructuralFeature feature) {
+        checkClean();
+        return super.cardinalityOf(feature);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException if the delta is not empty
+     */
+    @Override
+    public AncestorInfo ancestorsOf(Id id) {
+        checkClean();
+        return super.ancestorsOf(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException if the delta is not empty
+     */
+    @Override
+    public List<Id> descendantsOf(Id id) {
+        checkClean();
+        return super.descendantsOf(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException if the delta is not empty
+     */
+    @Override
+    public List<Id> findBy(EAttribute attribute, Object value) {
+        checkClean();
+        return super.findBy(attribute, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException if the delta is not empty
+     */
+    @Override
+    public List<Id> findByRange(EAttribute attribute, Object from, Object to) {
+        checkClean();
+        return super.findByRange(attribute, from, to);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException if the delta is not empty
+     */
+    @Override
+    public List<Id> findByPrefix(EAttribute attribute, String prefix) {
+        checkClean();
+        return super.findByPrefix(attribute, prefix);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException if the delta is not empty
+     */
+    @Override
+    public Collection<EStructuralFeature.Setting> getInverseReferences(InternalEObject internalObject, EReference reference) {
+        checkClean();
+        return super.getInverseReferences(internalObject, reference);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The modifications are held by this store, and not by the objects: they could not be invalidated when the delta
+     * is discarded.
+     */
+    @Override
+    public boolean isCachingInObjects() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The delta is discarded.
+     */
+    @Override
+    public void close() {
+        discard();
+        super.close();
+    }
+
+    /**
+     * Checks that the delta is empty, so that the back-end specific queries of the underlying store are still
+     * accurate.
+     *
+     * @throws UnsupportedOperationException if the delta is not empty
+     */
+    private void checkClean() {
+        if (!changes.isEmpty()) {
+            throw new UnsupportedOperationException("The back-end specific queries are not available on a modified overlay");
+        }
+    }
+
+    /**
+     * The modification of a feature of an object.
+     */
+    private static final class Change {
+
+        /**
+         * The modified object.
+         */
+        private final InternalEObject object;
+
+        /**
+         * The modified feature.
+         */
+        private final EStructuralFeature feature;
+
+        /**
+         * The new value of the feature, as stored in the delta: a single value, a list of values if the feature is
+         * multi-valued, or {@link #UNSET}.
+         */
+        private Object value;
+
+        /**
+         * Constructs a new {@code Change}.
+         *
+         * @param object  the modified object
+         * @param feature the modified feature
+         * @param value   the new value of the feature
+         */
+        private Change(InternalEObject object, EStructuralFeature feature, Object value) {
+            this.object = object;
+            this.feature = feature;
+            this.value = value;
+        }
+
+        /**
+         * Returns the new values of the multi-valued feature.
+         *
+         * @return a list, empty if the feature has been unset
+         */
+        @SuppressWarnings("unchecked")
+        private List<Object> values() {
+            return value == UNSET ? new ArrayList<>() : (List<Object>) value;
+        }
+    }
+
+    /**
+     * The container of an object, as recorded in the delta.
+     */
+    private static final class ContainerEntry {
+
+        /**
+         * The container, or {@code null} if the object has no container anymore.
+         */
+        private final InternalEObject container;
+
+        /**
+         * The containment reference of the container.
+         */
+        private final EReference reference;
+
+        /**
+         * Constructs a new {@code ContainerEntry}.
+         *
+         * @param container the container
+         * @param reference the containment reference of the container
+         */
+        private ContainerEntry(InternalEObject container, EReference reference) {
+            this.container = container;
+            this.reference = reference;
+        }
+    }
+}
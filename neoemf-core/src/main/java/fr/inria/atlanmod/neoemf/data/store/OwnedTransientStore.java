@@ -11,10 +11,17 @@
 
 package fr.inria.atlanmod.neoemf.data.store;
 
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureKey;
+
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.InternalEObject;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import static com.google.common.base.Preconditions.checkArgument;
 
 /**
@@ -145,6 +152,22 @@ public class OwnedTransientStore extends AbstractTransientStore {
         return super.getContainingFeature(internalObject);
     }
 
+    /**
+     * Re-identifies the values stored in this store with the given {@code id}, when the identifier of its owner
+     * changes.
+     *
+     * @param id the new identifier of the owner
+     */
+    public void ownerIdChanged(Id id) {
+        Map<FeatureKey, Object> newSingleMap = new HashMap<>();
+        singleMap.forEach((key, value) -> newSingleMap.put(FeatureKey.of(id, key.name()), value));
+        singleMap = newSingleMap;
+
+        Map<FeatureKey, List<Object>> newManyMap = new HashMap<>();
+        manyMap.forEach((key, values) -> newManyMap.put(FeatureKey.of(id, key.name()), values));
+        manyMap = newManyMap;
+    }
+
     /**
      * Checks that the {@code internalObject} is the owner of this store.
      *
@@ -12,18 +12,35 @@
 package fr.inria.atlanmod.neoemf.data.store;
 
 import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.structure.AncestorInfo;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureCardinality;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureKey;
 
 import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EAttribute;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.InternalEObject;
 import org.eclipse.emf.ecore.InternalEObject.EStore;
 import org.eclipse.emf.ecore.resource.Resource;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+import static java.util.Objects.nonNull;
+
 /**
  * An {@link EStore} to establish a mapping between {@link Resource}s and {@link
  * fr.inria.atlanmod.neoemf.data.PersistenceBackend}s.
  */
-public interface PersistentStore extends EStore {
+public interface PersistentStore extends EStore, AutoCloseable {
 
     /**
      * A value indicating that no index is specified.
@@ -46,6 +63,165 @@ public interface PersistentStore extends EStore {
      */
     EObject eObject(Id id);
 
+    /**
+     * Returns the resolved {@link EObject}s identified by the given {@code ids}, in the iteration order of the
+     * collection.
+     * <p>
+     * By default, calls {@link #eObject(Id)} for each identifier. Stores should override this method to resolve the
+     * objects, and their metaclass, with a single back-end call.
+     *
+     * @param ids the identifiers of the {@link EObject}s to resolve
+     *
+     * @return a list containing the resolved {@link EObject}s, or {@code null} for each identifier that cannot be
+     * resolved
+     */
+    default List<EObject> eObjects(Collection<Id> ids) {
+        return ids.stream().map(this::eObject).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the value at the {@code index} in the content of the feature identified by {@code featureId} in the
+     * metaclass of the {@code object}.
+     * <p>
+     * By default, resolves the feature and calls {@link #get(InternalEObject, EStructuralFeature, int)}. Stores
+     * should override this method to read the value from a description of the feature computed once per metaclass.
+     *
+     * @param internalObject the object
+     * @param featureId      the identifier of the feature in {@link EObject#eClass()}
+     * @param index          an index within the content or {@link #NO_INDEX}
+     *
+     * @return the value
+     *
+     * @see org.eclipse.emf.ecore.EClass#getEStructuralFeature(int)
+     */
+    default Object get(InternalEObject internalObject, int featureId, int index) {
+        return get(internalObject, internalObject.eClass().getEStructuralFeature(featureId), index);
+    }
+
+    /**
+     * Sets the value at the {@code index} in the content of the feature identified by {@code featureId} in the
+     * metaclass of the {@code object}.
+     * <p>
+     * By default, resolves the feature and calls {@link #set(InternalEObject, EStructuralFeature, int, Object)}.
+     * Stores should override this method to write the value from a description of the feature computed once per
+     * metaclass.
+     *
+     * @param internalObject the object
+     * @param featureId      the identifier of the feature in {@link EObject#eClass()}
+     * @param index          an index within the content or {@link #NO_INDEX}
+     * @param value          the new value
+     *
+     * @return the previous value
+     *
+     * @see org.eclipse.emf.ecore.EClass#getEStructuralFeature(int)
+     */
+    default Object set(InternalEObject internalObject, int featureId, int index, Object value) {
+        return set(internalObject, internalObject.eClass().getEStructuralFeature(featureId), index, value);
+    }
+
+    /**
+     * Returns all the values of the multi-valued {@code feature} of the {@code object}, in their order.
+     * <p>
+     * By default, calls {@link #toArray(InternalEObject, EStructuralFeature)}. Stores should override this method to
+     * fetch the whole content of the feature with a single back-end call.
+     *
+     * @param object  the object
+     * @param feature a multi-valued feature of the {@code object}
+     *
+     * @return an array containing all the values of the feature
+     */
+    default Object[] getAll(InternalEObject object, EStructuralFeature feature) {
+        return toArray(object, feature);
+    }
+
+    /**
+     * Returns the direct contents of each of the given {@code objects}, in the order of
+     * {@link EObject#eContents()}.
+     * <p>
+     * By default, calls {@link #getAll(InternalEObject, EStructuralFeature)} for each multi-valued containment, and
+     * {@link #get(InternalEObject, EStructuralFeature, int)} for each single-valued containment. Stores should
+     * override this method to read the containments of all the objects, and to resolve all their contents, with a few
+     * back-end calls.
+     *
+     * @param objects the objects to read the contents of
+     *
+     * @return a list containing the contents of each object, in the order of the given {@code objects}
+     */
+    default List<List<EObject>> eContents(List<? extends InternalEObject> objects) {
+        List<List<EObject>> contents = new ArrayList<>(objects.size());
+        for (InternalEObject object : objects) {
+            List<EObject> objectContents = new ArrayList<>();
+            for (EReference reference : object.eClass().getEAllContainments()) {
+                if (reference.isMany()) {
+                    for (Object value : getAll(object, reference)) {
+                        objectContents.add((EObject) value);
+                    }
+                }
+                else {
+                    Object value = get(object, reference, NO_INDEX);
+                    if (nonNull(value)) {
+                        objectContents.add((EObject) value);
+                    }
+                }
+            }
+            contents.add(objectContents);
+        }
+        return contents;
+    }
+
+    /**
+     * Adds all the {@code values} at the {@code index} in the content of the multi-valued {@code feature} of the
+     * {@code object}, in the iteration order of the collection.
+     * <p>
+     * By default, calls {@link #add(InternalEObject, EStructuralFeature, int, Object)} for each value. Stores should
+     * override this method to write the whole collection in a single operation.
+     *
+     * @param object  the object
+     * @param feature a multi-valued feature of the {@code object}
+     * @param index   the index of the first added value, or {@link #NO_INDEX} to append the values
+     * @param values  the values to add
+     */
+    default void addAll(InternalEObject object, EStructuralFeature feature, int index, Collection<?> values) {
+        int position = index == NO_INDEX ? size(object, feature) : index;
+        for (Object value : values) {
+            add(object, feature, position++, value);
+        }
+    }
+
+    /**
+     * Removes the values between {@code fromIndex}, inclusive, and {@code toIndex}, exclusive, from the content of the
+     * multi-valued {@code feature} of the {@code object}.
+     * <p>
+     * By default, calls {@link #remove(InternalEObject, EStructuralFeature, int)} for each index, starting from the
+     * end of the range. Stores should override this method to remove the whole range in a single operation.
+     *
+     * @param object    the object
+     * @param feature   a multi-valued feature of the {@code object}
+     * @param fromIndex the index of the first value to remove
+     * @param toIndex   the index following the last value to remove
+     */
+    default void removeRange(InternalEObject object, EStructuralFeature feature, int fromIndex, int toIndex) {
+        for (int index = toIndex - 1; index >= fromIndex; index--) {
+            remove(object, feature, index);
+        }
+    }
+
+    /**
+     * Replaces the content of the multi-valued {@code feature} of the {@code object} by the given {@code values}.
+     * <p>
+     * By default, calls {@link #clear(InternalEObject, EStructuralFeature)}, then {@link #addAll(InternalEObject,
+     * EStructuralFeature, int, Collection)}. Stores should override this method to write the new content in a single
+     * operation.
+     *
+     * @param object  the object
+     * @param feature a multi-valued feature of the {@code object}
+     * @param values  the new values
+     */
+    default void setAll(InternalEObject object, EStructuralFeature feature, Collection<?> values) {
+        clear(object, feature);
+        addAll(object, feature, 0, values);
+    }
+
     /**
      * Back-end specific computation of {@link Resource#getAllContents()}.
      *
@@ -60,8 +236,183 @@ public interface PersistentStore extends EStore {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Back-end specific computation of the number of instances of the given {@code eClass}, without loading them.
+     *
+     * @param eClass the {@link EClass} to count the instances of
+     * @param strict {@code true} if only the strict instances are counted
+     *
+     * @return the number of instances of the given {@link EClass}
+     *
+     * @throws UnsupportedOperationException if the back-end does not maintain instance statistics
+     */
+    default long countInstances(EClass eClass, boolean strict) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Back-end specific computation of the cardinality of the given multi-valued {@code feature}, without loading its
+     * owners.
+     *
+     * @param feature the multi-valued feature
+     *
+     * @return the cardinality of the feature
+     *
+     * @throws UnsupportedOperationException if the back-end does not maintain feature statistics
+     */
+    default FeatureCardinality cardinalityOf(EStructuralFeature feature) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Back-end specific computation of the ancestors of the object identified by {@code id}, without navigating its
+     * containers.
+     *
+     * @param id the identifier of the object
+     *
+     * @return the ancestors of the object
+     *
+     * @throws UnsupportedOperationException if the back-end does not maintain an ancestor index
+     */
+    default AncestorInfo ancestorsOf(Id id) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Back-end specific computation of the identifiers of all the objects contained, directly or not, by the object
+     * identified by {@code id}, without navigating its contents.
+     *
+     * @param id the identifier of the object
+     *
+     * @return the identifiers of the descendants of the object
+     *
+     * @throws UnsupportedOperationException if the back-end does not maintain an ancestor index
+     */
+    default List<Id> descendantsOf(Id id) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Back-end specific computation of the identifiers of the objects whose {@code attribute} is equal to the given
+     * {@code value}, without scanning all the objects.
+     *
+     * @param attribute the indexed attribute
+     * @param value     the value
+     *
+     * @return the identifiers of the objects
+     *
+     * @throws UnsupportedOperationException if the back-end does not index the attribute
+     */
+    default List<Id> findBy(EAttribute attribute, Object value) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Back-end specific computation of the identifiers of the objects whose {@code attribute} is between {@code from},
+     * inclusive, and {@code to}, exclusive, without scanning all the objects.
+     *
+     * @param attribute the indexed attribute
+     * @param from      the lower bound, or {@code null} if there is no lower bound
+     * @param to        the upper bound, or {@code null} if there is no upper bound
+     *
+     * @return the identifiers of the objects, sorted by value
+     *
+     * @throws UnsupportedOperationException if the back-end does not index the attribute
+     */
+    default List<Id> findByRange(EAttribute attribute, Object from, Object to) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Back-end specific computation of the identifiers of the objects whose {@code attribute} starts with the given
+     * {@code prefix}, without scanning all the objects.
+     *
+     * @param attribute the indexed attribute
+     * @param prefix    the prefix
+     *
+     * @return the identifiers of the objects, sorted by value
+     *
+     * @throws UnsupportedOperationException if the back-end does not index the attribute
+     */
+    default List<Id> findByPrefix(EAttribute attribute, String prefix) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Back-end specific computation of the settings that reference the given {@code internalObject}, without scanning
+     * the references of all the objects.
+     * <p>
+     * By default, calls {@link #getInverseReferences(InternalEObject, EReference)} for all the references.
+     *
+     * @param internalObject the referenced object
+     *
+     * @return the settings of the objects referencing the object
+     *
+     * @throws UnsupportedOperationException if the back-end does not maintain an inverse reference index
+     */
+    default Collection<EStructuralFeature.Setting> getInverseReferences(InternalEObject internalObject) {
+        return getInverseReferences(internalObject, null);
+    }
+
+    /**
+     * Back-end specific computation of the settings of the given {@code reference} that reference the given {@code
+     * internalObject}, without scanning the references of all the objects.
+     * <p>
+     * The inverse of a containment reference is not indexed: the container of an object is retrieved with {@link
+     * #getContainer(InternalEObject)}.
+     *
+     * @param internalObject the referenced object
+     * @param reference      the reference, or {@code null} for all the references
+     *
+     * @return the settings of the objects referencing the object
+     *
+     * @throws UnsupportedOperationException if the back-end does not maintain an inverse reference index
+     */
+    default Collection<EStructuralFeature.Setting> getInverseReferences(InternalEObject internalObject, @Nullable EReference reference) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns whether the {@link fr.inria.atlanmod.neoemf.core.PersistentEObject}s using this store are allowed to
+     * cache the values of their single-valued features.
+     * <p>
+     * When enabled, this store is responsible for calling
+     * {@link fr.inria.atlanmod.neoemf.core.PersistentEObject#invalidate(org.eclipse.emf.ecore.EStructuralFeature)}
+     * every time such a feature is modified.
+     *
+     * @return {@code true} if the objects can cache their values, {@code false} otherwise
+     *
+     * @see InObjectCachingStoreDecorator
+     */
+    default boolean isCachingInObjects() {
+        return false;
+    }
+
+    /**
+     * Discards the information cached by this store about the given features, because they have been modified in the
+     * back-end without using this store.
+     * <p>
+     * By default, this store does not cache anything, and this method does nothing.
+     *
+     * @param featureKeys the keys of the modified features, without position
+     *
+     * @see OverlayStoreDecorator#merge()
+     */
+    default void invalidate(Set<FeatureKey> featureKeys) {
+        // Nothing to invalidate
+    }
+
     /**
      * Saves the modifications of the owned {@link EObject}s in the persistence back-end.
      */
     void save();
+
+    /**
+     * Releases the resources held by this store, before its persistence back-end is closed by its resource.
+     * <p>
+     * By default, does nothing. This method does not close the back-end itself.
+     */
+    @Override
+    default void close() {
+    }
 }
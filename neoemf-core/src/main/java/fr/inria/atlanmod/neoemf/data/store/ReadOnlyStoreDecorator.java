@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.store;
+
+import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
+
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.InternalEObject;
+
+import java.text.MessageFormat;
+import java.util.Collection;
+
+/**
+ * A {@link PersistentStore} wrapper that only allows read operations on the underlying store.
+ * <p>
+ * All the methods that modify the content of the underlying store throw an {@link UnsupportedOperationException}.
+ *
+ * @see fr.inria.atlanmod.neoemf.resource.PersistentResource#snapshot()
+ */
+public class ReadOnlyStoreDecorator extends AbstractPersistentStoreDecorator {
+
+    /**
+     * Constructs a new {@code ReadOnlyStoreDecorator}.
+     *
+     * @param store the underlying store
+     */
+    public ReadOnlyStoreDecorator(PersistentStore store) {
+        super(store);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException operation not supported in read-only mode
+     */
+    @Override
+    public Object set(InternalEObject internalObject, EStructuralFeature feature, int index, Object value) {
+        throw unsupportedOperation();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException operation not supported in read-only mode
+     */
+    @Override
+    public void unset(InternalEObject internalObject, EStructuralFeature feature) {
+        throw unsupportedOperation();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException operation not supported in read-only mode
+     */
+    @Override
+    public void add(InternalEObject internalObject, EStructuralFeature feature, int index, Object value) {
+        throw unsupportedOperation();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException operation not supported in read-only mode
+     */
+    @Override
+    public Object remove(InternalEObject internalObject, EStructuralFeature feature, int index) {
+        throw unsupportedOperation();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException operation not supported in read-only mode
+     */
+    @Override
+    public Object move(InternalEObject internalObject, EStructuralFeature feature, int targetIndex, int sourceIndex) {
+        throw unsupportedOperation();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException operation not supported in read-only mode
+     */
+    @Override
+    public void clear(InternalEObject internalObject, EStructuralFeature feature) {
+        throw unsupportedOperation();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException operation not supported in read-only mode
+     */
+    @Override
+    public void addAll(InternalEObject internalObject, EStructuralFeature feature, int index, Collection<?> values) {
+        throw unsupportedOperation();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException operation not supported in read-only mode
+     */
+    @Override
+    public void removeRange(InternalEObject internalObject, EStructuralFeature feature, int fromIndex, int toIndex) {
+        throw unsupportedOperation();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException operation not supported in read-only mode
+     */
+    @Override
+    public void setAll(InternalEObject internalObject, EStructuralFeature feature, Collection<?> values) {
+        throw unsupportedOperation();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException operation not supported in read-only mode
+     */
+    @Override
+    public void save() {
+        throw unsupportedOperation();
+    }
+
+    /**
+     * Creates an {@link UnsupportedOperationException} to notify that the underlying store is read-only.
+     *
+     * @return the exception
+     */
+    private UnsupportedOperationException unsupportedOperation() {
+        String message = "Unable to write to resource with URI {0}. The resource is read-only";
+        String uri = String.valueOf(resource().getURI());
+
+        NeoLogger.error(message, uri);
+        return new UnsupportedOperationException(MessageFormat.format(message, uri));
+    }
+}
@@ -12,18 +12,25 @@
 package fr.inria.atlanmod.neoemf.data.store;
 
 import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 
 import fr.inria.atlanmod.neoemf.data.structure.FeatureKey;
+import fr.inria.atlanmod.neoemf.util.cache.CacheGovernor;
 
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.InternalEObject;
 
+import java.util.Collection;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
 import static java.util.Objects.isNull;
-import static java.util.Objects.nonNull;
 
 /**
  * A {@link PersistentStore} wrapper that caches the size data.
+ * <p>
+ * The cached sizes are updated atomically, and discarded when they may have been loaded during a modification, so
+ * that this store can be read by other threads while it is modified.
  */
 public class SizeCachingStoreDecorator extends AbstractPersistentStoreDecorator {
 
@@ -55,7 +62,7 @@ public class SizeCachingStoreDecorator extends AbstractPersistentStoreDecorator
      */
     public SizeCachingStoreDecorator(PersistentStore store, int cacheSize) {
         super(store);
-        this.sizesCache = Caffeine.newBuilder().maximumSize(cacheSize).build();
+        this.sizesCache = CacheGovernor.getInstance().newCache(cacheSize);
     }
 
     @Override
@@ -63,6 +70,7 @@ public class SizeCachingStoreDecorator extends AbstractPersistentStoreDecorator
         FeatureKey featureKey = FeatureKey.from(internalObject, feature);
         sizesCache.put(featureKey, 0);
         super.unset(internalObject, feature);
+        retainSize(featureKey, 0);
     }
 
     @Override
@@ -81,21 +89,18 @@ public class SizeCachingStoreDecorator extends AbstractPersistentStoreDecorator
     @Override
     public void add(InternalEObject internalObject, EStructuralFeature feature, int index, Object value) {
         FeatureKey featureKey = FeatureKey.from(internalObject, feature);
-        Integer size = sizesCache.getIfPresent(featureKey);
-        if (nonNull(size)) {
-            sizesCache.put(featureKey, size + 1);
-        }
+        Integer size = updateSize(featureKey, 1);
         super.add(internalObject, feature, index, value);
+        retainSize(featureKey, size);
     }
 
     @Override
     public Object remove(InternalEObject internalObject, EStructuralFeature feature, int index) {
         FeatureKey featureKey = FeatureKey.from(internalObject, feature);
-        Integer size = sizesCache.getIfPresent(featureKey);
-        if (nonNull(size)) {
-            sizesCache.put(featureKey, size - 1);
-        }
-        return super.remove(internalObject, feature, index);
+        Integer size = updateSize(featureKey, -1);
+        Object old = super.remove(internalObject, feature, index);
+        retainSize(featureKey, size);
+        return old;
     }
 
     @Override
@@ -103,5 +108,65 @@ public class SizeCachingStoreDecorator extends AbstractPersistentStoreDecorator
         FeatureKey featureKey = FeatureKey.from(internalObject, feature);
         sizesCache.put(featureKey, 0);
         super.clear(internalObject, feature);
+        retainSize(featureKey, 0);
+    }
+
+    @Override
+    public void addAll(InternalEObject internalObject, EStructuralFeature feature, int index, Collection<?> values) {
+        FeatureKey featureKey = FeatureKey.from(internalObject, feature);
+        Integer size = updateSize(featureKey, values.size());
+        super.addAll(internalObject, feature, index, values);
+        retainSize(featureKey, size);
+    }
+
+    @Override
+    public void removeRange(InternalEObject internalObject, EStructuralFeature feature, int fromIndex, int toIndex) {
+        FeatureKey featureKey = FeatureKey.from(internalObject, feature);
+        Integer size = updateSize(featureKey, -(toIndex - fromIndex));
+        super.removeRange(internalObject, feature, fromIndex, toIndex);
+        retainSize(featureKey, size);
+    }
+
+    @Override
+    public void setAll(InternalEObject internalObject, EStructuralFeature feature, Collection<?> values) {
+        FeatureKey featureKey = FeatureKey.from(internalObject, feature);
+        sizesCache.put(featureKey, values.size());
+        super.setAll(internalObject, feature, values);
+        retainSize(featureKey, values.size());
+    }
+
+    @Override
+    public void invalidate(Set<FeatureKey> featureKeys) {
+        super.invalidate(featureKeys);
+        sizesCache.invalidateAll(featureKeys);
+    }
+
+    /**
+     * Adds the given {@code delta} to the cached size of a feature, if it is cached.
+     * <p>
+     * The size is updated atomically, so that a size loaded at the same time by another thread, such as the one of a
+     * {@link WarmUpStoreDecorator}, is not overwritten.
+     *
+     * @param featureKey the key of the feature
+     * @param delta      the number of added values, negative if values are removed
+     *
+     * @return the new cached size, or {@code null} if the size is not cached
+     */
+    private Integer updateSize(FeatureKey featureKey, int delta) {
+        return sizesCache.asMap().computeIfPresent(featureKey, (key, size) -> size + delta);
+    }
+
+    /**
+     * Discards the cached size of a feature that has just been modified in the underlying store, unless it is the
+     * {@code expected} size.
+     * <p>
+     * Another thread can load the size while the feature is modified, and then cache the size it had before the
+     * modification.
+     *
+     * @param featureKey the key of the feature
+     * @param expected   the size cached before the modification, or {@code null} if the size was not cached
+     */
+    private void retainSize(FeatureKey featureKey, @Nullable Integer expected) {
+        sizesCache.asMap().computeIfPresent(featureKey, (key, size) -> size.equals(expected) ? size : null);
     }
 }
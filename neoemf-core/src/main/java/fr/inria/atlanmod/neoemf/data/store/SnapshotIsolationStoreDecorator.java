@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.store;
+
+import fr.inria.atlanmod.neoemf.core.PersistentEObject;
+import fr.inria.atlanmod.neoemf.data.store.SnapshotStoreDecorator.PreservedContainer;
+import fr.inria.atlanmod.neoemf.data.store.SnapshotStoreDecorator.PreservedValue;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureKey;
+
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.InternalEObject;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A {@link PersistentStore} wrapper that can take point-in-time snapshots of the underlying store, without copying it
+ * and without blocking its modifications.
+ * <p>
+ * A snapshot reads the back-end shared with this store, through a {@link SnapshotStoreDecorator}. Before each
+ * modification, this store preserves the current value of the modified feature, and the current container of the
+ * moved objects, in all the open snapshots that have not preserved them yet: each snapshot keeps the values it had
+ * when it was taken, and the cost of a snapshot is proportional to the modifications made while it is open.
+ * <p>
+ * Each modification holds the read lock of a {@link ReadWriteLock}, so that concurrent modifications are still
+ * allowed. Taking a snapshot only requires the write lock to register it, so that it does not see a half-applied
+ * modification. Read operations are never blocked. As with EMF, a same feature must not be modified concurrently.
+ *
+ * @see fr.inria.atlanmod.neoemf.resource.PersistentResource#snapshot()
+ */
+public class SnapshotIsolationStoreDecorator extends AbstractPersistentStoreDecorator {
+
+    /**
+     * The lock held by the modifications, and by the registration of the snapshots.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * The open snapshots of this store.
+     */
+    private final Set<SnapshotStoreDecorator> snapshots = new CopyOnWriteArraySet<>();
+
+    /**
+     * Constructs a new {@code SnapshotIsolationStoreDecorator} on the given {@code store}.
+     *
+     * @param store the underlying store
+     */
+    public SnapshotIsolationStoreDecorator(PersistentStore store) {
+        super(store);
+    }
+
+    /**
+     * Creates a snapshot of this store, reading its values through the given {@code store}.
+     *
+     * @param store a store of the snapshot resource, reading the back-end of this store
+     *
+     * @return the snapshot store, that must be {@link PersistentStore#close() closed} to stop preserving the values
+     * modified in this store
+     */
+    public SnapshotStoreDecorator snapshot(PersistentStore store) {
+        SnapshotStoreDecorator snapshot = new SnapshotStoreDecorator(store, this);
+
+        lock.writeLock().lock();
+        try {
+            snapshots.add(snapshot);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Stops preserving the values modified in this store in the given {@code snapshot}.
+     *
+     * @param snapshot the closed snapshot
+     */
+    void unregister(SnapshotStoreDecorator snapshot) {
+        snapshots.remove(snapshot);
+    }
+
+    @Override
+    public Object set(InternalEObject internalObject, EStructuralFeature feature, int index, Object value) {
+        lock.readLock().lock();
+        try {
+            if (!snapshots.isEmpty()) {
+                preserve(internalObject, feature);
+                if (isContainment(feature)) {
+                    preserveContainer(super.get(internalObject, feature, index));
+                    preserveContainer(value);
+                }
+            }
+            return super.set(internalObject, feature, index, value);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void unset(InternalEObject internalObject, EStructuralFeature feature) {
+        lock.readLock().lock();
+        try {
+            if (!snapshots.isEmpty()) {
+                preserve(internalObject, feature);
+                preserveContainers(internalObject, feature);
+            }
+            super.unset(internalObject, feature);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void add(InternalEObject internalObject, EStructuralFeature feature, int index, Object value) {
+        lock.readLock().lock();
+        try {
+            if (!snapshots.isEmpty()) {
+                preserve(internalObject, feature);
+                if (isContainment(feature)) {
+                    preserveContainer(value);
+                }
+            }
+            super.add(internalObject, feature, index, value);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Object remove(InternalEObject internalObject, EStructuralFeature feature, int index) {
+        lock.readLock().lock();
+        try {
+            if (!snapshots.isEmpty()) {
+                preserve(internalObject, feature);
+                if (isContainment(feature)) {
+                    preserveContainer(super.get(internalObject, feature, index));
+                }
+            }
+            return super.remove(internalObject, feature, index);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Object move(InternalEObject internalObject, EStructuralFeature feature, int targetIndex, int sourceIndex) {
+        lock.readLock().lock();
+        try {
+            if (!snapshots.isEmpty()) {
+                preserve(internalObject, feature);
+            }
+            return super.move(internalObject, feature, targetIndex, sourceIndex);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear(InternalEObject internalObject, EStructuralFeature feature) {
+        lock.readLock().lock();
+        try {
+            if (!snapshots.isEmpty()) {
+                preserve(internalObject, feature);
+                preserveContainers(internalObject, feature);
+            }
+            super.clear(internalObject, feature);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void addAll(InternalEObject internalObject, EStructuralFeature feature, int index, Collection<?> values) {
+        lock.readLock().lock();
+        try {
+            if (!snapshots.isEmpty()) {
+                preserve(internalObject, feature);
+                if (isContainment(feature)) {
+                    values.forEach(this::preserveContainer);
+                }
+            }
+            super.addAll(internalObject, feature, index, values);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeRange(InternalEObject internalObject, EStructuralFeature feature, int fromIndex, int toIndex) {
+        lock.readLock().lock();
+        try {
+            if (!snapshots.isEmpty()) {
+                preserve(internalObject, feature);
+                if (isContainment(feature)) {
+                    Arrays.asList(super.getAll(internalObject, feature)).subList(fromIndex, toIndex).forEach(this::preserveContainer);
+                }
+            }
+            super.removeRange(internalObject, feature, fromIndex, toIndex);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void setAll(InternalEObject internalObject, EStructuralFeature feature, Collection<?> values) {
+        lock.readLock().lock();
+        try {
+            if (!snapshots.isEmpty()) {
+                preserve(internalObject, feature);
+                preserveContainers(internalObject, feature);
+                if (isContainment(feature)) {
+                    values.forEach(this::preserveContainer);
+                }
+            }
+            super.setAll(internalObject, feature, values);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns whether the given {@code feature} contains its values, including the contents of a resource, that are
+     * not owned by any class.
+     *
+     * @param feature the feature
+     *
+     * @return {@code true} if the modification of the {@code feature} moves its values
+     */
+    private static boolean isContainment(EStructuralFeature feature) {
+        return feature instanceof EReference
+                && (((EReference) feature).isContainment() || isNull(feature.getEContainingClass()));
+    }
+
+    /**
+     * Preserves the current value of the given {@code feature} in the snapshots that have not preserved it yet. The
+     * features of the objects created since a snapshot was taken are not preserved in this snapshot.
+     *
+     * @param internalObject the object about to be modified
+     * @param feature        the feature about to be modified
+     */
+    private void preserve(InternalEObject internalObject, EStructuralFeature feature) {
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        FeatureKey key = FeatureKey.from(object, feature);
+
+        PreservedValue value = null;
+        for (SnapshotStoreDecorator snapshot : snapshots) {
+            if (!object.isMapped()) {
+                snapshot.created(object.id());
+            }
+            else if (!snapshot.isCreated(object.id()) && !snapshot.isPreserved(key)) {
+                if (isNull(value)) {
+                    value = currentValue(object, feature);
+                }
+                snapshot.preserve(key, value);
+            }
+        }
+    }
+
+    /**
+     * Returns the current value of the given {@code feature}.
+     *
+     * @param object  the object
+     * @param feature the feature
+     *
+     * @return the current value
+     */
+    private PreservedValue currentValue(PersistentEObject object, EStructuralFeature feature) {
+        boolean isSet = super.isSet(object, feature);
+
+        Object[] values;
+        if (feature.isMany()) {
+            values = isSet ? Arrays.stream(super.getAll(object, feature)).map(SnapshotStoreDecorator::unresolve).toArray() : new Object[0];
+        }
+        else {
+            values = new Object[]{SnapshotStoreDecorator.unresolve(isSet ? super.get(object, feature, NO_INDEX) : null)};
+        }
+        return new PreservedValue(isSet, values);
+    }
+
+    /**
+     * Preserves the current container of all the values of the given {@code feature}, if it contains its values.
+     *
+     * @param internalObject the object about to be modified
+     * @param feature        the feature about to be modified
+     */
+    private void preserveContainers(InternalEObject internalObject, EStructuralFeature feature) {
+        if (isContainment(feature) && super.isSet(internalObject, feature)) {
+            Collection<Object> values = feature.isMany()
+                    ? Arrays.asList(super.getAll(internalObject, feature))
+                    : Collections.singleton(super.get(internalObject, feature, NO_INDEX));
+            values.forEach(this::preserveContainer);
+        }
+    }
+
+    /**
+     * Preserves the current container of the given {@code value} in the snapshots that have not preserved it yet. The
+     * objects that are not stored yet are recorded as created in all the snapshots.
+     *
+     * @param value the object about to be moved
+     */
+    private void preserveContainer(Object value) {
+        if (!(value instanceof InternalEObject)) {
+            return;
+        }
+
+        PersistentEObject object = PersistentEObject.from(value);
+        PreservedContainer container = null;
+        for (SnapshotStoreDecorator snapshot : snapshots) {
+            if (!object.isMapped()) {
+                snapshot.created(object.id());
+            }
+            else if (!snapshot.isCreated(object.id()) && !snapshot.isContainerPreserved(object.id())) {
+                if (isNull(container)) {
+                    InternalEObject currentContainer = super.getContainer(object);
+                    container = nonNull(currentContainer)
+                            ? new PreservedContainer(PersistentEObject.from(currentContainer).id(), super.getContainingFeature(object))
+                            : new PreservedContainer(null, null);
+                }
+                snapshot.preserveContainer(object.id(), container);
+            }
+        }
+    }
+}
@@ -0,0 +1,492 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.store;
+
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.core.PersistentEObject;
+import fr.inria.atlanmod.neoemf.data.structure.AncestorInfo;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureCardinality;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureKey;
+
+import org.eclipse.emf.common.util.BasicEList;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.InternalEObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A {@link PersistentStore} wrapper that gives a point-in-time view of a back-end that is still modified by another
+ * store, without copying it.
+ * <p>
+ * The values are read from the shared back-end, unless they have been modified since this snapshot was taken: the
+ * {@link SnapshotIsolationStoreDecorator} of the modified store preserves their previous value in this store before
+ * modifying them. The objects created since this snapshot was taken are ignored by {@link #getAllInstances(EClass,
+ * boolean)}; they cannot be reached from the other objects.
+ * <p>
+ * The indexes and the statistics of the back-end are not versioned: the associated queries are not supported, and
+ * are computed by navigating the model instead.
+ *
+ * @see SnapshotIsolationStoreDecorator#snapshot(PersistentStore)
+ */
+public class SnapshotStoreDecorator extends AbstractPersistentStoreDecorator {
+
+    /**
+     * The store that preserves the modified values in this snapshot.
+     */
+    private final SnapshotIsolationStoreDecorator origin;
+
+    /**
+     * The preserved values of the features modified since this snapshot was taken. The objects are represented by
+     * their identifier.
+     */
+    private final Map<FeatureKey, PreservedValue> values = new ConcurrentHashMap<>();
+
+    /**
+     * The preserved containers of the objects moved since this snapshot was taken.
+     */
+    private final Map<Id, PreservedContainer> containers = new ConcurrentHashMap<>();
+
+    /**
+     * The identifiers of the objects created since this snapshot was taken.
+     */
+    private final Set<Id> createdIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructs a new {@code SnapshotStoreDecorator} on the given {@code store}.
+     *
+     * @param store  the underlying store, reading the back-end shared with the {@code origin}
+     * @param origin the store that preserves the modified values in this snapshot
+     */
+    SnapshotStoreDecorator(PersistentStore store, SnapshotIsolationStoreDecorator origin) {
+        super(store);
+        this.origin = checkNotNull(origin);
+    }
+
+    /**
+     * Returns whether the value of the feature identified by the given {@code key} has already been preserved.
+     *
+     * @param key the key identifying the feature
+     *
+     * @return {@code true} if the value has been preserved
+     */
+    boolean isPreserved(FeatureKey key) {
+        return values.containsKey(key);
+    }
+
+    /**
+     * Preserves the value of the feature identified by the given {@code key}, if it has not been preserved yet.
+     *
+     * @param key   the key identifying the feature
+     * @param value the value of the feature before its modification
+     */
+    void preserve(FeatureKey key, PreservedValue value) {
+        values.putIfAbsent(key, value);
+    }
+
+    /**
+     * Returns whether the container of the object identified by the given {@code id} has already been preserved.
+     *
+     * @param id the identifier of the object
+     *
+     * @return {@code true} if the container has been preserved
+     */
+    boolean isContainerPreserved(Id id) {
+        return containers.containsKey(id);
+    }
+
+    /**
+     * Preserves the container of the object identified by the given {@code id}, if it has not been preserved yet.
+     *
+     * @param id        the identifier of the object
+     * @param container the container of the object before its modification
+     */
+    void preserveContainer(Id id, PreservedContainer container) {
+        containers.putIfAbsent(id, container);
+    }
+
+    /**
+     * Returns whether the object identified by the given {@code id} has been created since this snapshot was taken.
+     *
+     * @param id the identifier of the object
+     *
+     * @return {@code true} if the object has been created since this snapshot was taken
+     */
+    boolean isCreated(Id id) {
+        return createdIds.contains(id);
+    }
+
+    /**
+     * Records that the object identified by the given {@code id} has been created since this snapshot was taken.
+     *
+     * @param id the identifier of the object
+     */
+    void created(Id id) {
+        createdIds.add(id);
+    }
+
+    @Override
+    public Object get(InternalEObject internalObject, EStructuralFeature feature, int index) {
+        return read(internalObject, feature, () -> super.get(internalObject, feature, index), p -> {
+            if (index == NO_INDEX) {
+                return p.isSet ? resolve(p.values[0]) : null;
+            }
+            if (index < 0 || index >= p.values.length) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + p.values.length);
+            }
+            return resolve(p.values[index]);
+        });
+    }
+
+    @Override
+    public boolean isSet(InternalEObject internalObject, EStructuralFeature feature) {
+        return read(internalObject, feature, () -> super.isSet(internalObject, feature), p -> p.isSet);
+    }
+
+    @Override
+    public boolean isEmpty(InternalEObject internalObject, EStructuralFeature feature) {
+        return read(internalObject, feature, () -> super.isEmpty(internalObject, feature), p -> p.values.length == 0);
+    }
+
+    @Override
+    public int size(InternalEObject internalObject, EStructuralFeature feature) {
+        return read(internalObject, feature, () -> super.size(internalObject, feature), p -> p.values.length);
+    }
+
+    @Override
+    public boolean contains(InternalEObject internalObject, EStructuralFeature feature, Object value) {
+        return read(internalObject, feature, () -> super.contains(internalObject, feature, value), p -> Arrays.asList(p.values).contains(unresolve(value)));
+    }
+
+    @Override
+    public int indexOf(InternalEObject internalObject, EStructuralFeature feature, Object value) {
+        return read(internalObject, feature, () -> super.indexOf(internalObject, feature, value), p -> Arrays.asList(p.values).indexOf(unresolve(value)));
+    }
+
+    @Override
+    public int lastIndexOf(InternalEObject internalObject, EStructuralFeature feature, Object value) {
+        return read(internalObject, feature, () -> super.lastIndexOf(internalObject, feature, value), p -> Arrays.asList(p.values).lastIndexOf(unresolve(value)));
+    }
+
+    @Override
+    public Object[] toArray(InternalEObject internalObject, EStructuralFeature feature) {
+        return read(internalObject, feature, () -> super.toArray(internalObject, feature), this::resolveAll);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(InternalEObject internalObject, EStructuralFeature feature, T[] array) {
+        return read(internalObject, feature, () -> super.toArray(internalObject, feature, array), p -> {
+            Object[] resolved = resolveAll(p);
+            T[] result = array.length >= resolved.length ? array : Arrays.copyOf(array, resolved.length);
+            System.arraycopy(resolved, 0, result, 0, resolved.length);
+            if (result.length > resolved.length) {
+                result[resolved.length] = null;
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public Object[] getAll(InternalEObject internalObject, EStructuralFeature feature) {
+        return read(internalObject, feature, () -> super.getAll(internalObject, feature), this::resolveAll);
+    }
+
+    @Override
+    public int hashCode(InternalEObject internalObject, EStructuralFeature feature) {
+        return read(internalObject, feature, () -> super.hashCode(internalObject, feature), p -> Arrays.asList(resolveAll(p)).hashCode());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The contents are read feature by feature, so that the preserved values are taken into account.
+     */
+    @Override
+    public List<List<EObject>> eContents(List<? extends InternalEObject> objects) {
+        List<List<EObject>> contents = new ArrayList<>(objects.size());
+        for (InternalEObject object : objects) {
+            List<EObject> objectContents = new ArrayList<>();
+            for (EReference reference : object.eClass().getEAllContainments()) {
+                if (reference.isMany()) {
+                    for (Object value : getAll(object, reference)) {
+                        objectContents.add((EObject) value);
+                    }
+                }
+                else {
+                    Object value = get(object, reference, NO_INDEX);
+                    if (nonNull(value)) {
+                        objectContents.add((EObject) value);
+                    }
+                }
+            }
+            contents.add(objectContents);
+        }
+        return contents;
+    }
+
+    @Override
+    public InternalEObject getContainer(InternalEObject internalObject) {
+        return readContainer(internalObject, () -> super.getContainer(internalObject),
+                c -> isNull(c.id) ? null : (InternalEObject) super.eObject(c.id));
+    }
+
+    @Override
+    public EStructuralFeature getContainingFeature(InternalEObject internalObject) {
+        return readContainer(internalObject, () -> super.getContainingFeature(internalObject), c -> c.feature);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The objects created since this snapshot was taken are ignored.
+     */
+    @Override
+    public EList<EObject> getAllInstances(EClass eClass, boolean strict) {
+        EList<EObject> instances = super.getAllInstances(eClass, strict);
+        if (createdIds.isEmpty()) {
+            return instances;
+        }
+
+        EList<EObject> snapshotInstances = new BasicEList<>(instances.size());
+        for (EObject instance : instances) {
+            if (!createdIds.contains(PersistentEObject.from(instance).id())) {
+                snapshotInstances.add(instance);
+            }
+        }
+        return snapshotInstances;
+    }
+
+    @Override
+    public long countInstances(EClass eClass, boolean strict) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public FeatureCardinality cardinalityOf(EStructuralFeature feature) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public AncestorInfo ancestorsOf(Id id) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<Id> descendantsOf(Id id) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<Id> findBy(EAttribute attribute, Object value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<Id> findByRange(EAttribute attribute, Object from, Object to) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<Id> findByPrefix(EAttribute attribute, String prefix) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Collection<EStructuralFeature.Setting> getInverseReferences(InternalEObject internalObject, @Nullable EReference reference) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The modified store stops preserving its values in this snapshot.
+     */
+    @Override
+    public void close() {
+        origin.unregister(this);
+        super.close();
+    }
+
+    /**
+     * Reads a value of the given {@code feature}, from its preserved value if it has been modified since this
+     * snapshot was taken, or from the underlying store otherwise.
+     * <p>
+     * The underlying store is read first: a value is always preserved before being modified, so if it has not been
+     * preserved after the read, the read value is the value of this snapshot.
+     *
+     * @param internalObject the object
+     * @param feature        the feature
+     * @param current        the function reading the value from the underlying store
+     * @param preserved      the function reading the value from the preserved value
+     * @param <T>            the type of the read value
+     *
+     * @return the value of this snapshot
+     */
+    private <T> T read(InternalEObject internalObject, EStructuralFeature feature, Supplier<T> current, Function<PreservedValue, T> preserved) {
+        FeatureKey key = FeatureKey.from(internalObject, feature);
+
+        PreservedValue value = values.get(key);
+        if (isNull(value)) {
+            try {
+                T result = current.get();
+                value = values.get(key);
+                if (isNull(value)) {
+                    return result;
+                }
+            }
+            catch (RuntimeException e) {
+                value = values.get(key);
+                if (isNull(value)) {
+                    throw e;
+                }
+            }
+        }
+        return preserved.apply(value);
+    }
+
+    /**
+     * Reads the container of the given object, as {@link #read(InternalEObject, EStructuralFeature, Supplier,
+     * Function)} reads its features.
+     *
+     * @param internalObject the object
+     * @param current        the function reading the container from the underlying store
+     * @param preserved      the function reading the container from the preserved container
+     * @param <T>            the type of the read value
+     *
+     * @return the container of this snapshot
+     */
+    private <T> T readContainer(InternalEObject internalObject, Supplier<T> current, Function<PreservedContainer, T> preserved) {
+        Id id = PersistentEObject.from(internalObject).id();
+
+        PreservedContainer container = containers.get(id);
+        if (isNull(container)) {
+            T result = current.get();
+            container = containers.get(id);
+            if (isNull(container)) {
+                return result;
+            }
+        }
+        return preserved.apply(container);
+    }
+
+    /**
+     * Resolves the given preserved {@code value} in this snapshot.
+     *
+     * @param value the preserved value
+     *
+     * @return the object of this snapshot if the value is an identifier, or the value itself
+     */
+    private Object resolve(Object value) {
+        return value instanceof Id ? super.eObject((Id) value) : value;
+    }
+
+    /**
+     * Resolves all the elements of the given preserved multi-valued {@code value} in this snapshot.
+     *
+     * @param value the preserved value
+     *
+     * @return a new array containing the resolved elements
+     */
+    private Object[] resolveAll(PreservedValue value) {
+        Object[] resolved = new Object[value.values.length];
+        for (int i = 0; i < resolved.length; i++) {
+            resolved[i] = resolve(value.values[i]);
+        }
+        return resolved;
+    }
+
+    /**
+     * Returns the representation of the given {@code value} in a preserved value.
+     *
+     * @param value the value
+     *
+     * @return the identifier of the value if it is an object, or the value itself
+     */
+    static Object unresolve(@Nullable Object value) {
+        return value instanceof PersistentEObject ? ((PersistentEObject) value).id() : value;
+    }
+
+    /**
+     * The value of a feature before its modification.
+     */
+    static final class PreservedValue {
+
+        /**
+         * Whether the feature was set.
+         */
+        private final boolean isSet;
+
+        /**
+         * The elements of the feature, or its single value. The objects are represented by their identifier.
+         */
+        private final Object[] values;
+
+        /**
+         * Constructs a new {@code PreservedValue}.
+         *
+         * @param isSet  whether the feature was set
+         * @param values the elements of the feature, or its single value
+         */
+        PreservedValue(boolean isSet, Object[] values) {
+            this.isSet = isSet;
+            this.values = values;
+        }
+    }
+
+    /**
+     * The container of an object before its modification.
+     */
+    static final class PreservedContainer {
+
+        /**
+         * The identifier of the container, or {@code null} if the object was not contained.
+         */
+        @Nullable
+        private final Id id;
+
+        /**
+         * The containing feature, or {@code null} if the object was not contained.
+         */
+        @Nullable
+        private final EStructuralFeature feature;
+
+        /**
+         * Constructs a new {@code PreservedContainer}.
+         *
+         * @param id      the identifier of the container, or {@code null} if the object was not contained
+         * @param feature the containing feature, or {@code null} if the object was not contained
+         */
+        PreservedContainer(@Nullable Id id, @Nullable EStructuralFeature feature) {
+            this.id = id;
+            this.feature = feature;
+        }
+    }
+}
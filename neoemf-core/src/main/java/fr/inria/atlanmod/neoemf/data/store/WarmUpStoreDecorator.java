@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.store;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.collect.Lists;
+
+import fr.inria.atlanmod.neoemf.annotations.VisibleForTesting;
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.core.StringId;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureKey;
+import fr.inria.atlanmod.neoemf.data.structure.MultivaluedFeatureKey;
+import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.InternalEObject;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A {@link PersistentStore} wrapper that records the most frequently accessed objects and features, and prefetches
+ * them when the resource is loaded again.
+ * <p>
+ * The hot working set is written in a small file beside the database when the store is closed, as the literal
+ * identifiers of the objects and the names and positions of the features. When the store is created again, {@link #warmUp()} reads this file and accesses its entries in the background, with a bounded number
+ * of threads, so that the caches of the underlying stores are filled before they are needed. This decorator must
+ * therefore be the outermost one, and the underlying back-end must support concurrent reads.
+ * <p>
+ * The prefetching threads only read the underlying stores, while the application can modify them: the caching
+ * decorators update their caches atomically, and discard the values that may have been loaded during a
+ * modification, so that a prefetched value never hides a modification.
+ */
+public class WarmUpStoreDecorator extends AbstractPersistentStoreDecorator {
+
+    /**
+     * The name of the file that holds the hot working set, in the directory of the database.
+     */
+    public static final String FILE_NAME = "neowarmup.dat";
+
+    /**
+     * The magic number identifying a hot working set file.
+     */
+    private static final int MAGIC = 0x4E455755;
+
+    /**
+     * The version of the format of the hot working set file.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The default number of recorded entries (10 000).
+     */
+    private static final int DEFAULT_SIZE = 10000;
+
+    /**
+     * The default number of threads used to prefetch the hot working set.
+     */
+    private static final int DEFAULT_THREADS = 2;
+
+    /**
+     * The number of entries prefetched in a single task.
+     */
+    private static final int CHUNK_SIZE = 500;
+
+    /**
+     * The file that holds the hot working set.
+     */
+    private final File file;
+
+    /**
+     * The maximum number of recorded objects, and of recorded features.
+     */
+    private final int size;
+
+    /**
+     * The number of threads used to prefetch the hot working set.
+     */
+    private final int threads;
+
+    /**
+     * The recently accessed objects, evicted according to their access frequency.
+     */
+    private final Cache<Id, Boolean> hotObjects;
+
+    /**
+     * The recently accessed features, evicted according to their access frequency. A {@link MultivaluedFeatureKey}
+     * identifies a value of a many-valued feature, and a {@link FeatureKey} of a many-valued feature identifies its
+     * size.
+     */
+    private final Cache<FeatureKey, Boolean> hotFeatures;
+
+    /**
+     * The executor that prefetches the hot working set, or {@code null} if the warm-up has not been started.
+     */
+    private ExecutorService executor;
+
+    /**
+     * Constructs a new {@code WarmUpStoreDecorator} with the default size and number of threads.
+     *
+     * @param store the underlying store
+     * @param file  the file that holds the hot working set
+     */
+    public WarmUpStoreDecorator(PersistentStore store, File file) {
+        this(store, file, DEFAULT_SIZE, DEFAULT_THREADS);
+    }
+
+    /**
+     * Constructs a new {@code WarmUpStoreDecorator} with the given {@code size} and number of {@code threads}.
+     *
+     * @param store   the underlying store
+     * @param file    the file that holds the hot working set
+     * @param size    the maximum number of recorded objects, and of recorded features
+     * @param threads the number of threads used to prefetch the hot working set
+     */
+    public WarmUpStoreDecorator(PersistentStore store, File file, int size, int threads) {
+        super(store);
+        this.file = file;
+        this.size = size;
+        this.threads = threads;
+        this.hotObjects = Caffeine.newBuilder().maximumSize(size).build();
+        this.hotFeatures = Caffeine.newBuilder().maximumSize(size).build();
+    }
+
+    /**
+     * Starts to prefetch, in the background, the hot working set recorded by a previous instance of this store.
+     * <p>
+     * Does nothing if no hot working set has been recorded yet.
+     */
+    public void warmUp() {
+        if (!file.exists()) {
+            return;
+        }
+
+        List<Id> ids = new ArrayList<>();
+        List<FeatureKey> featureKeys = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unknown format");
+            }
+            for (int i = 0, count = readCount(in); i < count; i++) {
+                ids.add(new StringId(in.readUTF()));
+            }
+            for (int i = 0, count = readCount(in); i < count; i++) {
+                Id id = new StringId(in.readUTF());
+                String name = in.readUTF();
+                int position = in.readInt();
+                featureKeys.add(position == NO_INDEX ? FeatureKey.of(id, name) : MultivaluedFeatureKey.of(id, name, position));
+            }
+        }
+        catch (IOException | IllegalArgumentException e) {
+            NeoLogger.warn(e, "Unable to read the hot working set from {0}", file);
+            return;
+        }
+
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "neoemf-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Lists.partition(ids, CHUNK_SIZE).forEach(chunk -> executor.execute(() -> prefetchObjects(chunk)));
+        Lists.partition(featureKeys, CHUNK_SIZE).forEach(chunk -> executor.execute(() -> prefetchFeatures(chunk)));
+        executor.shutdown();
+
+        NeoLogger.info("Warming up {0} objects and {1} features from {2}", ids.size(), featureKeys.size(), file);
+    }
+
+    /**
+     * Waits until the prefetching of the hot working set is complete, or the {@code timeout} elapses.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit    the time unit of the {@code timeout}
+     *
+     * @return {@code true} if the warm-up is complete, or has not been started
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @VisibleForTesting
+    public boolean awaitWarmUp(long timeout, TimeUnit unit) throws InterruptedException {
+        return isNull(executor) || executor.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public Object get(InternalEObject internalObject, EStructuralFeature feature, int index) {
+        hotFeatures.put(feature.isMany() && index != NO_INDEX
+                ? MultivaluedFeatureKey.from(internalObject, feature, index)
+                : FeatureKey.from(internalObject, feature), Boolean.TRUE);
+        return super.get(internalObject, feature, index);
+    }
+
+    @Override
+    public int size(InternalEObject internalObject, EStructuralFeature feature) {
+        hotFeatures.put(FeatureKey.from(internalObject, feature), Boolean.TRUE);
+        return super.size(internalObject, feature);
+    }
+
+    @Override
+    public EObject eObject(Id id) {
+        hotObjects.put(id, Boolean.TRUE);
+        return super.eObject(id);
+    }
+
+    @Override
+    public List<EObject> eObjects(Collection<Id> ids) {
+        ids.forEach(id -> hotObjects.put(id, Boolean.TRUE));
+        return super.eObjects(ids);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Stops the prefetching, if it is still running, and writes the hot working set of this store in its file.
+     */
+    @Override
+    public void close() {
+        if (nonNull(executor)) {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(1, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        List<Id> ids = hottest(hotObjects);
+        List<FeatureKey> featureKeys = hottest(hotFeatures);
+        if (!ids.isEmpty() || !featureKeys.isEmpty()) {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(ids.size());
+                for (Id id : ids) {
+                    out.writeUTF(id.toString());
+                }
+                out.writeInt(featureKeys.size());
+                for (FeatureKey featureKey : featureKeys) {
+                    out.writeUTF(featureKey.id().toString());
+                    out.writeUTF(featureKey.name());
+                    out.writeInt(featureKey instanceof MultivaluedFeatureKey ? ((MultivaluedFeatureKey) featureKey).position() : NO_INDEX);
+                }
+            }
+            catch (IOException e) {
+                NeoLogger.warn(e, "Unable to write the hot working set to {0}", file);
+            }
+        }
+        super.close();
+    }
+
+    /**
+     * Resolves the objects identified by the given {@code ids}, to fill the caches of the underlying stores.
+     *
+     * @param ids the identifiers of the objects to prefetch
+     */
+    private void prefetchObjects(List<Id> ids) {
+        try {
+            super.eObjects(ids);
+        }
+        catch (RuntimeException e) {
+            NeoLogger.debug(e, "Unable to prefetch {0} objects", ids.size());
+        }
+    }
+
+    /**
+     * Reads the values, or the sizes, identified by the given {@code featureKeys}, to fill the caches of the
+     * underlying stores.
+     * <p>
+     * The entries that do not exist anymore are ignored.
+     *
+     * @param featureKeys the keys of the features to prefetch
+     */
+    private void prefetchFeatures(List<FeatureKey> featureKeys) {
+        for (FeatureKey featureKey : featureKeys) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            try {
+                InternalEObject object = (InternalEObject) super.eObject(featureKey.id());
+                EStructuralFeature feature = object.eClass().getEStructuralFeature(featureKey.name());
+                if (isNull(feature)) {
+                    continue;
+                }
+                if (featureKey instanceof MultivaluedFeatureKey) {
+                    int position = ((MultivaluedFeatureKey) featureKey).position();
+                    if (position < super.size(object, feature)) {
+                        super.get(object, feature, position);
+                    }
+                }
+                else if (feature.isMany()) {
+                    super.size(object, feature);
+                }
+                else {
+                    super.get(object, feature, NO_INDEX);
+                }
+            }
+            catch (RuntimeException e) {
+                NeoLogger.debug(e, "Unable to prefetch {0}", featureKey);
+            }
+        }
+    }
+
+    /**
+     * Returns the keys of the given {@code cache} that are the most likely to be accessed again, from the hottest one.
+     *
+     * @param cache the cache of recorded keys
+     * @param <K>   the type of keys
+     *
+     * @return a list of keys
+     */
+    private <K> List<K> hottest(Cache<K, Boolean> cache) {
+        Map<K, Boolean> entries = cache.policy().eviction()
+                .map(e -> e.hottest(size))
+                .orElseGet(cache::asMap);
+        return new ArrayList<>(entries.keySet());
+    }
+
+    /**
+     * Reads the number of entries of a section of the hot working set file.
+     *
+     * @param in the stream to read
+     *
+     * @return the number of entries
+     *
+     * @throws IOException if the stream cannot be read, or if the number is negative
+     */
+    private static int readCount(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Invalid number of entries " + count);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.structure;
+
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.core.PersistentEObject;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A simple representation of the position of a {@link PersistentEObject} in its containment tree: the identifiers of
+ * its direct container and of the root of the tree, and its depth.
+ * <p>
+ * The depth and the root of an object are answered from this information, without navigating its containers one by
+ * one. The other ancestors are found by following the direct containers up to the required depth.
+ *
+ * @see fr.inria.atlanmod.neoemf.data.AncestorIndex
+ */
+public class AncestorInfo implements Serializable {
+
+    @SuppressWarnings("JavaDoc")
+    private static final long serialVersionUID = 2L;
+
+    /**
+     * The information of an object that has no container.
+     */
+    private static final AncestorInfo NONE = new AncestorInfo(null, null, 0);
+
+    /**
+     * The identifier of the root of the containment tree of the object, or {@code null} if it has no container.
+     */
+    @Nullable
+    private final Id root;
+
+    /**
+     * The identifier of the direct container of the object, or {@code null} if it has no container.
+     */
+    @Nullable
+    private final Id container;
+
+    /**
+     * The number of containers of the object.
+     */
+    @Nonnegative
+    private final int depth;
+
+    /**
+     * Constructs a new {@code AncestorInfo} with the given {@code root}, {@code container} and {@code depth}.
+     *
+     * @param root      the identifier of the root of the containment tree of the object
+     * @param container the identifier of the direct container of the object
+     * @param depth     the number of containers of the object
+     */
+    protected AncestorInfo(@Nullable Id root, @Nullable Id container, @Nonnegative int depth) {
+        this.root = root;
+        this.container = container;
+        this.depth = depth;
+    }
+
+    /**
+     * Returns the {@code AncestorInfo} of an object that has no container.
+     *
+     * @return the information of a root
+     */
+    @Nonnull
+    public static AncestorInfo none() {
+        return NONE;
+    }
+
+    /**
+     * Creates a new {@code AncestorInfo} from the given {@code root}, {@code container} and {@code depth}.
+     *
+     * @param root      the identifier of the root of the containment tree of the object
+     * @param container the identifier of the direct container of the object
+     * @param depth     the number of containers of the object
+     *
+     * @return a new {@code AncestorInfo}
+     */
+    @Nonnull
+    public static AncestorInfo of(@Nonnull Id root, @Nonnull Id container, @Nonnegative int depth) {
+        checkArgument(depth > 0, "depth must be > 0");
+        return new AncestorInfo(checkNotNull(root), checkNotNull(container), depth);
+    }
+
+    /**
+     * Returns the {@code AncestorInfo} of an object directly contained by the object identified by {@code container},
+     * whose information is this one.
+     *
+     * @param container the identifier of the object described by this information
+     *
+     * @return a new {@code AncestorInfo}
+     */
+    @Nonnull
+    public AncestorInfo child(@Nonnull Id container) {
+        checkNotNull(container);
+        return new AncestorInfo(depth == 0 ? container : root, container, depth + 1);
+    }
+
+    /**
+     * Returns the number of containers of the object.
+     *
+     * @return the depth of the object in its containment tree
+     */
+    @Nonnegative
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * Returns the identifier of the root of the containment tree of the object.
+     *
+     * @return the identifier of the root, or {@code null} if the object has no container
+     */
+    @Nullable
+    public Id root() {
+        return root;
+    }
+
+    /**
+     * Returns the identifier of the direct container of the object.
+     *
+     * @return the identifier of the container, or {@code null} if the object has no container
+     */
+    @Nullable
+    public Id container() {
+        return container;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(root, container, depth);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AncestorInfo)) {
+            return false;
+        }
+
+        AncestorInfo that = (AncestorInfo) o;
+        return depth == that.depth && Objects.equals(root, that.root) && Objects.equals(container, that.container);
+    }
+
+    @Override
+    public String toString() {
+        return "AI:{" + root + ", " + container + ", " + depth + "}";
+    }
+}
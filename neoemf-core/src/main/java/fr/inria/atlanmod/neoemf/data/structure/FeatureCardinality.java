@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.structure;
+
+import org.eclipse.emf.ecore.EStructuralFeature;
+
+import java.util.Objects;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A summary of the sizes of the lists of a multi-valued {@link EStructuralFeature}, over all the instances of its
+ * containing class.
+ */
+public class FeatureCardinality {
+
+    /**
+     * The number of objects owning the feature.
+     */
+    private final long owners;
+
+    /**
+     * The sum of the sizes of all the lists of the feature.
+     */
+    private final long totalSize;
+
+    /**
+     * The largest size reached by a list of the feature.
+     */
+    private final int maxSize;
+
+    /**
+     * Constructs a new {@code FeatureCardinality}.
+     *
+     * @param owners    the number of objects owning the feature
+     * @param totalSize the sum of the sizes of all the lists of the feature
+     * @param maxSize   the largest size reached by a list of the feature
+     */
+    protected FeatureCardinality(long owners, long totalSize, int maxSize) {
+        checkArgument(owners >= 0 && totalSize >= 0 && maxSize >= 0, "Cardinalities cannot be negative");
+        this.owners = owners;
+        this.totalSize = totalSize;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Creates a new {@code FeatureCardinality}.
+     *
+     * @param owners    the number of objects owning the feature
+     * @param totalSize the sum of the sizes of all the lists of the feature
+     * @param maxSize   the largest size reached by a list of the feature
+     *
+     * @return a new {@code FeatureCardinality}
+     */
+    public static FeatureCardinality of(long owners, long totalSize, int maxSize) {
+        return new FeatureCardinality(owners, totalSize, maxSize);
+    }
+
+    /**
+     * Returns the number of objects owning the feature, i.e. the number of instances of its containing class,
+     * including the instances of its sub-classes.
+     *
+     * @return the number of owners
+     */
+    public long owners() {
+        return owners;
+    }
+
+    /**
+     * Returns the sum of the sizes of all the lists of the feature.
+     *
+     * @return the total size
+     */
+    public long totalSize() {
+        return totalSize;
+    }
+
+    /**
+     * Returns the largest size reached by a list of the feature.
+     * <p>
+     * This value is a high-water mark: it is not decreased when elements are removed from the largest list.
+     *
+     * @return the maximum size
+     */
+    public int maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the average size of the lists of the feature.
+     *
+     * @return the average size, or {@code 0} if there is no owner
+     */
+    public double averageSize() {
+        return owners == 0 ? 0 : (double) totalSize / owners;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(owners, totalSize, maxSize);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FeatureCardinality)) {
+            return false;
+        }
+
+        FeatureCardinality that = (FeatureCardinality) o;
+        return owners == that.owners && totalSize == that.totalSize && maxSize == that.maxSize;
+    }
+
+    @Override
+    public String toString() {
+        return "FC:{" + owners + ", " + totalSize + ", " + maxSize + "}";
+    }
+}
@@ -145,6 +145,16 @@ public class FeatureKey implements Comparable<FeatureKey>, Serializable {
         return MultivaluedFeatureKey.of(id, name, position);
     }
 
+    /**
+     * Returns the {@code FeatureKey} of the whole feature identified by this key, without any position.
+     *
+     * @return this key, or a new {@code FeatureKey} if this key identifies a position in a multi-valued feature
+     */
+    @Nonnull
+    public FeatureKey withoutPosition() {
+        return this;
+    }
+
     @Override
     public int compareTo(@Nonnull FeatureKey o) {
         final int EQUAL = 0;
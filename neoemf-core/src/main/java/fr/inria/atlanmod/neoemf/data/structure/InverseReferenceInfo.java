@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.structure;
+
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.core.PersistentEObject;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A simple representation of the objects that reference a {@link PersistentEObject}: the identifier of each referencing
+ * object, with the name of the reference that holds the referenced object.
+ * <p>
+ * An object that references the same object several times, for instance in a multi-valued reference, appears once per
+ * occurrence.
+ *
+ * @see fr.inria.atlanmod.neoemf.data.InverseReferenceIndex
+ */
+public class InverseReferenceInfo implements Serializable {
+
+    @SuppressWarnings("JavaDoc")
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The inverse references of an object that is not referenced.
+     */
+    private static final InverseReferenceInfo NONE = new InverseReferenceInfo(new Id[0], new String[0]);
+
+    /**
+     * The identifiers of the referencing objects.
+     */
+    @Nonnull
+    private final Id[] sources;
+
+    /**
+     * The names of the references, in the same order as the {@link #sources}.
+     */
+    @Nonnull
+    private final String[] references;
+
+    /**
+     * Constructs a new {@code InverseReferenceInfo} with the given {@code sources} and {@code references}.
+     *
+     * @param sources    the identifiers of the referencing objects
+     * @param references the names of the references, in the same order as {@code sources}
+     */
+    protected InverseReferenceInfo(@Nonnull Id[] sources, @Nonnull String[] references) {
+        this.sources = checkNotNull(sources);
+        this.references = checkNotNull(references);
+    }
+
+    /**
+     * Returns the {@code InverseReferenceInfo} of an object that is not referenced.
+     *
+     * @return an empty {@code InverseReferenceInfo}
+     */
+    @Nonnull
+    public static InverseReferenceInfo none() {
+        return NONE;
+    }
+
+    /**
+     * Creates a new {@code InverseReferenceInfo} with the given {@code sources} and {@code references}.
+     *
+     * @param sources    the identifiers of the referencing objects, once per occurrence of the referenced object
+     * @param references the names of the references, in the same order as {@code sources}
+     *
+     * @return a new {@code InverseReferenceInfo}
+     *
+     * @throws IllegalArgumentException if {@code sources} and {@code references} do not have the same size
+     */
+    @Nonnull
+    public static InverseReferenceInfo of(@Nonnull List<Id> sources, @Nonnull List<String> references) {
+        checkArgument(sources.size() == references.size(), "Sources and references must have the same size");
+        return new InverseReferenceInfo(sources.toArray(new Id[sources.size()]), references.toArray(new String[references.size()]));
+    }
+
+    /**
+     * Returns the number of occurrences of the referenced object.
+     *
+     * @return the number of inverse references
+     */
+    @Nonnegative
+    public int size() {
+        return sources.length;
+    }
+
+    /**
+     * Returns whether the object is not referenced.
+     *
+     * @return {@code true} if the object is not referenced
+     */
+    public boolean isEmpty() {
+        return sources.length == 0;
+    }
+
+    /**
+     * Returns the identifier of the referencing object of the occurrence at the given {@code index}.
+     *
+     * @param index the index of the occurrence
+     *
+     * @return the identifier of the referencing object
+     *
+     * @throws IndexOutOfBoundsException if {@code index >= size()}
+     */
+    @Nonnull
+    public Id sourceAt(@Nonnegative int index) {
+        return sources[index];
+    }
+
+    /**
+     * Returns the name of the reference of the occurrence at the given {@code index}.
+     *
+     * @param index the index of the occurrence
+     *
+     * @return the name of the reference
+     *
+     * @throws IndexOutOfBoundsException if {@code index >= size()}
+     */
+    @Nonnull
+    public String referenceAt(@Nonnegative int index) {
+        return references[index];
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(sources) + Arrays.hashCode(references);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof InverseReferenceInfo)) {
+            return false;
+        }
+
+        InverseReferenceInfo that = (InverseReferenceInfo) o;
+        return Arrays.equals(sources, that.sources) && Arrays.equals(references, that.references);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("IRI:[");
+        for (int i = 0; i < sources.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(sources[i]).append('.').append(references[i]);
+        }
+        return builder.append(']').toString();
+    }
+}
@@ -122,6 +122,12 @@ public class MultivaluedFeatureKey extends FeatureKey {
         return position;
     }
 
+    @Nonnull
+    @Override
+    public FeatureKey withoutPosition() {
+        return FeatureKey.of(id(), name());
+    }
+
     @Override
     public int compareTo(@Nonnull FeatureKey o) {
         final int BEFORE = -1;
@@ -11,7 +11,12 @@
 
 package fr.inria.atlanmod.neoemf.option;
 
+import fr.inria.atlanmod.neoemf.data.commit.CommitPolicy;
+
+import org.eclipse.emf.ecore.EAttribute;
+
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -19,6 +24,8 @@ import java.util.Map;
 
 import javax.annotation.Nonnull;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 /**
  * An abstract {@link PersistenceOptionsBuilder} that manages the assembly and the construction of
  * {@link PersistenceOptions}.
@@ -115,6 +122,107 @@ public abstract class AbstractPersistenceOptionsBuilder<B extends AbstractPersis
         return me();
     }
 
+    /**
+     * Adds the {@code snapshot-isolation} feature in the created options.
+     *
+     * @return this builder (for chaining)
+     *
+     * @see PersistentResourceOptions#SNAPSHOT_ISOLATION
+     * @see fr.inria.atlanmod.neoemf.data.store.SnapshotIsolationStoreDecorator
+     */
+    public B snapshotIsolation() {
+        return option(PersistentResourceOptions.SNAPSHOT_ISOLATION, true);
+    }
+
+    /**
+     * Adds the {@code shared-backend} feature in the created options.
+     *
+     * @return this builder (for chaining)
+     *
+     * @see PersistentResourceOptions#SHARED_BACKEND
+     * @see fr.inria.atlanmod.neoemf.data.PersistenceBackendPool
+     */
+    public B sharedBackend() {
+        return option(PersistentResourceOptions.SHARED_BACKEND, true);
+    }
+
+    /**
+     * Adds the {@code commit-policy} feature in the created options: the modifications are automatically committed
+     * according to the given {@code policy}.
+     *
+     * @param policy the policy that decides when to commit
+     *
+     * @return this builder (for chaining)
+     *
+     * @see PersistentResourceOptions#COMMIT_POLICY
+     * @see fr.inria.atlanmod.neoemf.data.store.AutocommitStoreDecorator
+     */
+    public B commitPolicy(CommitPolicy policy) {
+        return option(PersistentResourceOptions.COMMIT_POLICY, checkNotNull(policy));
+    }
+
+    /**
+     * Adds the {@code feature-statistics} feature in the created options.
+     *
+     * @return this builder (for chaining)
+     *
+     * @see PersistentResourceOptions#FEATURE_STATISTICS
+     * @see fr.inria.atlanmod.neoemf.data.StatisticsTable
+     */
+    public B featureStatistics() {
+        return option(PersistentResourceOptions.FEATURE_STATISTICS, true);
+    }
+
+    /**
+     * Adds the {@code ancestor-index} feature in the created options.
+     *
+     * @return this builder (for chaining)
+     *
+     * @see PersistentResourceOptions#ANCESTOR_INDEX
+     * @see fr.inria.atlanmod.neoemf.data.AncestorIndex
+     */
+    public B ancestorIndex() {
+        return option(PersistentResourceOptions.ANCESTOR_INDEX, true);
+    }
+
+    /**
+     * Adds the {@code attribute-indexes} feature in the created options, for the given {@code attributes}.
+     *
+     * @param attributes the single-valued attributes to index
+     *
+     * @return this builder (for chaining)
+     *
+     * @see PersistentResourceOptions#ATTRIBUTE_INDEXES
+     * @see fr.inria.atlanmod.neoemf.data.AttributeIndex
+     */
+    public B indexAttributes(EAttribute... attributes) {
+        return option(PersistentResourceOptions.ATTRIBUTE_INDEXES, Arrays.asList(checkNotNull(attributes)));
+    }
+
+    /**
+     * Adds the {@code inverse-reference-index} feature in the created options.
+     *
+     * @return this builder (for chaining)
+     *
+     * @see PersistentResourceOptions#INVERSE_REFERENCE_INDEX
+     * @see fr.inria.atlanmod.neoemf.data.InverseReferenceIndex
+     */
+    public B inverseReferenceIndex() {
+        return option(PersistentResourceOptions.INVERSE_REFERENCE_INDEX, true);
+    }
+
+    /**
+     * Adds the {@code clustered-ids} feature in the created options.
+     *
+     * @return this builder (for chaining)
+     *
+     * @see PersistentResourceOptions#CLUSTERED_IDS
+     * @see fr.inria.atlanmod.neoemf.core.ClusteredIdAllocator
+     */
+    public B clusteredIds() {
+        return option(PersistentResourceOptions.CLUSTERED_IDS, true);
+    }
+
     /**
      * Adds the {@code cache-is-set} feature in the created options.
      *
@@ -148,6 +256,17 @@ public abstract class AbstractPersistenceOptionsBuilder<B extends AbstractPersis
         return storeOption(CommonStoreOptions.CACHE_STRUCTURAL_FEATURE);
     }
 
+    /**
+     * Adds the {@code cache-in-objects} feature in the created options.
+     *
+     * @return this builder (for chaining)
+     *
+     * @see fr.inria.atlanmod.neoemf.data.store.InObjectCachingStoreDecorator
+     */
+    public B cacheInObjects() {
+        return storeOption(CommonStoreOptions.CACHE_IN_OBJECTS);
+    }
+
     /**
      * Adds the {@code log} feature in the created options.
      *
@@ -169,4 +288,26 @@ public abstract class AbstractPersistenceOptionsBuilder<B extends AbstractPersis
     public B countLoadedObjects() {
         return storeOption(CommonStoreOptions.COUNT_LOADED_OBJECT);
     }
+
+    /**
+     * Adds the {@code warm-up} feature in the created options.
+     *
+     * @return this builder (for chaining)
+     *
+     * @see fr.inria.atlanmod.neoemf.data.store.WarmUpStoreDecorator
+     */
+    public B warmUp() {
+        return storeOption(CommonStoreOptions.WARM_UP);
+    }
+
+    /**
+     * Adds the {@code journal} feature in the created options.
+     *
+     * @return this builder (for chaining)
+     *
+     * @see fr.inria.atlanmod.neoemf.data.store.JournalingStoreDecorator
+     */
+    public B journal() {
+        return storeOption(CommonStoreOptions.JOURNAL);
+    }
 }
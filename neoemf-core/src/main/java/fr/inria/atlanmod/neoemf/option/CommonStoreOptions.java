@@ -41,6 +41,13 @@ public enum CommonStoreOptions implements PersistentStoreOptions {
      */
     CACHE_STRUCTURAL_FEATURE,
 
+    /**
+     * Caches the values of single-valued {@link EStructuralFeature}s in the objects themselves.
+     *
+     * @see fr.inria.atlanmod.neoemf.data.store.InObjectCachingStoreDecorator
+     */
+    CACHE_IN_OBJECTS,
+
     /**
      * Logs every call to a methods.
      *
@@ -53,5 +60,19 @@ public enum CommonStoreOptions implements PersistentStoreOptions {
      *
      * @see fr.inria.atlanmod.neoemf.data.store.LoadedObjectCounterStoreDecorator
      */
-    COUNT_LOADED_OBJECT
+    COUNT_LOADED_OBJECT,
+
+    /**
+     * Records the hot working set of a resource when it is closed, and prefetches it when the resource is loaded again.
+     *
+     * @see fr.inria.atlanmod.neoemf.data.store.WarmUpStoreDecorator
+     */
+    WARM_UP,
+
+    /**
+     * Records every committed modification in an append-only journal, beside the database of a resource.
+     *
+     * @see fr.inria.atlanmod.neoemf.data.store.JournalingStoreDecorator
+     */
+    JOURNAL
 }
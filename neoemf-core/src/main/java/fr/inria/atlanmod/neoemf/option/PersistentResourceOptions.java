@@ -27,4 +27,77 @@ public interface PersistentResourceOptions {
      * @see Resource#save(Map)
      */
     String STORE_OPTIONS = "stores";
+
+    /**
+     * The key identifying whether the modifications of a resource are isolated from the snapshots taken during their
+     * execution.
+     *
+     * @see fr.inria.atlanmod.neoemf.resource.PersistentResource#snapshot()
+     * @see fr.inria.atlanmod.neoemf.data.store.SnapshotIsolationStoreDecorator
+     */
+    String SNAPSHOT_ISOLATION = "snapshot.isolation";
+
+    /**
+     * The key identifying whether the persistent back-end of a resource is shared with the other resources pointing at
+     * the same store location.
+     *
+     * @see fr.inria.atlanmod.neoemf.data.PersistenceBackendPool
+     */
+    String SHARED_BACKEND = "shared.backend";
+
+    /**
+     * The key identifying the {@link fr.inria.atlanmod.neoemf.data.commit.CommitPolicy} that decides when the
+     * modifications of a resource are automatically committed.
+     *
+     * @see fr.inria.atlanmod.neoemf.data.store.AutocommitStoreDecorator
+     */
+    String COMMIT_POLICY = "commit.policy";
+
+    /**
+     * The key identifying whether the persistent back-end of a resource tracks the cardinalities of the multi-valued
+     * features. It can only be enabled on an empty database, and is then maintained until the database is deleted.
+     * Without it, every list modification is spared the size reads needed to keep the cardinalities up to date.
+     *
+     * @see fr.inria.atlanmod.neoemf.resource.PersistentResource#cardinalityOf(org.eclipse.emf.ecore.EStructuralFeature)
+     * @see fr.inria.atlanmod.neoemf.data.StatisticsTable
+     */
+    String FEATURE_STATISTICS = "feature.statistics";
+
+    /**
+     * The key identifying whether the persistent back-end of a resource maintains an index of the ancestors of each
+     * object. Once enabled on a database, the index is maintained until the database is deleted.
+     *
+     * @see fr.inria.atlanmod.neoemf.resource.PersistentResource#getRoot(org.eclipse.emf.ecore.EObject)
+     * @see fr.inria.atlanmod.neoemf.data.AncestorIndex
+     */
+    String ANCESTOR_INDEX = "ancestor.index";
+
+    /**
+     * The key identifying the {@link java.util.Collection} of single-valued {@link org.eclipse.emf.ecore.EAttribute}s
+     * whose values are indexed by the persistent back-end of a resource. Once declared on a database, an attribute is
+     * indexed until the database is deleted.
+     *
+     * @see fr.inria.atlanmod.neoemf.resource.PersistentResource#findBy(org.eclipse.emf.ecore.EClass,
+     * org.eclipse.emf.ecore.EAttribute, Object)
+     * @see fr.inria.atlanmod.neoemf.data.AttributeIndex
+     */
+    String ATTRIBUTE_INDEXES = "attribute.indexes";
+
+    /**
+     * The key identifying whether the persistent back-end of a resource maintains an index of the inverse references
+     * of each object. Once enabled on a database, the index is maintained until the database is deleted.
+     *
+     * @see fr.inria.atlanmod.neoemf.util.PersistentCrossReferenceAdapter
+     * @see fr.inria.atlanmod.neoemf.data.InverseReferenceIndex
+     */
+    String INVERSE_REFERENCE_INDEX = "inverse.reference.index";
+
+    /**
+     * The key identifying whether the objects attached to a resource are identified by clusters, so that each
+     * containment subtree is stored in an interval of identifiers. Only the objects that have never been stored are
+     * re-identified when they are attached.
+     *
+     * @see fr.inria.atlanmod.neoemf.core.ClusteredIdAllocator
+     */
+    String CLUSTERED_IDS = "clustered.ids";
 }
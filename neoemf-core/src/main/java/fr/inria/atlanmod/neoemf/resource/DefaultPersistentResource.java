@@ -11,14 +11,34 @@
 
 package fr.inria.atlanmod.neoemf.resource;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import fr.inria.atlanmod.neoemf.core.ClusteredIdAllocator;
 import fr.inria.atlanmod.neoemf.core.DefaultPersistentEObject;
+import fr.inria.atlanmod.neoemf.core.Id;
 import fr.inria.atlanmod.neoemf.core.PersistentEObject;
 import fr.inria.atlanmod.neoemf.core.StringId;
+import fr.inria.atlanmod.neoemf.data.AttributeIndex;
+import fr.inria.atlanmod.neoemf.data.InvalidDataStoreException;
 import fr.inria.atlanmod.neoemf.data.PersistenceBackend;
+import fr.inria.atlanmod.neoemf.data.PersistenceBackendFactory;
 import fr.inria.atlanmod.neoemf.data.PersistenceBackendFactoryRegistry;
+import fr.inria.atlanmod.neoemf.data.PersistenceBackendPool;
+import fr.inria.atlanmod.neoemf.data.store.AbstractPersistentStoreDecorator;
+import fr.inria.atlanmod.neoemf.data.store.OverlayStoreDecorator;
 import fr.inria.atlanmod.neoemf.data.store.PersistentStore;
+import fr.inria.atlanmod.neoemf.data.store.ReadOnlyStoreDecorator;
+import fr.inria.atlanmod.neoemf.data.store.SnapshotIsolationStoreDecorator;
+import fr.inria.atlanmod.neoemf.data.store.SnapshotStoreDecorator;
+import fr.inria.atlanmod.neoemf.data.structure.AncestorInfo;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureCardinality;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureKey;
 import fr.inria.atlanmod.neoemf.option.InvalidOptionException;
+import fr.inria.atlanmod.neoemf.option.PersistentResourceOptions;
+import fr.inria.atlanmod.neoemf.util.NeoEAllContentsTreeIterator;
 import fr.inria.atlanmod.neoemf.util.PersistenceURI;
+import fr.inria.atlanmod.neoemf.util.lifecycle.Reaper;
 import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
 
 import org.apache.commons.io.FileUtils;
@@ -26,9 +46,12 @@ import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.common.notify.NotificationChain;
 import org.eclipse.emf.common.util.BasicEList;
 import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.common.util.TreeIterator;
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.ETypedElement;
 import org.eclipse.emf.ecore.InternalEObject;
@@ -39,19 +62,30 @@ import org.eclipse.emf.ecore.impl.EStoreEObjectImpl;
 import org.eclipse.emf.ecore.impl.EStoreEObjectImpl.EStoreEList;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.text.MessageFormat;
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import javax.annotation.Nullable;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
@@ -60,6 +94,18 @@ import static java.util.Objects.nonNull;
  * <p>
  * {@link DefaultPersistentResource}s is backend-agnostic and only delegates model element operations
  * to its internal {@link PersistentStore} which is responsible of database access.
+ * <p>
+ * Several resources can be stored in the same database, by giving them the same location and a different
+ * <i>namespace</i> as query of their {@link URI} (e.g. {@code mapdb:/path/to/database?model1}). Each namespace has
+ * its own root, so resources can be loaded individually, and they share the same back-end through the {@link
+ * PersistenceBackendPool}: references between resources of the same database are resolved directly by the store,
+ * without proxies, and the referenced objects belong to their own resource if it is open. Note that the queries on the back-end, such as {@link #getAllInstances(EClass)}, cover the whole
+ * database.
+ * <p>
+ * A resource must be {@link #close() closed}, or {@link #unload() unloaded}, when it is no longer used. The back-end
+ * of a resource that is garbage collected without being closed is released by the {@link Reaper}, which logs a leak
+ * warning, and the back-ends that are still open when the application exits are closed by the {@link
+ * fr.inria.atlanmod.neoemf.util.lifecycle.ShutdownCoordinator}.
  */
 public class DefaultPersistentResource extends ResourceImpl implements PersistentResource {
 
@@ -73,31 +119,128 @@ public class DefaultPersistentResource extends ResourceImpl implements Persisten
      */
     private static final ResourceContentsEStructuralFeature ROOT_CONTENTS_ESTRUCTURALFEATURE = new ResourceContentsEStructuralFeature();
 
+    /**
+     * The resources stored in a namespace of their database that are currently open, weakly referenced, with the
+     * persistent back-end they share with the other namespaces of the same database.
+     *
+     * @see NamespaceStoreDecorator
+     */
+    private static final Cache<DefaultPersistentResource, PersistenceBackend> NAMESPACED_RESOURCES = Caffeine.newBuilder().weakKeys().build();
+
+    /**
+     * The maximum number of objects whose owner is cached by each namespaced resource.
+     *
+     * @see #namespaceOwners
+     */
+    private static final long NAMESPACE_OWNERS_CACHE_SIZE = 10_000;
+
     /**
      * ???
      */
     private final DummyRootEObject dummyRootEObject;
 
     /**
-     * The {@link PersistentStore} responsible of the database serialization.
+     * The {@link PersistenceBackendFactory} associated to the scheme of the {@link URI} of this resource.
+     */
+    private final PersistenceBackendFactory factory;
+
+    /**
+     * The {@link PersistentStore} responsible of the database serialization, or {@code null} if it has not been
+     * created yet.
+     *
+     * @see #store()
      */
     protected PersistentStore store;
 
     /**
-     * The underlying {@link PersistenceBackend} that stores the data.
+     * The underlying {@link PersistenceBackend} that stores the data, or {@code null} if it has not been created yet.
+     *
+     * @see #backend()
      */
     protected PersistenceBackend backend;
 
+    /**
+     * The resource that owns each object read from a cross-reference of this resource, if it is stored in a
+     * namespace: the open resource whose contents hold the root of the object, or this resource if no other open
+     * resource does. The resources are weakly referenced.
+     * <p>
+     * The cache is cleared when a namespace of the same back-end is opened or closed, and when a containment of the
+     * back-end is modified through one of its open namespaces.
+     *
+     * @see NamespaceStoreDecorator
+     */
+    private final Cache<Id, DefaultPersistentResource> namespaceOwners = Caffeine.newBuilder()
+            .maximumSize(NAMESPACE_OWNERS_CACHE_SIZE)
+            .weakValues()
+            .build();
+
     /**
      * ???
      */
     private Map<?, ?> options;
 
+    /**
+     * The options used to create the persistent store of this resource, reused to create the store of its forks.
+     */
+    private Map<?, ?> storeOptions;
+
     /**
      * ???
      */
     private boolean isPersistent;
 
+    /**
+     * Whether the {@link #backend} of this resource is shared with other resources through the
+     * {@link PersistenceBackendPool}.
+     */
+    private boolean isSharedBackend;
+
+    /**
+     * Whether this resource is a read-only snapshot of another resource.
+     *
+     * @see #snapshot()
+     */
+    private boolean isReadOnly;
+
+    /**
+     * Whether the objects attached to this resource are identified by clusters.
+     *
+     * @see PersistentResourceOptions#CLUSTERED_IDS
+     */
+    private boolean isClusteringIds;
+
+    /**
+     * The store holding the modifications of this resource if it is a fork of another resource, or {@code null}
+     * otherwise.
+     *
+     * @see #fork()
+     */
+    private OverlayStoreDecorator overlay;
+
+    /**
+     * The resource this resource is a fork of, or {@code null} if it is not a fork. It is strongly referenced, so that
+     * the shared back-end is not closed by the {@link Reaper} while the fork is used.
+     *
+     * @see #fork()
+     */
+    private PersistentResource origin;
+
+    /**
+     * The registration of the {@link #backend} in the {@link Reaper}, or {@code null} if the back-end is shared or
+     * has not been created yet.
+     *
+     * @see #closeOnRelease(PersistenceBackend)
+     */
+    private Reaper.Cleanable backendCleanable;
+
+    /**
+     * The objects attached to this resource that are materialized in memory, weakly referenced and compared by
+     * identity.
+     *
+     * @see #materialized(PersistentEObject)
+     */
+    private final Cache<PersistentEObject, Boolean> materializedObjects = Caffeine.newBuilder().weakKeys().build();
+
     /**
      * Constructs a new {@code DefaultPersistentResource} with the given {@code uri}.
      *
@@ -105,14 +248,160 @@ public class DefaultPersistentResource extends ResourceImpl implements Persisten
      */
     public DefaultPersistentResource(URI uri) {
         super(uri);
-        this.dummyRootEObject = new DummyRootEObject(this);
-        this.backend = PersistenceBackendFactoryRegistry.getFactoryProvider(uri.scheme()).createTransientBackend();
-        this.store = PersistenceBackendFactoryRegistry.getFactoryProvider(uri.scheme()).createTransientStore(this, backend);
+        this.dummyRootEObject = new DummyRootEObject(this, uri.query());
+        this.factory = PersistenceBackendFactoryRegistry.getFactoryProvider(uri.scheme());
         this.isPersistent = false;
-        PersistenceBackendShutdownHook.closeOnExit(backend, getURI());
         NeoLogger.info("{0} created", PersistentResource.class.getSimpleName());
     }
 
+    /**
+     * Returns the {@link PersistenceBackend} of this resource, and creates a transient one if it does not exist yet.
+     *
+     * @return the back-end
+     */
+    protected PersistenceBackend backend() {
+        if (isNull(backend)) {
+            backend = factory.createTransientBackend();
+            closeOnRelease(backend);
+        }
+        return backend;
+    }
+
+    /**
+     * Returns the {@link PersistentStore} of this resource, and creates a transient one if it does not exist yet.
+     *
+     * @return the store
+     */
+    protected PersistentStore store() {
+        if (isNull(store)) {
+            store = factory.createTransientStore(this, backend());
+        }
+        return store;
+    }
+
+    /**
+     * Returns whether the persistent back-end of this resource must be shared, either because the {@link
+     * PersistentResourceOptions#SHARED_BACKEND} option is enabled in the given {@code options}, or because this
+     * resource is stored in a namespace of its database.
+     *
+     * @param options the options of this resource
+     *
+     * @return {@code true} if the persistent back-end must be retrieved from the {@link PersistenceBackendPool}
+     */
+    private boolean isSharedBackend(Map<?, ?> options) {
+        return nonNull(uri.query())
+                || nonNull(options) && Objects.equals(Boolean.TRUE, options.get(PersistentResourceOptions.SHARED_BACKEND));
+    }
+
+    /**
+     * Opens the persistent back-end of this resource, or retrieves it from the {@link PersistenceBackendPool} if it
+     * must be shared.
+     *
+     * @param options the options of this resource
+     *
+     * @return the persistent back-end
+     *
+     * @throws InvalidDataStoreException if the back-end cannot be opened
+     */
+    private PersistenceBackend createPersistentBackend(Map<?, ?> options) throws InvalidDataStoreException {
+        return isSharedBackend(options)
+                ? PersistenceBackendPool.acquire(getFile(), options, factory)
+                : factory.createPersistentBackend(getFile(), options);
+    }
+
+    /**
+     * Replaces the back-end of this resource by the given persistent {@code newBackend}, and creates its store.
+     *
+     * @param newBackend the new back-end, as returned by {@link #createPersistentBackend(Map)}
+     * @param options    the options of this resource
+     *
+     * @throws InvalidDataStoreException if the store cannot be created
+     */
+    private void installBackend(PersistenceBackend newBackend, Map<?, ?> options) throws InvalidDataStoreException {
+        releaseBackend();
+        this.backend = newBackend;
+        this.store = isolateSnapshots(factory.createPersistentStore(this, newBackend, options), options);
+        this.storeOptions = options;
+        this.isSharedBackend = isSharedBackend(options);
+        this.isClusteringIds = nonNull(options) && Objects.equals(Boolean.TRUE, options.get(PersistentResourceOptions.CLUSTERED_IDS));
+        if (!isSharedBackend) {
+            closeOnRelease(newBackend);
+        }
+        if (nonNull(uri.query())) {
+            this.store = new NamespaceStoreDecorator(store);
+            NAMESPACED_RESOURCES.put(this, newBackend);
+            invalidateNamespaceOwners();
+        }
+    }
+
+    /**
+     * Clears the owners cached by the open namespaces that share the back-end of this resource.
+     *
+     * @see #namespaceOwners
+     */
+    private void invalidateNamespaceOwners() {
+        NAMESPACED_RESOURCES.asMap().forEach((r, b) -> {
+            if (b == backend) {
+                r.namespaceOwners.invalidateAll();
+            }
+        });
+    }
+
+    /**
+     * Closes the store and the back-end of this resource, or gives the back-end back to the {@link PersistenceBackendPool}
+     * if it is shared.
+     */
+    private void releaseBackend() {
+        if (nonNull(NAMESPACED_RESOURCES.getIfPresent(this))) {
+            NAMESPACED_RESOURCES.invalidate(this);
+            invalidateNamespaceOwners();
+            namespaceOwners.invalidateAll();
+        }
+        if (nonNull(store)) {
+            store.close();
+        }
+        if (nonNull(backend)) {
+            if (!isSharedBackend) {
+                backendCleanable.clean();
+            }
+            else if (PersistenceBackendPool.isPooled(backend)) {
+                PersistenceBackendPool.release(backend);
+            }
+        }
+        this.backend = null;
+        this.store = null;
+        this.backendCleanable = null;
+        this.isSharedBackend = false;
+    }
+
+    /**
+     * Registers the given {@code backend} in the {@link Reaper}: it will be closed when this resource is closed, when
+     * this resource is garbage collected without being closed, or when the application exits.
+     *
+     * @param backend the back-end owned by this resource
+     */
+    private void closeOnRelease(PersistenceBackend backend) {
+        URI backendUri = uri;
+        backendCleanable = Reaper.getInstance().register(this,
+                MessageFormat.format("{0} {1}", PersistentResource.class.getSimpleName(), backendUri),
+                () -> closeBackend(backend, backendUri));
+    }
+
+    /**
+     * Closes the given {@code backend}, if it is still open.
+     * <p>
+     * This method is static, so that the action registered in the {@link Reaper} does not reference the resource.
+     *
+     * @param backend the back-end to close
+     * @param uri     the {@link URI} of the resource used by the {@code backend}
+     */
+    private static void closeBackend(PersistenceBackend backend, URI uri) {
+        if (!backend.isClosed()) {
+            backend.close();
+            NeoLogger.info("{0} closed: {1} ", PersistenceBackend.class.getSimpleName(), uri);
+        }
+    }
+
     /**
      * Returns the database file.
      *
@@ -127,6 +416,20 @@ public class DefaultPersistentResource extends ResourceImpl implements Persisten
         return new ResourceContentsEStoreEList<>(dummyRootEObject, ROOT_CONTENTS_ESTRUCTURALFEATURE, eStore());
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the resource is persistent, the content of the objects is read by batches of siblings, as described in
+     * {@link NeoEAllContentsTreeIterator}.
+     */
+    @Override
+    public TreeIterator<EObject> getAllContents() {
+        if (!isPersistent) {
+            return super.getAllContents();
+        }
+        return new NeoEAllContentsTreeIterator(this, store());
+    }
+
     @Override
     public String getURIFragment(EObject eObject) {
         String fragment = URI_UNKNOWN;
@@ -142,12 +445,25 @@ public class DefaultPersistentResource extends ResourceImpl implements Persisten
 
     @Override
     public EObject getEObject(String uriFragment) {
-        EObject eObject = store.eObject(new StringId(uriFragment));
+        EObject eObject = store().eObject(new StringId(uriFragment));
         return isNull(eObject) ? super.getEObject(uriFragment) : eObject;
     }
 
     @Override
     public void save(Map<?, ?> options) throws IOException {
+        if (isReadOnly) {
+            throw new UnsupportedOperationException(MessageFormat.format("Unable to save the read-only resource {0}", uri));
+        }
+
+        if (nonNull(overlay)) {
+            Set<FeatureKey> mergedKeys = overlay.merge();
+            store.save();
+            if (origin instanceof DefaultPersistentResource) {
+                ((DefaultPersistentResource) origin).invalidate(mergedKeys);
+            }
+            NeoLogger.info("{0} merged: {1}", PersistentResource.class.getSimpleName(), uri);
+            return;
+        }
 
         if (nonNull(this.options)) {
             // Check that the save options do not collide with previous load options
@@ -158,14 +474,18 @@ public class DefaultPersistentResource extends ResourceImpl implements Persisten
             }
         }
         if (!isLoaded() || !isPersistent) {
-            PersistenceBackend newBackend = PersistenceBackendFactoryRegistry.getFactoryProvider(uri.scheme()).createPersistentBackend(getFile(), options);
-            PersistenceBackendFactoryRegistry.getFactoryProvider(uri.scheme()).copyBackend(backend, newBackend);
-            this.backend = newBackend;
-            this.store = PersistenceBackendFactoryRegistry.getFactoryProvider(uri.scheme()).createPersistentStore(this, backend, options);
+            PersistenceBackend newBackend = createPersistentBackend(options);
+            if (nonNull(backend)) {
+                factory.copyBackend(backend, newBackend);
+            }
+            installBackend(newBackend, options);
             this.isLoaded = true;
             this.isPersistent = true;
+            dummyRootEObject.setMapped(true);
+            rebindMaterializedObjects();
         }
-        backend.save();
+        // Saves through the store, so that its decorators are notified of the commit
+        store.save();
         NeoLogger.info("{0} saved: {1}", PersistentResource.class.getSimpleName(), uri);
     }
 
@@ -176,8 +496,7 @@ public class DefaultPersistentResource extends ResourceImpl implements Persisten
             if (!isLoaded) {
                 if (getFile().exists() || nonNull(uri.authority())) {
                     // Check authority to enable remote resource loading
-                    this.backend = PersistenceBackendFactoryRegistry.getFactoryProvider(uri.scheme()).createPersistentBackend(getFile(), options);
-                    this.store = PersistenceBackendFactoryRegistry.getFactoryProvider(uri.scheme()).createPersistentStore(this, backend, options);
+                    installBackend(createPersistentBackend(options), options);
                     this.isPersistent = true;
                     dummyRootEObject.setMapped(true);
                 }
@@ -194,23 +513,245 @@ public class DefaultPersistentResource extends ResourceImpl implements Persisten
         }
     }
 
+    /**
+     * Wraps the given {@code store} in a {@link SnapshotIsolationStoreDecorator} if the
+     * {@link PersistentResourceOptions#SNAPSHOT_ISOLATION} option is enabled.
+     *
+     * @param store   the store to wrap
+     * @param options the options of this resource
+     *
+     * @return the store to use
+     */
+    private PersistentStore isolateSnapshots(PersistentStore store, Map<?, ?> options) {
+        if (nonNull(options) && Objects.equals(Boolean.TRUE, options.get(PersistentResourceOptions.SNAPSHOT_ISOLATION))) {
+            return new SnapshotIsolationStoreDecorator(store);
+        }
+        return store;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the store of this resource isolates the snapshots, the snapshot shares the back-end of this resource, as a
+     * {@link #fork()}, and reads it through a {@link SnapshotStoreDecorator}. Otherwise, the back-end is copied in a
+     * transient back-end.
+     */
+    @Override
+    public PersistentResource snapshot() {
+        checkNotForked();
+        if (isDistributed()) {
+            throw new UnsupportedOperationException("Distributed back-ends do not support snapshots");
+        }
+
+        DefaultPersistentResource snapshot = new DefaultPersistentResource(uri);
+
+        if (store instanceof SnapshotIsolationStoreDecorator) {
+            Map<?, ?> snapshotOptions = isNull(storeOptions) ? Collections.emptyMap() : storeOptions;
+            try {
+                if (PersistenceBackendPool.isPooled(backend)) {
+                    PersistenceBackendPool.acquire(getFile(), snapshotOptions, factory);
+                }
+                snapshot.store = ((SnapshotIsolationStoreDecorator) store).snapshot(factory.createPersistentStore(snapshot, backend, snapshotOptions));
+            }
+            catch (InvalidDataStoreException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            snapshot.backend = backend;
+            snapshot.isSharedBackend = true;
+            snapshot.origin = this;
+            snapshot.options = options;
+            snapshot.storeOptions = storeOptions;
+            snapshot.isPersistent = true;
+            snapshot.dummyRootEObject.setMapped(true);
+        }
+        else {
+            factory.copyBackend(backend(), snapshot.backend());
+        }
+
+        snapshot.store = new ReadOnlyStoreDecorator(snapshot.store());
+        snapshot.isReadOnly = true;
+        snapshot.isLoaded = true;
+
+        NeoLogger.info("{0} snapshot created: {1}", PersistentResource.class.getSimpleName(), uri);
+        return snapshot;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The fork shares the back-end of this resource, and creates its own store on top of it, wrapped in an {@link
+     * OverlayStoreDecorator}. If the back-end is shared through the {@link PersistenceBackendPool}, the fork retains
+     * it until it is closed.
+     */
+    @Override
+    public PersistentResource fork() throws InvalidDataStoreException {
+        checkNotForked();
+
+        PersistenceBackend sharedBackend = backend();
+        Map<?, ?> forkOptions = isNull(storeOptions) ? Collections.emptyMap() : storeOptions;
+        if (PersistenceBackendPool.isPooled(sharedBackend)) {
+            PersistenceBackendPool.acquire(getFile(), forkOptions, factory);
+        }
+
+        DefaultPersistentResource fork = new DefaultPersistentResource(uri);
+        fork.backend = sharedBackend;
+        fork.isSharedBackend = true;
+        fork.overlay = new OverlayStoreDecorator(isPersistent
+                ? factory.createPersistentStore(fork, sharedBackend, forkOptions)
+                : factory.createTransientStore(fork, sharedBackend));
+        fork.store = fork.overlay;
+        fork.origin = this;
+        fork.options = options;
+        fork.storeOptions = storeOptions;
+        fork.isPersistent = isPersistent;
+        fork.isClusteringIds = isClusteringIds;
+        fork.isLoaded = true;
+        fork.dummyRootEObject.setMapped(dummyRootEObject.isMapped());
+
+        NeoLogger.info("{0} fork created: {1}", PersistentResource.class.getSimpleName(), uri);
+        return fork;
+    }
+
+    /**
+     * Checks that this resource is not a fork of another resource: the back-end of a fork does not contain its
+     * modifications, so it cannot be copied or shared.
+     *
+     * @throws UnsupportedOperationException if this resource is a fork
+     */
+    private void checkNotForked() {
+        if (nonNull(overlay)) {
+            throw new UnsupportedOperationException(MessageFormat.format("Unable to copy the fork of the resource {0}", uri));
+        }
+    }
+
+    /**
+     * Registers the given {@code object} as materialized in memory for this resource.
+     * <p>
+     * This method is called when the {@code object} is attached to this resource, either because it is added to the
+     * content of the resource, or because it is loaded from the persistence back-end. The object is weakly
+     * referenced: it is forgotten as soon as it is garbage collected.
+     *
+     * @param object the object attached to this resource
+     *
+     * @see #doUnload()
+     */
+    public void materialized(PersistentEObject object) {
+        materializedObjects.put(object, Boolean.TRUE);
+    }
+
+    /**
+     * Identifies the given {@code object} and its content, in pre-order, with consecutive identifiers of a new cluster
+     * if this resource clusters the identifiers of its objects.
+     * <p>
+     * This method is called before the {@code object} is stored in this resource, either because it is added to the
+     * content of the resource, or because it is attached to the value of a containment reference of an object of this
+     * resource.
+     *
+     * @param object the object about to be attached to this resource
+     *
+     * @see PersistentResourceOptions#CLUSTERED_IDS
+     */
+    public void allocateClusteredIds(PersistentEObject object) {
+        if (isClusteringIds && !object.isMapped()) {
+            List<Object> objects = new ArrayList<>();
+            objects.add(object);
+            Iterator<EObject> it = object.eAllContents();
+            while (it.hasNext()) {
+                objects.add(it.next());
+            }
+            allocateClusteredIds(objects);
+        }
+    }
+
+    /**
+     * Identifies the given {@code objects}, listed in pre-order, with consecutive identifiers of a new cluster, so
+     * that the subtree of each object is stored in an interval of identifiers.
+     * <p>
+     * The objects that are already {@link PersistentEObject#isMapped() mapped} keep their identifier: it may be
+     * stored, for instance in a reference of another object.
+     *
+     * @param objects the objects to identify
+     */
+    private void allocateClusteredIds(List<Object> objects) {
+        ClusteredIdAllocator allocator = new ClusteredIdAllocator();
+        for (Object element : objects) {
+            PersistentEObject internalElement = PersistentEObject.from(element);
+            if (!internalElement.isMapped()) {
+                internalElement.id(allocator.next());
+            }
+        }
+    }
+
+    /**
+     * Discards the information cached by the store of this resource, and by its materialized objects, about the
+     * features that have been modified in the back-end by a fork of this resource.
+     *
+     * @param featureKeys the keys of the modified features
+     *
+     * @see PersistentStore#invalidate(Set)
+     * @see PersistentEObject#invalidate(EStructuralFeature)
+     */
+    private void invalidate(Set<FeatureKey> featureKeys) {
+        store().invalidate(featureKeys);
+
+        Map<Id, List<String>> modifiedFeatures = new HashMap<>();
+        for (FeatureKey key : featureKeys) {
+            modifiedFeatures.computeIfAbsent(key.id(), id -> new ArrayList<>()).add(key.name());
+        }
+        for (PersistentEObject object : materializedObjects.asMap().keySet()) {
+            List<String> names = modifiedFeatures.get(object.id());
+            if (nonNull(names)) {
+                for (String name : names) {
+                    EStructuralFeature feature = object.eClass().getEStructuralFeature(name);
+                    if (nonNull(feature)) {
+                        object.invalidate(feature);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Binds the objects attached to this resource that are materialized in memory to the current {@link #store}.
+     * <p>
+     * This method is called when the store of this resource is replaced while its content has already been copied in
+     * the new back-end: the objects must not keep using the previous store, which is closed.
+     *
+     * @see #materialized(PersistentEObject)
+     */
+    private void rebindMaterializedObjects() {
+        for (PersistentEObject object : materializedObjects.asMap().keySet()) {
+            if (object.resource() == this) {
+                object.resource(this);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only the objects that are materialized in memory are turned into proxies: the content of the resource is not
+     * read from the persistence back-end, which is then closed.
+     *
+     * @see #materialized(PersistentEObject)
+     */
     @Override
     protected void doUnload() {
-        Iterator<EObject> allContents = getAllProperContents(unloadingContents);
         getErrors().clear();
         getWarnings().clear();
-        while (allContents.hasNext()) {
-            unloaded((InternalEObject) allContents.next());
+        for (PersistentEObject object : materializedObjects.asMap().keySet()) {
+            if (object.resource() == this) {
+                unloaded(object);
+            }
         }
+        materializedObjects.invalidateAll();
         close();
     }
 
     @Override
     public void close() {
-        this.backend.close();
-
-        this.backend = PersistenceBackendFactoryRegistry.getFactoryProvider(uri.scheme()).createTransientBackend();
-        this.store = PersistenceBackendFactoryRegistry.getFactoryProvider(uri.scheme()).createTransientStore(this, backend);
+        releaseBackend();
 
         this.isPersistent = false;
         this.isLoaded = false;
@@ -220,12 +761,12 @@ public class DefaultPersistentResource extends ResourceImpl implements Persisten
 
     @Override
     public InternalEObject.EStore eStore() {
-        return store;
+        return store();
     }
     
     @Override
     public boolean isDistributed() {
-        return backend.isDistributed();
+        return backend().isDistributed();
     }
 
     @Override
@@ -237,7 +778,7 @@ public class DefaultPersistentResource extends ResourceImpl implements Persisten
     public EList<EObject> getAllInstances(EClass eClass, boolean strict) {
         EList<EObject> allInstances;
         try {
-            allInstances = store.getAllInstances(eClass, strict);
+            allInstances = store().getAllInstances(eClass, strict);
         }
         catch (UnsupportedOperationException e) {
             NeoLogger.warn("This PersistenceBackend does not support advanced allInstances() computation. Using standard EMF API instead");
@@ -262,9 +803,283 @@ public class DefaultPersistentResource extends ResourceImpl implements Persisten
     }
 
     @Override
-    protected void finalize() throws Throwable {
-        unload();
-        super.finalize();
+    public long countInstances(EClass eClass) {
+        return countInstances(eClass, false);
+    }
+
+    @Override
+    public long countInstances(EClass eClass, boolean strict) {
+        long count;
+        try {
+            count = store().countInstances(eClass, strict);
+        }
+        catch (UnsupportedOperationException e) {
+            NeoLogger.warn("This PersistenceBackend does not support instance statistics. Using allInstances() instead");
+            count = getAllInstances(eClass, strict).size();
+        }
+        return count;
+    }
+
+    @Override
+    public FeatureCardinality cardinalityOf(EStructuralFeature feature) {
+        checkArgument(feature.isMany(), "Cannot compute the cardinality of a single-valued feature");
+
+        FeatureCardinality cardinality;
+        try {
+            cardinality = store().cardinalityOf(feature);
+        }
+        catch (UnsupportedOperationException e) {
+            NeoLogger.warn("This PersistenceBackend does not support feature statistics. Using allInstances() instead");
+            EList<EObject> owners = getAllInstances(feature.getEContainingClass(), false);
+            long totalSize = 0;
+            int maxSize = 0;
+            for (EObject owner : owners) {
+                int size = ((List<?>) owner.eGet(feature)).size();
+                totalSize += size;
+                maxSize = Math.max(maxSize, size);
+            }
+            cardinality = FeatureCardinality.of(owners.size(), totalSize, maxSize);
+        }
+        return cardinality;
+    }
+
+    @Override
+    public EObject getRoot(EObject object) {
+        AncestorInfo info = indexedAncestorsOf(object);
+        if (isNull(info)) {
+            return EcoreUtil.getRootContainer(object);
+        }
+        if (depthOf(info) == 0) {
+            return object;
+        }
+        return store().eObject(isInResource(info) ? ancestorAt(((PersistentEObject) object).id(), info, 1) : info.root());
+    }
+
+    @Override
+    public int depth(EObject object) {
+        AncestorInfo info = indexedAncestorsOf(object);
+        if (isNull(info)) {
+            int depth = 0;
+            for (EObject container = object.eContainer(); nonNull(container); container = container.eContainer()) {
+                depth++;
+            }
+            return depth;
+        }
+        return depthOf(info);
+    }
+
+    @Override
+    public boolean isAncestor(EObject ancestor, EObject object) {
+        if (ancestor == object) {
+            return true;
+        }
+
+        AncestorInfo info = indexedAncestorsOf(object);
+        AncestorInfo ancestorInfo = indexedAncestorsOf(ancestor);
+        if (isNull(info) || isNull(ancestorInfo)) {
+            return EcoreUtil.isAncestor(ancestor, object);
+        }
+        if (ancestorInfo.depth() >= info.depth()) {
+            return false;
+        }
+        Id ancestorId = ((PersistentEObject) ancestor).id();
+        return Objects.equals(ancestorAt(((PersistentEObject) object).id(), info, ancestorInfo.depth()), ancestorId);
+    }
+
+    @Override
+    public EList<EObject> getDescendants(EObject object) {
+        if (nonNull(indexedAncestorsOf(object))) {
+            try {
+                List<Id> descendants = store().descendantsOf(((PersistentEObject) object).id());
+                return new BasicEList<>(store().eObjects(descendants));
+            }
+            catch (UnsupportedOperationException e) {
+                NeoLogger.debug("This PersistenceBackend does not support ancestor index. Using eAllContents() instead");
+            }
+        }
+
+        EList<EObject> descendants = new BasicEList<>();
+        object.eAllContents().forEachRemaining(descendants::add);
+        return descendants;
+    }
+
+    @Override
+    public EList<EObject> findBy(EClass eClass, EAttribute attribute, Object value) {
+        checkIndexable(eClass, attribute);
+        checkNotNull(value);
+
+        try {
+            return indexedInstancesOf(eClass, store().findBy(attribute, value));
+        }
+        catch (UnsupportedOperationException e) {
+            NeoLogger.debug("This PersistenceBackend does not index {0}. Using allInstances() instead", attribute.getName());
+            String key = AttributeIndex.sortKey(attribute, value);
+            return scannedInstancesOf(eClass, attribute, key::equals);
+        }
+    }
+
+    @Override
+    public EList<EObject> findByRange(EClass eClass, EAttribute attribute, @Nullable Object from, @Nullable Object to) {
+        checkIndexable(eClass, attribute);
+
+        try {
+            return indexedInstancesOf(eClass, store().findByRange(attribute, from, to));
+        }
+        catch (UnsupportedOperationException e) {
+            NeoLogger.debug("This PersistenceBackend does not index {0}. Using allInstances() instead", attribute.getName());
+            String lower = isNull(from) ? null : AttributeIndex.sortKey(attribute, from);
+            String upper = isNull(to) ? null : AttributeIndex.sortKey(attribute, to);
+            return scannedInstancesOf(eClass, attribute, k -> (isNull(lower) || k.compareTo(lower) >= 0) && (isNull(upper) || k.compareTo(upper) < 0));
+        }
+    }
+
+    @Override
+    public EList<EObject> findByPrefix(EClass eClass, EAttribute attribute, String prefix) {
+        checkIndexable(eClass, attribute);
+        checkNotNull(prefix);
+
+        try {
+            return indexedInstancesOf(eClass, store().findByPrefix(attribute, prefix));
+        }
+        catch (UnsupportedOperationException e) {
+            NeoLogger.debug("This PersistenceBackend does not index {0}. Using allInstances() instead", attribute.getName());
+            return scannedInstancesOf(eClass, attribute, k -> k.startsWith(prefix));
+        }
+    }
+
+    /**
+     * Checks that the given {@code attribute} can be looked up on the instances of the {@code eClass}.
+     *
+     * @param eClass    the class of the objects to look for
+     * @param attribute the attribute to look up
+     *
+     * @throws IllegalArgumentException if the {@code attribute} is multi-valued or is not a feature of the {@code
+     *                                  eClass}
+     */
+    private static void checkIndexable(EClass eClass, EAttribute attribute) {
+        checkArgument(!attribute.isMany(), "Cannot look up the multi-valued attribute %s", attribute.getName());
+        checkArgument(eClass.getEAllAttributes().contains(attribute), "%s is not an attribute of %s", attribute.getName(), eClass.getName());
+    }
+
+    /**
+     * Retrieves the objects identified by the given {@code ids}, as returned by an attribute index, that are instances
+     * of the {@code eClass}.
+     *
+     * @param eClass the class of the objects to look for
+     * @param ids    the identifiers of the objects having the sought value
+     *
+     * @return a list of the matching objects, in the order of the {@code ids}
+     */
+    private EList<EObject> indexedInstancesOf(EClass eClass, List<Id> ids) {
+        EList<EObject> instances = new BasicEList<>(ids.size());
+        for (EObject object : store().eObjects(ids)) {
+            if (eClass.isSuperTypeOf(object.eClass())) {
+                instances.add(object);
+            }
+        }
+        return instances;
+    }
+
+    /**
+     * Retrieves the instances of the {@code eClass} whose value of the {@code attribute} has a sort key that matches
+     * the given {@code predicate}, by loading all the instances of the {@code eClass}.
+     *
+     * @param eClass    the class of the objects to look for
+     * @param attribute the attribute to look up
+     * @param predicate the predicate on the sort key of the values
+     *
+     * @return a list of the matching objects, sorted by value
+     *
+     * @see AttributeIndex#sortKey(EAttribute, Object)
+     */
+    private EList<EObject> scannedInstancesOf(EClass eClass, EAttribute attribute, Predicate<String> predicate) {
+        List<Entry<String, EObject>> matches = new ArrayList<>();
+        for (EObject object : getAllInstances(eClass, false)) {
+            Object value = object.eGet(attribute);
+            if (nonNull(value) && object.eIsSet(attribute)) {
+                String key = AttributeIndex.sortKey(attribute, value);
+                if (predicate.test(key)) {
+                    matches.add(new SimpleImmutableEntry<>(key, object));
+                }
+            }
+        }
+        matches.sort(Entry.comparingByKey());
+
+        EList<EObject> instances = new BasicEList<>(matches.size());
+        matches.forEach(e -> instances.add(e.getValue()));
+        return instances;
+    }
+
+    /**
+     * Returns the ancestors of the given {@code object} from the ancestor index of the underlying database.
+     * <p>
+     * The depth of the returned information includes the root of this resource, which contains the top-level
+     * contents.
+     *
+     * @param object the object
+     *
+     * @return the ancestors of the {@code object}, or {@code null} if the {@code object} does not belong to this
+     * resource, or if the database does not maintain an ancestor index
+     *
+     * @see #depthOf(AncestorInfo)
+     */
+    @Nullable
+    private AncestorInfo indexedAncestorsOf(EObject object) {
+        if (!(object instanceof PersistentEObject) || ((PersistentEObject) object).resource() != this) {
+            return null;
+        }
+
+        try {
+            return store().ancestorsOf(((PersistentEObject) object).id());
+        }
+        catch (UnsupportedOperationException e) {
+            NeoLogger.debug("This PersistenceBackend does not support ancestor index. Navigating the containers instead");
+            return null;
+        }
+    }
+
+    /**
+     * Returns whether the object described by the given {@code info} is contained, directly or not, by the root of
+     * this resource.
+     *
+     * @param info the ancestors of the object
+     *
+     * @return {@code true} if the root of the containment tree of the object is the root of this resource
+     */
+    private boolean isInResource(AncestorInfo info) {
+        return Objects.equals(info.root(), dummyRootEObject.id());
+    }
+
+    /**
+     * Returns the depth of the object described by the given {@code info} in the model: the root of this resource,
+     * which contains the top-level contents, is not part of the model.
+     *
+     * @param info the ancestors of the object
+     *
+     * @return the depth of the object
+     */
+    private int depthOf(AncestorInfo info) {
+        return isInResource(info) ? info.depth() - 1 : info.depth();
+    }
+
+    /**
+     * Returns the identifier of the container at the given {@code depth} of the object identified by {@code id}, by
+     * following the direct containers recorded in the ancestor index, without loading them.
+     *
+     * @param id    the identifier of the object
+     * @param info  the ancestors of the object
+     * @param depth the depth of the container, {@code 0} being the root of the containment tree
+     *
+     * @return the identifier of the container
+     */
+    private Id ancestorAt(Id id, AncestorInfo info, int depth) {
+        Id current = id;
+        AncestorInfo currentInfo = info;
+        while (currentInfo.depth() > depth) {
+            current = currentInfo.container();
+            currentInfo = store().ancestorsOf(current);
+        }
+        return current;
     }
 
     /**
@@ -291,75 +1106,236 @@ public class DefaultPersistentResource extends ResourceImpl implements Persisten
     }
 
     /**
-     * Dummy {@link EObject} that represents the root entry point for this {@link Resource}.
+     * A {@link PersistentStore} decorator that resolves the objects referenced from a namespace of a database, but
+     * stored in another namespace of the same database, through the store of the resource that owns them.
+     * <p>
+     * The underlying store attaches all the objects it reifies to this resource. An object referenced by a
+     * non-containment reference may however belong to another resource that shares the same back-end: if this
+     * resource is open, the object is retrieved from its store, so that its {@link EObject#eResource()} and its
+     * {@link EObject#eContainer()} are the ones of its owner, and so that its state is cached only once. The
+     * objects of a namespace that is not open are still attached to this resource.
+     * <p>
+     * The owner of an object is found by going up to the root of its containment tree, which is then looked up in
+     * the contents of each open resource. The owner is then cached until a namespace of the database is opened or
+     * closed, or until a containment is modified through one of the open namespaces, which may move the object to
+     * another root.
      */
-    private static final class DummyRootEObject extends DefaultPersistentEObject {
+    private final class NamespaceStoreDecorator extends AbstractPersistentStoreDecorator {
 
         /**
-         * The literal representation of the identifier of the root element in a database.
+         * Constructs a new {@code NamespaceStoreDecorator} on top of the given {@code store}.
+         *
+         * @param store the underlying store
          */
-        private static final String ROOT_EOBJECT_ID = "ROOT";
+        public NamespaceStoreDecorator(PersistentStore store) {
+            super(store);
+        }
+
+        @Override
+        public Object get(InternalEObject internalObject, EStructuralFeature feature, int index) {
+            Object value = super.get(internalObject, feature, index);
+            return isCrossReference(feature) && nonNull(value) ? owned(PersistentEObject.from(value)) : value;
+        }
+
+        @Override
+        public Object[] toArray(InternalEObject internalObject, EStructuralFeature feature) {
+            return owned(feature, super.toArray(internalObject, feature));
+        }
+
+        @Override
+        public <T> T[] toArray(InternalEObject internalObject, EStructuralFeature feature, T[] array) {
+            return owned(feature, super.toArray(internalObject, feature, array));
+        }
+
+        @Override
+        public Object[] getAll(InternalEObject internalObject, EStructuralFeature feature) {
+            return owned(feature, super.getAll(internalObject, feature));
+        }
+
+        @Override
+        public Object set(InternalEObject internalObject, EStructuralFeature feature, int index, Object value) {
+            Object previousValue = super.set(internalObject, feature, index, value);
+            containmentChanged(feature);
+            return previousValue;
+        }
+
+        @Override
+        public void unset(InternalEObject internalObject, EStructuralFeature feature) {
+            super.unset(internalObject, feature);
+            containmentChanged(feature);
+        }
+
+        @Override
+        public void add(InternalEObject internalObject, EStructuralFeature feature, int index, Object value) {
+            super.add(internalObject, feature, index, value);
+            containmentChanged(feature);
+        }
+
+        @Override
+        public Object remove(InternalEObject internalObject, EStructuralFeature feature, int index) {
+            Object previousValue = super.remove(internalObject, feature, index);
+            containmentChanged(feature);
+            return previousValue;
+        }
+
+        @Override
+        public void clear(InternalEObject internalObject, EStructuralFeature feature) {
+            super.clear(internalObject, feature);
+            containmentChanged(feature);
+        }
+
+        @Override
+        public void addAll(InternalEObject internalObject, EStructuralFeature feature, int index, Collection<?> values) {
+            super.addAll(internalObject, feature, index, values);
+            containmentChanged(feature);
+        }
+
+        @Override
+        public void removeRange(InternalEObject internalObject, EStructuralFeature feature, int fromIndex, int toIndex) {
+            super.removeRange(internalObject, feature, fromIndex, toIndex);
+            containmentChanged(feature);
+        }
+
+        @Override
+        public void setAll(InternalEObject internalObject, EStructuralFeature feature, Collection<?> values) {
+            super.setAll(internalObject, feature, values);
+            containmentChanged(feature);
+        }
 
         /**
-         * Constructs a new {@code DummyRootEObject} with the given {@code resource}.
+         * Clears the cached owners if the given modified {@code feature} may have moved objects to another root.
+         *
+         * @param feature the modified feature
          *
-         * @param resource the resource containing this object.
+         * @see #invalidateNamespaceOwners()
          */
-        public DummyRootEObject(Resource.Internal resource) {
-            super(new StringId(ROOT_EOBJECT_ID));
-            eSetDirectResource(resource);
+        private void containmentChanged(EStructuralFeature feature) {
+            boolean isContainment = feature == ROOT_CONTENTS_ESTRUCTURALFEATURE
+                    || feature instanceof EReference && (((EReference) feature).isContainment() || ((EReference) feature).isContainer());
+            if (isContainment) {
+                invalidateNamespaceOwners();
+            }
         }
-    }
-
-    /**
-     * A shutdown-hook that stops a persistent back-end when the application exits.
-     */
-    private static class PersistenceBackendShutdownHook extends Thread {
 
         /**
-         * The back-end to stop when the application will exit.
+         * Returns whether the values of the given {@code feature} may belong to another namespace than their owner.
+         *
+         * @param feature the feature
+         *
+         * @return {@code true} if the {@code feature} is a reference that neither contains its values nor refers to
+         * the container of its owner
          */
-        private final PersistenceBackend backend;
+        private boolean isCrossReference(EStructuralFeature feature) {
+            if (!(feature instanceof EReference) || feature == ROOT_CONTENTS_ESTRUCTURALFEATURE) {
+                return false;
+            }
+            EReference reference = (EReference) feature;
+            return !reference.isContainment() && !reference.isContainer();
+        }
 
         /**
-         * The {@link URI} of the resource used by the {@code backend}.
+         * Replaces, in place, the given {@code values} of the {@code feature} by the objects of their owner.
+         *
+         * @param feature the feature the values are read from
+         * @param values  the values
+         *
+         * @return the {@code values}
+         *
+         * @see #owned(PersistentEObject)
          */
-        private final URI uri;
+        private <T> T[] owned(EStructuralFeature feature, T[] values) {
+            if (isCrossReference(feature)) {
+                for (int i = 0; i < values.length; i++) {
+                    if (nonNull(values[i])) {
+                        @SuppressWarnings("unchecked") // The owned object has the same type
+                        T owned = (T) owned(PersistentEObject.from(values[i]));
+                        values[i] = owned;
+                    }
+                }
+            }
+            return values;
+        }
 
         /**
-         * Creates a new {@code PersistenceBackendShutdownHook} with the given {@code backend}.
+         * Returns the given {@code object} as reified by the open resource of its namespace.
          *
-         * @param backend the back-end to stop when the application will exit
-         * @param uri     the {@link URI} of the resource used by the {@code backend}
+         * @param object the object reified by the underlying store
+         *
+         * @return the object of the open resource that contains the root of the {@code object}, or the {@code object}
+         * itself if it belongs to this resource, or to a resource that is not open
+         *
+         * @see #namespaceOwners
          */
-        private PersistenceBackendShutdownHook(PersistenceBackend backend, URI uri) {
-            this.backend = backend;
-            this.uri = uri;
+        private EObject owned(PersistentEObject object) {
+            DefaultPersistentResource owner = namespaceOwners.get(object.id(), id -> ownerOf(object));
+            if (owner == DefaultPersistentResource.this) {
+                return object;
+            }
+            PersistentStore ownerStore = owner.store;
+            return nonNull(ownerStore) ? ownerStore.eObject(object.id()) : object;
         }
 
         /**
-         * Adds a shutdown hook on the given {@code backend}. It will be stopped when the application will exit.
+         * Looks up the open resource that contains the root of the given {@code object}.
          *
-         * @param backend the back-end to stop when the application will exit
-         * @param uri     the {@link URI} of the resource used by the {@code backend}
+         * @param object the object reified by the underlying store
+         *
+         * @return the open resource that contains the root of the {@code object}, or this resource if it belongs to
+         * this resource, or to a resource that is not open
          */
-        public static void closeOnExit(PersistenceBackend backend, URI uri) {
-            Runtime.getRuntime().addShutdownHook(new PersistenceBackendShutdownHook(backend, uri));
+        private DefaultPersistentResource ownerOf(PersistentEObject object) {
+            List<DefaultPersistentResource> others = new ArrayList<>();
+            NAMESPACED_RESOURCES.asMap().forEach((r, b) -> {
+                if (r != DefaultPersistentResource.this && b == backend) {
+                    others.add(r);
+                }
+            });
+            if (others.isEmpty()) {
+                return DefaultPersistentResource.this;
+            }
+
+            InternalEObject root = object;
+            for (InternalEObject container = getContainer(root); nonNull(container); container = getContainer(container)) {
+                root = container;
+            }
+            if (contains(dummyRootEObject, ROOT_CONTENTS_ESTRUCTURALFEATURE, root)) {
+                return DefaultPersistentResource.this;
+            }
+            for (DefaultPersistentResource other : others) {
+                PersistentStore otherStore = other.store;
+                if (nonNull(otherStore) && otherStore.contains(other.dummyRootEObject, ROOT_CONTENTS_ESTRUCTURALFEATURE, root)) {
+                    return other;
+                }
+            }
+            return DefaultPersistentResource.this;
         }
+    }
+
+    /**
+     * Dummy {@link EObject} that represents the root entry point for this {@link Resource}.
+     */
+    private static final class DummyRootEObject extends DefaultPersistentEObject {
 
         /**
-         * {@inheritDoc}
-         * <p>
-         * Cleanly stops the underlying database.
+         * The literal representation of the identifier of the root element in a database.
+         */
+        private static final String ROOT_EOBJECT_ID = "ROOT";
+
+        /**
+         * The separator between {@link #ROOT_EOBJECT_ID} and the namespace of a resource.
+         */
+        private static final char NAMESPACE_SEPARATOR = ':';
+
+        /**
+         * Constructs a new {@code DummyRootEObject} with the given {@code resource}.
          *
-         * @see PersistenceBackend#close()
+         * @param resource  the resource containing this object.
+         * @param namespace the namespace of the resource in its database, or {@code null} if the resource is the only
+         *                  one of its database
          */
-        @Override
-        public void run() {
-            if (!backend.isClosed()) {
-                backend.close();
-                NeoLogger.info("{0} closed: {1} ", PersistenceBackend.class.getSimpleName(), uri);
-            }
+        public DummyRootEObject(Resource.Internal resource, @Nullable String namespace) {
+            super(new StringId(isNull(namespace) ? ROOT_EOBJECT_ID : ROOT_EOBJECT_ID + NAMESPACE_SEPARATOR + namespace));
+            eSetDirectResource(resource);
         }
     }
 
@@ -450,6 +1426,10 @@ public class DefaultPersistentResource extends ResourceImpl implements Persisten
             while (it.hasNext()) {
                 hardLinksList.add(it.next());
             }
+            // The contents are listed in pre-order: they are identified before their identifiers are stored
+            if (isClusteringIds) {
+                allocateClusteredIds(hardLinksList);
+            }
             /*
              * Iterate using the hard links list instead the getAllContents.
 			 * We ensure that using the hardLinksList it is not taken out by JIT compiler
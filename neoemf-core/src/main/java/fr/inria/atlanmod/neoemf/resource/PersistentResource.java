@@ -11,14 +11,21 @@
 
 package fr.inria.atlanmod.neoemf.resource;
 
+import fr.inria.atlanmod.neoemf.data.InvalidDataStoreException;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureCardinality;
+
 import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EAttribute;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.InternalEObject.EStore;
 import org.eclipse.emf.ecore.resource.Resource;
 
 import java.io.Closeable;
 
+import javax.annotation.Nullable;
+
 /**
  * Extends the {@link Resource} interface by providing efficient model-level operations that
  * are not accessible using the standard EMF API. For example, {@code getAllInstances} is a
@@ -64,4 +71,202 @@ public interface PersistentResource extends Resource, Resource.Internal, Closeab
      * it also returns the instances of the sub-types of {@code eClass}.
      */
     EList<EObject> getAllInstances(EClass eClass, boolean strict);
+
+    /**
+     * Counts the instances of the given {@link EClass} (including its sub-types).
+     * <p>
+     * This method is similar to {@link #countInstances(EClass, boolean)} with {@code strict=false}.
+     *
+     * @param eClass the {@link EClass} for which count the instances
+     *
+     * @return the number of instances of the given {@link EClass} in the resource
+     */
+    long countInstances(EClass eClass);
+
+    /**
+     * Counts the instances of the given {@link EClass}.
+     * <p>
+     * The count is computed from the statistics maintained by the underlying database when it supports them, without
+     * loading any instance. Otherwise, it behaves like {@code getAllInstances(eClass, strict).size()}.
+     *
+     * @param eClass the {@link EClass} for which count the instances
+     * @param strict {@code true} if only the strict instances are counted, {@code false} to include the instances of the
+     *               sub-types of {@code eClass}
+     *
+     * @return the number of instances of the given {@link EClass} in the resource
+     */
+    long countInstances(EClass eClass, boolean strict);
+
+    /**
+     * Computes the cardinality summary of the given multi-valued {@link EStructuralFeature}, i.e. the average and the
+     * maximum size of its lists over all the instances of its containing class.
+     * <p>
+     * The summary is computed from the statistics maintained by the underlying database when it supports them.
+     * Otherwise, all the instances of the containing class are loaded.
+     *
+     * @param feature the multi-valued feature
+     *
+     * @return the cardinality summary of the feature
+     *
+     * @throws IllegalArgumentException if the {@code feature} is single-valued
+     */
+    FeatureCardinality cardinalityOf(EStructuralFeature feature);
+
+    /**
+     * Returns the root container of the given {@code object}, i.e. the top-level content of this resource that
+     * contains it, directly or not.
+     * <p>
+     * This method behaves like {@link org.eclipse.emf.ecore.util.EcoreUtil#getRootContainer(EObject)}, but the
+     * containers are followed in the ancestor index, without being loaded, when the underlying database maintains one.
+     *
+     * @param object the object
+     *
+     * @return the root container of the {@code object}, or the {@code object} itself if it has no container
+     *
+     * @see fr.inria.atlanmod.neoemf.option.PersistentResourceOptions#ANCESTOR_INDEX
+     */
+    EObject getRoot(EObject object);
+
+    /**
+     * Returns the number of containers of the given {@code object}: {@code 0} for a top-level content of this
+     * resource.
+     * <p>
+     * The depth is answered in a single lookup when the underlying database maintains an ancestor index. Otherwise,
+     * the containers of the {@code object} are navigated.
+     *
+     * @param object the object
+     *
+     * @return the depth of the {@code object} in its containment tree
+     *
+     * @see fr.inria.atlanmod.neoemf.option.PersistentResourceOptions#ANCESTOR_INDEX
+     */
+    int depth(EObject object);
+
+    /**
+     * Returns whether the given {@code ancestor} is the {@code object} itself, or one of its containers.
+     * <p>
+     * This method behaves like {@link org.eclipse.emf.ecore.util.EcoreUtil#isAncestor(EObject, EObject)}, but the
+     * containers are followed in the ancestor index, without being loaded, and only up to the depth of the {@code
+     * ancestor}, when the underlying database maintains one.
+     *
+     * @param ancestor the possible ancestor
+     * @param object   the object
+     *
+     * @return {@code true} if the {@code ancestor} contains the {@code object}, directly or not, or is the {@code
+     * object} itself
+     *
+     * @see fr.inria.atlanmod.neoemf.option.PersistentResourceOptions#ANCESTOR_INDEX
+     */
+    boolean isAncestor(EObject ancestor, EObject object);
+
+    /**
+     * Returns all the objects contained, directly or not, by the given {@code object}.
+     * <p>
+     * The descendants are retrieved with one range query per descendant when the underlying database maintains an
+     * ancestor index; in this case, the descendants of a same object are contiguous, but the siblings are not ordered as in
+     * their containment feature. Otherwise, the contents of the {@code object} are navigated.
+     *
+     * @param object the object
+     *
+     * @return a list of the descendants of the {@code object}
+     *
+     * @see fr.inria.atlanmod.neoemf.option.PersistentResourceOptions#ANCESTOR_INDEX
+     */
+    EList<EObject> getDescendants(EObject object);
+
+    /**
+     * Returns all the instances of the given {@code eClass} whose {@code attribute} is equal to the given {@code
+     * value}.
+     * <p>
+     * The instances are retrieved with a single range query when the underlying database indexes the {@code
+     * attribute}. Otherwise, all the instances of the {@code eClass} are loaded.
+     *
+     * @param eClass    the class of the objects to look for
+     * @param attribute a single-valued attribute of the {@code eClass}
+     * @param value     the value to look for
+     *
+     * @return a list of the matching objects
+     *
+     * @throws IllegalArgumentException if the {@code attribute} is multi-valued or is not a feature of the {@code
+     *                                  eClass}
+     * @see fr.inria.atlanmod.neoemf.option.PersistentResourceOptions#ATTRIBUTE_INDEXES
+     */
+    EList<EObject> findBy(EClass eClass, EAttribute attribute, Object value);
+
+    /**
+     * Returns all the instances of the given {@code eClass} whose {@code attribute} is greater than or equal to {@code
+     * from}, and strictly lower than {@code to}, sorted by value.
+     * <p>
+     * Numbers, dates and enumeration literals are compared by their numeric value; any other value is compared by its
+     * literal. The instances are retrieved with a single range query when the underlying database indexes the {@code
+     * attribute}. Otherwise, all the instances of the {@code eClass} are loaded.
+     *
+     * @param eClass    the class of the objects to look for
+     * @param attribute a single-valued attribute of the {@code eClass}
+     * @param from      the lower bound, or {@code null} if there is no lower bound
+     * @param to        the upper bound, or {@code null} if there is no upper bound
+     *
+     * @return a list of the matching objects
+     *
+     * @throws IllegalArgumentException if the {@code attribute} is multi-valued or is not a feature of the {@code
+     *                                  eClass}
+     * @see fr.inria.atlanmod.neoemf.option.PersistentResourceOptions#ATTRIBUTE_INDEXES
+     */
+    EList<EObject> findByRange(EClass eClass, EAttribute attribute, @Nullable Object from, @Nullable Object to);
+
+    /**
+     * Returns all the instances of the given {@code eClass} whose {@code attribute} starts with the given {@code
+     * prefix}, sorted by value.
+     * <p>
+     * The instances are retrieved with a single range query when the underlying database indexes the {@code
+     * attribute}. Otherwise, all the instances of the {@code eClass} are loaded.
+     *
+     * @param eClass    the class of the objects to look for
+     * @param attribute a single-valued attribute of the {@code eClass}, whose values are strings
+     * @param prefix    the prefix to look for
+     *
+     * @return a list of the matching objects
+     *
+     * @throws IllegalArgumentException if the {@code attribute} is multi-valued or is not a feature of the {@code
+     *                                  eClass}
+     * @see fr.inria.atlanmod.neoemf.option.PersistentResourceOptions#ATTRIBUTE_INDEXES
+     */
+    EList<EObject> findByPrefix(EClass eClass, EAttribute attribute, String prefix);
+
+    /**
+     * Creates a read-only view of the current state of this resource.
+     * <p>
+     * The returned resource is not affected by the modifications made on this resource after its creation, and can be
+     * read concurrently without blocking them. If this resource has been loaded or saved with the
+     * {@link fr.inria.atlanmod.neoemf.option.PersistentResourceOptions#SNAPSHOT_ISOLATION} option, the snapshot
+     * shares the underlying database, and only keeps the previous values of the features modified after its creation:
+     * it must then be closed before this resource. Otherwise, the snapshot is backed by a copy of the underlying
+     * database, and modifications made during the copy may be partially visible.
+     * <p>
+     * The snapshot must be closed when it is no longer used.
+     *
+     * @return a read-only {@link PersistentResource}
+     *
+     * @throws UnsupportedOperationException if the back-end does not support copying its content
+     * @throws java.io.UncheckedIOException  if the store of the snapshot cannot be created
+     */
+    PersistentResource snapshot();
+
+    /**
+     * Creates a modifiable copy-on-write view of this resource.
+     * <p>
+     * The returned resource reads the database of this resource, but keeps its own modifications in memory, so its
+     * creation does not depend on the size of the model, and its modifications are never visible from this
+     * resource. Saving the fork merges its modifications into the database of this resource; closing or unloading it
+     * without saving discards them.
+     * <p>
+     * The fork must be closed before this resource. The merged modifications are written directly in the database:
+     * this resource should be reloaded to observe them if it caches the values of its objects.
+     *
+     * @return a modifiable {@link PersistentResource}
+     *
+     * @throws InvalidDataStoreException if the store of the fork cannot be created
+     * @see fr.inria.atlanmod.neoemf.data.store.OverlayStoreDecorator
+     */
+    PersistentResource fork() throws InvalidDataStoreException;
 }
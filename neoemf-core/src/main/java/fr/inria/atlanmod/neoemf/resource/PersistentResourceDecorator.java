@@ -11,14 +11,19 @@
 
 package fr.inria.atlanmod.neoemf.resource;
 
+import fr.inria.atlanmod.neoemf.data.InvalidDataStoreException;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureCardinality;
+
 import org.eclipse.emf.common.notify.Adapter;
 import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.common.notify.NotificationChain;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.common.util.TreeIterator;
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.InternalEObject.EStore;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 
@@ -223,4 +228,64 @@ public class PersistentResourceDecorator implements PersistentResource {
         return resource.getAllInstances(eClass, strict);
     }
 
+    @Override
+    public long countInstances(EClass eClass) {
+        return resource.countInstances(eClass);
+    }
+
+    @Override
+    public long countInstances(EClass eClass, boolean strict) {
+        return resource.countInstances(eClass, strict);
+    }
+
+    @Override
+    public FeatureCardinality cardinalityOf(EStructuralFeature feature) {
+        return resource.cardinalityOf(feature);
+    }
+
+    @Override
+    public EObject getRoot(EObject object) {
+        return resource.getRoot(object);
+    }
+
+    @Override
+    public int depth(EObject object) {
+        return resource.depth(object);
+    }
+
+    @Override
+    public boolean isAncestor(EObject ancestor, EObject object) {
+        return resource.isAncestor(ancestor, object);
+    }
+
+    @Override
+    public EList<EObject> getDescendants(EObject object) {
+        return resource.getDescendants(object);
+    }
+
+    @Override
+    public EList<EObject> findBy(EClass eClass, EAttribute attribute, Object value) {
+        return resource.findBy(eClass, attribute, value);
+    }
+
+    @Override
+    public EList<EObject> findByRange(EClass eClass, EAttribute attribute, Object from, Object to) {
+        return resource.findByRange(eClass, attribute, from, to);
+    }
+
+    @Override
+    public EList<EObject> findByPrefix(EClass eClass, EAttribute attribute, String prefix) {
+        return resource.findByPrefix(eClass, attribute, prefix);
+    }
+
+    @Override
+    public PersistentResource snapshot() {
+        return resource.snapshot();
+    }
+
+    @Override
+    public PersistentResource fork() throws InvalidDataStoreException {
+        return resource.fork();
+    }
+
 }
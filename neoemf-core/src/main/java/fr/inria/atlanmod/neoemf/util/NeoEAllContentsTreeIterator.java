@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.util;
+
+import fr.inria.atlanmod.neoemf.data.store.PersistentStore;
+import fr.inria.atlanmod.neoemf.resource.PersistentResource;
+
+import org.eclipse.emf.common.util.AbstractTreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.Resource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A {@link org.eclipse.emf.common.util.TreeIterator} over the content of a {@link Resource}, that reads the content
+ * of its objects by batches from a {@link PersistentStore}.
+ * <p>
+ * The objects are returned in the same order as {@link Resource#getAllContents()}, but their content is not read one
+ * object at a time: when the content of an object is needed, the content of its next siblings, i.e. the next objects
+ * whose content will be needed at the same depth of the traversal, is read at the same time with
+ * {@link PersistentStore#eContents(List)}. This allows the store to resolve the content of wide containment lists
+ * with a few multi-key requests.
+ * <p>
+ * The lookahead is bounded by the batch size at each level of the current path, and the content of an object is
+ * released as soon as the object is visited, so the memory used by the iterator does not depend on the width of the
+ * whole tree.
+ * <p>
+ * Instances of this class are created by {@link PersistentResource#getAllContents()}.
+ */
+public class NeoEAllContentsTreeIterator extends AbstractTreeIterator<EObject> {
+
+    /**
+     * The default maximum number of objects expanded in a single batch (1 000).
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The store used to read the content of the objects.
+     */
+    private final transient PersistentStore store;
+
+    /**
+     * The maximum number of objects expanded in a single batch.
+     */
+    private final int batchSize;
+
+    /**
+     * The position of the objects that have been reached, but whose content has not been read yet, in the content of
+     * their container.
+     */
+    private final transient Map<EObject, Position> positions = new HashMap<>();
+
+    /**
+     * The content of the expanded objects that have not been visited yet.
+     */
+    private final transient Map<EObject, List<EObject>> contents = new HashMap<>();
+
+    /**
+     * The content of the last returned object, removed from the iteration by {@link #prune()}.
+     */
+    private transient List<EObject> lastContents = Collections.emptyList();
+
+    /**
+     * Constructs a new {@code NeoEAllContentsTreeIterator} over the content of the given {@code resource}, with the
+     * default batch size.
+     *
+     * @param resource the resource to iterate
+     * @param store    the store used to read the content of the objects
+     */
+    public NeoEAllContentsTreeIterator(Resource resource, PersistentStore store) {
+        this(resource, store, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructs a new {@code NeoEAllContentsTreeIterator} over the content of the given {@code resource}, with the
+     * given {@code batchSize}.
+     *
+     * @param resource  the resource to iterate
+     * @param store     the store used to read the content of the objects
+     * @param batchSize the maximum number of objects expanded in a single batch
+     */
+    public NeoEAllContentsTreeIterator(Resource resource, PersistentStore store, int batchSize) {
+        super(resource, false);
+        checkArgument(batchSize > 0, "batchSize must be > 0");
+        this.store = store;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The content of the {@code object} is read with the content of its next siblings, if it has not been read yet.
+     */
+    @Override
+    protected Iterator<? extends EObject> getChildren(Object object) {
+        if (object instanceof Resource) {
+            lastContents = new ArrayList<>(((Resource) object).getContents());
+        }
+        else {
+            EObject eObject = (EObject) object;
+            if (!contents.containsKey(eObject)) {
+                expand(eObject);
+            }
+            lastContents = contents.remove(eObject);
+        }
+
+        for (int i = 0; i < lastContents.size(); i++) {
+            positions.put(lastContents.get(i), new Position(lastContents, i));
+        }
+        return lastContents.iterator();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The content of the last returned object, and their own content if it has already been read, are forgotten.
+     */
+    @Override
+    public void prune() {
+        super.prune();
+        lastContents.forEach(this::forget);
+        lastContents = Collections.emptyList();
+    }
+
+    /**
+     * Reads the content of the given {@code object}, and of its next siblings up to the batch size.
+     * <p>
+     * The siblings are expanded in the order they will be visited, so the siblings that follow the batch have not
+     * been expanded yet.
+     *
+     * @param object the object to expand
+     */
+    private void expand(EObject object) {
+        List<InternalEObject> batch = new ArrayList<>();
+        batch.add((InternalEObject) object);
+
+        Position position = positions.remove(object);
+        if (nonNull(position)) {
+            List<EObject> siblings = position.siblings;
+            for (int i = position.index + 1; i < siblings.size() && batch.size() < batchSize; i++) {
+                EObject sibling = siblings.get(i);
+                if (isNull(positions.remove(sibling))) {
+                    break;
+                }
+                batch.add((InternalEObject) sibling);
+            }
+        }
+
+        List<List<EObject>> batchContents = store.eContents(batch);
+        for (int i = 0; i < batch.size(); i++) {
+            contents.put(batch.get(i), batchContents.get(i));
+        }
+    }
+
+    /**
+     * Forgets the given {@code object}, and its content if it has already been read.
+     *
+     * @param object the object to forget
+     */
+    private void forget(EObject object) {
+        positions.remove(object);
+        List<EObject> objectContents = contents.remove(object);
+        if (nonNull(objectContents)) {
+            objectContents.forEach(this::forget);
+        }
+    }
+
+    /**
+     * The position of a reached object in the content of its container.
+     */
+    private static final class Position {
+
+        /**
+         * The content of the container of the object.
+         */
+        private final List<EObject> siblings;
+
+        /**
+         * The index of the object in {@link #siblings}.
+         */
+        private final int index;
+
+        /**
+         * Constructs a new {@code Position}.
+         *
+         * @param siblings the content of the container of the object
+         * @param index    the index of the object in {@code siblings}
+         */
+        private Position(List<EObject> siblings, int index) {
+            this.siblings = siblings;
+            this.index = index;
+        }
+    }
+}
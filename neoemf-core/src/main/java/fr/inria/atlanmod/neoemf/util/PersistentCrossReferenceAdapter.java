@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.util;
+
+import fr.inria.atlanmod.neoemf.core.PersistentEObject;
+import fr.inria.atlanmod.neoemf.data.store.PersistentStore;
+import fr.inria.atlanmod.neoemf.resource.PersistentResource;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.ECrossReferenceAdapter;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * An {@link ECrossReferenceAdapter} that reads the inverse references of the objects of {@link PersistentResource}s
+ * from the inverse reference index of their back-end, instead of installing itself on every object to maintain them in
+ * memory.
+ * <p>
+ * Attached to a {@link PersistentResource}, this adapter does not traverse its content: the inverse references are
+ * maintained by the back-end when the resource is created with the {@link
+ * fr.inria.atlanmod.neoemf.option.PersistentResourceOptions#INVERSE_REFERENCE_INDEX} option. If the back-end of an
+ * object does not maintain such an index, its inverse references are computed by scanning its resource. The objects of
+ * other resources are handled as by a regular {@link ECrossReferenceAdapter}.
+ *
+ * @see PersistentStore#getInverseReferences(InternalEObject, EReference)
+ */
+public class PersistentCrossReferenceAdapter extends ECrossReferenceAdapter {
+
+    /**
+     * Constructs a new {@code PersistentCrossReferenceAdapter}.
+     */
+    public PersistentCrossReferenceAdapter() {
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The inverse references of an object of a {@link PersistentResource} are read from its store, and contain the
+     * containment setting of its container.
+     */
+    @Override
+    public Collection<EStructuralFeature.Setting> getInverseReferences(EObject eObject, boolean resolve) {
+        PersistentStore store = storeOf(eObject);
+        if (isNull(store)) {
+            return super.getInverseReferences(eObject, resolve);
+        }
+
+        List<EStructuralFeature.Setting> settings = new ArrayList<>();
+        InternalEObject container = (InternalEObject) eObject.eContainer();
+        if (nonNull(container)) {
+            settings.add(container.eSetting(eObject.eContainmentFeature()));
+        }
+        settings.addAll(crossReferencesOf(store, eObject));
+        return settings;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The inverse references of an object of a {@link PersistentResource} are read from its store.
+     */
+    @Override
+    public Collection<EStructuralFeature.Setting> getNonNavigableInverseReferences(EObject eObject, boolean resolve) {
+        PersistentStore store = storeOf(eObject);
+        if (isNull(store)) {
+            return super.getNonNavigableInverseReferences(eObject, resolve);
+        }
+
+        List<EStructuralFeature.Setting> settings = new ArrayList<>();
+        for (EStructuralFeature.Setting setting : crossReferencesOf(store, eObject)) {
+            if (isNull(((EReference) setting.getEStructuralFeature()).getEOpposite())) {
+                settings.add(setting);
+            }
+        }
+        return settings;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The content of a {@link PersistentResource} is not traversed.
+     */
+    @Override
+    protected void setTarget(Resource target) {
+        if (!(target instanceof PersistentResource)) {
+            super.setTarget(target);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The content of a {@link PersistentResource} is not traversed.
+     */
+    @Override
+    protected void unsetTarget(Resource target) {
+        if (!(target instanceof PersistentResource)) {
+            super.unsetTarget(target);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The modifications of the content of a {@link PersistentResource} are ignored.
+     */
+    @Override
+    protected void selfAdapt(Notification notification) {
+        if (!(notification.getNotifier() instanceof PersistentResource)) {
+            super.selfAdapt(notification);
+        }
+    }
+
+    /**
+     * Returns the cross-references of the given {@code eObject}, read from the given {@code store}, or computed by
+     * scanning the resource of the object if the store does not maintain them.
+     *
+     * @param store   the store of the object
+     * @param eObject the referenced object
+     *
+     * @return the settings of the objects referencing the object
+     */
+    private static Collection<EStructuralFeature.Setting> crossReferencesOf(PersistentStore store, EObject eObject) {
+        try {
+            return store.getInverseReferences((InternalEObject) eObject);
+        }
+        catch (UnsupportedOperationException e) {
+            return EcoreUtil.UsageCrossReferencer.find(eObject, eObject.eResource());
+        }
+    }
+
+    /**
+     * Returns the store of the given {@code eObject}, if it belongs to a {@link PersistentResource}.
+     *
+     * @param eObject the object
+     *
+     * @return the store of the object, or {@code null} if the object does not belong to a {@link PersistentResource}
+     */
+    @Nullable
+    private static PersistentStore storeOf(EObject eObject) {
+        if (!(eObject instanceof PersistentEObject) || !(eObject.eResource() instanceof PersistentResource)) {
+            return null;
+        }
+        InternalEObject.EStore store = ((PersistentResource) eObject.eResource()).eStore();
+        return store instanceof PersistentStore ? (PersistentStore) store : null;
+    }
+}
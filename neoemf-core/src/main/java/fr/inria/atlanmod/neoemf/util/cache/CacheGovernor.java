@@ -0,0 +1,346 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.util.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import fr.inria.atlanmod.neoemf.annotations.VisibleForTesting;
+import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A JVM-wide governor that shares a memory budget between the in-memory caches of all the open resources.
+ * <p>
+ * Each cache is registered with its preferred size, and receives a share of the budget proportional to this size.
+ * A cache can grow up to {@link #MAX_GROWTH} times its preferred size when the budget is not used by other caches, and
+ * shrinks when other caches are registered. The budget is expressed as a number of entries, estimated from the
+ * maximum heap size.
+ * <p>
+ * The governor also listens to the memory usage of the heap: the available budget is halved each time the usage of a
+ * heap pool exceeds {@link #HIGH_USAGE_RATIO} of its maximum after a garbage collection, and is doubled back, up to
+ * the whole budget, when a garbage collection leaves less than {@link #LOW_USAGE_RATIO} of the heap used. Each
+ * decision is reported in the logs.
+ * <p>
+ * The caches are weakly referenced, so the caches of the closed resources release their share of the budget once
+ * they have been collected.
+ */
+public class CacheGovernor {
+
+    /**
+     * The estimated size of a cache entry, in bytes (1 KiB).
+     */
+    private static final long ESTIMATED_ENTRY_SIZE = 1024;
+
+    /**
+     * The ratio of the maximum heap size that can be used by the caches.
+     */
+    private static final double BUDGET_RATIO = 0.25;
+
+    /**
+     * The maximum ratio between the size of a cache and its preferred size.
+     */
+    static final int MAX_GROWTH = 4;
+
+    /**
+     * The minimum size of a cache, whatever the pressure on the heap.
+     */
+    static final long MIN_SIZE = 16;
+
+    /**
+     * The minimum ratio of the budget available for the caches.
+     */
+    static final double MIN_LEVEL = 1. / 16;
+
+    /**
+     * The usage ratio of a heap pool, after a garbage collection, above which the caches are shrunk.
+     */
+    private static final double HIGH_USAGE_RATIO = 0.75;
+
+    /**
+     * The usage ratio of a heap pool, after a garbage collection, below which the caches are allowed to grow again.
+     */
+    private static final double LOW_USAGE_RATIO = 0.5;
+
+    /**
+     * The type of the notifications emitted by the garbage collectors of HotSpot-based JVMs.
+     */
+    private static final String GC_NOTIFICATION = "com.sun.management.gc.notification";
+
+    /**
+     * The registered caches.
+     */
+    private final List<Registration> registrations = new ArrayList<>();
+
+    /**
+     * The total number of entries that can be held by all the caches.
+     */
+    private long budget;
+
+    /**
+     * The ratio of the {@link #budget} currently available, between {@link #MIN_LEVEL} and {@code 1}.
+     */
+    private double level = 1;
+
+    /**
+     * Constructs a new {@code CacheGovernor} with the given {@code budget}.
+     *
+     * @param budget the total number of entries that can be held by all the caches
+     */
+    @VisibleForTesting
+    CacheGovernor(long budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Returns the instance of this class.
+     *
+     * @return the instance of this class
+     */
+    @Nonnull
+    public static CacheGovernor getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Creates a new cache sized according to the available budget, and registers it in this governor.
+     *
+     * @param preferredSize the size the cache would have if it was alone in the JVM, without pressure on the heap
+     * @param <K>           the type of keys
+     * @param <V>           the type of values
+     *
+     * @return a new cache
+     */
+    public synchronized <K, V> Cache<K, V> newCache(long preferredSize) {
+        checkArgument(preferredSize > 0, "preferredSize must be > 0");
+
+        Cache<K, V> cache = Caffeine.newBuilder().maximumSize(preferredSize).build();
+        registrations.add(new Registration(cache, preferredSize));
+        rebalance();
+        return cache;
+    }
+
+    /**
+     * Defines the total number of entries that can be held by all the caches, and resizes them accordingly.
+     *
+     * @param budget the new budget
+     */
+    public synchronized void budget(long budget) {
+        checkArgument(budget > 0, "budget must be > 0");
+
+        this.budget = budget;
+        NeoLogger.info("Cache budget set to {0} entries", budget);
+        rebalance();
+    }
+
+    /**
+     * Returns the total number of entries currently allocated to the registered caches.
+     *
+     * @return the number of allocated entries
+     */
+    public synchronized long allocated() {
+        rebalance();
+        return registrations.stream().mapToLong(r -> r.size).sum();
+    }
+
+    /**
+     * Halves the available budget after a pressure on the heap, and shrinks the caches accordingly.
+     */
+    @VisibleForTesting
+    synchronized void shrink() {
+        if (level > MIN_LEVEL) {
+            level = Math.max(MIN_LEVEL, level / 2);
+            rebalance();
+            NeoLogger.info("Heap pressure detected: caches shrunk to {0} entries ({1,number,percent} of the budget)",
+                    registrations.stream().mapToLong(r -> r.size).sum(), level);
+        }
+    }
+
+    /**
+     * Doubles the available budget when the heap is free again, and grows the caches accordingly.
+     */
+    @VisibleForTesting
+    synchronized void grow() {
+        if (level < 1) {
+            level = Math.min(1, level * 2);
+            rebalance();
+            NeoLogger.info("Heap released: caches grown to {0} entries ({1,number,percent} of the budget)",
+                    registrations.stream().mapToLong(r -> r.size).sum(), level);
+        }
+    }
+
+    /**
+     * Assigns a share of the available budget to each registered cache, proportional to its preferred size, and
+     * forgets the caches that have been collected.
+     */
+    private void rebalance() {
+        long totalPreferredSize = 0;
+        for (Iterator<Registration> it = registrations.iterator(); it.hasNext(); ) {
+            Registration registration = it.next();
+            if (isNull(registration.cache.get())) {
+                it.remove();
+            }
+            else {
+                totalPreferredSize += registration.preferredSize;
+            }
+        }
+
+        double available = budget * level;
+        for (Registration registration : registrations) {
+            long share = Math.round(available * registration.preferredSize / totalPreferredSize);
+            long size = Math.max(MIN_SIZE, Math.min(share, registration.preferredSize * MAX_GROWTH));
+            registration.resize(size);
+        }
+    }
+
+    /**
+     * Listens to the memory notifications of the JVM to adapt the available budget.
+     * <p>
+     * A collection usage threshold is defined on each heap pool that supports it, if no threshold has been defined
+     * yet.
+     */
+    private void listen() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            long max = pool.getUsage().getMax();
+            if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported() && max > 0
+                    && pool.getCollectionUsageThreshold() == 0) {
+                pool.setCollectionUsageThreshold(Math.round(max * HIGH_USAGE_RATIO));
+            }
+        }
+
+        ((NotificationEmitter) ManagementFactory.getMemoryMXBean()).addNotificationListener((n, h) -> {
+            if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(n.getType())) {
+                shrink();
+            }
+        }, null, null);
+
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter) {
+                ((NotificationEmitter) collector).addNotificationListener((n, h) -> onCollection(n), null, null);
+            }
+        }
+    }
+
+    /**
+     * Grows the caches if a garbage collection left all the heap pools with a low usage.
+     *
+     * @param notification the notification sent by a garbage collector
+     */
+    private void onCollection(Notification notification) {
+        if (!GC_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported()
+                    && usage.getMax() > 0 && usage.getUsed() > usage.getMax() * LOW_USAGE_RATIO) {
+                return;
+            }
+        }
+        grow();
+    }
+
+    /**
+     * A cache registered in the governor.
+     */
+    private static class Registration {
+
+        /**
+         * The registered cache.
+         */
+        private final WeakReference<Cache<?, ?>> cache;
+
+        /**
+         * The size the cache would have if it was alone in the JVM.
+         */
+        private final long preferredSize;
+
+        /**
+         * The size currently assigned to the cache.
+         */
+        private long size;
+
+        /**
+         * Constructs a new {@code Registration}.
+         *
+         * @param cache         the registered cache
+         * @param preferredSize the size the cache would have if it was alone in the JVM
+         */
+        private Registration(Cache<?, ?> cache, long preferredSize) {
+            this.cache = new WeakReference<>(cache);
+            this.preferredSize = preferredSize;
+            this.size = preferredSize;
+        }
+
+        /**
+         * Defines the maximum size of the cache.
+         *
+         * @param size the new maximum size
+         */
+        private void resize(long size) {
+            Cache<?, ?> target = cache.get();
+            if (size != this.size && nonNull(target)) {
+                target.policy().eviction().ifPresent(e -> e.setMaximum(size));
+                this.size = size;
+            }
+        }
+    }
+
+    /**
+     * The initialization-on-demand holder of the singleton of this class.
+     */
+    private static class Holder {
+
+        /**
+         * The instance of the outer class.
+         */
+        private static final CacheGovernor INSTANCE = createInstance();
+
+        /**
+         * Creates the instance of the outer class, with a budget estimated from the maximum heap size, and starts to
+         * listen to the memory notifications of the JVM.
+         *
+         * @return the instance
+         */
+        private static CacheGovernor createInstance() {
+            long budget = Math.max(MIN_SIZE, Math.round(Runtime.getRuntime().maxMemory() * BUDGET_RATIO / ESTIMATED_ENTRY_SIZE));
+            CacheGovernor governor = new CacheGovernor(budget);
+            try {
+                governor.listen();
+            }
+            catch (RuntimeException e) {
+                NeoLogger.warn(e, "Unable to listen to the memory notifications: caches will not adapt to the heap usage");
+            }
+            NeoLogger.info("Cache budget set to {0} entries", budget);
+            return governor;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.util.lifecycle;
+
+import fr.inria.atlanmod.neoemf.annotations.VisibleForTesting;
+import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.Nonnull;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A reaper that releases the native resources of the objects that have been garbage collected without being closed.
+ * <p>
+ * An object is registered with the action that releases its resources. This action must not reference the object
+ * itself, otherwise the object would never be collected. When the object is closed, it calls {@link
+ * Cleanable#clean()} to run the action immediately. If the object becomes unreachable before, the action is run by a
+ * background thread, and a leak warning is logged: unlike finalization, the object is not resurrected, and it is
+ * collected in a single garbage collection cycle.
+ * <p>
+ * The actions that have not been run yet are also run when the application exits, through the {@link
+ * ShutdownCoordinator}.
+ */
+public class Reaper {
+
+    /**
+     * The queue where the references of the collected objects are enqueued.
+     */
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+    /**
+     * The pending cleanables, strongly referenced so that they are not collected before their object.
+     */
+    private final Set<Cleanable> cleanables = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Constructs a new {@code Reaper}, and starts its background thread.
+     */
+    @VisibleForTesting
+    Reaper() {
+        Thread thread = new Thread(this::reap, "neoemf-reaper");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Returns the instance of this class.
+     *
+     * @return the instance of this class
+     */
+    @Nonnull
+    public static Reaper getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Registers the given {@code object}: the {@code action} will be run when {@link Cleanable#clean()} is called, or
+     * when the {@code object} becomes unreachable, whichever comes first.
+     *
+     * @param object      the object to monitor
+     * @param description the description of the object, used in the leak warning
+     * @param action      the action that releases the resources of the object, that must not reference it
+     *
+     * @return the cleanable to call when the object is closed
+     */
+    @Nonnull
+    public Cleanable register(Object object, String description, Runnable action) {
+        Cleanable cleanable = new Cleanable(this, requireNonNull(object), requireNonNull(description), requireNonNull(action));
+        synchronized (cleanables) {
+            cleanables.add(cleanable);
+        }
+        return cleanable;
+    }
+
+    /**
+     * Returns the number of cleanables whose action has not been run yet.
+     *
+     * @return the number of pending cleanables
+     */
+    @VisibleForTesting
+    int pending() {
+        synchronized (cleanables) {
+            return cleanables.size();
+        }
+    }
+
+    /**
+     * Runs the action of all the pending cleanables, without considering them as leaked.
+     */
+    @VisibleForTesting
+    void cleanAll() {
+        List<Cleanable> toClean;
+        synchronized (cleanables) {
+            toClean = new ArrayList<>(cleanables);
+        }
+        toClean.forEach(Cleanable::clean);
+    }
+
+    /**
+     * Waits for the references of the collected objects, and runs their action.
+     */
+    private void reap() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Cleanable cleanable = (Cleanable) queue.remove();
+                if (cleanable.isPending()) {
+                    NeoLogger.warn("{0} has been garbage collected without being closed: releasing its resources", cleanable.description);
+                    cleanable.clean();
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            catch (RuntimeException e) {
+                NeoLogger.error(e, "Unable to release the resources of a leaked object");
+            }
+        }
+    }
+
+    /**
+     * A registration in a {@link Reaper}.
+     */
+    public static final class Cleanable extends PhantomReference<Object> {
+
+        /**
+         * The reaper of this cleanable.
+         */
+        private final Reaper reaper;
+
+        /**
+         * The description of the monitored object.
+         */
+        private final String description;
+
+        /**
+         * The action that releases the resources of the monitored object.
+         */
+        private final Runnable action;
+
+        /**
+         * Whether the action has already been run.
+         */
+        private final AtomicBoolean cleaned = new AtomicBoolean();
+
+        /**
+         * Constructs a new {@code Cleanable}.
+         *
+         * @param reaper      the reaper of this cleanable
+         * @param object      the monitored object
+         * @param description the description of the monitored object
+         * @param action      the action that releases the resources of the monitored object
+         */
+        private Cleanable(Reaper reaper, Object object, String description, Runnable action) {
+            super(object, reaper.queue);
+            this.reaper = reaper;
+            this.description = description;
+            this.action = action;
+        }
+
+        /**
+         * Runs the action of this cleanable, if it has not been run yet, and unregisters it.
+         */
+        public void clean() {
+            if (cleaned.compareAndSet(false, true)) {
+                synchronized (reaper.cleanables) {
+                    reaper.cleanables.remove(this);
+                }
+                action.run();
+            }
+        }
+
+        /**
+         * Returns whether the action of this cleanable has not been run yet.
+         *
+         * @return {@code true} if the action has not been run yet
+         */
+        private boolean isPending() {
+            return !cleaned.get();
+        }
+    }
+
+    /**
+     * The initialization-on-demand holder of the singleton of this class.
+     */
+    private static class Holder {
+
+        /**
+         * The instance of the outer class.
+         */
+        private static final Reaper INSTANCE = createInstance();
+
+        /**
+         * Creates the instance of the outer class, whose pending actions are run when the application exits.
+         *
+         * @return the instance
+         */
+        private static Reaper createInstance() {
+            Reaper reaper = new Reaper();
+            ShutdownCoordinator.getInstance().register("reaper", reaper::cleanAll);
+            return reaper;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.util.lifecycle;
+
+import fr.inria.atlanmod.neoemf.annotations.VisibleForTesting;
+import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The single shutdown hook of NeoEMF, that runs the tasks registered by the components still open when the
+ * application exits.
+ * <p>
+ * The tasks are run sequentially, in the reverse order of their registration, so that a component registered after
+ * another one, and possibly depending on it, is stopped first. A task that fails does not prevent the next ones from
+ * being run. A task must be {@link Task#cancel() cancelled} when its component is explicitly closed, so that the
+ * component is not retained until the application exits.
+ */
+public class ShutdownCoordinator {
+
+    /**
+     * The registered tasks, in the order of their registration.
+     */
+    private final Set<Task> tasks = new LinkedHashSet<>();
+
+    /**
+     * Constructs a new {@code ShutdownCoordinator}.
+     * <p>
+     * The instance returned by {@link #getInstance()} is the only one bound to the shutdown of the JVM.
+     */
+    @VisibleForTesting
+    ShutdownCoordinator() {
+    }
+
+    /**
+     * Returns the instance of this class.
+     *
+     * @return the instance of this class
+     */
+    @Nonnull
+    public static ShutdownCoordinator getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Registers a {@code task} to run when the application exits.
+     *
+     * @param name   the name of the task, used in the logs
+     * @param action the action to run
+     *
+     * @return the registered task, to cancel when it is no longer needed
+     */
+    @Nonnull
+    public synchronized Task register(String name, Runnable action) {
+        Task task = new Task(this, requireNonNull(name), requireNonNull(action));
+        tasks.add(task);
+        return task;
+    }
+
+    /**
+     * Returns the number of registered tasks.
+     *
+     * @return the number of registered tasks
+     */
+    @VisibleForTesting
+    synchronized int size() {
+        return tasks.size();
+    }
+
+    /**
+     * Runs all the registered tasks, from the last registered one, and unregisters them.
+     */
+    @VisibleForTesting
+    void runAll() {
+        List<Task> toRun;
+        synchronized (this) {
+            toRun = new ArrayList<>(tasks);
+            tasks.clear();
+        }
+        Collections.reverse(toRun);
+
+        for (Task task : toRun) {
+            try {
+                task.action.run();
+            }
+            catch (RuntimeException e) {
+                NeoLogger.error(e, "Shutdown task {0} failed", task.name);
+            }
+        }
+    }
+
+    /**
+     * Unregisters the given {@code task}.
+     *
+     * @param task the task to unregister
+     */
+    private synchronized void unregister(Task task) {
+        tasks.remove(task);
+    }
+
+    /**
+     * A task registered in a {@link ShutdownCoordinator}.
+     */
+    public static final class Task {
+
+        /**
+         * The coordinator of this task.
+         */
+        private final ShutdownCoordinator coordinator;
+
+        /**
+         * The name of this task, used in the logs.
+         */
+        private final String name;
+
+        /**
+         * The action of this task.
+         */
+        private final Runnable action;
+
+        /**
+         * Constructs a new {@code Task}.
+         *
+         * @param coordinator the coordinator of this task
+         * @param name        the name of this task
+         * @param action      the action of this task
+         */
+        private Task(ShutdownCoordinator coordinator, String name, Runnable action) {
+            this.coordinator = coordinator;
+            this.name = name;
+            this.action = action;
+        }
+
+        /**
+         * Unregisters this task: it will not be run when the application exits.
+         */
+        public void cancel() {
+            coordinator.unregister(this);
+        }
+    }
+
+    /**
+     * The initialization-on-demand holder of the singleton of this class.
+     */
+    private static class Holder {
+
+        /**
+         * The instance of the outer class.
+         */
+        private static final ShutdownCoordinator INSTANCE = createInstance();
+
+        /**
+         * Creates the instance of the outer class, and binds it to the shutdown of the JVM.
+         *
+         * @return the instance
+         */
+        private static ShutdownCoordinator createInstance() {
+            ShutdownCoordinator coordinator = new ShutdownCoordinator();
+            Runtime.getRuntime().addShutdownHook(new Thread(coordinator::runAll, "neoemf-shutdown"));
+            return coordinator;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.core;
+
+import fr.inria.atlanmod.neoemf.AbstractTest;
+
+import org.eclipse.emf.ecore.EcorePackage;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link ClusteredIdAllocator}.
+ */
+public class ClusteredIdAllocatorTest extends AbstractTest {
+
+    @Test
+    public void testConsecutiveIds() {
+        ClusteredIdAllocator allocator = new ClusteredIdAllocator();
+
+        List<String> literals = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            literals.add(allocator.next().toString());
+        }
+
+        // All the identifiers have the same length, and their literal order is the allocation order
+        for (int i = 1; i < literals.size(); i++) {
+            assertThat(literals.get(i)).hasSameSizeAs(literals.get(0));
+            assertThat(literals.get(i).compareTo(literals.get(i - 1))).isPositive();
+        }
+    }
+
+    @Test
+    public void testDistinctClusters() {
+        Id id0 = new ClusteredIdAllocator().next();
+        Id id1 = new ClusteredIdAllocator().next();
+
+        assertThat(id0).isNotEqualTo(id1);
+    }
+
+    @Test
+    public void testIdChangeKeepsTransientValues() {
+        DefaultPersistentEObject object = new DefaultPersistentEObject();
+        object.eSetClass(EcorePackage.Literals.ECLASS);
+        object.eSet(EcorePackage.Literals.ENAMED_ELEMENT__NAME, "name0");
+
+        Id id = new ClusteredIdAllocator().next();
+        object.id(id);
+
+        assertThat(object.id()).isEqualTo(id);
+        assertThat(object.eGet(EcorePackage.Literals.ENAMED_ELEMENT__NAME)).isEqualTo("name0");
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.core;
+
+import fr.inria.atlanmod.neoemf.AbstractTest;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the accessors generated with the {@code Dynamic} feature delegation, which directly call
+ * {@link DefaultPersistentEObject#eDynamicGet(int, org.eclipse.emf.ecore.EStructuralFeature, boolean, boolean)}.
+ */
+public class DefaultPersistentEObjectTest extends AbstractTest {
+
+    private static final EClass NODE = EcoreFactory.eINSTANCE.createEClass();
+
+    private static final EAttribute NODE_NAME = EcoreFactory.eINSTANCE.createEAttribute();
+
+    private static final EAttribute NODE_WEIGHT = EcoreFactory.eINSTANCE.createEAttribute();
+
+    private static final EReference NODE_CHILDREN = EcoreFactory.eINSTANCE.createEReference();
+
+    static {
+        NODE_NAME.setName("name");
+        NODE_NAME.setEType(EcorePackage.Literals.ESTRING);
+
+        NODE_WEIGHT.setName("weight");
+        NODE_WEIGHT.setEType(EcorePackage.Literals.EINT);
+
+        NODE_CHILDREN.setName("children");
+        NODE_CHILDREN.setEType(NODE);
+        NODE_CHILDREN.setContainment(true);
+        NODE_CHILDREN.setUpperBound(-1);
+
+        NODE.setName("Node");
+        NODE.getEStructuralFeatures().add(NODE_NAME);
+        NODE.getEStructuralFeatures().add(NODE_WEIGHT);
+        NODE.getEStructuralFeatures().add(NODE_CHILDREN);
+
+        EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+        ePackage.setName("nodes");
+        ePackage.setNsURI("http://www.inria.fr/atlanmod/neoemf/tests/nodes");
+        ePackage.getEClassifiers().add(NODE);
+    }
+
+    @Test
+    public void testGetSetAttribute() {
+        Node node = new Node();
+        assertThat(node.getName()).isNull();
+        assertThat(node.getWeight()).isEqualTo(0);
+
+        node.setName("node0");
+        node.setWeight(42);
+        assertThat(node.getName()).isEqualTo("node0");
+        assertThat(node.getWeight()).isEqualTo(42);
+        assertThat(node.eGet(NODE_NAME)).isEqualTo("node0");
+
+        node.setName(null);
+        assertThat(node.getName()).isNull();
+    }
+
+    @Test
+    public void testGetMany() {
+        Node node = new Node();
+        Node child = new Node();
+        node.getChildren().add(child);
+
+        assertThat(node.getChildren()).containsExactly(child);
+        assertThat(node.getChildren()).isSameAs(node.eGet(NODE_CHILDREN));
+        assertThat(child.eContainer()).isSameAs(node);
+    }
+
+    @Test
+    public void testSetNotifies() {
+        Node node = new Node();
+        List<Notification> notifications = new ArrayList<>();
+        node.eAdapters().add(new EContentAdapter() {
+            @Override
+            public void notifyChanged(Notification notification) {
+                notifications.add(notification);
+            }
+        });
+
+        node.setName("node0");
+        assertThat(notifications).hasSize(1);
+        assertThat(notifications.get(0).getNewValue()).isEqualTo("node0");
+    }
+
+    /**
+     * A class with the accessors generated by EMF with the {@code Dynamic} feature delegation.
+     */
+    private static class Node extends DefaultPersistentEObject {
+
+        @Override
+        protected EClass eStaticClass() {
+            return NODE;
+        }
+
+        public String getName() {
+            return (String) eDynamicGet(0, NODE_NAME, true, true);
+        }
+
+        public void setName(String newName) {
+            eDynamicSet(0, NODE_NAME, newName);
+        }
+
+        public int getWeight() {
+            return (Integer) eDynamicGet(1, NODE_WEIGHT, true, true);
+        }
+
+        public void setWeight(int newWeight) {
+            eDynamicSet(1, NODE_WEIGHT, newWeight);
+        }
+
+        @SuppressWarnings("unchecked")
+        public EList<Node> getChildren() {
+            return (EList<Node>) eDynamicGet(2, NODE_CHILDREN, true, true);
+        }
+    }
+}
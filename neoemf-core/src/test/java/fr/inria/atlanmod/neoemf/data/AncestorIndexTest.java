@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+
+package fr.inria.atlanmod.neoemf.data;
+
+import fr.inria.atlanmod.neoemf.AbstractTest;
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.core.StringId;
+import fr.inria.atlanmod.neoemf.data.structure.AncestorInfo;
+import fr.inria.atlanmod.neoemf.data.structure.ContainerInfo;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+public class AncestorIndexTest extends AbstractTest {
+
+    private static final Id ROOT = new StringId("root");
+
+    private static final Id A = new StringId("a");
+
+    private static final Id B = new StringId("b");
+
+    private static final Id C = new StringId("c");
+
+    private static final Id D = new StringId("d");
+
+    @Test
+    public void testAncestors() {
+        AncestorIndex index = new AncestorIndex(new HashMap<>(), new TreeSet<>());
+        index.containerChanged(A, ROOT);
+        index.containerChanged(B, A);
+        index.containerChanged(C, B);
+
+        assertThat(index.ancestorsOf(ROOT)).isEqualTo(AncestorInfo.none());
+        assertThat(index.ancestorsOf(C)).isEqualTo(AncestorInfo.of(ROOT, B, 3));
+        assertThat(index.ancestorsOf(C).depth()).isEqualTo(3);
+        assertThat(index.ancestorsOf(C).root()).isEqualTo(ROOT);
+        assertThat(index.ancestorsOf(C).container()).isEqualTo(B);
+        assertThat(index.ancestorsOf(B)).isEqualTo(AncestorInfo.of(ROOT, A, 2));
+    }
+
+    @Test
+    public void testDescendants() {
+        AncestorIndex index = new AncestorIndex(new HashMap<>(), new TreeSet<>());
+        index.containerChanged(A, ROOT);
+        index.containerChanged(B, A);
+        index.containerChanged(C, B);
+        index.containerChanged(D, ROOT);
+
+        assertThat(index.descendantsOf(ROOT)).containsOnly(A, B, C, D);
+        assertThat(index.descendantsOf(A)).containsExactly(B, C);
+        assertThat(index.descendantsOf(C)).isEmpty();
+        assertThat(index.descendantsOf(D)).isEmpty();
+    }
+
+    @Test
+    public void testContainedBeforeContainer() {
+        AncestorIndex index = new AncestorIndex(new HashMap<>(), new TreeSet<>());
+        index.containerChanged(C, B);
+        index.containerChanged(B, A);
+        index.containerChanged(A, ROOT);
+
+        assertThat(index.ancestorsOf(C)).isEqualTo(AncestorInfo.of(ROOT, B, 3));
+        assertThat(index.descendantsOf(ROOT)).containsOnly(A, B, C);
+    }
+
+    @Test
+    public void testMove() {
+        AncestorIndex index = new AncestorIndex(new HashMap<>(), new TreeSet<>());
+        index.containerChanged(A, ROOT);
+        index.containerChanged(B, A);
+        index.containerChanged(C, B);
+        index.containerChanged(D, ROOT);
+
+        index.containerChanged(B, D);
+
+        assertThat(index.ancestorsOf(B)).isEqualTo(AncestorInfo.of(ROOT, D, 2));
+        assertThat(index.ancestorsOf(C)).isEqualTo(AncestorInfo.of(ROOT, B, 3));
+        assertThat(index.descendantsOf(A)).isEmpty();
+        assertThat(index.descendantsOf(D)).containsOnly(B, C);
+
+        index.containerChanged(B, null);
+
+        assertThat(index.ancestorsOf(B)).isEqualTo(AncestorInfo.none());
+        assertThat(index.ancestorsOf(C)).isEqualTo(AncestorInfo.of(B, B, 1));
+        assertThat(index.descendantsOf(ROOT)).containsOnly(A, D);
+        assertThat(index.descendantsOf(B)).containsOnly(C);
+    }
+
+    @Test
+    public void testRebuild() {
+        Map<Id, ContainerInfo> containers = new HashMap<>();
+        containers.put(A, ContainerInfo.of(ROOT, "contents"));
+        containers.put(C, ContainerInfo.of(B, "children"));
+        containers.put(B, ContainerInfo.of(A, "children"));
+
+        AncestorIndex index = new AncestorIndex(new HashMap<>(), new TreeSet<>());
+        index.containerChanged(D, ROOT);
+        index.rebuild(containers);
+
+        assertThat(index.ancestorsOf(C)).isEqualTo(AncestorInfo.of(ROOT, B, 3));
+        assertThat(index.ancestorsOf(D)).isEqualTo(AncestorInfo.none());
+        assertThat(index.descendantsOf(ROOT)).containsOnly(A, B, C);
+    }
+
+    @Test
+    public void testMoveAtSameDepth() {
+        Map<Id, AncestorInfo> ancestors = spy(new HashMap<>());
+        AncestorIndex index = new AncestorIndex(ancestors, new TreeSet<>());
+        index.containerChanged(A, ROOT);
+        index.containerChanged(B, A);
+        index.containerChanged(C, B);
+        index.containerChanged(D, ROOT);
+
+        reset(ancestors);
+        index.containerChanged(B, D);
+
+        assertThat(index.ancestorsOf(B)).isEqualTo(AncestorInfo.of(ROOT, D, 2));
+        assertThat(index.ancestorsOf(C)).isEqualTo(AncestorInfo.of(ROOT, B, 3));
+        assertThat(index.descendantsOf(D)).containsExactly(B, C);
+        verify(ancestors, never()).put(eq(C), any());
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data;
+
+import fr.inria.atlanmod.neoemf.AbstractTest;
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.core.StringId;
+
+import org.eclipse.emf.ecore.EAnnotation;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AttributeIndexTest extends AbstractTest {
+
+    private static final EAttribute NAME = EcoreFactory.eINSTANCE.createEAttribute();
+
+    private static final EAttribute SIZE = EcoreFactory.eINSTANCE.createEAttribute();
+
+    private static final EAttribute TAGS = EcoreFactory.eINSTANCE.createEAttribute();
+
+    private static final Id A = new StringId("a");
+
+    private static final Id B = new StringId("b");
+
+    private static final Id C = new StringId("c");
+
+    static {
+        NAME.setName("name");
+        NAME.setEType(EcorePackage.Literals.ESTRING);
+
+        SIZE.setName("size");
+        SIZE.setEType(EcorePackage.Literals.EINT);
+
+        TAGS.setName("tags");
+        TAGS.setEType(EcorePackage.Literals.ESTRING);
+        TAGS.setUpperBound(-1);
+
+        EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+        eClass.setName("Node");
+        eClass.getEStructuralFeatures().add(NAME);
+        eClass.getEStructuralFeatures().add(SIZE);
+        eClass.getEStructuralFeatures().add(TAGS);
+
+        EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+        ePackage.setNsURI("http://neoemf/test/index");
+        ePackage.getEClassifiers().add(eClass);
+    }
+
+    @Test
+    public void testDeclare() {
+        AttributeIndex index = new AttributeIndex(new TreeSet<>(), new HashSet<>());
+        assertThat(index.isIndexed(NAME)).isFalse();
+
+        assertThat(index.declare(NAME)).isTrue();
+        assertThat(index.declare(NAME)).isFalse();
+        assertThat(index.isIndexed(NAME)).isTrue();
+        assertThat(index.isIndexed(SIZE)).isFalse();
+
+        assertThat(index.declare(TAGS)).isFalse();
+        assertThat(index.isIndexed(TAGS)).isFalse();
+    }
+
+    @Test
+    public void testFind() {
+        AttributeIndex index = new AttributeIndex(new TreeSet<>(), new HashSet<>());
+        index.declare(NAME);
+        index.valueChanged(A, NAME, null, "foo");
+        index.valueChanged(B, NAME, null, "foo");
+        index.valueChanged(C, NAME, null, "foobar");
+
+        assertThat(index.find(NAME, "foo")).containsExactly(A, B);
+        assertThat(index.find(NAME, "bar")).isEmpty();
+
+        index.valueChanged(A, NAME, "foo", "bar");
+        assertThat(index.find(NAME, "foo")).containsExactly(B);
+        assertThat(index.find(NAME, "bar")).containsExactly(A);
+
+        index.valueChanged(B, NAME, "foo", null);
+        assertThat(index.find(NAME, "foo")).isEmpty();
+    }
+
+    @Test
+    public void testFindRange() {
+        AttributeIndex index = new AttributeIndex(new TreeSet<>(), new HashSet<>());
+        index.declare(SIZE);
+        index.declare(NAME);
+        index.valueChanged(A, SIZE, null, 10);
+        index.valueChanged(B, SIZE, null, -3);
+        index.valueChanged(C, SIZE, null, 200);
+        index.valueChanged(A, NAME, null, "a");
+
+        assertThat(index.findRange(SIZE, null, null)).containsExactly(B, A, C);
+        assertThat(index.findRange(SIZE, -3, 200)).containsExactly(B, A);
+        assertThat(index.findRange(SIZE, 0, null)).containsExactly(A, C);
+        assertThat(index.findRange(SIZE, null, 10)).containsExactly(B);
+        assertThat(index.findRange(SIZE, 200, 0)).isEmpty();
+
+        // Values stored as literals are ordered as their instances
+        assertThat(index.find(SIZE, "-3")).containsExactly(B);
+    }
+
+    @Test
+    public void testFindPrefix() {
+        AttributeIndex index = new AttributeIndex(new TreeSet<>(), new HashSet<>());
+        index.declare(NAME);
+        index.valueChanged(A, NAME, null, "Alpha");
+        index.valueChanged(B, NAME, null, "Alphabet");
+        index.valueChanged(C, NAME, null, "Beta");
+
+        assertThat(index.findPrefix(NAME, "Alpha")).containsExactly(A, B);
+        assertThat(index.findPrefix(NAME, "Alphab")).containsExactly(B);
+        assertThat(index.findPrefix(NAME, "")).containsExactly(A, B, C);
+        assertThat(index.findPrefix(NAME, "Gamma")).isEmpty();
+    }
+
+    @Test
+    public void testSortKey() {
+        assertThat(Arrays.asList(
+                AttributeIndex.sortKey(SIZE, Integer.MIN_VALUE),
+                AttributeIndex.sortKey(SIZE, -1),
+                AttributeIndex.sortKey(SIZE, 0),
+                AttributeIndex.sortKey(SIZE, 9),
+                AttributeIndex.sortKey(SIZE, 10)
+        )).isSorted();
+
+        EAttribute weight = EcoreFactory.eINSTANCE.createEAttribute();
+        weight.setEType(EcorePackage.Literals.EDOUBLE);
+        assertThat(Arrays.asList(
+                AttributeIndex.sortKey(weight, -2.5),
+                AttributeIndex.sortKey(weight, -1.0),
+                AttributeIndex.sortKey(weight, 0.5),
+                AttributeIndex.sortKey(weight, 12.0)
+        )).isSorted();
+    }
+
+    @Test
+    public void testIsAnnotated() {
+        EAttribute attribute = EcoreFactory.eINSTANCE.createEAttribute();
+        assertThat(AttributeIndex.isAnnotated(attribute)).isFalse();
+
+        EAnnotation annotation = EcoreFactory.eINSTANCE.createEAnnotation();
+        annotation.setSource(AttributeIndex.ANNOTATION_SOURCE);
+        attribute.getEAnnotations().add(annotation);
+        assertThat(AttributeIndex.isAnnotated(attribute)).isTrue();
+
+        attribute.setUpperBound(-1);
+        assertThat(AttributeIndex.isAnnotated(attribute)).isFalse();
+    }
+}
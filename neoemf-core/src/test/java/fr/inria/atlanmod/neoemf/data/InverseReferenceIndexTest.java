@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data;
+
+import fr.inria.atlanmod.neoemf.AbstractTest;
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.core.StringId;
+import fr.inria.atlanmod.neoemf.data.structure.InverseReferenceInfo;
+
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InverseReferenceIndexTest extends AbstractTest {
+
+    private static final EReference SUPER_TYPES = EcorePackage.Literals.ECLASS__ESUPER_TYPES;
+
+    private static final EReference TYPE = EcorePackage.Literals.ETYPED_ELEMENT__ETYPE;
+
+    private static final EReference CLASSIFIERS = EcorePackage.Literals.EPACKAGE__ECLASSIFIERS;
+
+    private static final Id A = new StringId("a");
+
+    private static final Id B = new StringId("b");
+
+    private static final Id C = new StringId("c");
+
+    @Test
+    public void testReferenceChanged() {
+        SortedMap<String, Integer> occurrences = new TreeMap<>();
+        InverseReferenceIndex index = new InverseReferenceIndex(occurrences);
+        index.referenceChanged(A, SUPER_TYPES, null, C);
+        index.referenceChanged(B, TYPE, null, C);
+        index.referenceChanged(B, TYPE, C, A);
+
+        assertThat(index.inverseReferencesOf(C)).isEqualTo(InverseReferenceInfo.of(Arrays.asList(A), Arrays.asList("eSuperTypes")));
+        assertThat(index.inverseReferencesOf(A)).isEqualTo(InverseReferenceInfo.of(Arrays.asList(B), Arrays.asList("eType")));
+        assertThat(index.inverseReferencesOf(B).isEmpty()).isTrue();
+
+        index.referenceChanged(A, SUPER_TYPES, C, null);
+        assertThat(index.inverseReferencesOf(C).isEmpty()).isTrue();
+        assertThat(occurrences).hasSize(1);
+    }
+
+    @Test
+    public void testSeveralOccurrences() {
+        InverseReferenceIndex index = new InverseReferenceIndex(new TreeMap<>());
+        index.referenceChanged(A, SUPER_TYPES, null, C);
+        index.referenceChanged(A, SUPER_TYPES, null, C);
+        assertThat(index.inverseReferencesOf(C).size()).isEqualTo(2);
+
+        index.referenceChanged(A, SUPER_TYPES, C, null);
+        InverseReferenceInfo info = index.inverseReferencesOf(C);
+        assertThat(info.size()).isEqualTo(1);
+        assertThat(info.sourceAt(0)).isEqualTo(A);
+        assertThat(info.referenceAt(0)).isEqualTo("eSuperTypes");
+    }
+
+    @Test
+    public void testManyReferrers() {
+        SortedMap<String, Integer> occurrences = new TreeMap<>();
+        InverseReferenceIndex index = new InverseReferenceIndex(occurrences);
+        List<Id> sources = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Id source = new StringId("s" + i);
+            sources.add(source);
+            index.referenceChanged(source, TYPE, null, C);
+        }
+        index.referenceChanged(A, TYPE, null, B);
+
+        // One entry per referencing object, updated without reading the other referrers
+        assertThat(occurrences).hasSize(1001);
+        assertThat(index.inverseReferencesOf(C).size()).isEqualTo(1000);
+
+        for (Id source : sources.subList(0, 999)) {
+            index.referenceChanged(source, TYPE, C, null);
+        }
+        assertThat(index.inverseReferencesOf(C)).isEqualTo(InverseReferenceInfo.of(sources.subList(999, 1000), Arrays.asList("eType")));
+        assertThat(index.inverseReferencesOf(B)).isEqualTo(InverseReferenceInfo.of(Arrays.asList(A), Arrays.asList("eType")));
+    }
+
+    @Test
+    public void testContainmentsAreNotIndexed() {
+        InverseReferenceIndex index = new InverseReferenceIndex(new TreeMap<>());
+        index.referenceChanged(A, CLASSIFIERS, null, B);
+
+        assertThat(InverseReferenceIndex.isIndexed(CLASSIFIERS)).isFalse();
+        assertThat(index.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void testValueLoaded() {
+        InverseReferenceIndex index = new InverseReferenceIndex(new TreeMap<>());
+        index.valueLoaded(A, TYPE, C, i -> null);
+        index.valueLoaded(B, SUPER_TYPES, new Object[]{A, C}, i -> null);
+        index.valueLoaded(C, SUPER_TYPES, 2, i -> Arrays.asList(A, B).get(i));
+
+        assertThat(index.inverseReferencesOf(A)).isEqualTo(InverseReferenceInfo.of(Arrays.asList(B, C), Arrays.asList("eSuperTypes", "eSuperTypes")));
+        assertThat(index.inverseReferencesOf(B)).isEqualTo(InverseReferenceInfo.of(Arrays.asList(C), Arrays.asList("eSuperTypes")));
+        assertThat(index.inverseReferencesOf(C)).isEqualTo(InverseReferenceInfo.of(Arrays.asList(A, B), Arrays.asList("eType", "eSuperTypes")));
+
+        index.clear();
+        assertThat(index.isEmpty()).isTrue();
+    }
+}
@@ -15,12 +15,15 @@ import fr.inria.atlanmod.neoemf.CoreTest;
 import fr.inria.atlanmod.neoemf.context.Context;
 import fr.inria.atlanmod.neoemf.context.CoreContext;
 import fr.inria.atlanmod.neoemf.data.store.FeatureCachingStoreDecorator;
+import fr.inria.atlanmod.neoemf.data.store.FusedStoreDecorator;
+import fr.inria.atlanmod.neoemf.data.store.InObjectCachingStoreDecorator;
 import fr.inria.atlanmod.neoemf.data.store.IsSetCachingStoreDecorator;
 import fr.inria.atlanmod.neoemf.data.store.LoadedObjectCounterStoreDecorator;
 import fr.inria.atlanmod.neoemf.data.store.LoggingStoreDecorator;
 import fr.inria.atlanmod.neoemf.data.store.PersistentStore;
 import fr.inria.atlanmod.neoemf.data.store.SizeCachingStoreDecorator;
 import fr.inria.atlanmod.neoemf.option.CommonOptionsBuilder;
+import fr.inria.atlanmod.neoemf.option.CommonStoreOptions;
 import fr.inria.atlanmod.neoemf.resource.PersistentResource;
 
 import org.junit.Test;
@@ -138,9 +141,29 @@ public class PersistenceBackendFactoryTest extends AbstractPersistenceBackendFac
         assertThat(store.getClass().getSimpleName()).contains(PersistentStore.class.getSimpleName());
     }
 
+    @Test
+    public void testInObjectCachingOption() throws InvalidDataStoreException {
+        Map<String, Object> options = CommonOptionsBuilder.newBuilder()
+                .cacheInObjects()
+                .asMap();
+
+        PersistentStore store;
+
+        store = context().persistenceBackendFactory().createPersistentStore(null, null, options);
+        assertThat(store).isInstanceOf(InObjectCachingStoreDecorator.class);
+        assertThat(store.isCachingInObjects()).isTrue();
+
+        store = getInnerStore(store);
+        assertThat(store).isInstanceOf(PersistentStore.class);
+
+        // Ensure this is the mock that is returned by checking the real class name
+        assertThat(store.getClass().getSimpleName()).contains(PersistentStore.class.getSimpleName());
+    }
+
     /**
-     * Test store containment order (depend on the instantiation policy defined in {@link PersistenceBackendFactory}
-     * 2 stores : {@link IsSetCachingStoreDecorator} and {@link LoggingStoreDecorator}
+     * Test that several common concerns are fused in a single {@link FusedStoreDecorator} (depend on the instantiation
+     * policy defined in {@link PersistenceBackendFactory}
+     * 2 concerns : {@link CommonStoreOptions#CACHE_IS_SET} and {@link CommonStoreOptions#LOG}
      */
     @Test
     public void testIsSetCachingLoggingOptions() throws InvalidDataStoreException {
@@ -152,10 +175,8 @@ public class PersistenceBackendFactoryTest extends AbstractPersistenceBackendFac
         PersistentStore store;
 
         store = context().persistenceBackendFactory().createPersistentStore(null, null, options);
-        assertThat(store).isInstanceOf(LoggingStoreDecorator.class);
-
-        store = getInnerStore(store);
-        assertThat(store).isInstanceOf(IsSetCachingStoreDecorator.class);
+        assertThat(store).isInstanceOf(FusedStoreDecorator.class);
+        assertThat(((FusedStoreDecorator) store).concerns()).containsOnly(CommonStoreOptions.CACHE_IS_SET, CommonStoreOptions.LOG);
 
         store = getInnerStore(store);
         assertThat(store).isInstanceOf(PersistentStore.class);
@@ -165,8 +186,9 @@ public class PersistenceBackendFactoryTest extends AbstractPersistenceBackendFac
     }
 
     /**
-     * Test store containment order (depend on the instantiation policy defined in {@link PersistenceBackendFactory}
-     * 2 stores : {@link IsSetCachingStoreDecorator} and {@link SizeCachingStoreDecorator}
+     * Test that several common concerns are fused in a single {@link FusedStoreDecorator} (depend on the instantiation
+     * policy defined in {@link PersistenceBackendFactory}
+     * 2 concerns : {@link CommonStoreOptions#CACHE_IS_SET} and {@link CommonStoreOptions#CACHE_SIZE}
      */
     @Test
     public void testIsSetCachingSizeCachingOptions() throws InvalidDataStoreException {
@@ -178,10 +200,8 @@ public class PersistenceBackendFactoryTest extends AbstractPersistenceBackendFac
         PersistentStore store;
 
         store = context().persistenceBackendFactory().createPersistentStore(null, null, options);
-        assertThat(store).isInstanceOf(SizeCachingStoreDecorator.class);
-
-        store = getInnerStore(store);
-        assertThat(store).isInstanceOf(IsSetCachingStoreDecorator.class);
+        assertThat(store).isInstanceOf(FusedStoreDecorator.class);
+        assertThat(((FusedStoreDecorator) store).concerns()).containsOnly(CommonStoreOptions.CACHE_IS_SET, CommonStoreOptions.CACHE_SIZE);
 
         store = getInnerStore(store);
         assertThat(store).isInstanceOf(PersistentStore.class);
@@ -191,8 +211,9 @@ public class PersistenceBackendFactoryTest extends AbstractPersistenceBackendFac
     }
 
     /**
-     * Test store containment order (depend on the instantiation policy defined in {@link PersistenceBackendFactory}
-     * 2 stores : {@link SizeCachingStoreDecorator} and {@link FeatureCachingStoreDecorator}
+     * Test that several common concerns are fused in a single {@link FusedStoreDecorator} (depend on the instantiation
+     * policy defined in {@link PersistenceBackendFactory}
+     * 2 concerns : {@link CommonStoreOptions#CACHE_SIZE} and {@link CommonStoreOptions#CACHE_STRUCTURAL_FEATURE}
      */
     @Test
     public void testSizeCachingEStructuralFeatureCachingOptions() throws InvalidDataStoreException {
@@ -204,10 +225,8 @@ public class PersistenceBackendFactoryTest extends AbstractPersistenceBackendFac
         PersistentStore store;
 
         store = context().persistenceBackendFactory().createPersistentStore(null, null, options);
-        assertThat(store).isInstanceOf(SizeCachingStoreDecorator.class);
-
-        store = getInnerStore(store);
-        assertThat(store).isInstanceOf(FeatureCachingStoreDecorator.class);
+        assertThat(store).isInstanceOf(FusedStoreDecorator.class);
+        assertThat(((FusedStoreDecorator) store).concerns()).containsOnly(CommonStoreOptions.CACHE_SIZE, CommonStoreOptions.CACHE_STRUCTURAL_FEATURE);
 
         store = getInnerStore(store);
         assertThat(store).isInstanceOf(PersistentStore.class);
@@ -217,9 +236,10 @@ public class PersistenceBackendFactoryTest extends AbstractPersistenceBackendFac
     }
 
     /**
-     * Test store containment order (depend on the instantiation policy defined in {@link PersistenceBackendFactory}
-     * 4 stores : {@link FeatureCachingStoreDecorator}, {@link IsSetCachingStoreDecorator},
-     * {@link LoggingStoreDecorator} and {@link SizeCachingStoreDecorator}
+     * Test that several common concerns are fused in a single {@link FusedStoreDecorator} (depend on the instantiation
+     * policy defined in {@link PersistenceBackendFactory}
+     * 4 concerns : {@link CommonStoreOptions#CACHE_STRUCTURAL_FEATURE}, {@link CommonStoreOptions#CACHE_IS_SET},
+     * {@link CommonStoreOptions#LOG} and {@link CommonStoreOptions#CACHE_SIZE}
      */
     @Test
     public void testEStructuralFeatureCachingIsSetCachingLoggingSizeCachingOptions() throws InvalidDataStoreException {
@@ -233,16 +253,8 @@ public class PersistenceBackendFactoryTest extends AbstractPersistenceBackendFac
         PersistentStore store;
 
         store = context().persistenceBackendFactory().createPersistentStore(null, null, options);
-        assertThat(store).isInstanceOf(LoggingStoreDecorator.class);
-
-        store = getInnerStore(store);
-        assertThat(store).isInstanceOf(SizeCachingStoreDecorator.class);
-
-        store = getInnerStore(store);
-        assertThat(store).isInstanceOf(FeatureCachingStoreDecorator.class);
-
-        store = getInnerStore(store);
-        assertThat(store).isInstanceOf(IsSetCachingStoreDecorator.class);
+        assertThat(store).isInstanceOf(FusedStoreDecorator.class);
+        assertThat(((FusedStoreDecorator) store).concerns()).containsOnly(CommonStoreOptions.CACHE_IS_SET, CommonStoreOptions.CACHE_SIZE, CommonStoreOptions.CACHE_STRUCTURAL_FEATURE, CommonStoreOptions.LOG);
 
         store = getInnerStore(store);
         assertThat(store).isInstanceOf(PersistentStore.class);
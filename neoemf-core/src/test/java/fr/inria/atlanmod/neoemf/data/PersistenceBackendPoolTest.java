@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data;
+
+import fr.inria.atlanmod.neoemf.AbstractTest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PersistenceBackendPoolTest extends AbstractTest {
+
+    private final PersistenceBackendFactory factory = mock(PersistenceBackendFactory.class);
+
+    private File location;
+
+    @Before
+    public void createFactory() throws IOException {
+        location = workspace.newFile("pool");
+        when(factory.createPersistentBackend(any(File.class), any())).thenAnswer(i -> mock(PersistenceBackend.class));
+    }
+
+    @After
+    public void closePool() {
+        PersistenceBackendPool.closeAll();
+        PersistenceBackendPool.setIdleTimeout(PersistenceBackendPool.DEFAULT_IDLE_TIMEOUT, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testAcquireSameLocation() throws IOException {
+        PersistenceBackend backend1 = PersistenceBackendPool.acquire(location, Collections.emptyMap(), factory);
+        PersistenceBackend backend2 = PersistenceBackendPool.acquire(new File(location, "../" + location.getName()), Collections.emptyMap(), factory);
+
+        assertThat(backend2).isSameAs(backend1);
+        assertThat(PersistenceBackendPool.size()).isEqualTo(1);
+        verify(factory, times(1)).createPersistentBackend(any(File.class), any());
+    }
+
+    @Test
+    public void testAcquireDifferentLocations() throws IOException {
+        PersistenceBackend backend1 = PersistenceBackendPool.acquire(location, Collections.emptyMap(), factory);
+        PersistenceBackend backend2 = PersistenceBackendPool.acquire(new File(location, "other"), Collections.emptyMap(), factory);
+
+        assertThat(backend2).isNotSameAs(backend1);
+        assertThat(PersistenceBackendPool.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void testReleaseKeepsUsedBackend() throws IOException {
+        PersistenceBackendPool.setIdleTimeout(0, TimeUnit.MILLISECONDS);
+
+        PersistenceBackend backend = PersistenceBackendPool.acquire(location, Collections.emptyMap(), factory);
+        PersistenceBackendPool.acquire(location, Collections.emptyMap(), factory);
+
+        PersistenceBackendPool.release(backend);
+        verify(backend, never()).close();
+        assertThat(PersistenceBackendPool.isPooled(backend)).isTrue();
+
+        PersistenceBackendPool.release(backend);
+        verify(backend).close();
+        assertThat(PersistenceBackendPool.isPooled(backend)).isFalse();
+    }
+
+    @Test
+    public void testReleaseIdleTimeout() throws IOException {
+        PersistenceBackendPool.setIdleTimeout(50, TimeUnit.MILLISECONDS);
+
+        PersistenceBackend backend = PersistenceBackendPool.acquire(location, Collections.emptyMap(), factory);
+        PersistenceBackendPool.release(backend);
+        verify(backend, never()).close();
+
+        verify(backend, timeout(5000)).close();
+        assertThat(PersistenceBackendPool.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void testReacquireBeforeTimeout() throws IOException {
+        PersistenceBackendPool.setIdleTimeout(1, TimeUnit.HOURS);
+
+        PersistenceBackend backend = PersistenceBackendPool.acquire(location, Collections.emptyMap(), factory);
+        PersistenceBackendPool.release(backend);
+
+        assertThat(PersistenceBackendPool.acquire(location, Collections.emptyMap(), factory)).isSameAs(backend);
+        verify(backend, never()).close();
+    }
+
+    @Test
+    public void testReleaseUnknownBackend() {
+        Throwable thrown = catchThrowable(() -> PersistenceBackendPool.release(mock(PersistenceBackend.class)));
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+}
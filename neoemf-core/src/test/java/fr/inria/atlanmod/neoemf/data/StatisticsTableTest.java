@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data;
+
+import fr.inria.atlanmod.neoemf.AbstractTest;
+import fr.inria.atlanmod.neoemf.data.structure.ClassInfo;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureCardinality;
+
+import org.eclipse.emf.ecore.EcorePackage;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class StatisticsTableTest extends AbstractTest {
+
+    private static final ClassInfo ECLASS = ClassInfo.of("EClass", EcorePackage.eNS_URI);
+
+    private static final ClassInfo EDATATYPE = ClassInfo.of("EDataType", EcorePackage.eNS_URI);
+
+    private static final ClassInfo EENUM = ClassInfo.of("EEnum", EcorePackage.eNS_URI);
+
+    @Test
+    public void testNotTracking() {
+        StatisticsTable statistics = new StatisticsTable();
+        statistics.instanceCreated(ECLASS);
+
+        assertThat(statistics.isTrackingInstances()).isFalse();
+        assertThat(statistics.isTrackingFeatures()).isFalse();
+
+        Throwable thrown = catchThrowable(() -> statistics.countInstances(EcorePackage.Literals.ECLASS, true));
+        assertThat(thrown).isInstanceOf(IllegalStateException.class);
+
+        thrown = catchThrowable(() -> statistics.cardinalityOf(EcorePackage.Literals.ECLASS__ESUPER_TYPES));
+        assertThat(thrown).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void testCountInstances() {
+        StatisticsTable statistics = new StatisticsTable();
+        statistics.reset();
+
+        statistics.instanceCreated(ECLASS);
+        statistics.instanceCreated(ECLASS);
+        statistics.instanceCreated(EDATATYPE);
+        statistics.instanceCreated(EENUM);
+
+        assertThat(statistics.countInstances(EcorePackage.Literals.ECLASS, true)).isEqualTo(2);
+        assertThat(statistics.countInstances(EcorePackage.Literals.EDATA_TYPE, true)).isEqualTo(1);
+        assertThat(statistics.countInstances(EcorePackage.Literals.EDATA_TYPE, false)).isEqualTo(2);
+        assertThat(statistics.countInstances(EcorePackage.Literals.ECLASSIFIER, true)).isEqualTo(0);
+        assertThat(statistics.countInstances(EcorePackage.Literals.ECLASSIFIER, false)).isEqualTo(4);
+        assertThat(statistics.countInstances(EcorePackage.Literals.EPACKAGE, false)).isEqualTo(0);
+
+        statistics.instanceDeleted(ECLASS);
+        statistics.instanceDeleted(EENUM);
+        statistics.instanceDeleted(EENUM);
+
+        assertThat(statistics.countInstances(EcorePackage.Literals.ECLASS, true)).isEqualTo(1);
+        assertThat(statistics.countInstances(EcorePackage.Literals.EENUM, true)).isEqualTo(0);
+        assertThat(statistics.countInstances(EcorePackage.Literals.ECLASSIFIER, false)).isEqualTo(2);
+    }
+
+    @Test
+    public void testCardinality() {
+        StatisticsTable statistics = new StatisticsTable();
+        statistics.reset();
+        statistics.trackFeatures();
+
+        statistics.instanceCreated(ECLASS);
+        statistics.instanceCreated(ECLASS);
+        statistics.instanceCreated(ECLASS);
+        statistics.instanceCreated(ECLASS);
+
+        for (int i = 0; i < 6; i++) {
+            statistics.updateCardinality(EcorePackage.Literals.ECLASS__ESUPER_TYPES, 1, i + 1);
+        }
+        statistics.updateCardinality(EcorePackage.Literals.ECLASS__ESUPER_TYPES, 1, 1);
+        statistics.updateCardinality(EcorePackage.Literals.ECLASS__ESUPER_TYPES, 1, 2);
+        statistics.updateCardinality(EcorePackage.Literals.ECLASS__ESUPER_TYPES, -6, -1);
+
+        FeatureCardinality cardinality = statistics.cardinalityOf(EcorePackage.Literals.ECLASS__ESUPER_TYPES);
+        assertThat(cardinality).isEqualTo(FeatureCardinality.of(4, 2, 6));
+        assertThat(cardinality.averageSize()).isEqualTo(0.5);
+
+        cardinality = statistics.cardinalityOf(EcorePackage.Literals.ECLASS__EOPERATIONS);
+        assertThat(cardinality).isEqualTo(FeatureCardinality.of(4, 0, 0));
+        assertThat(cardinality.averageSize()).isEqualTo(0);
+    }
+
+    @Test
+    public void testTrackFeatures() {
+        StatisticsTable statistics = new StatisticsTable();
+        statistics.reset();
+        assertThat(statistics.isTrackingFeatures()).isFalse();
+
+        statistics.updateCardinality(EcorePackage.Literals.ECLASS__ESUPER_TYPES, 1, 1);
+        assertThat(statistics.asMap()).containsOnlyKeys("tracking:instances");
+
+        assertThat(statistics.trackFeatures()).isTrue();
+        assertThat(statistics.isTrackingFeatures()).isTrue();
+    }
+
+    @Test
+    public void testTrackFeaturesNotEmpty() {
+        StatisticsTable statistics = new StatisticsTable();
+        statistics.reset();
+        statistics.instanceCreated(ECLASS);
+
+        assertThat(statistics.trackFeatures()).isFalse();
+        assertThat(statistics.isTrackingFeatures()).isFalse();
+
+        Throwable thrown = catchThrowable(() -> statistics.cardinalityOf(EcorePackage.Literals.ECLASS__ESUPER_TYPES));
+        assertThat(thrown).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void testInvalidateAndRebuild() {
+        StatisticsTable statistics = new StatisticsTable();
+        statistics.reset();
+        statistics.instanceCreated(ECLASS);
+
+        statistics.invalidate();
+        assertThat(statistics.isTrackingInstances()).isFalse();
+        assertThat(statistics.isTrackingFeatures()).isFalse();
+
+        statistics.rebuildInstances(Arrays.asList(ECLASS, EENUM, EENUM));
+        assertThat(statistics.isTrackingInstances()).isTrue();
+        assertThat(statistics.isTrackingFeatures()).isFalse();
+        assertThat(statistics.countInstances(EcorePackage.Literals.ECLASS, true)).isEqualTo(1);
+        assertThat(statistics.countInstances(EcorePackage.Literals.EDATA_TYPE, false)).isEqualTo(2);
+    }
+
+    @Test
+    public void testLoad() {
+        StatisticsTable statistics = new StatisticsTable();
+        statistics.reset();
+        statistics.trackFeatures();
+        statistics.instanceCreated(EENUM);
+        statistics.updateCardinality(EcorePackage.Literals.EENUM__ELITERALS, 1, 1);
+
+        Map<String, Long> persisted = new HashMap<>(statistics.asMap());
+
+        StatisticsTable loaded = new StatisticsTable();
+        loaded.load(persisted);
+
+        assertThat(loaded.asMap()).isEqualTo(statistics.asMap());
+        assertThat(loaded.countInstances(EcorePackage.Literals.EENUM, true)).isEqualTo(1);
+        assertThat(loaded.cardinalityOf(EcorePackage.Literals.EENUM__ELITERALS)).isEqualTo(FeatureCardinality.of(1, 1, 1));
+    }
+
+    @Test
+    public void testMerge() {
+        StatisticsTable statistics = new StatisticsTable();
+        statistics.reset();
+        statistics.trackFeatures();
+        statistics.instanceCreated(EENUM);
+        statistics.updateCardinality(EcorePackage.Literals.EENUM__ELITERALS, 3, 3);
+
+        StatisticsTable other = new StatisticsTable();
+        other.reset();
+        other.trackFeatures();
+        other.instanceCreated(EENUM);
+        other.instanceCreated(ECLASS);
+        other.updateCardinality(EcorePackage.Literals.EENUM__ELITERALS, 2, 2);
+
+        statistics.merge(other.asMap());
+        assertThat(statistics.countInstances(EcorePackage.Literals.EENUM, true)).isEqualTo(2);
+        assertThat(statistics.countInstances(EcorePackage.Literals.ECLASS, true)).isEqualTo(1);
+        assertThat(statistics.cardinalityOf(EcorePackage.Literals.EENUM__ELITERALS)).isEqualTo(FeatureCardinality.of(2, 5, 3));
+
+        statistics.merge(new StatisticsTable().asMap());
+        assertThat(statistics.isTrackingInstances()).isFalse();
+        assertThat(statistics.isTrackingFeatures()).isFalse();
+    }
+}
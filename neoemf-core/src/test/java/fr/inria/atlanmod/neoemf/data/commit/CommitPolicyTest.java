@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+
+package fr.inria.atlanmod.neoemf.data.commit;
+
+import fr.inria.atlanmod.neoemf.AbstractTest;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link CommitPolicy}s, applied by a {@link CommitTracker}.
+ */
+public class CommitPolicyTest extends AbstractTest {
+
+    @Test
+    public void testEveryOperations() {
+        AtomicInteger commits = new AtomicInteger();
+        CommitTracker tracker = new CommitTracker(CommitPolicy.everyOperations(10), commits::incrementAndGet);
+
+        for (int i = 0; i < 25; i++) {
+            tracker.record(null);
+        }
+        assertThat(commits.get()).isEqualTo(2);
+        assertThat(tracker.operations()).isEqualTo(5);
+    }
+
+    @Test
+    public void testBulkOperations() {
+        AtomicInteger commits = new AtomicInteger();
+        CommitTracker tracker = new CommitTracker(CommitPolicy.everyOperations(10), commits::incrementAndGet);
+
+        tracker.record(4, null);
+        assertThat(commits.get()).isEqualTo(0);
+        assertThat(tracker.operations()).isEqualTo(4);
+
+        tracker.record(6, null);
+        assertThat(commits.get()).isEqualTo(1);
+
+        tracker.record(0, null);
+        assertThat(tracker.operations()).isEqualTo(1);
+    }
+
+    @Test
+    public void testEveryBytesEstimated() {
+        AtomicInteger commits = new AtomicInteger();
+        CommitTracker tracker = new CommitTracker(CommitPolicy.everyBytes(10000), commits::incrementAndGet);
+
+        tracker.record("a short value");
+        assertThat(commits.get()).isEqualTo(0);
+
+        tracker.record(new String(new char[10000]));
+        assertThat(commits.get()).isEqualTo(1);
+        assertThat(tracker.uncommittedBytes()).isEqualTo(0);
+    }
+
+    @Test
+    public void testEveryMillis() throws InterruptedException {
+        AtomicInteger commits = new AtomicInteger();
+        CommitTracker tracker = new CommitTracker(CommitPolicy.everyMillis(50), commits::incrementAndGet);
+
+        tracker.record(null);
+        assertThat(commits.get()).isEqualTo(0);
+
+        Thread.sleep(100);
+        tracker.record(null);
+        assertThat(commits.get()).isEqualTo(1);
+        assertThat(tracker.elapsedMillis()).isEqualTo(0);
+    }
+
+    @Test
+    public void testOr() {
+        AtomicInteger commits = new AtomicInteger();
+        CommitPolicy policy = CommitPolicy.everyOperations(1000).or(CommitPolicy.everyOperations(10));
+        CommitTracker tracker = new CommitTracker(policy, commits::incrementAndGet);
+
+        for (int i = 0; i < 10; i++) {
+            tracker.record(null);
+        }
+        assertThat(commits.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testAdaptiveGrowsWithFastCommits() {
+        CommitTracker tracker = new CommitTracker(CommitPolicy.adaptive(1000), () -> {
+        });
+
+        recordUntilCommit(tracker, AdaptiveCommitPolicy.INITIAL_OPERATIONS);
+        assertThat(tracker.threshold()).isEqualTo(AdaptiveCommitPolicy.INITIAL_OPERATIONS * 2);
+    }
+
+    @Test
+    public void testAdaptiveShrinksWithSlowCommits() {
+        CommitTracker tracker = new CommitTracker(CommitPolicy.adaptive(1), () -> {
+            try {
+                Thread.sleep(20);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        recordUntilCommit(tracker, AdaptiveCommitPolicy.INITIAL_OPERATIONS);
+        assertThat(tracker.threshold()).isEqualTo(AdaptiveCommitPolicy.INITIAL_OPERATIONS / 2);
+    }
+
+    /**
+     * Records {@code operations} modifications in the given {@code tracker}, and checks that the last one, and only
+     * this one, has been committed.
+     *
+     * @param tracker    the tracker
+     * @param operations the number of modifications to record
+     */
+    private void recordUntilCommit(CommitTracker tracker, long operations) {
+        for (long i = 1; i < operations; i++) {
+            tracker.record(null);
+        }
+        assertThat(tracker.operations()).isEqualTo(operations - 1);
+
+        tracker.record(null);
+        assertThat(tracker.operations()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.journal;
+
+import fr.inria.atlanmod.neoemf.AbstractTest;
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.core.StringId;
+import fr.inria.atlanmod.neoemf.data.journal.JournalEntry.Operation;
+import fr.inria.atlanmod.neoemf.data.store.PersistentStore;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JournalTest extends AbstractTest {
+
+    private final Id id = new StringId("node0");
+
+    private File file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = new File(workspace.newFile("journal"), "neojournal.log");
+    }
+
+    @Test
+    public void testOnlyCommittedEntriesAreRead() throws IOException {
+        try (Journal journal = new Journal(file)) {
+            journal.record(Operation.SET, id, "name", PersistentStore.NO_INDEX, PersistentStore.NO_INDEX, "a", false);
+            journal.record(Operation.ADD, id, "children", 0, PersistentStore.NO_INDEX, "node1", true);
+            assertThat(journal.pendingCount()).isEqualTo(2);
+            long pendingBytes = journal.pendingBytes();
+            assertThat(Journal.read(file, Journal.FIRST_OFFSET, 10)).isEmpty();
+
+            journal.commit();
+            assertThat(journal.pendingCount()).isEqualTo(0);
+            assertThat(journal.pendingBytes()).isEqualTo(0);
+            assertThat(journal.lastSequence()).isEqualTo(2);
+            assertThat(file.length()).isEqualTo(Journal.FIRST_OFFSET + pendingBytes);
+        }
+
+        List<JournalEntry> entries = Journal.read(file, Journal.FIRST_OFFSET, 10);
+        assertThat(entries).hasSize(2);
+
+        JournalEntry set = entries.get(0);
+        assertThat(set.sequence()).isEqualTo(1);
+        assertThat(set.operation()).isEqualTo(Operation.SET);
+        assertThat(set.id()).isEqualTo(id);
+        assertThat(set.feature()).isEqualTo("name");
+        assertThat(set.index()).isEqualTo(PersistentStore.NO_INDEX);
+        assertThat(set.value()).isEqualTo("a");
+        assertThat(set.isReference()).isFalse();
+
+        JournalEntry add = entries.get(1);
+        assertThat(add.sequence()).isEqualTo(2);
+        assertThat(add.offset()).isEqualTo(set.nextOffset());
+        assertThat(add.index()).isEqualTo(0);
+        assertThat(add.value()).isEqualTo("node1");
+        assertThat(add.isReference()).isTrue();
+    }
+
+    @Test
+    public void testDiscard() throws IOException {
+        try (Journal journal = new Journal(file)) {
+            journal.record(Operation.UNSET, id, "name", PersistentStore.NO_INDEX, PersistentStore.NO_INDEX, null, false);
+            journal.discard();
+            journal.commit();
+            assertThat(journal.lastSequence()).isEqualTo(0);
+        }
+        assertThat(Journal.read(file, Journal.FIRST_OFFSET, 10)).isEmpty();
+    }
+
+    @Test
+    public void testTailFromOffset() throws IOException {
+        try (Journal journal = new Journal(file)) {
+            journal.record(Operation.CLEAR, id, "children", PersistentStore.NO_INDEX, PersistentStore.NO_INDEX, null, true);
+            journal.commit();
+
+            List<JournalEntry> first = Journal.read(file, Journal.FIRST_OFFSET, 10);
+            assertThat(first).hasSize(1);
+            assertThat(first.get(0).value()).isNull();
+
+            long offset = first.get(0).nextOffset();
+            assertThat(Journal.read(file, offset, 10)).isEmpty();
+
+            journal.record(Operation.MOVE, id, "children", 0, 2, "node1", true);
+            journal.record(Operation.REMOVE, id, "children", 1, PersistentStore.NO_INDEX, null, true);
+            journal.commit();
+
+            List<JournalEntry> next = Journal.read(file, offset, 1);
+            assertThat(next).hasSize(1);
+            assertThat(next.get(0).sequence()).isEqualTo(2);
+            assertThat(next.get(0).operation()).isEqualTo(Operation.MOVE);
+            assertThat(next.get(0).sourceIndex()).isEqualTo(2);
+
+            List<JournalEntry> last = Journal.read(file, next.get(0).nextOffset(), 10);
+            assertThat(last).hasSize(1);
+            assertThat(last.get(0).sequence()).isEqualTo(3);
+            assertThat(last.get(0).operation()).isEqualTo(Operation.REMOVE);
+        }
+    }
+
+    @Test
+    public void testTornEntryIsTruncated() throws IOException {
+        try (Journal journal = new Journal(file)) {
+            journal.record(Operation.SET, id, "name", PersistentStore.NO_INDEX, PersistentStore.NO_INDEX, "a", false);
+            journal.commit();
+        }
+
+        // Simulates a partially written entry
+        long length = file.length();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(length);
+            raf.writeInt(100);
+            raf.writeLong(2);
+        }
+        assertThat(Journal.read(file, Journal.FIRST_OFFSET, 10)).hasSize(1);
+
+        try (Journal journal = new Journal(file)) {
+            assertThat(file.length()).isEqualTo(length);
+            assertThat(journal.lastSequence()).isEqualTo(1);
+
+            journal.record(Operation.SET, id, "name", PersistentStore.NO_INDEX, PersistentStore.NO_INDEX, "b", false);
+            journal.commit();
+        }
+
+        List<JournalEntry> entries = Journal.read(file, Journal.FIRST_OFFSET, 10);
+        assertThat(entries).extracting(JournalEntry::sequence).containsExactly(1L, 2L);
+        assertThat(entries).extracting(JournalEntry::value).containsExactly("a", "b");
+    }
+
+    @Test
+    public void testJournalsSharingAFile() throws IOException {
+        try (Journal first = new Journal(file); Journal second = new Journal(file)) {
+            first.record(Operation.SET, id, "name", PersistentStore.NO_INDEX, PersistentStore.NO_INDEX, "a", false);
+            second.record(Operation.SET, id, "name", PersistentStore.NO_INDEX, PersistentStore.NO_INDEX, "b", false);
+            second.commit();
+            first.commit();
+        }
+
+        List<JournalEntry> entries = Journal.read(file, Journal.FIRST_OFFSET, 10);
+        assertThat(entries).extracting(JournalEntry::sequence).containsExactly(1L, 2L);
+        assertThat(entries).extracting(JournalEntry::value).containsExactly("b", "a");
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.store;
+
+import fr.inria.atlanmod.neoemf.AbstractTest;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.EEnum;
+import org.eclipse.emf.ecore.EEnumLiteral;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test class for the conversion of attribute values in {@link AbstractDirectWriteStore}.
+ */
+public class AbstractDirectWriteStoreTest extends AbstractTest {
+
+    private static final EEnum KIND = EcoreFactory.eINSTANCE.createEEnum();
+
+    static {
+        for (String name : new String[]{"SMALL", "LARGE"}) {
+            EEnumLiteral literal = EcoreFactory.eINSTANCE.createEEnumLiteral();
+            literal.setName(name);
+            literal.setLiteral(name);
+            literal.setValue(KIND.getELiterals().size());
+            KIND.getELiterals().add(literal);
+        }
+        KIND.setName("Kind");
+
+        EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+        ePackage.setName("kinds");
+        ePackage.setNsURI("http://www.inria.fr/atlanmod/neoemf/tests/kinds");
+        ePackage.getEClassifiers().add(KIND);
+    }
+
+    @SuppressWarnings("unchecked")
+    private final AbstractDirectWriteStore<?> store = mock(AbstractDirectWriteStore.class, CALLS_REAL_METHODS);
+
+    @Test
+    public void testSerializeNative() {
+        assertThat(store.serializeToProperty(attribute(EcorePackage.Literals.EINT), 42)).isEqualTo(42);
+        assertThat(store.serializeToProperty(attribute(EcorePackage.Literals.ELONG), 42L)).isEqualTo(42L);
+        assertThat(store.serializeToProperty(attribute(EcorePackage.Literals.EBOOLEAN_OBJECT), true)).isEqualTo(true);
+        assertThat(store.serializeToProperty(attribute(EcorePackage.Literals.ESTRING), "value")).isEqualTo("value");
+        assertThat(store.serializeToProperty(attribute(EcorePackage.Literals.EINT), null)).isNull();
+    }
+
+    @Test
+    public void testSerializeParseEnum() {
+        EAttribute attribute = attribute(KIND);
+
+        Object property = store.serializeToProperty(attribute, KIND.getEEnumLiteral("LARGE"));
+        assertThat(property).isEqualTo(1);
+        assertThat(store.parseProperty(attribute, property)).isSameAs(KIND.getEEnumLiteral("LARGE"));
+    }
+
+    @Test
+    public void testSerializeParseCustom() {
+        EAttribute attribute = attribute(EcorePackage.Literals.EDATE);
+        Date date = new Date(0);
+
+        Object property = store.serializeToProperty(attribute, date);
+        assertThat(property).isInstanceOf(String.class);
+        assertThat(store.parseProperty(attribute, property)).isEqualTo(date);
+    }
+
+    @Test
+    public void testParseLegacyLiteral() {
+        assertThat(store.parseProperty(attribute(EcorePackage.Literals.EINT), "42")).isEqualTo(42);
+        assertThat(store.parseProperty(attribute(EcorePackage.Literals.EDOUBLE), "0.5")).isEqualTo(0.5d);
+        assertThat(store.parseProperty(attribute(KIND), "LARGE")).isSameAs(KIND.getEEnumLiteral("LARGE"));
+        assertThat(store.serializeToLegacyProperty(attribute(EcorePackage.Literals.EINT), 42)).isEqualTo("42");
+    }
+
+    @Test
+    public void testSlotConversion() {
+        EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+        eClass.setName("Slots");
+        for (EDataType type : new EDataType[]{EcorePackage.Literals.EINT, EcorePackage.Literals.ESTRING, EcorePackage.Literals.EDATE, KIND}) {
+            EAttribute attribute = attribute(type);
+            attribute.setName(type.getName());
+            eClass.getEStructuralFeatures().add(attribute);
+        }
+
+        AbstractDirectWriteStore.FeatureSlot slot = AbstractDirectWriteStore.slotOf(eClass, 0);
+        assertThat(AbstractDirectWriteStore.slotOf(eClass, 0)).isSameAs(slot);
+        assertThat(slot.feature()).isSameAs(eClass.getEStructuralFeature(0));
+        assertThat(slot.name()).isEqualTo("EInt");
+        assertThat(slot.isAttribute()).isTrue();
+        assertThat(slot.isMany()).isFalse();
+        assertThat(store.serializeToProperty(slot, 42)).isEqualTo(42);
+        assertThat(store.parseProperty(slot, 42)).isEqualTo(42);
+        assertThat(store.parseProperty(slot, "42")).isEqualTo(42);
+
+        slot = AbstractDirectWriteStore.slotOf(eClass, 1);
+        assertThat(store.serializeToProperty(slot, "42")).isEqualTo("42");
+        assertThat(store.parseProperty(slot, "42")).isEqualTo("42");
+
+        slot = AbstractDirectWriteStore.slotOf(eClass, 2);
+        Date date = new Date(0);
+        Object property = store.serializeToProperty(slot, date);
+        assertThat(property).isEqualTo(store.serializeToProperty((EAttribute) slot.feature(), date));
+        assertThat(store.parseProperty(slot, property)).isEqualTo(date);
+
+        slot = AbstractDirectWriteStore.slotOf(eClass, 3);
+        property = store.serializeToProperty(slot, KIND.getEEnumLiteral("LARGE"));
+        assertThat(property).isEqualTo(1);
+        assertThat(store.parseProperty(slot, property)).isSameAs(KIND.getEEnumLiteral("LARGE"));
+        assertThat(store.parseProperty(slot, null)).isNull();
+    }
+
+    private static EAttribute attribute(EDataType type) {
+        EAttribute attribute = EcoreFactory.eINSTANCE.createEAttribute();
+        attribute.setName("attribute");
+        attribute.setEType(type);
+        return attribute;
+    }
+}
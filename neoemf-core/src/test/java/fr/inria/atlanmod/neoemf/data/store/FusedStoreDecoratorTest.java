@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.store;
+
+import fr.inria.atlanmod.neoemf.AbstractTest;
+import fr.inria.atlanmod.neoemf.core.DefaultPersistentEObject;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureKey;
+import fr.inria.atlanmod.neoemf.option.CommonStoreOptions;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Test class for {@link FusedStoreDecorator}, which must behave as the chain of the decorators it replaces.
+ * <p>
+ * Each scenario is run both on a {@link FusedStoreDecorator} and on the chain built by
+ * {@link fr.inria.atlanmod.neoemf.data.AbstractPersistenceBackendFactory} when the decorators are not fused, and the
+ * results of the two runs are compared.
+ */
+public class FusedStoreDecoratorTest extends AbstractTest {
+
+    private static final EClass CLASS = EcoreFactory.eINSTANCE.createEClass();
+
+    private static final EAttribute NAME = EcoreFactory.eINSTANCE.createEAttribute();
+
+    private static final EReference CHILDREN = EcoreFactory.eINSTANCE.createEReference();
+
+    static {
+        NAME.setName("name");
+        NAME.setEType(EcorePackage.Literals.ESTRING);
+
+        CHILDREN.setName("children");
+        CHILDREN.setEType(CLASS);
+        CHILDREN.setUpperBound(-1);
+
+        CLASS.setName("Node");
+        CLASS.getEStructuralFeatures().add(NAME);
+        CLASS.getEStructuralFeatures().add(CHILDREN);
+    }
+
+    private final DefaultPersistentEObject object = createObject();
+
+    private final DefaultPersistentEObject a = createObject();
+
+    private final DefaultPersistentEObject b = createObject();
+
+    private final DefaultPersistentEObject c = createObject();
+
+    @Test
+    public void testSizeAfterAddRemoveClear() {
+        List<Object> results = assertEquivalent((store, r) -> {
+            r.add(store.size(object, CHILDREN));
+            store.add(object, CHILDREN, 0, a);
+            store.add(object, CHILDREN, 1, b);
+            r.add(store.size(object, CHILDREN));
+            store.addAll(object, CHILDREN, 2, Arrays.asList(c, a));
+            r.add(store.size(object, CHILDREN));
+            store.remove(object, CHILDREN, 0);
+            r.add(store.size(object, CHILDREN));
+            store.removeRange(object, CHILDREN, 0, 2);
+            r.add(store.size(object, CHILDREN));
+            r.add(store.isEmpty(object, CHILDREN));
+            store.clear(object, CHILDREN);
+            r.add(store.size(object, CHILDREN));
+            r.add(store.isEmpty(object, CHILDREN));
+            store.setAll(object, CHILDREN, Arrays.asList(a, b));
+            r.add(store.size(object, CHILDREN));
+            store.unset(object, CHILDREN);
+            r.add(store.size(object, CHILDREN));
+        });
+
+        assertThat(results).containsExactly(0, 2, 4, 3, 1, false, 0, true, 2, 0);
+    }
+
+    @Test
+    public void testInvalidations() {
+        List<Object> results = assertEquivalent((store, r) -> {
+            store.set(object, NAME, PersistentStore.NO_INDEX, "name0");
+            r.add(store.get(object, NAME, PersistentStore.NO_INDEX));
+            store.set(object, NAME, PersistentStore.NO_INDEX, "name1");
+            r.add(store.get(object, NAME, PersistentStore.NO_INDEX));
+            store.unset(object, NAME);
+            r.add(store.isSet(object, NAME));
+            r.add(store.get(object, NAME, PersistentStore.NO_INDEX));
+
+            store.add(object, CHILDREN, 0, a);
+            store.add(object, CHILDREN, 1, b);
+            r.add(store.get(object, CHILDREN, 0));
+            r.add(store.get(object, CHILDREN, 1));
+            store.add(object, CHILDREN, 0, c);
+            r.add(store.get(object, CHILDREN, 0));
+            r.add(store.get(object, CHILDREN, 1));
+            r.add(store.get(object, CHILDREN, 2));
+            store.move(object, CHILDREN, 2, 0);
+            r.add(store.get(object, CHILDREN, 0));
+            r.add(store.get(object, CHILDREN, 2));
+            store.remove(object, CHILDREN, 0);
+            r.add(store.get(object, CHILDREN, 0));
+            r.add(store.isSet(object, CHILDREN));
+            store.clear(object, CHILDREN);
+            r.add(store.isSet(object, CHILDREN));
+        });
+
+        assertThat(results).containsExactly("name0", "name1", false, null, a, b, c, a, b, a, c, b, true, false);
+    }
+
+    @Test
+    public void testCachedReads() {
+        for (boolean fused : Arrays.asList(true, false)) {
+            PersistentStore underlyingStore = spy(new InMemoryPersistentStore());
+            PersistentStore store = decorate(underlyingStore, fused);
+
+            store.add(object, CHILDREN, 0, a);
+            store.set(object, NAME, PersistentStore.NO_INDEX, "name0");
+            reset(underlyingStore);
+
+            for (int i = 0; i < 2; i++) {
+                store.size(object, CHILDREN);
+                store.get(object, NAME, PersistentStore.NO_INDEX);
+                store.isSet(object, NAME);
+            }
+
+            verify(underlyingStore, times(1)).size(object, CHILDREN);
+            verify(underlyingStore, times(0)).get(object, NAME, PersistentStore.NO_INDEX);
+            verify(underlyingStore, times(0)).isSet(object, NAME);
+        }
+    }
+
+    @Test
+    public void testInvalidate() {
+        for (boolean fused : Arrays.asList(true, false)) {
+            PersistentStore underlyingStore = new InMemoryPersistentStore();
+            PersistentStore store = decorate(underlyingStore, fused);
+
+            store.set(object, NAME, PersistentStore.NO_INDEX, "name0");
+            store.add(object, CHILDREN, 0, a);
+            assertThat(store.get(object, CHILDREN, 0)).isSameAs(a);
+
+            // Modifications made in the back-end without the decorated store
+            underlyingStore.set(object, NAME, PersistentStore.NO_INDEX, "name1");
+            underlyingStore.set(object, CHILDREN, 0, b);
+            underlyingStore.add(object, CHILDREN, 1, c);
+            assertThat(store.get(object, NAME, PersistentStore.NO_INDEX)).isEqualTo("name0");
+
+            store.invalidate(new HashSet<>(Arrays.asList(FeatureKey.from(object, NAME), FeatureKey.from(object, CHILDREN))));
+
+            assertThat(store.get(object, NAME, PersistentStore.NO_INDEX)).isEqualTo("name1");
+            assertThat(store.size(object, CHILDREN)).isEqualTo(2);
+            assertThat(store.get(object, CHILDREN, 0)).isSameAs(b);
+        }
+    }
+
+    @Test
+    public void testLoadTracking() {
+        FusedStoreDecorator fusedStore = (FusedStoreDecorator) decorate(new InMemoryPersistentStore(), true);
+        LoadedObjectCounterStoreDecorator chainStore = (LoadedObjectCounterStoreDecorator) decorate(new InMemoryPersistentStore(), false);
+
+        for (PersistentStore store : Arrays.asList(fusedStore, chainStore)) {
+            store.add(object, CHILDREN, 0, a);
+            store.add(object, CHILDREN, 1, b);
+            store.size(object, CHILDREN);
+        }
+        assertThat(fusedStore.loadedObjectCount()).isEqualTo(1).isEqualTo(chainStore.loadedObjectCount());
+
+        for (PersistentStore store : Arrays.asList(fusedStore, chainStore)) {
+            store.get(object, CHILDREN, 0);
+            store.get(object, CHILDREN, 1);
+            store.isSet(c, NAME);
+        }
+        assertThat(fusedStore.loadedObjectCount()).isEqualTo(4).isEqualTo(chainStore.loadedObjectCount());
+    }
+
+    /**
+     * Runs the given {@code scenario} on a fused store and on the equivalent chain of decorators, and checks that they
+     * produce the same results.
+     *
+     * @param scenario the operations to run on a store, which record their results in the given list
+     *
+     * @return the results of the scenario
+     */
+    private List<Object> assertEquivalent(BiConsumer<PersistentStore, List<Object>> scenario) {
+        List<Object> fusedResults = new ArrayList<>();
+        scenario.accept(decorate(new InMemoryPersistentStore(), true), fusedResults);
+
+        List<Object> chainResults = new ArrayList<>();
+        scenario.accept(decorate(new InMemoryPersistentStore(), false), chainResults);
+
+        assertThat(fusedResults).isEqualTo(chainResults);
+        return fusedResults;
+    }
+
+    /**
+     * Decorates the given {@code store} with the caching of the presence of values, of the values and of the sizes,
+     * and with the counting of the loaded objects.
+     *
+     * @param store the store to decorate
+     * @param fused {@code true} to use a single {@link FusedStoreDecorator}, {@code false} to chain the dedicated
+     *              decorators in the order of the factory
+     *
+     * @return the decorated store
+     */
+    private static PersistentStore decorate(PersistentStore store, boolean fused) {
+        if (fused) {
+            return new FusedStoreDecorator(store, Arrays.asList(
+                    CommonStoreOptions.CACHE_IS_SET,
+                    CommonStoreOptions.CACHE_STRUCTURAL_FEATURE,
+                    CommonStoreOptions.CACHE_SIZE,
+                    CommonStoreOptions.COUNT_LOADED_OBJECT));
+        }
+        return new LoadedObjectCounterStoreDecorator(
+                new SizeCachingStoreDecorator(
+                        new FeatureCachingStoreDecorator(
+                                new IsSetCachingStoreDecorator(store))));
+    }
+
+    private static DefaultPersistentEObject createObject() {
+        DefaultPersistentEObject object = new DefaultPersistentEObject();
+        object.eSetClass(CLASS);
+        return object;
+    }
+}
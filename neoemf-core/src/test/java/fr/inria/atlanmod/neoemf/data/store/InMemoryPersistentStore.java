@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.store;
+
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.core.PersistentEObject;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.Resource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@link PersistentStore} that holds its values in memory, used to test the behaviour of the store decorators
+ * without any back-end.
+ */
+class InMemoryPersistentStore extends AbstractTransientStore implements PersistentStore {
+
+    /**
+     * The objects stored in this store, either as owners or as values.
+     */
+    private final Map<Id, EObject> objects = new HashMap<>();
+
+    @Override
+    public Object set(InternalEObject internalObject, EStructuralFeature feature, int index, Object value) {
+        register(internalObject);
+        register(value);
+        return super.set(internalObject, feature, index, value);
+    }
+
+    @Override
+    public void add(InternalEObject internalObject, EStructuralFeature feature, int index, Object value) {
+        register(internalObject);
+        register(value);
+        super.add(internalObject, feature, index, value);
+    }
+
+    @Override
+    public Resource resource() {
+        return null;
+    }
+
+    @Override
+    public EObject eObject(Id id) {
+        return objects.get(id);
+    }
+
+    @Override
+    public void save() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * Registers the given {@code value} if it is an object, so that it can be retrieved by its identifier.
+     *
+     * @param value the stored value
+     */
+    private void register(Object value) {
+        if (value instanceof PersistentEObject) {
+            objects.put(((PersistentEObject) value).id(), (EObject) value);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.store;
+
+import fr.inria.atlanmod.neoemf.AbstractTest;
+import fr.inria.atlanmod.neoemf.core.DefaultPersistentEObject;
+import fr.inria.atlanmod.neoemf.resource.PersistentResource;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class InObjectCachingStoreDecoratorTest extends AbstractTest {
+
+    private static final EClass CLASS = EcoreFactory.eINSTANCE.createEClass();
+
+    private static final EAttribute NAME = EcoreFactory.eINSTANCE.createEAttribute();
+
+    private static final EReference PARENT = EcoreFactory.eINSTANCE.createEReference();
+
+    private static final EReference KIDS = EcoreFactory.eINSTANCE.createEReference();
+
+    static {
+        NAME.setName("name");
+        NAME.setEType(EcorePackage.Literals.ESTRING);
+
+        PARENT.setName("parent");
+        PARENT.setEType(CLASS);
+
+        KIDS.setName("kids");
+        KIDS.setEType(CLASS);
+        KIDS.setUpperBound(-1);
+
+        PARENT.setEOpposite(KIDS);
+        KIDS.setEOpposite(PARENT);
+
+        CLASS.setName("Node");
+        CLASS.getEStructuralFeatures().add(NAME);
+        CLASS.getEStructuralFeatures().add(PARENT);
+        CLASS.getEStructuralFeatures().add(KIDS);
+
+        EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+        ePackage.setName("nodes");
+        ePackage.setNsURI("http://www.inria.fr/atlanmod/neoemf/tests/cached-nodes");
+        ePackage.getEClassifiers().add(CLASS);
+    }
+
+    private final PersistentResource resource = mock(PersistentResource.class);
+
+    private PersistentStore underlyingStore;
+
+    private PersistentStore store;
+
+    @Before
+    public void createStore() {
+        underlyingStore = spy(new InMemoryPersistentStore());
+        store = new InObjectCachingStoreDecorator(underlyingStore);
+        when(resource.eStore()).thenReturn(store);
+    }
+
+    @Test
+    public void testValueIsCached() {
+        DefaultPersistentEObject object = createObject();
+        object.eSet(NAME, "name0");
+
+        assertThat(object.eGet(NAME)).isEqualTo("name0");
+        assertThat(object.eGet(NAME)).isEqualTo("name0");
+        verify(underlyingStore, times(1)).get(object, NAME, PersistentStore.NO_INDEX);
+    }
+
+    @Test
+    public void testNullValueIsCached() {
+        DefaultPersistentEObject object = createObject();
+
+        assertThat(object.eGet(NAME)).isNull();
+        assertThat(object.eGet(NAME)).isNull();
+        verify(underlyingStore, times(1)).get(object, NAME, PersistentStore.NO_INDEX);
+    }
+
+    @Test
+    public void testSetUpdatesValue() {
+        DefaultPersistentEObject object = createObject();
+        object.eSet(NAME, "name0");
+        assertThat(object.eGet(NAME)).isEqualTo("name0");
+
+        object.eSet(NAME, "name1");
+        assertThat(object.eGet(NAME)).isEqualTo("name1");
+        verify(underlyingStore, times(1)).get(object, NAME, PersistentStore.NO_INDEX);
+    }
+
+    @Test
+    public void testSetThroughStoreInvalidates() {
+        DefaultPersistentEObject object = createObject();
+        object.eSet(NAME, "name0");
+        assertThat(object.eGet(NAME)).isEqualTo("name0");
+
+        store.set(object, NAME, PersistentStore.NO_INDEX, "name1");
+        assertThat(object.eGet(NAME)).isEqualTo("name1");
+    }
+
+    @Test
+    public void testUnsetInvalidates() {
+        DefaultPersistentEObject object = createObject();
+        object.eSet(NAME, "name0");
+        assertThat(object.eGet(NAME)).isEqualTo("name0");
+
+        object.eUnset(NAME);
+        assertThat(object.eGet(NAME)).isNull();
+
+        object.eSet(NAME, "name1");
+        assertThat(object.eGet(NAME)).isEqualTo("name1");
+
+        store.unset(object, NAME);
+        assertThat(object.eGet(NAME)).isNull();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAddRemoveInvalidatesOpposite() {
+        EObject parent = createObject();
+        EObject kid = createObject();
+        assertThat(kid.eGet(PARENT)).isNull();
+
+        List<EObject> kids = (List<EObject>) parent.eGet(KIDS);
+        kids.add(kid);
+        assertThat(kid.eGet(PARENT)).isSameAs(parent);
+
+        kids.remove(kid);
+        assertThat(kid.eGet(PARENT)).isNull();
+    }
+
+    @Test
+    public void testNoCachingWithoutDecorator() {
+        when(resource.eStore()).thenReturn(underlyingStore);
+
+        DefaultPersistentEObject object = createObject();
+        object.eSet(NAME, "name0");
+
+        assertThat(object.eGet(NAME)).isEqualTo("name0");
+        assertThat(object.eGet(NAME)).isEqualTo("name0");
+        verify(underlyingStore, times(2)).get(object, NAME, PersistentStore.NO_INDEX);
+    }
+
+    @Test
+    public void testNoCachingOnDistributedResource() {
+        when(resource.isDistributed()).thenReturn(true);
+
+        DefaultPersistentEObject object = createObject();
+        object.eSet(NAME, "name0");
+
+        assertThat(object.eGet(NAME)).isEqualTo("name0");
+        assertThat(object.eGet(NAME)).isEqualTo("name0");
+        verify(underlyingStore, times(2)).get(object, NAME, PersistentStore.NO_INDEX);
+    }
+
+    private DefaultPersistentEObject createObject() {
+        DefaultPersistentEObject object = new DefaultPersistentEObject();
+        object.eSetClass(CLASS);
+        object.resource(resource);
+        return object;
+    }
+}
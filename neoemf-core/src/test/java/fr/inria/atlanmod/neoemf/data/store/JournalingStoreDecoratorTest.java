@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.store;
+
+import fr.inria.atlanmod.neoemf.AbstractTest;
+import fr.inria.atlanmod.neoemf.core.PersistentEObject;
+import fr.inria.atlanmod.neoemf.core.StringId;
+import fr.inria.atlanmod.neoemf.data.journal.Journal;
+import fr.inria.atlanmod.neoemf.data.journal.JournalEntry;
+import fr.inria.atlanmod.neoemf.data.journal.JournalEntry.Operation;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JournalingStoreDecoratorTest extends AbstractTest {
+
+    private static final EClass CLASS = EcoreFactory.eINSTANCE.createEClass();
+
+    private static final EAttribute SIZE = EcoreFactory.eINSTANCE.createEAttribute();
+
+    private static final EReference CHILDREN = EcoreFactory.eINSTANCE.createEReference();
+
+    static {
+        SIZE.setName("size");
+        SIZE.setEType(EcorePackage.Literals.EINT);
+
+        CHILDREN.setName("children");
+        CHILDREN.setEType(CLASS);
+        CHILDREN.setUpperBound(-1);
+
+        CLASS.setName("Node");
+        CLASS.getEStructuralFeatures().add(SIZE);
+        CLASS.getEStructuralFeatures().add(CHILDREN);
+    }
+
+    private final PersistentEObject object = mockObject("node0");
+
+    private final PersistentEObject child0 = mockObject("node1");
+
+    private final PersistentEObject child1 = mockObject("node2");
+
+    private PersistentStore underlyingStore;
+
+    private File file;
+
+    private static PersistentEObject mockObject(String id) {
+        PersistentEObject object = mock(PersistentEObject.class);
+        when(object.id()).thenReturn(new StringId(id));
+        when(object.eClass()).thenReturn(CLASS);
+        return object;
+    }
+
+    @Before
+    public void createStore() throws IOException {
+        underlyingStore = mock(PersistentStore.class);
+        file = new File(workspace.newFile("journal"), JournalingStoreDecorator.FILE_NAME);
+    }
+
+    @Test
+    public void testModificationsAreWrittenOnSave() throws IOException {
+        JournalingStoreDecorator store = new JournalingStoreDecorator(underlyingStore, new Journal(file));
+        store.set(object, SIZE, PersistentStore.NO_INDEX, 42);
+        store.addAll(object, CHILDREN, 0, Arrays.asList(child0, child1));
+        store.removeRange(object, CHILDREN, 0, 2);
+        assertThat(Journal.read(file, Journal.FIRST_OFFSET, 10)).isEmpty();
+
+        store.save();
+        verify(underlyingStore).save();
+
+        List<JournalEntry> entries = Journal.read(file, Journal.FIRST_OFFSET, 10);
+        assertThat(entries).extracting(JournalEntry::operation)
+                .containsExactly(Operation.SET, Operation.ADD, Operation.ADD, Operation.REMOVE, Operation.REMOVE);
+        assertThat(entries).extracting(JournalEntry::index)
+                .containsExactly(PersistentStore.NO_INDEX, 0, 1, 0, 0);
+        assertThat(entries).extracting(JournalEntry::value)
+                .containsExactly("42", "node1", "node2", null, null);
+        assertThat(entries.get(0).isReference()).isFalse();
+        assertThat(entries.get(1).isReference()).isTrue();
+
+        store.close();
+    }
+
+    @Test
+    public void testCreatedObjectsAreRecorded() throws IOException {
+        // The underlying store maps the objects when they are first written
+        when(object.isMapped()).thenReturn(false, true);
+        when(child0.isMapped()).thenReturn(false, true);
+        when(child1.isMapped()).thenReturn(true);
+
+        JournalingStoreDecorator store = new JournalingStoreDecorator(underlyingStore, new Journal(file));
+        store.addAll(object, CHILDREN, 0, Arrays.asList(child0, child1));
+        store.add(object, CHILDREN, 2, child0);
+        store.close();
+
+        List<JournalEntry> entries = Journal.read(file, Journal.FIRST_OFFSET, 10);
+        assertThat(entries).extracting(JournalEntry::operation)
+                .containsExactly(Operation.CREATE, Operation.CREATE, Operation.ADD, Operation.ADD, Operation.ADD);
+        assertThat(entries).extracting(JournalEntry::id).extracting(Object::toString)
+                .containsExactly("node0", "node1", "node0", "node0", "node0");
+        assertThat(entries.get(0).value()).isEqualTo(EcoreUtil.getURI(CLASS).toString());
+    }
+
+    @Test
+    public void testModificationsAreCommittedInBoundedBatches() throws IOException {
+        JournalingStoreDecorator store = new JournalingStoreDecorator(underlyingStore, new Journal(file), 1);
+        store.set(object, SIZE, PersistentStore.NO_INDEX, 1);
+        store.set(object, SIZE, PersistentStore.NO_INDEX, 2);
+
+        verify(underlyingStore, times(2)).save();
+        assertThat(store.journal().pendingCount()).isEqualTo(0);
+        assertThat(Journal.read(file, Journal.FIRST_OFFSET, 10)).extracting(JournalEntry::value).containsExactly("1", "2");
+
+        store.close();
+    }
+
+    @Test
+    public void testModificationsAreWrittenOnClose() throws IOException {
+        JournalingStoreDecorator store = new JournalingStoreDecorator(underlyingStore, new Journal(file));
+        store.setAll(object, CHILDREN, Arrays.asList(child1, child0));
+        store.close();
+        verify(underlyingStore).close();
+
+        List<JournalEntry> entries = Journal.read(file, Journal.FIRST_OFFSET, 10);
+        assertThat(entries).extracting(JournalEntry::operation).containsExactly(Operation.CLEAR, Operation.ADD, Operation.ADD);
+        assertThat(entries).extracting(JournalEntry::value).containsExactly(null, "node2", "node1");
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.store;
+
+import fr.inria.atlanmod.neoemf.AbstractTest;
+import fr.inria.atlanmod.neoemf.core.PersistentEObject;
+import fr.inria.atlanmod.neoemf.core.StringId;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureKey;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class OverlayStoreDecoratorTest extends AbstractTest {
+
+    private static final EClass CLASS = EcoreFactory.eINSTANCE.createEClass();
+
+    private static final EAttribute NAME = EcoreFactory.eINSTANCE.createEAttribute();
+
+    private static final EReference CHILDREN = EcoreFactory.eINSTANCE.createEReference();
+
+    static {
+        NAME.setName("name");
+        NAME.setEType(EcorePackage.Literals.ESTRING);
+
+        CHILDREN.setName("children");
+        CHILDREN.setEType(CLASS);
+        CHILDREN.setUpperBound(-1);
+        CHILDREN.setContainment(true);
+
+        CLASS.setName("Node");
+        CLASS.getEStructuralFeatures().add(NAME);
+        CLASS.getEStructuralFeatures().add(CHILDREN);
+    }
+
+    private final PersistentEObject object = mockObject("node0");
+
+    private final PersistentEObject child0 = mockObject("node1");
+
+    private final PersistentEObject child1 = mockObject("node2");
+
+    private PersistentStore underlyingStore;
+
+    private OverlayStoreDecorator store;
+
+    private static PersistentEObject mockObject(String id) {
+        PersistentEObject object = mock(PersistentEObject.class);
+        when(object.id()).thenReturn(new StringId(id));
+        when(object.eClass()).thenReturn(CLASS);
+        return object;
+    }
+
+    @Before
+    public void createStore() {
+        underlyingStore = mock(PersistentStore.class);
+        when(underlyingStore.get(object, NAME, PersistentStore.NO_INDEX)).thenReturn("base");
+        when(underlyingStore.getAll(object, CHILDREN)).thenReturn(new Object[]{child0});
+        when(underlyingStore.size(object, CHILDREN)).thenReturn(1);
+
+        store = new OverlayStoreDecorator(underlyingStore);
+    }
+
+    @Test
+    public void testReadsFallThrough() {
+        assertThat(store.get(object, NAME, PersistentStore.NO_INDEX)).isEqualTo("base");
+        assertThat(store.size(object, CHILDREN)).isEqualTo(1);
+        assertThat(store.isDirty()).isFalse();
+    }
+
+    @Test
+    public void testWritesLandInDelta() {
+        assertThat(store.set(object, NAME, PersistentStore.NO_INDEX, "fork")).isEqualTo("base");
+        store.add(object, CHILDREN, PersistentStore.NO_INDEX, child1);
+
+        assertThat(store.get(object, NAME, PersistentStore.NO_INDEX)).isEqualTo("fork");
+        assertThat(store.getAll(object, CHILDREN)).containsExactly(child0, child1);
+        assertThat(store.getContainer(child1)).isSameAs(object);
+        assertThat(store.getContainingFeature(child1)).isSameAs(CHILDREN);
+        assertThat(store.eObject(child1.id())).isSameAs(child1);
+        assertThat(store.changes()).isEqualTo(2);
+
+        verify(underlyingStore, never()).set(any(), any(), anyInt(), any());
+        verify(underlyingStore, never()).add(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    public void testUnset() {
+        store.unset(object, NAME);
+        store.unset(object, CHILDREN);
+
+        assertThat(store.isSet(object, NAME)).isFalse();
+        assertThat(store.get(object, NAME, PersistentStore.NO_INDEX)).isNull();
+        assertThat(store.size(object, CHILDREN)).isEqualTo(0);
+
+        verify(underlyingStore, never()).unset(any(), any());
+    }
+
+    @Test
+    public void testMerge() {
+        store.set(object, NAME, PersistentStore.NO_INDEX, "fork");
+        store.add(object, CHILDREN, 0, child1);
+        store.move(object, CHILDREN, 1, 0);
+
+        assertThat(store.merge()).containsOnly(FeatureKey.from(object, NAME), FeatureKey.from(object, CHILDREN));
+        verify(underlyingStore).set(object, NAME, PersistentStore.NO_INDEX, "fork");
+        verify(underlyingStore).setAll(object, CHILDREN, Arrays.asList(child0, child1));
+        assertThat(store.isDirty()).isFalse();
+    }
+
+    @Test
+    public void testRemovedObjectsHaveNoContainer() {
+        when(underlyingStore.getContainer(child0)).thenReturn(object);
+        when(underlyingStore.getContainingFeature(child0)).thenReturn(CHILDREN);
+
+        store.add(object, CHILDREN, PersistentStore.NO_INDEX, child1);
+        store.remove(object, CHILDREN, 1);
+        store.removeRange(object, CHILDREN, 0, 1);
+
+        assertThat(store.getContainer(child0)).isNull();
+        assertThat(store.getContainingFeature(child0)).isNull();
+        assertThat(store.getContainer(child1)).isNull();
+        assertThat(store.getContainingFeature(child1)).isNull();
+    }
+
+    @Test
+    public void testMovedObjectsKeepTheirNewContainer() {
+        when(underlyingStore.getAll(child1, CHILDREN)).thenReturn(new Object[0]);
+
+        // EMF adds an object to its new container before removing it from the previous one
+        store.add(child1, CHILDREN, PersistentStore.NO_INDEX, child0);
+        store.remove(object, CHILDREN, 0);
+
+        assertThat(store.getContainer(child0)).isSameAs(child1);
+        assertThat(store.getContainingFeature(child0)).isSameAs(CHILDREN);
+    }
+
+    @Test
+    public void testReferencesAreStoredById() {
+        PersistentEObject otherInstance = mockObject("node2");
+
+        store.add(object, CHILDREN, PersistentStore.NO_INDEX, child1);
+
+        assertThat(store.contains(object, CHILDREN, otherInstance)).isTrue();
+        assertThat(store.indexOf(object, CHILDREN, otherInstance)).isEqualTo(1);
+        assertThat(store.get(object, CHILDREN, 1)).isSameAs(child1);
+        assertThat(store.remove(object, CHILDREN, 0)).isSameAs(child0);
+    }
+
+    @Test
+    public void testDiscard() {
+        store.set(object, NAME, PersistentStore.NO_INDEX, "fork");
+        store.clear(object, CHILDREN);
+        store.discard();
+
+        assertThat(store.get(object, NAME, PersistentStore.NO_INDEX)).isEqualTo("base");
+        assertThat(store.size(object, CHILDREN)).isEqualTo(1);
+        assertThat(store.isDirty()).isFalse();
+    }
+}
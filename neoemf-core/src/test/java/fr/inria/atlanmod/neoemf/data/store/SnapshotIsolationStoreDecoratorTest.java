@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.store;
+
+import fr.inria.atlanmod.neoemf.AbstractTest;
+import fr.inria.atlanmod.neoemf.core.PersistentEObject;
+import fr.inria.atlanmod.neoemf.core.StringId;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureKey;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SnapshotIsolationStoreDecoratorTest extends AbstractTest {
+
+    private static final EClass CLASS = EcoreFactory.eINSTANCE.createEClass();
+
+    private static final EAttribute NAME = EcoreFactory.eINSTANCE.createEAttribute();
+
+    private static final EReference CHILDREN = EcoreFactory.eINSTANCE.createEReference();
+
+    static {
+        NAME.setName("name");
+        NAME.setEType(EcorePackage.Literals.ESTRING);
+
+        CHILDREN.setName("children");
+        CHILDREN.setEType(CLASS);
+        CHILDREN.setUpperBound(-1);
+
+        CLASS.setName("Node");
+        CLASS.getEStructuralFeatures().add(NAME);
+        CLASS.getEStructuralFeatures().add(CHILDREN);
+    }
+
+    private final PersistentEObject object = mockObject("node0", true);
+
+    private final PersistentEObject child0 = mockObject("node1", true);
+
+    private final PersistentEObject child1 = mockObject("node2", true);
+
+    private PersistentStore backend;
+
+    private SnapshotIsolationStoreDecorator store;
+
+    private static PersistentEObject mockObject(String id, boolean isMapped) {
+        PersistentEObject object = mock(PersistentEObject.class);
+        when(object.id()).thenReturn(new StringId(id));
+        when(object.eClass()).thenReturn(CLASS);
+        when(object.isMapped()).thenReturn(isMapped);
+        return object;
+    }
+
+    @Before
+    public void createStore() {
+        backend = spy(new InMemoryPersistentStore());
+        backend.set(object, NAME, PersistentStore.NO_INDEX, "name0");
+        backend.add(object, CHILDREN, 0, child0);
+
+        store = new SnapshotIsolationStoreDecorator(backend);
+    }
+
+    @Test
+    public void testSnapshotKeepsPreviousValues() {
+        SnapshotStoreDecorator snapshot = store.snapshot(backend);
+
+        store.set(object, NAME, PersistentStore.NO_INDEX, "name1");
+        store.add(object, CHILDREN, 1, child1);
+        store.remove(object, CHILDREN, 0);
+
+        assertThat(store.get(object, NAME, PersistentStore.NO_INDEX)).isEqualTo("name1");
+        assertThat(store.getAll(object, CHILDREN)).containsExactly(child1);
+
+        assertThat(snapshot.get(object, NAME, PersistentStore.NO_INDEX)).isEqualTo("name0");
+        assertThat(snapshot.size(object, CHILDREN)).isEqualTo(1);
+        assertThat(snapshot.get(object, CHILDREN, 0)).isSameAs(child0);
+        assertThat(snapshot.getAll(object, CHILDREN)).containsExactly(child0);
+        assertThat(snapshot.contains(object, CHILDREN, child1)).isFalse();
+        assertThat(snapshot.indexOf(object, CHILDREN, child0)).isEqualTo(0);
+    }
+
+    @Test
+    public void testSnapshotKeepsUnsetValues() {
+        SnapshotStoreDecorator snapshot = store.snapshot(backend);
+
+        store.unset(object, NAME);
+        store.clear(object, CHILDREN);
+
+        assertThat(snapshot.isSet(object, NAME)).isTrue();
+        assertThat(snapshot.get(object, NAME, PersistentStore.NO_INDEX)).isEqualTo("name0");
+        assertThat(snapshot.getAll(object, CHILDREN)).containsExactly(child0);
+
+        PersistentEObject other = mockObject("node3", true);
+        store.set(other, NAME, PersistentStore.NO_INDEX, "name3");
+
+        assertThat(snapshot.isSet(other, NAME)).isFalse();
+        assertThat(snapshot.get(other, NAME, PersistentStore.NO_INDEX)).isNull();
+    }
+
+    @Test
+    public void testSnapshotReadsUnmodifiedValues() {
+        SnapshotStoreDecorator snapshot = store.snapshot(backend);
+
+        assertThat(snapshot.get(object, NAME, PersistentStore.NO_INDEX)).isEqualTo("name0");
+        assertThat(snapshot.isPreserved(FeatureKey.from(object, NAME))).isFalse();
+    }
+
+    @Test
+    public void testCreatedObjectsAreNotPreserved() {
+        SnapshotStoreDecorator snapshot = store.snapshot(backend);
+
+        PersistentEObject created = mockObject("node3", false);
+        store.set(created, NAME, PersistentStore.NO_INDEX, "name3");
+        store.setAll(object, CHILDREN, Arrays.asList(child0, created));
+
+        assertThat(snapshot.isCreated(created.id())).isTrue();
+        assertThat(snapshot.isPreserved(FeatureKey.from(created, NAME))).isFalse();
+        assertThat(snapshot.getAll(object, CHILDREN)).containsExactly(child0);
+    }
+
+    @Test
+    public void testSnapshotsAreIndependent() {
+        SnapshotStoreDecorator snapshot0 = store.snapshot(backend);
+        store.set(object, NAME, PersistentStore.NO_INDEX, "name1");
+
+        SnapshotStoreDecorator snapshot1 = store.snapshot(backend);
+        store.set(object, NAME, PersistentStore.NO_INDEX, "name2");
+
+        assertThat(snapshot0.get(object, NAME, PersistentStore.NO_INDEX)).isEqualTo("name0");
+        assertThat(snapshot1.get(object, NAME, PersistentStore.NO_INDEX)).isEqualTo("name1");
+    }
+
+    @Test
+    public void testClosedSnapshotIsNotPreserved() {
+        SnapshotStoreDecorator snapshot = store.snapshot(backend);
+        snapshot.close();
+
+        store.set(object, NAME, PersistentStore.NO_INDEX, "name1");
+        assertThat(snapshot.isPreserved(FeatureKey.from(object, NAME))).isFalse();
+    }
+
+    @Test
+    public void testNoReadWithoutSnapshot() {
+        store.set(object, NAME, PersistentStore.NO_INDEX, "name1");
+        store.add(object, CHILDREN, 1, child1);
+
+        verify(backend, never()).get(any(), any(), anyInt());
+        verify(backend, never()).getAll(any(), any());
+    }
+}
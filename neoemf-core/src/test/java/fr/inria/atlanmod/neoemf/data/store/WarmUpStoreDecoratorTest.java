@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.store;
+
+import fr.inria.atlanmod.neoemf.AbstractTest;
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.core.PersistentEObject;
+import fr.inria.atlanmod.neoemf.core.StringId;
+import fr.inria.atlanmod.neoemf.option.CommonStoreOptions;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+public class WarmUpStoreDecoratorTest extends AbstractTest {
+
+    private static final EClass CLASS = EcoreFactory.eINSTANCE.createEClass();
+
+    private static final EAttribute NAME = EcoreFactory.eINSTANCE.createEAttribute();
+
+    private static final EReference CHILDREN = EcoreFactory.eINSTANCE.createEReference();
+
+    static {
+        NAME.setName("name");
+        NAME.setEType(EcorePackage.Literals.ESTRING);
+
+        CHILDREN.setName("children");
+        CHILDREN.setEType(CLASS);
+        CHILDREN.setUpperBound(-1);
+
+        CLASS.setName("Node");
+        CLASS.getEStructuralFeatures().add(NAME);
+        CLASS.getEStructuralFeatures().add(CHILDREN);
+    }
+
+    private final Id id = new StringId("node0");
+
+    private final PersistentEObject object = mock(PersistentEObject.class);
+
+    private File file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = new File(workspace.newFile("warmup"), WarmUpStoreDecorator.FILE_NAME);
+        file.getParentFile().mkdirs();
+
+        when(object.id()).thenReturn(id);
+        when(object.eClass()).thenReturn(CLASS);
+    }
+
+    @Test
+    public void testRecordAndWarmUp() throws InterruptedException {
+        WarmUpStoreDecorator store = new WarmUpStoreDecorator(mock(PersistentStore.class), file);
+        store.eObject(id);
+        store.get(object, NAME, PersistentStore.NO_INDEX);
+        store.size(object, CHILDREN);
+        store.get(object, CHILDREN, 1);
+        store.close();
+
+        assertThat(file).exists();
+
+        PersistentStore underlyingStore = mock(PersistentStore.class);
+        when(underlyingStore.eObject(id)).thenReturn(object);
+        when(underlyingStore.size(object, CHILDREN)).thenReturn(2);
+
+        store = new WarmUpStoreDecorator(underlyingStore, file);
+        store.warmUp();
+        assertThat(store.awaitWarmUp(10, TimeUnit.SECONDS)).isTrue();
+
+        verify(underlyingStore).eObjects(Collections.singletonList(id));
+        verify(underlyingStore).get(object, NAME, PersistentStore.NO_INDEX);
+        verify(underlyingStore).get(object, CHILDREN, 1);
+    }
+
+    @Test
+    public void testWarmUpIgnoresRemovedValues() throws InterruptedException {
+        WarmUpStoreDecorator store = new WarmUpStoreDecorator(mock(PersistentStore.class), file);
+        store.get(object, CHILDREN, 3);
+        store.close();
+
+        PersistentStore underlyingStore = mock(PersistentStore.class);
+        when(underlyingStore.eObject(id)).thenReturn(object);
+        when(underlyingStore.size(object, CHILDREN)).thenReturn(2);
+
+        store = new WarmUpStoreDecorator(underlyingStore, file);
+        store.warmUp();
+        assertThat(store.awaitWarmUp(10, TimeUnit.SECONDS)).isTrue();
+
+        verify(underlyingStore, never()).get(object, CHILDREN, 3);
+    }
+
+    @Test
+    public void testWarmUpIgnoresUnknownFormat() throws IOException, InterruptedException {
+        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
+            out.writeObject(Collections.singletonList(id));
+        }
+
+        PersistentStore underlyingStore = mock(PersistentStore.class);
+        WarmUpStoreDecorator store = new WarmUpStoreDecorator(underlyingStore, file);
+        store.warmUp();
+        assertThat(store.awaitWarmUp(10, TimeUnit.SECONDS)).isTrue();
+
+        verifyZeroInteractions(underlyingStore);
+    }
+
+    @Test
+    public void testWarmUpWithoutFile() throws InterruptedException {
+        PersistentStore underlyingStore = mock(PersistentStore.class);
+
+        WarmUpStoreDecorator store = new WarmUpStoreDecorator(underlyingStore, file);
+        store.warmUp();
+        assertThat(store.awaitWarmUp(10, TimeUnit.SECONDS)).isTrue();
+
+        store.close();
+        assertThat(file).doesNotExist();
+        verify(underlyingStore).close();
+    }
+
+    @Test
+    public void testSizeLoadedDuringModification() {
+        assertSizeLoadedDuringModification(SizeCachingStoreDecorator::new);
+        assertSizeLoadedDuringModification(s -> new FusedStoreDecorator(s, Arrays.asList(CommonStoreOptions.CACHE_SIZE, CommonStoreOptions.COUNT_LOADED_OBJECT)));
+    }
+
+    /**
+     * Checks that a size read by another thread while a value is added, before the underlying store is modified, is
+     * not kept by the size cache of the decorator created by the given {@code decorator} function.
+     */
+    private void assertSizeLoadedDuringModification(Function<PersistentStore, PersistentStore> decorator) {
+        AtomicInteger size = new AtomicInteger();
+        PersistentStore underlyingStore = mock(PersistentStore.class);
+        when(underlyingStore.size(object, CHILDREN)).thenAnswer(i -> size.get());
+
+        PersistentStore store = decorator.apply(underlyingStore);
+        doAnswer(i -> {
+            store.size(object, CHILDREN);
+            size.incrementAndGet();
+            return null;
+        }).when(underlyingStore).add(object, CHILDREN, 0, object);
+
+        store.add(object, CHILDREN, 0, object);
+        assertThat(store.size(object, CHILDREN)).isEqualTo(1);
+
+        store.add(object, CHILDREN, 0, object);
+        assertThat(store.size(object, CHILDREN)).isEqualTo(2);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.util;
+
+import fr.inria.atlanmod.neoemf.AbstractTest;
+import fr.inria.atlanmod.neoemf.data.store.PersistentStore;
+
+import org.eclipse.emf.common.util.BasicEList;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for {@link NeoEAllContentsTreeIterator}, which reads the content of the next siblings of an object with
+ * its own content.
+ */
+public class NeoEAllContentsTreeIteratorTest extends AbstractTest {
+
+    private final Map<EObject, List<EObject>> tree = new HashMap<>();
+
+    private final List<List<EObject>> batches = new ArrayList<>();
+
+    private final PersistentStore store = mock(PersistentStore.class);
+
+    private final Resource resource = mock(Resource.class);
+
+    private InternalEObject root;
+
+    private InternalEObject a;
+
+    private InternalEObject a1;
+
+    private InternalEObject a2;
+
+    private InternalEObject b;
+
+    private InternalEObject b1;
+
+    private InternalEObject c;
+
+    /**
+     * Builds the tree {@code root(a(a1, a2), b(b1), c)}.
+     */
+    @Before
+    public void createTree() {
+        root = node();
+        a = node(root);
+        a1 = node(a);
+        a2 = node(a);
+        b = node(root);
+        b1 = node(b);
+        c = node(root);
+
+        when(resource.getContents()).thenReturn(new BasicEList<>(Collections.singletonList(root)));
+        when(store.eContents(anyListOf(InternalEObject.class))).thenAnswer(i -> {
+            List<?> objects = i.getArgumentAt(0, List.class);
+            batches.add(new ArrayList<>(objects.stream().map(EObject.class::cast).collect(Collectors.toList())));
+            return objects.stream().map(tree::get).collect(Collectors.toList());
+        });
+    }
+
+    @Test
+    public void testSiblingBatches() {
+        NeoEAllContentsTreeIterator iterator = new NeoEAllContentsTreeIterator(resource, store, 2);
+        List<EObject> objects = new ArrayList<>();
+        iterator.forEachRemaining(objects::add);
+
+        assertThat(objects).containsExactly(root, a, a1, a2, b, b1, c);
+        assertThat(batches).containsExactly(
+                Collections.singletonList(root),
+                Arrays.asList(a, b),
+                Arrays.asList(a1, a2),
+                Collections.singletonList(b1),
+                Collections.singletonList(c));
+    }
+
+    @Test
+    public void testPrune() {
+        NeoEAllContentsTreeIterator iterator = new NeoEAllContentsTreeIterator(resource, store, 2);
+        List<EObject> objects = new ArrayList<>();
+        while (iterator.hasNext()) {
+            EObject object = iterator.next();
+            objects.add(object);
+            if (object == a) {
+                iterator.prune();
+            }
+        }
+
+        assertThat(objects).containsExactly(root, a, b, b1, c);
+        assertThat(batches).allMatch(batch -> batch.size() <= 2);
+    }
+
+    private InternalEObject node(InternalEObject... parents) {
+        InternalEObject node = mock(InternalEObject.class);
+        tree.put(node, new ArrayList<>());
+        for (InternalEObject parent : parents) {
+            tree.get(parent).add(node);
+        }
+        return node;
+    }
+}
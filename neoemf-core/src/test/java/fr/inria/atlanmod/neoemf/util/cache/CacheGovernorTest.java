@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.util.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import fr.inria.atlanmod.neoemf.AbstractTest;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the allocation of the budget of a {@link CacheGovernor} between its caches.
+ */
+public class CacheGovernorTest extends AbstractTest {
+
+    @Test
+    public void testGrowWhenAlone() {
+        CacheGovernor governor = new CacheGovernor(1000);
+        Cache<Object, Object> cache = governor.newCache(100);
+
+        assertThat(maximumOf(cache)).isEqualTo(100 * CacheGovernor.MAX_GROWTH);
+    }
+
+    @Test
+    public void testShareBudget() {
+        CacheGovernor governor = new CacheGovernor(1000);
+        Cache<Object, Object> cache0 = governor.newCache(300);
+        assertThat(maximumOf(cache0)).isEqualTo(1000);
+
+        Cache<Object, Object> cache1 = governor.newCache(100);
+        assertThat(maximumOf(cache0)).isEqualTo(750);
+        assertThat(maximumOf(cache1)).isEqualTo(250);
+        assertThat(governor.allocated()).isEqualTo(1000);
+
+        governor.budget(400);
+        assertThat(maximumOf(cache0)).isEqualTo(300);
+        assertThat(maximumOf(cache1)).isEqualTo(100);
+    }
+
+    @Test
+    public void testShrinkAndGrow() {
+        CacheGovernor governor = new CacheGovernor(1000);
+        Cache<Object, Object> cache = governor.newCache(1000);
+
+        governor.shrink();
+        assertThat(maximumOf(cache)).isEqualTo(500);
+        governor.shrink();
+        assertThat(maximumOf(cache)).isEqualTo(250);
+
+        governor.grow();
+        assertThat(maximumOf(cache)).isEqualTo(500);
+        governor.grow();
+        governor.grow();
+        assertThat(maximumOf(cache)).isEqualTo(1000);
+    }
+
+    @Test
+    public void testMinimumSize() {
+        CacheGovernor governor = new CacheGovernor(1000);
+        Cache<Object, Object> cache = governor.newCache(1000);
+
+        for (int i = 0; i < 10; i++) {
+            governor.shrink();
+        }
+        assertThat(maximumOf(cache)).isEqualTo(Math.round(1000 * CacheGovernor.MIN_LEVEL));
+
+        governor.budget(1);
+        assertThat(maximumOf(cache)).isEqualTo(CacheGovernor.MIN_SIZE);
+    }
+
+    private static long maximumOf(Cache<?, ?> cache) {
+        return cache.policy().eviction().map(e -> e.getMaximum()).orElse(-1L);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+
+package fr.inria.atlanmod.neoemf.util.lifecycle;
+
+import fr.inria.atlanmod.neoemf.AbstractTest;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link Reaper}.
+ */
+public class ReaperTest extends AbstractTest {
+
+    @Test
+    public void testCleanOnce() {
+        Reaper reaper = new Reaper();
+        AtomicInteger count = new AtomicInteger();
+        Object object = new Object();
+
+        Reaper.Cleanable cleanable = reaper.register(object, "object", count::incrementAndGet);
+        assertThat(reaper.pending()).isEqualTo(1);
+
+        cleanable.clean();
+        cleanable.clean();
+        assertThat(count.get()).isEqualTo(1);
+        assertThat(reaper.pending()).isEqualTo(0);
+    }
+
+    @Test
+    public void testCleanAll() {
+        Reaper reaper = new Reaper();
+        AtomicInteger count = new AtomicInteger();
+        Object object0 = new Object();
+        Object object1 = new Object();
+
+        reaper.register(object0, "object0", count::incrementAndGet);
+        reaper.register(object1, "object1", count::incrementAndGet);
+
+        reaper.cleanAll();
+        assertThat(count.get()).isEqualTo(2);
+        assertThat(reaper.pending()).isEqualTo(0);
+    }
+
+    @Test
+    public void testReapLeakedObject() throws InterruptedException {
+        Reaper reaper = new Reaper();
+        CountDownLatch latch = new CountDownLatch(1);
+        reaper.register(new Object(), "leaked object", latch::countDown);
+
+        for (int i = 0; i < 50 && latch.getCount() > 0; i++) {
+            System.gc();
+            latch.await(100, TimeUnit.MILLISECONDS);
+        }
+        assertThat(latch.getCount()).isEqualTo(0);
+        assertThat(reaper.pending()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+
+package fr.inria.atlanmod.neoemf.util.lifecycle;
+
+import fr.inria.atlanmod.neoemf.AbstractTest;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link ShutdownCoordinator}.
+ */
+public class ShutdownCoordinatorTest extends AbstractTest {
+
+    @Test
+    public void testRunInReverseOrder() {
+        ShutdownCoordinator coordinator = new ShutdownCoordinator();
+        List<String> calls = new ArrayList<>();
+        coordinator.register("first", () -> calls.add("first"));
+        coordinator.register("second", () -> calls.add("second"));
+        coordinator.register("third", () -> calls.add("third"));
+
+        coordinator.runAll();
+        assertThat(calls).containsExactly("third", "second", "first");
+        assertThat(coordinator.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void testCancel() {
+        ShutdownCoordinator coordinator = new ShutdownCoordinator();
+        List<String> calls = new ArrayList<>();
+        coordinator.register("first", () -> calls.add("first"));
+        coordinator.register("second", () -> calls.add("second")).cancel();
+        assertThat(coordinator.size()).isEqualTo(1);
+
+        coordinator.runAll();
+        assertThat(calls).containsExactly("first");
+    }
+
+    @Test
+    public void testFailingTask() {
+        ShutdownCoordinator coordinator = new ShutdownCoordinator();
+        List<String> calls = new ArrayList<>();
+        coordinator.register("first", () -> calls.add("first"));
+        coordinator.register("failing", () -> {
+            throw new IllegalStateException();
+        });
+
+        coordinator.runAll();
+        assertThat(calls).containsExactly("first");
+    }
+}
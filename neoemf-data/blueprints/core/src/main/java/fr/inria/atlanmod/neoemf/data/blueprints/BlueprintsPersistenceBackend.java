@@ -19,7 +19,7 @@ import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Index;
 import com.tinkerpop.blueprints.KeyIndexableGraph;
 import com.tinkerpop.blueprints.Vertex;
-import com.tinkerpop.blueprints.util.GraphHelper;
+import com.tinkerpop.blueprints.util.ElementHelper;
 import com.tinkerpop.blueprints.util.wrappers.id.IdEdge;
 import com.tinkerpop.blueprints.util.wrappers.id.IdGraph;
 
@@ -28,15 +28,20 @@ import fr.inria.atlanmod.neoemf.core.PersistenceFactory;
 import fr.inria.atlanmod.neoemf.core.PersistentEObject;
 import fr.inria.atlanmod.neoemf.core.StringId;
 import fr.inria.atlanmod.neoemf.data.AbstractPersistenceBackend;
+import fr.inria.atlanmod.neoemf.data.AttributeIndex;
 import fr.inria.atlanmod.neoemf.data.PersistenceBackend;
+import fr.inria.atlanmod.neoemf.data.StatisticsTable;
 import fr.inria.atlanmod.neoemf.data.blueprints.store.DirectWriteBlueprintsCacheManyStore;
 import fr.inria.atlanmod.neoemf.data.blueprints.store.DirectWriteBlueprintsStore;
 import fr.inria.atlanmod.neoemf.data.structure.ClassInfo;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureCardinality;
 import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
 
+import org.eclipse.emf.ecore.EAttribute;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.EcorePackage;
 import org.eclipse.emf.ecore.impl.EPackageImpl;
 import org.eclipse.emf.ecore.util.EcoreUtil;
@@ -49,9 +54,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
-import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
@@ -104,6 +109,11 @@ public class BlueprintsPersistenceBackend extends AbstractPersistenceBackend {
      */
     public static final String KEY_NAME = "name";
 
+    /**
+     * The identifier of the {@link Vertex} holding the {@link StatisticsTable} in its properties.
+     */
+    private static final String KEY_STATISTICS = "neoStatistics";
+
     /**
      * In-memory cache that holds recently loaded {@link PersistentEObject}s, identified by their {@link Id}.
      */
@@ -124,11 +134,24 @@ public class BlueprintsPersistenceBackend extends AbstractPersistenceBackend {
      */
     private final Index<Vertex> metaclassIndex;
 
+    /**
+     * The metaclasses registered since this back-end has been created, whose annotated attributes are indexed.
+     *
+     * @see #registerMetaclass(EClass)
+     */
+    private final Set<EClass> registeredMetaclasses = new HashSet<>();
+
     /**
      * The Blueprints graph.
      */
     private final IdGraph<KeyIndexableGraph> graph;
 
+    /**
+     * The statistics about the content of the graph, persisted in the properties of the {@link #KEY_STATISTICS}
+     * vertex when saving.
+     */
+    private final StatisticsTable statistics = new StatisticsTable();
+
     /**
      * Whether the underlying database is closed.
      */
@@ -147,7 +170,7 @@ public class BlueprintsPersistenceBackend extends AbstractPersistenceBackend {
      * @see BlueprintsPersistenceBackendFactory
      */
     protected BlueprintsPersistenceBackend(KeyIndexableGraph baseGraph) {
-        this.graph = new AutoCleanerIdGraph(baseGraph);
+        this.graph = new AutoCleanerIdGraph(baseGraph, this::vertexRemoved);
         this.persistentObjectsCache = Caffeine.newBuilder().softValues().build();
         this.verticesCache = Caffeine.newBuilder().softValues().build();
         this.indexedEClasses = new ArrayList<>();
@@ -159,6 +182,8 @@ public class BlueprintsPersistenceBackend extends AbstractPersistenceBackend {
         else {
             metaclassIndex = metaclasses;
         }
+
+        loadStatistics();
     }
 
     /**
@@ -180,6 +205,7 @@ public class BlueprintsPersistenceBackend extends AbstractPersistenceBackend {
     @Override
     public void close() {
         try {
+            flushStatistics();
             graph.shutdown();
         }
         catch (Exception e) {
@@ -190,6 +216,7 @@ public class BlueprintsPersistenceBackend extends AbstractPersistenceBackend {
 
     @Override
     public void save() {
+        flushStatistics();
         if (graph.getFeatures().supportsTransactions) {
             graph.commit();
         }
@@ -240,6 +267,142 @@ public class BlueprintsPersistenceBackend extends AbstractPersistenceBackend {
         return indexHits;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The instances are counted in a {@link StatisticsTable}, updated every time a {@link Vertex} is created or
+     * removed through this back-end, instead of traversing the {@link #KEY_INSTANCE_OF} edges of the metaclass
+     * vertices.
+     */
+    @Override
+    public long countInstances(EClass eClass, boolean strict) {
+        return rebuiltStatistics().countInstances(eClass, strict);
+    }
+
+    @Override
+    public FeatureCardinality cardinalityOf(EStructuralFeature feature) {
+        return rebuiltStatistics().cardinalityOf(feature);
+    }
+
+    /**
+     * Starts tracking the cardinalities of the multi-valued features of this back-end. The cardinalities can only be
+     * tracked from the creation of the graph: this method has no effect on a graph that already contains vertices, and
+     * whose cardinalities are not tracked yet.
+     * <p>
+     * Once enabled, the cardinalities are persisted and maintained every time this graph is opened.
+     *
+     * @see StatisticsTable#trackFeatures()
+     */
+    public void enableFeatureStatistics() {
+        if (!statistics.trackFeatures()) {
+            NeoLogger.warn("The feature statistics can only be enabled on an empty graph");
+        }
+    }
+
+    @Override
+    public boolean isTrackingCardinalities() {
+        return statistics.isTrackingFeatures();
+    }
+
+    @Override
+    public void updateCardinality(EStructuralFeature feature, int delta, int size) {
+        statistics.updateCardinality(feature, delta, size);
+    }
+
+    /**
+     * Stops tracking the statistics of the graph, because it is going to be modified without going through this
+     * back-end. The instance counts will be rebuilt when needed, but the feature cardinalities will not be available
+     * anymore.
+     */
+    public void invalidateStatistics() {
+        statistics.invalidate();
+    }
+
+    /**
+     * Returns the {@link #statistics} table, after having counted the instances of the graph if they are not tracked
+     * yet, i.e. if the graph has been created before the statistics existed or has been modified directly.
+     *
+     * @return the statistics table
+     */
+    private StatisticsTable rebuiltStatistics() {
+        if (!statistics.isTrackingInstances()) {
+            NeoLogger.info("Rebuilding the instance statistics");
+            List<ClassInfo> metaclasses = new ArrayList<>();
+            for (Vertex vertex : graph.getVertices()) {
+                ClassInfo classInfo = metaclassOf(vertex);
+                if (nonNull(classInfo)) {
+                    metaclasses.add(classInfo);
+                }
+            }
+            statistics.rebuildInstances(metaclasses);
+        }
+        return statistics;
+    }
+
+    /**
+     * Loads the {@link #statistics} table from the graph, or starts tracking them if the graph is empty.
+     */
+    private void loadStatistics() {
+        Vertex statisticsVertex = graph.getVertex(KEY_STATISTICS);
+        if (nonNull(statisticsVertex)) {
+            Map<String, Long> entries = new HashMap<>();
+            for (String key : statisticsVertex.getPropertyKeys()) {
+                entries.put(key, statisticsVertex.<Number>getProperty(key).longValue());
+            }
+            statistics.load(entries);
+        }
+        else if (Iterables.isEmpty(graph.getVertices())) {
+            statistics.reset();
+        }
+        else {
+            statistics.invalidate();
+        }
+    }
+
+    /**
+     * Writes the {@link #statistics} table in the properties of the {@link #KEY_STATISTICS} vertex.
+     */
+    private void flushStatistics() {
+        Vertex statisticsVertex = graph.getVertex(KEY_STATISTICS);
+        if (isNull(statisticsVertex)) {
+            statisticsVertex = graph.addVertex(KEY_STATISTICS);
+        }
+        Map<String, Long> entries = statistics.asMap();
+        for (String key : statisticsVertex.getPropertyKeys()) {
+            if (!entries.containsKey(key)) {
+                statisticsVertex.removeProperty(key);
+            }
+        }
+        for (Map.Entry<String, Long> entry : entries.entrySet()) {
+            statisticsVertex.setProperty(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Records that the given {@code vertex} is about to be removed from the graph.
+     *
+     * @param vertex the removed vertex
+     */
+    private void vertexRemoved(Vertex vertex) {
+        ClassInfo classInfo = metaclassOf(vertex);
+        if (nonNull(classInfo)) {
+            statistics.instanceDeleted(classInfo);
+        }
+    }
+
+    /**
+     * Retrieves the metaclass of the model element represented by the given {@code vertex}, without resolving its
+     * {@link EClass}.
+     *
+     * @param vertex the vertex of the model element
+     *
+     * @return the metaclass of the element, or {@code null} if the {@code vertex} does not represent a model element
+     */
+    private ClassInfo metaclassOf(Vertex vertex) {
+        Vertex eClassVertex = Iterables.getOnlyElement(vertex.getVertices(Direction.OUT, KEY_INSTANCE_OF), null);
+        return isNull(eClassVertex) ? null : ClassInfo.of(eClassVertex.getProperty(KEY_ECLASS_NAME), eClassVertex.getProperty(KEY_EPACKAGE_NSURI));
+    }
+
     /**
      * Create a new vertex, add it to the graph, and return the newly created vertex.
      *
@@ -297,14 +460,15 @@ public class BlueprintsPersistenceBackend extends AbstractPersistenceBackend {
      *
      * @param object the {@link PersistentEObject} to find
      *
-     * @return the vertex referenced by the provided {@link EObject} or {@code null} when no such vertex exists
+     * @return the vertex referenced by the provided {@link EObject}
      */
     public Vertex getOrCreateVertex(PersistentEObject object) {
-        Vertex vertex;
+        Vertex vertex = null;
         if (object.isMapped()) {
             vertex = getVertex(object.id());
         }
-        else {
+        // The root of a saved resource is mapped before its vertex is created
+        if (isNull(vertex)) {
             vertex = createVertex(object);
         }
         return vertex;
@@ -332,13 +496,8 @@ public class BlueprintsPersistenceBackend extends AbstractPersistenceBackend {
      * @return an {@link EClass} representing the metaclass of the element
      */
     public EClass resolveInstanceOf(Vertex vertex) {
-        EClass eClass = null;
-        Vertex eClassVertex = Iterables.getOnlyElement(vertex.getVertices(Direction.OUT, KEY_INSTANCE_OF), null);
-        if (nonNull(eClassVertex)) {
-            ClassInfo classInfo = ClassInfo.of(eClassVertex.getProperty(KEY_ECLASS_NAME), eClassVertex.getProperty(KEY_EPACKAGE_NSURI));
-            eClass = classInfo.eClass();
-        }
-        return eClass;
+        ClassInfo classInfo = metaclassOf(vertex);
+        return isNull(classInfo) ? null : classInfo.eClass();
     }
 
     /**
@@ -400,19 +559,113 @@ public class BlueprintsPersistenceBackend extends AbstractPersistenceBackend {
             metaclassIndex.put(KEY_NAME, eClass.getName(), eClassVertex);
             indexedEClasses.add(eClass);
         }
+        registerMetaclass(eClass);
         vertex.addEdge(KEY_INSTANCE_OF, eClassVertex);
+        statistics.instanceCreated(ClassInfo.from(object));
         setMappedVertex(vertex, object);
         return vertex;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The key index of the annotated attributes of the {@code eClass} is {@link #enableAttributeIndex(EAttribute)
+     * enabled} the first time it is registered.
+     *
+     * @see AttributeIndex#annotatedAttributes(EClass)
+     */
+    @Override
+    public void registerMetaclass(EClass eClass) {
+        if (registeredMetaclasses.add(eClass)) {
+            for (EAttribute attribute : AttributeIndex.annotatedAttributes(eClass)) {
+                enableAttributeIndex(attribute);
+            }
+        }
+    }
+
+    /**
+     * Enables the key index of the vertices on the property holding the values of the given single-valued {@code
+     * attribute}, if the graph does not index it yet. The existing vertices are indexed by the graph.
+     * <p>
+     * The key index is maintained by the graph itself: the values of the attribute do not have to be notified with
+     * {@link #attributeChanged(Id, EAttribute, Object, Object)}. It is shared by all the attributes with the same
+     * name, and only answers to equality lookups.
+     *
+     * @param attribute the attribute to index
+     *
+     * @see #findByProperty(EAttribute, Object)
+     */
+    public void enableAttributeIndex(EAttribute attribute) {
+        if (attribute.isMany()) {
+            NeoLogger.warn("Multi-valued attribute {0} can not be indexed", attribute.getName());
+        }
+        else if (!isKeyIndexed(attribute)) {
+            NeoLogger.info("Building the index of attribute {0}", attribute.getName());
+            graph.createKeyIndex(attribute.getName(), Vertex.class);
+        }
+    }
+
+    /**
+     * Returns whether the property holding the values of the given {@code attribute} is indexed by the graph.
+     *
+     * @param attribute the attribute
+     *
+     * @return {@code true} if the vertices can be looked up by the values of the attribute
+     *
+     * @see #enableAttributeIndex(EAttribute)
+     */
+    public boolean isKeyIndexed(EAttribute attribute) {
+        return !attribute.isMany() && graph.getIndexedKeys(Vertex.class).contains(attribute.getName());
+    }
+
+    /**
+     * Returns the identifiers of the objects whose {@code attribute} is stored as the given {@code property}, by
+     * looking up the key index of the graph.
+     * <p>
+     * The metaclass vertices, which also have a {@link #KEY_ECLASS_NAME} property, are not returned. The objects of any
+     * metaclass having an attribute with the same name are returned.
+     *
+     * @param attribute the indexed attribute
+     * @param property  the stored value of the attribute
+     *
+     * @return a list of identifiers
+     *
+     * @see #isKeyIndexed(EAttribute)
+     */
+    public List<Id> findByProperty(EAttribute attribute, Object property) {
+        List<Id> ids = new ArrayList<>();
+        for (Vertex vertex : graph.getVertices(attribute.getName(), property)) {
+            if (vertex.getEdges(Direction.OUT, KEY_INSTANCE_OF).iterator().hasNext()) {
+                ids.add(new StringId(vertex.getId().toString()));
+            }
+        }
+        return ids;
+    }
+
     /**
      * Copies all the contents of this back-end to the target one.
+     * <p>
+     * The {@code target} may already contain other elements, for instance the ones of other resources sharing the same
+     * graph: the vertices and edges that already exist in the {@code target}, such as the metaclasses, are not copied.
      *
      * @param target the {@code BlueprintsPersistenceBackend} to copy the elements to
      */
     public void copyTo(BlueprintsPersistenceBackend target) {
-        GraphHelper.copyGraph(graph, target.graph);
+        flushStatistics();
+        for (Vertex vertex : graph.getVertices()) {
+            if (isNull(target.graph.getVertex(vertex.getId()))) {
+                ElementHelper.copyProperties(vertex, target.graph.addVertex(vertex.getId()));
+            }
+        }
+        for (Edge edge : graph.getEdges()) {
+            if (isNull(target.graph.getEdge(edge.getId()))) {
+                Vertex outVertex = target.graph.getVertex(edge.getVertex(Direction.OUT).getId());
+                Vertex inVertex = target.graph.getVertex(edge.getVertex(Direction.IN).getId());
+                ElementHelper.copyProperties(edge, target.graph.addEdge(edge.getId(), outVertex, inVertex, edge.getLabel()));
+            }
+        }
         target.initMetaClassesIndex(indexedEClasses);
+        target.statistics.merge(statistics.asMap());
     }
 
     /**
@@ -429,14 +682,16 @@ public class BlueprintsPersistenceBackend extends AbstractPersistenceBackend {
     }
 
     /**
-     * ???
+     * Adds the given {@code eClassList} to the metaclass index, unless they are already indexed.
      *
-     * @param eClassList ???
+     * @param eClassList the metaclasses to index
      */
     private void initMetaClassesIndex(List<EClass> eClassList) {
         for (EClass eClass : eClassList) {
-            checkArgument(Iterables.isEmpty(metaclassIndex.get(KEY_NAME, eClass.getName())), "Index is not consistent");
-            metaclassIndex.put(KEY_NAME, eClass.getName(), getVertex(eClass));
+            if (Iterables.isEmpty(metaclassIndex.get(KEY_NAME, eClass.getName()))) {
+                metaclassIndex.put(KEY_NAME, eClass.getName(), getVertex(eClass));
+                indexedEClasses.add(eClass);
+            }
         }
     }
 
@@ -500,13 +755,21 @@ public class BlueprintsPersistenceBackend extends AbstractPersistenceBackend {
      */
     private static class AutoCleanerIdGraph extends IdGraph<KeyIndexableGraph> {
 
+        /**
+         * The function called before removing a {@link Vertex} with no more incoming {@link Edge}.
+         */
+        private final Consumer<Vertex> removalListener;
+
         /**
          * Constructs a new {@code AutoCleanerIdGraph} on the specified {@code baseGraph}.
          *
-         * @param baseGraph the base graph
+         * @param baseGraph       the base graph
+         * @param removalListener the function called before removing a {@link Vertex} with no more incoming {@link
+         *                        Edge}
          */
-        public AutoCleanerIdGraph(KeyIndexableGraph baseGraph) {
+        public AutoCleanerIdGraph(KeyIndexableGraph baseGraph, Consumer<Vertex> removalListener) {
             super(baseGraph);
+            this.removalListener = removalListener;
         }
 
         @Override
@@ -556,6 +819,7 @@ public class BlueprintsPersistenceBackend extends AbstractPersistenceBackend {
                 super.remove();
                 if (Iterables.isEmpty(referencedVertex.getEdges(Direction.IN))) {
                     // If the Vertex has no more incoming edges remove it from the DB
+                    removalListener.accept(referencedVertex);
                     referencedVertex.remove();
                 }
             }
@@ -29,12 +29,14 @@ import fr.inria.atlanmod.neoemf.data.blueprints.store.DirectWriteBlueprintsStore
 import fr.inria.atlanmod.neoemf.data.blueprints.tg.configuration.InternalBlueprintsTgConfiguration;
 import fr.inria.atlanmod.neoemf.data.store.AutocommitStoreDecorator;
 import fr.inria.atlanmod.neoemf.data.store.PersistentStore;
+import fr.inria.atlanmod.neoemf.option.PersistentResourceOptions;
 import fr.inria.atlanmod.neoemf.option.PersistentStoreOptions;
 import fr.inria.atlanmod.neoemf.resource.PersistentResource;
 import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
 
 import org.apache.commons.configuration.ConfigurationException;
 import org.apache.commons.configuration.PropertiesConfiguration;
+import org.eclipse.emf.ecore.EAttribute;
 
 import java.io.File;
 import java.lang.reflect.InvocationTargetException;
@@ -42,6 +44,7 @@ import java.lang.reflect.Method;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.MessageFormat;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -127,12 +130,12 @@ public class BlueprintsPersistenceBackendFactory extends AbstractPersistenceBack
         }
         // Autocommit
         if (storeOptions.contains(BlueprintsStoreOptions.AUTOCOMMIT)) {
-            if (options.containsKey(BlueprintsResourceOptions.AUTOCOMMIT_CHUNK)) {
-                int autoCommitChunk = (Integer) options.get(BlueprintsResourceOptions.AUTOCOMMIT_CHUNK);
+            if (options.containsKey(BlueprintsResourceOptions.AUTOCOMMIT_CHUNK) && !options.containsKey(BlueprintsResourceOptions.COMMIT_POLICY)) {
+                long autoCommitChunk = Long.parseLong(String.valueOf(options.get(BlueprintsResourceOptions.AUTOCOMMIT_CHUNK)));
                 store = new AutocommitStoreDecorator(store, autoCommitChunk);
             }
             else {
-                store = new AutocommitStoreDecorator(store);
+                store = new AutocommitStoreDecorator(store, getCommitPolicy(options));
             }
         }
         return store;
@@ -181,6 +184,14 @@ public class BlueprintsPersistenceBackendFactory extends AbstractPersistenceBack
             }
         }
 
+        if (nonNull(options) && Objects.equals(Boolean.TRUE, options.get(PersistentResourceOptions.FEATURE_STATISTICS))) {
+            backend.enableFeatureStatistics();
+        }
+        if (nonNull(options) && options.get(PersistentResourceOptions.ATTRIBUTE_INDEXES) instanceof Collection) {
+            for (Object attribute : (Collection<?>) options.get(PersistentResourceOptions.ATTRIBUTE_INDEXES)) {
+                backend.enableAttributeIndex((EAttribute) attribute);
+            }
+        }
         processGlobalConfiguration(directory);
 
         return backend;
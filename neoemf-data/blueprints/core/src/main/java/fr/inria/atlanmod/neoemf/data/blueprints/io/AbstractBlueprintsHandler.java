@@ -12,7 +12,6 @@
 package fr.inria.atlanmod.neoemf.data.blueprints.io;
 
 import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import com.tinkerpop.blueprints.Direction;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Vertex;
@@ -20,6 +19,7 @@ import com.tinkerpop.blueprints.Vertex;
 import fr.inria.atlanmod.neoemf.core.Id;
 import fr.inria.atlanmod.neoemf.core.StringId;
 import fr.inria.atlanmod.neoemf.data.blueprints.BlueprintsPersistenceBackend;
+import fr.inria.atlanmod.neoemf.data.commit.CommitPolicy;
 import fr.inria.atlanmod.neoemf.data.store.PersistentStore;
 import fr.inria.atlanmod.neoemf.io.AlreadyExistingIdException;
 import fr.inria.atlanmod.neoemf.io.Handler;
@@ -27,6 +27,7 @@ import fr.inria.atlanmod.neoemf.io.persistence.AbstractPersistenceHandler;
 import fr.inria.atlanmod.neoemf.io.structure.Element;
 import fr.inria.atlanmod.neoemf.io.structure.Identifier;
 import fr.inria.atlanmod.neoemf.io.structure.MetaClass;
+import fr.inria.atlanmod.neoemf.util.cache.CacheGovernor;
 
 import java.util.NoSuchElementException;
 
@@ -88,7 +89,19 @@ public abstract class AbstractBlueprintsHandler extends AbstractPersistenceHandl
      */
     public AbstractBlueprintsHandler(BlueprintsPersistenceBackend backend) {
         super(backend);
-        this.verticesCache = Caffeine.newBuilder().maximumSize(DEFAULT_CACHE_SIZE).build();
+        this.verticesCache = CacheGovernor.getInstance().newCache(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Constructs a new {@code AbstractBlueprintsHandler} on the given {@code backend}, that commits according to the
+     * given {@code policy}.
+     *
+     * @param backend the back-end where to store data
+     * @param policy  the policy that decides when to commit
+     */
+    public AbstractBlueprintsHandler(BlueprintsPersistenceBackend backend, CommitPolicy policy) {
+        super(backend, policy);
+        this.verticesCache = CacheGovernor.getInstance().newCache(DEFAULT_CACHE_SIZE);
     }
 
     /**
@@ -220,6 +233,9 @@ public abstract class AbstractBlueprintsHandler extends AbstractPersistenceHandl
 
     @Override
     public void handleStartDocument() {
+        // The graph is populated directly: the statistics of the back-end cannot be maintained
+        getPersistenceBackend().invalidateStatistics();
+
         createRootVertex();
 
         super.handleStartDocument();
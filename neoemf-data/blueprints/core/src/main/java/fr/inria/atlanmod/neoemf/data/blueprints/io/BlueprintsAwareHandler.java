@@ -15,6 +15,7 @@ import com.tinkerpop.blueprints.Vertex;
 
 import fr.inria.atlanmod.neoemf.core.Id;
 import fr.inria.atlanmod.neoemf.data.blueprints.BlueprintsPersistenceBackend;
+import fr.inria.atlanmod.neoemf.data.commit.CommitPolicy;
 import fr.inria.atlanmod.neoemf.io.AlreadyExistingIdException;
 import fr.inria.atlanmod.neoemf.io.Handler;
 
@@ -37,6 +38,17 @@ public class BlueprintsAwareHandler extends AbstractBlueprintsHandler {
         super(backend);
     }
 
+    /**
+     * Constructs a new {@code BlueprintsAwareHandler} on the given {@code backend}, that commits according to the given {@code
+     * policy}.
+     *
+     * @param backend the back-end where to store data
+     * @param policy  the policy that decides when to commit
+     */
+    protected BlueprintsAwareHandler(BlueprintsPersistenceBackend backend, CommitPolicy policy) {
+        super(backend, policy);
+    }
+
     @Override
     protected Vertex getVertex(final Id id) {
         try {
@@ -12,6 +12,7 @@
 package fr.inria.atlanmod.neoemf.data.blueprints.io;
 
 import fr.inria.atlanmod.neoemf.data.blueprints.BlueprintsPersistenceBackend;
+import fr.inria.atlanmod.neoemf.data.commit.CommitPolicy;
 import fr.inria.atlanmod.neoemf.io.persistence.PersistenceHandler;
 
 /**
@@ -45,4 +46,23 @@ public class BlueprintsHandlerFactory {
             return new BlueprintsNaiveHandler(backend);
         }
     }
+
+    /**
+     * Creates a {@link PersistenceHandler} on the given {@code backend}, that commits according to the given {@code
+     * policy}.
+     *
+     * @param backend            the persistence back-end where data must persist
+     * @param conflictResolution {@code true} if you want a conflict resolution feature
+     * @param policy             the policy that decides when to commit
+     *
+     * @return a new persistence handler
+     */
+    public static PersistenceHandler createPersistenceHandler(BlueprintsPersistenceBackend backend, boolean conflictResolution, CommitPolicy policy) {
+        if (conflictResolution) {
+            return new BlueprintsAwareHandler(backend, policy);
+        }
+        else {
+            return new BlueprintsNaiveHandler(backend, policy);
+        }
+    }
 }
@@ -15,6 +15,7 @@ import com.tinkerpop.blueprints.Vertex;
 
 import fr.inria.atlanmod.neoemf.core.Id;
 import fr.inria.atlanmod.neoemf.data.blueprints.BlueprintsPersistenceBackend;
+import fr.inria.atlanmod.neoemf.data.commit.CommitPolicy;
 import fr.inria.atlanmod.neoemf.io.Handler;
 
 import static java.util.Objects.isNull;
@@ -36,6 +37,17 @@ public class BlueprintsNaiveHandler extends AbstractBlueprintsHandler {
         super(backend);
     }
 
+    /**
+     * Constructs a new {@code BlueprintsNaiveHandler} on the given {@code backend}, that commits according to the given {@code
+     * policy}.
+     *
+     * @param backend the back-end where to store data
+     * @param policy  the policy that decides when to commit
+     */
+    protected BlueprintsNaiveHandler(BlueprintsPersistenceBackend backend, CommitPolicy policy) {
+        super(backend, policy);
+    }
+
     @Override
     protected Vertex getVertex(final Id id) {
         return verticesCache.get(id, key -> {
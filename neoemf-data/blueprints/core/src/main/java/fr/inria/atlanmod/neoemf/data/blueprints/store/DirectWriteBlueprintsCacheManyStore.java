@@ -12,7 +12,6 @@
 package fr.inria.atlanmod.neoemf.data.blueprints.store;
 
 import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import com.tinkerpop.blueprints.Direction;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Vertex;
@@ -21,12 +20,15 @@ import fr.inria.atlanmod.neoemf.core.PersistentEObject;
 import fr.inria.atlanmod.neoemf.data.blueprints.BlueprintsPersistenceBackend;
 import fr.inria.atlanmod.neoemf.data.store.AbstractPersistentStoreDecorator;
 import fr.inria.atlanmod.neoemf.data.structure.FeatureKey;
+import fr.inria.atlanmod.neoemf.util.cache.CacheGovernor;
 import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
 
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EReference;
 import org.eclipse.emf.ecore.resource.Resource.Internal;
 
+import java.util.Set;
+
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
@@ -69,7 +71,7 @@ public class DirectWriteBlueprintsCacheManyStore extends DirectWriteBlueprintsSt
      */
     public DirectWriteBlueprintsCacheManyStore(Internal resource, BlueprintsPersistenceBackend backend) {
         super(resource, backend);
-        this.verticesCache = Caffeine.newBuilder().maximumSize(DEFAULT_CACHE_SIZE).build();
+        this.verticesCache = CacheGovernor.getInstance().newCache(DEFAULT_CACHE_SIZE);
     }
 
     /**
@@ -126,4 +128,10 @@ public class DirectWriteBlueprintsCacheManyStore extends DirectWriteBlueprintsSt
             return super.getReference(object, reference, index);
         }
     }
+
+    @Override
+    public void invalidate(Set<FeatureKey> featureKeys) {
+        super.invalidate(featureKeys);
+        verticesCache.invalidateAll(featureKeys);
+    }
 }
@@ -15,10 +15,13 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkElementIndex;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkPositionIndex;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.stream.StreamSupport;
@@ -143,6 +146,57 @@ public class DirectWriteBlueprintsStore extends AbstractDirectWriteStore<Bluepri
         return soughtReference;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The {@link Vertex} of the object is retrieved once, and the referenced vertices are retrieved by iterating once
+     * over the edges of the reference, instead of querying the edge at each position.
+     */
+    @Override
+    public Object[] getAll(InternalEObject internalObject, EStructuralFeature feature) {
+        if (!feature.isMany()) {
+            return super.getAll(internalObject, feature);
+        }
+
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        Vertex vertex = backend.getVertex(object.id());
+        if (isNull(vertex)) {
+            return new Object[0];
+        }
+
+        Object[] values = new Object[getSize(vertex, feature)];
+        if (feature instanceof EAttribute) {
+            EAttribute attribute = (EAttribute) feature;
+            for (int i = 0; i < values.length; i++) {
+                values[i] = parseProperty(attribute, vertex.getProperty(feature.getName() + SEPARATOR + i));
+            }
+        }
+        else {
+            for (Edge edge : vertex.getEdges(Direction.OUT, feature.getName())) {
+                int position = edge.getProperty(POSITION);
+                if (position < values.length) {
+                    values[position] = reifyVertex(edge.getVertex(Direction.IN));
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The vertices are looked up in the key index of the graph, if the attribute is {@link
+     * BlueprintsPersistenceBackend#enableAttributeIndex(EAttribute) indexed}. The key indexes only answer to equality
+     * lookups: the range and prefix lookups are not supported.
+     */
+    @Override
+    public List<Id> findBy(EAttribute attribute, Object value) {
+        if (!backend.isKeyIndexed(attribute)) {
+            return super.findBy(attribute, value);
+        }
+        return backend.findByProperty(attribute, serializeToProperty(attribute, value));
+    }
+
     @Override
     protected Object setAttribute(PersistentEObject object, EAttribute attribute, int index, Object value) {
         Object old;
@@ -466,6 +520,205 @@ public class DirectWriteBlueprintsStore extends AbstractDirectWriteStore<Bluepri
         }
         setSize(vertex, reference, 0);
     }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The following elements are shifted once by the number of added values, and the size of the list is updated
+     * once, instead of once per added value.
+     */
+    @Override
+    public void addAll(InternalEObject internalObject, EStructuralFeature feature, int index, Collection<?> values) {
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        Vertex vertex = backend.getOrCreateVertex(object);
+        int size = getSize(vertex, feature);
+        int position = index == PersistentStore.NO_INDEX ? size : index;
+        checkPositionIndex(position, size, "Invalid add index");
+
+        int count = values.size();
+        String featureName = feature.getName();
+        if (feature instanceof EAttribute) {
+            EAttribute attribute = (EAttribute) feature;
+            for (int i = size - 1; i >= position; i--) {
+                Object movingProperty = vertex.getProperty(featureName + SEPARATOR + i);
+                vertex.setProperty(featureName + SEPARATOR + (i + count), movingProperty);
+            }
+            int i = position;
+            for (Object value : values) {
+                vertex.setProperty(featureName + SEPARATOR + i++, serializeToProperty(attribute, value));
+            }
+        }
+        else {
+            EReference reference = (EReference) feature;
+            if (position != size) {
+                Iterable<Edge> edges = vertex.query()
+                        .labels(featureName)
+                        .direction(Direction.OUT)
+                        .interval(POSITION, position, size)
+                        .edges();
+
+                for (Edge edge : edges) {
+                    int edgePosition = edge.getProperty(POSITION);
+                    edge.setProperty(POSITION, edgePosition + count);
+                }
+            }
+            int i = position;
+            for (Object value : values) {
+                Vertex referencedVertex = backend.getOrCreateVertex(PersistentEObject.from(value));
+                if (reference.isContainment()) {
+                    updateContainment(reference, vertex, referencedVertex);
+                }
+                Edge edge = vertex.addEdge(featureName, referencedVertex);
+                edge.setProperty(POSITION, i++);
+            }
+        }
+        setSize(vertex, feature, size + count);
+        updateCardinality(feature, count, size + count);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The following elements are shifted once by the number of removed values, and the size of the list is updated
+     * once, instead of once per removed value.
+     */
+    @Override
+    public void removeRange(InternalEObject internalObject, EStructuralFeature feature, int fromIndex, int toIndex) {
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        Vertex vertex = backend.getVertex(object.id());
+        int size = getSize(vertex, feature);
+        checkPositionIndexes(fromIndex, toIndex, size);
+
+        int count = toIndex - fromIndex;
+        String featureName = feature.getName();
+        if (feature instanceof EAttribute) {
+            for (int i = toIndex; i < size; i++) {
+                Object movingProperty = vertex.getProperty(featureName + SEPARATOR + i);
+                vertex.setProperty(featureName + SEPARATOR + (i - count), movingProperty);
+            }
+            for (int i = size - count; i < size; i++) {
+                vertex.removeProperty(featureName + SEPARATOR + i);
+            }
+        }
+        else {
+            EReference reference = (EReference) feature;
+            Iterable<Edge> edges = vertex.query()
+                    .labels(featureName)
+                    .direction(Direction.OUT)
+                    .interval(POSITION, fromIndex, size)
+                    .edges();
+
+            for (Edge edge : edges) {
+                int position = edge.getProperty(POSITION);
+                if (position < toIndex) {
+                    Vertex referencedVertex = edge.getVertex(Direction.IN);
+                    edge.remove();
+                    if (reference.isContainment()) {
+                        for (Edge conEdge : referencedVertex.getEdges(Direction.OUT, CONTAINER)) {
+                            conEdge.remove();
+                        }
+                        InternalEObject old = reifyVertex(referencedVertex);
+                        old.eBasicSetContainer(null, -1, null);
+                        ((PersistentEObject) old).resource(null);
+                    }
+                }
+                else {
+                    edge.setProperty(POSITION, position - count);
+                }
+            }
+        }
+        setSize(vertex, feature, size - count);
+        updateCardinality(feature, -count, size - count);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only the elements between the two indices are shifted, instead of removing then adding the moved element.
+     */
+    @Override
+    public Object move(InternalEObject internalObject, EStructuralFeature feature, int targetIndex, int sourceIndex) {
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        Vertex vertex = backend.getVertex(object.id());
+        int size = getSize(vertex, feature);
+        checkElementIndex(sourceIndex, size, "Invalid move source index");
+        checkElementIndex(targetIndex, size, "Invalid move target index");
+
+        String featureName = feature.getName();
+        if (feature instanceof EAttribute) {
+            Object moved = vertex.getProperty(featureName + SEPARATOR + sourceIndex);
+            int step = sourceIndex < targetIndex ? 1 : -1;
+            for (int i = sourceIndex; i != targetIndex; i += step) {
+                Object movingProperty = vertex.getProperty(featureName + SEPARATOR + (i + step));
+                vertex.setProperty(featureName + SEPARATOR + i, movingProperty);
+            }
+            vertex.setProperty(featureName + SEPARATOR + targetIndex, moved);
+            return parseProperty((EAttribute) feature, moved);
+        }
+        else {
+            Iterable<Edge> edges = vertex.query()
+                    .labels(featureName)
+                    .direction(Direction.OUT)
+                    .interval(POSITION, Math.min(sourceIndex, targetIndex), Math.max(sourceIndex, targetIndex) + 1)
+                    .edges();
+
+            Edge movedEdge = null;
+            int shift = sourceIndex < targetIndex ? -1 : 1;
+            for (Edge edge : edges) {
+                int position = edge.getProperty(POSITION);
+                if (position == sourceIndex) {
+                    movedEdge = edge;
+                }
+                else {
+                    edge.setProperty(POSITION, position + shift);
+                }
+            }
+            checkNotNull(movedEdge);
+            movedEdge.setProperty(POSITION, targetIndex);
+            return reifyVertex(movedEdge.getVertex(Direction.IN));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The size of the list is updated once, instead of once per added value.
+     */
+    @Override
+    public void setAll(InternalEObject internalObject, EStructuralFeature feature, Collection<?> values) {
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        Vertex vertex = backend.getOrCreateVertex(object);
+        int size = getSize(vertex, feature);
+
+        String featureName = feature.getName();
+        if (feature instanceof EAttribute) {
+            EAttribute attribute = (EAttribute) feature;
+            int i = 0;
+            for (Object value : values) {
+                vertex.setProperty(featureName + SEPARATOR + i++, serializeToProperty(attribute, value));
+            }
+            for (; i < size; i++) {
+                vertex.removeProperty(featureName + SEPARATOR + i);
+            }
+        }
+        else {
+            EReference reference = (EReference) feature;
+            for (Edge edge : vertex.query().labels(featureName).direction(Direction.OUT).edges()) {
+                edge.remove();
+            }
+            int i = 0;
+            for (Object value : values) {
+                Vertex referencedVertex = backend.getOrCreateVertex(PersistentEObject.from(value));
+                if (reference.isContainment()) {
+                    updateContainment(reference, vertex, referencedVertex);
+                }
+                Edge edge = vertex.addEdge(featureName, referencedVertex);
+                edge.setProperty(POSITION, i++);
+            }
+        }
+        setSize(vertex, feature, values.size());
+        updateCardinality(feature, values.size() - size, values.size());
+    }
     
     /**
      * {@inheritDoc}
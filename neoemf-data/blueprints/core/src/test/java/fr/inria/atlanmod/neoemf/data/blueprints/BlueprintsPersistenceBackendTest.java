@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.blueprints;
+
+import fr.inria.atlanmod.neoemf.AbstractTest;
+import fr.inria.atlanmod.neoemf.core.DefaultPersistentEObject;
+import fr.inria.atlanmod.neoemf.data.AttributeIndex;
+import fr.inria.atlanmod.neoemf.data.store.PersistentStore;
+
+import org.eclipse.emf.ecore.EAnnotation;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class BlueprintsPersistenceBackendTest extends AbstractTest implements BlueprintsTest {
+
+    @Test
+    public void testAttributeIndex() {
+        EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+        ePackage.setName("indexed");
+        ePackage.setNsURI("http://neoemf/test/indexed");
+        EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+        eClass.setName("Item");
+        ePackage.getEClassifiers().add(eClass);
+        EAttribute code = createAttribute("code", EcorePackage.Literals.ESTRING);
+        EAttribute rank = createAttribute("rank", EcorePackage.Literals.EINT);
+        EAnnotation annotation = EcoreFactory.eINSTANCE.createEAnnotation();
+        annotation.setSource(AttributeIndex.ANNOTATION_SOURCE);
+        code.getEAnnotations().add(annotation);
+        eClass.getEStructuralFeatures().add(code);
+        eClass.getEStructuralFeatures().add(rank);
+
+        BlueprintsPersistenceBackend backend = (BlueprintsPersistenceBackend) context().persistenceBackendFactory().createTransientBackend();
+        PersistentStore store = context().persistenceBackendFactory().createTransientStore(null, backend);
+        DefaultPersistentEObject object1 = createObject(eClass);
+        DefaultPersistentEObject object2 = createObject(eClass);
+
+        // The annotated attribute is indexed when its metaclass is first stored
+        store.set(object1, code, PersistentStore.NO_INDEX, "A1");
+        store.set(object2, code, PersistentStore.NO_INDEX, "A2");
+        assertThat(backend.isKeyIndexed(code)).isTrue();
+        assertThat(store.findBy(code, "A1")).containsExactly(object1.id());
+
+        store.set(object1, code, PersistentStore.NO_INDEX, "A2");
+        assertThat(store.findBy(code, "A1")).isEmpty();
+        assertThat(store.findBy(code, "A2")).containsOnly(object1.id(), object2.id());
+
+        // An explicit index on an existing attribute
+        store.set(object1, rank, PersistentStore.NO_INDEX, 1);
+        assertThat(catchThrowable(() -> store.findBy(rank, 1))).isInstanceOf(UnsupportedOperationException.class);
+        backend.enableAttributeIndex(rank);
+        assertThat(store.findBy(rank, 1)).containsExactly(object1.id());
+    }
+
+    private static EAttribute createAttribute(String name, EDataType type) {
+        EAttribute attribute = EcoreFactory.eINSTANCE.createEAttribute();
+        attribute.setName(name);
+        attribute.setEType(type);
+        return attribute;
+    }
+
+    private static DefaultPersistentEObject createObject(EClass eClass) {
+        DefaultPersistentEObject object = new DefaultPersistentEObject();
+        object.eSetClass(eClass);
+        return object;
+    }
+}
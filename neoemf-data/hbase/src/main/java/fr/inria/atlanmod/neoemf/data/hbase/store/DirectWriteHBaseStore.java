@@ -12,7 +12,6 @@
 package fr.inria.atlanmod.neoemf.data.hbase.store;
 
 import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 
 import fr.inria.atlanmod.neoemf.core.Id;
 import fr.inria.atlanmod.neoemf.core.PersistenceFactory;
@@ -24,6 +23,7 @@ import fr.inria.atlanmod.neoemf.data.hbase.util.HBaseURI;
 import fr.inria.atlanmod.neoemf.data.store.AbstractDirectWriteStore;
 import fr.inria.atlanmod.neoemf.data.store.AbstractPersistentStoreDecorator;
 import fr.inria.atlanmod.neoemf.data.store.PersistentStore;
+import fr.inria.atlanmod.neoemf.util.cache.CacheGovernor;
 import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
 
 import org.apache.commons.lang3.ArrayUtils;
@@ -55,9 +55,15 @@ import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.util.EcoreUtil;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.isNull;
@@ -154,7 +160,7 @@ public class DirectWriteHBaseStore extends AbstractDirectWriteStore<HBasePersist
     public DirectWriteHBaseStore(Resource.Internal resource) throws IOException {
         super(resource, null);
 
-        this.persistentObjectsCache = Caffeine.newBuilder().maximumSize(DEFAULT_CACHE_SIZE).build();
+        this.persistentObjectsCache = CacheGovernor.getInstance().newCache(DEFAULT_CACHE_SIZE);
 
         Configuration configuration = HBaseConfiguration.create();
         configuration.set("hbase.zookeeper.quorum", resource.getURI().host());
@@ -274,6 +280,108 @@ public class DirectWriteHBaseStore extends AbstractDirectWriteStore<HBasePersist
         return object;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The metaclasses of the objects that are not cached yet are retrieved with a single {@link Table#get(List)}.
+     */
+    @Override
+    public List<EObject> eObjects(Collection<Id> ids) {
+        Map<Id, PersistentEObject> objects = new HashMap<>(persistentObjectsCache.getAllPresent(ids));
+        List<Id> missingIds = ids.stream()
+                .filter(id -> !objects.containsKey(id))
+                .distinct()
+                .collect(Collectors.toList());
+
+        if (!missingIds.isEmpty()) {
+            List<Get> gets = missingIds.stream()
+                    .map(id -> new Get(Bytes.toBytes(id.toString())).addFamily(TYPE_FAMILY))
+                    .collect(Collectors.toList());
+            try {
+                Result[] results = table.get(gets);
+                for (int i = 0; i < results.length; i++) {
+                    Id id = missingIds.get(i);
+                    EClass eClass = resolveInstanceOf(results[i]);
+                    if (isNull(eClass)) {
+                        throw new RuntimeException("Element " + id + " does not have an associated EClass");
+                    }
+                    PersistentEObject object = createObject(id, eClass);
+                    persistentObjectsCache.put(id, object);
+                    objects.put(id, object);
+                }
+            }
+            catch (IOException e) {
+                NeoLogger.error("Unable to get instance of information for {0} elements", missingIds.size());
+                missingIds.forEach(id -> objects.put(id, null));
+            }
+        }
+
+        List<EObject> result = new ArrayList<>(ids.size());
+        for (Id id : ids) {
+            PersistentEObject object = objects.get(id);
+            if (nonNull(object) && object.resource() != resource()) {
+                object.resource(resource());
+            }
+            result.add(object);
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The containments of all the objects are read with a single {@link Table#get(List)}, and their contents are
+     * resolved with a single call to {@link #eObjects(Collection)}.
+     */
+    @Override
+    public List<List<EObject>> eContents(List<? extends InternalEObject> objects) {
+        List<PersistentEObject> persistentObjects = objects.stream()
+                .map(PersistentEObject::from)
+                .collect(Collectors.toList());
+        List<Get> gets = persistentObjects.stream()
+                .map(object -> new Get(Bytes.toBytes(object.id().toString())).addFamily(PROPERTY_FAMILY))
+                .collect(Collectors.toList());
+
+        Result[] results;
+        try {
+            results = table.get(gets);
+        }
+        catch (IOException e) {
+            NeoLogger.error("Unable to get the contents of {0} elements", objects.size());
+            return super.eContents(objects);
+        }
+
+        List<Integer> sizes = new ArrayList<>(objects.size());
+        List<Id> ids = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            int size = ids.size();
+            for (EReference reference : persistentObjects.get(i).eClass().getEAllContainments()) {
+                byte[] value = results[i].getValue(PROPERTY_FAMILY, Bytes.toBytes(reference.getName()));
+                if (isNull(value)) {
+                    continue;
+                }
+                if (reference.isMany()) {
+                    for (String id : HBaseEncoderUtil.toStringsReferences(value)) {
+                        ids.add(new StringId(id));
+                    }
+                }
+                else {
+                    ids.add(new StringId(Bytes.toString(value)));
+                }
+            }
+            sizes.add(ids.size() - size);
+        }
+
+        List<EObject> allContents = eObjects(ids);
+        List<List<EObject>> contents = new ArrayList<>(objects.size());
+        int fromIndex = 0;
+        for (int size : sizes) {
+            contents.add(allContents.subList(fromIndex, fromIndex + size));
+            fromIndex += size;
+        }
+        return contents;
+    }
+
     /**
      * Compute the {@link EClass} associated to the model element with the provided {@link Id}.
      *
@@ -283,12 +391,7 @@ public class DirectWriteHBaseStore extends AbstractDirectWriteStore<HBasePersist
      */
     private EClass resolveInstanceOf(Id id) {
         try {
-            Result result = table.get(new Get(Bytes.toBytes(id.toString())));
-            String nsURI = Bytes.toString(result.getValue(TYPE_FAMILY, METAMODEL_QUALIFIER));
-            String className = Bytes.toString(result.getValue(TYPE_FAMILY, ECLASS_QUALIFIER));
-            if (nonNull(nsURI) && nonNull(className)) {
-                return (EClass) Registry.INSTANCE.getEPackage(nsURI).getEClassifier(className);
-            }
+            return resolveInstanceOf(table.get(new Get(Bytes.toBytes(id.toString()))));
         }
         catch (IOException e) {
             NeoLogger.error("Unable to get instance of information for {0}", id);
@@ -296,6 +399,47 @@ public class DirectWriteHBaseStore extends AbstractDirectWriteStore<HBasePersist
         return null;
     }
 
+    /**
+     * Compute the {@link EClass} described by the type family of the given {@code result}.
+     *
+     * @param result the row of a model element
+     *
+     * @return an {@link EClass} representing the metaclass of the element, or {@code null} if the row does not
+     * describe any metaclass
+     */
+    private EClass resolveInstanceOf(Result result) {
+        String nsURI = Bytes.toString(result.getValue(TYPE_FAMILY, METAMODEL_QUALIFIER));
+        String className = Bytes.toString(result.getValue(TYPE_FAMILY, ECLASS_QUALIFIER));
+        if (nonNull(nsURI) && nonNull(className)) {
+            return (EClass) Registry.INSTANCE.getEPackage(nsURI).getEClassifier(className);
+        }
+        return null;
+    }
+
+    /**
+     * Creates a new {@link PersistentEObject} of the given {@code eClass}, mapped to the element identified by the
+     * given {@code id}.
+     *
+     * @param id     the identifier of the element
+     * @param eClass the metaclass of the element
+     *
+     * @return a new object
+     */
+    private PersistentEObject createObject(Id id, EClass eClass) {
+        EObject eObject;
+        if (Objects.equals(eClass.getEPackage().getClass(), EPackageImpl.class)) {
+            // Dynamic EMF
+            eObject = PersistenceFactory.getInstance().create(eClass);
+        }
+        else {
+            eObject = EcoreUtil.create(eClass);
+        }
+        PersistentEObject object = PersistentEObject.from(eObject);
+        object.id(id);
+        object.setMapped(true);
+        return object;
+    }
+
     /**
      * Add {@code referencedObject} in the {@code reference} containment list of {@code object}. Inverse container
      * feature between {@code referencedObject} and {@code object} is also updated.
@@ -344,14 +488,19 @@ public class DirectWriteHBaseStore extends AbstractDirectWriteStore<HBasePersist
      * @param object  the source element
      * @param feature the {@link EStructuralFeature} to get the value of
      *
-     * @return The value of the {@code feature}. It can be a {@link String} for single-valued {@link
+     * @return The value of the {@code feature}. It can be a native value or a {@link String} for single-valued {@link
      * EStructuralFeature}s or a {@link String}[] for many-valued {@link EStructuralFeature}s
+     *
+     * @see HBaseEncoderUtil#toObject(byte[])
      */
     protected Object getFromTable(PersistentEObject object, EStructuralFeature feature) {
         try {
             Result result = table.get(new Get(Bytes.toBytes(object.id().toString())));
             byte[] value = result.getValue(PROPERTY_FAMILY, Bytes.toBytes(feature.getName()));
             if (!feature.isMany()) {
+                if (feature instanceof EAttribute) {
+                    return HBaseEncoderUtil.toObject(value);
+                }
                 return Bytes.toString(value);
             }
             else {
@@ -367,12 +516,6 @@ public class DirectWriteHBaseStore extends AbstractDirectWriteStore<HBasePersist
         return null;
     }
 
-    @Override
-    // TODO Implement this method
-    public void save() {
-        throw new UnsupportedOperationException();
-    }
-
     @Override
     public boolean isSet(InternalEObject internalObject, EStructuralFeature feature) {
         PersistentEObject object = PersistentEObject.from(internalObject);
@@ -452,13 +595,22 @@ public class DirectWriteHBaseStore extends AbstractDirectWriteStore<HBasePersist
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The whole feature is read with a single {@link Get}, and the referenced objects are resolved with a single call
+     * to {@link #eObjects(Collection)}.
+     */
     @Override
-    public Object[] toArray(InternalEObject internalObject, EStructuralFeature feature) {
+    public Object[] getAll(InternalEObject internalObject, EStructuralFeature feature) {
         checkArgument(feature instanceof EReference || feature instanceof EAttribute,
                 "Cannot compute toArray from feature {0}: unkown EStructuralFeature type {1}",
                 feature.getName(), feature.getClass().getSimpleName());
         PersistentEObject object = PersistentEObject.from(internalObject);
         Object value = getFromTable(object, feature);
+        if (isNull(value)) {
+            return new Object[0];
+        }
         if (feature.isMany()) {
             int valueLength = ((Object[]) value).length;
             return internalToArray(value, feature, new Object[valueLength]);
@@ -489,8 +641,13 @@ public class DirectWriteHBaseStore extends AbstractDirectWriteStore<HBasePersist
         if(feature.isMany()) {
             Object[] storedArray = (Object[])value;
             if(feature instanceof EReference) {
+                List<Id> ids = new ArrayList<>(storedArray.length);
+                for (Object storedId : storedArray) {
+                    ids.add(new StringId((String) storedId));
+                }
+                List<EObject> objects = eObjects(ids);
                 for(int i = 0; i < storedArray.length; i++) {
-                    output[i] = (T)eObject(new StringId((String) storedArray[i]));
+                    output[i] = (T)objects.get(i);
                 }
             }
             else { // EAttribute
@@ -510,6 +667,17 @@ public class DirectWriteHBaseStore extends AbstractDirectWriteStore<HBasePersist
         return output;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The values of many-valued attributes are stored in a {@link String} array, so they are still converted to their
+     * string literal representation.
+     */
+    @Override
+    protected Object serializeToProperty(EAttribute attribute, Object value) {
+        return attribute.isMany() ? serializeToLegacyProperty(attribute, value) : super.serializeToProperty(attribute, value);
+    }
+
     @Override
     protected Object getAttribute(PersistentEObject object, EAttribute attribute, int index) {
         Object soughtAttribute = getFromTable(object, attribute);
@@ -547,7 +715,7 @@ public class DirectWriteHBaseStore extends AbstractDirectWriteStore<HBasePersist
         try {
             if (!attribute.isMany()) {
                 Put put = new Put(Bytes.toBytes(object.id().toString()));
-                put.addColumn(PROPERTY_FAMILY, Bytes.toBytes(attribute.getName()), Bytes.toBytes(serializeToProperty(attribute, value).toString()));
+                put.addColumn(PROPERTY_FAMILY, Bytes.toBytes(attribute.getName()), HBaseEncoderUtil.toBytes(serializeToProperty(attribute, value)));
                 table.put(put);
             }
             else {
@@ -806,25 +974,11 @@ public class DirectWriteHBaseStore extends AbstractDirectWriteStore<HBasePersist
 
         @Override
         public PersistentEObject apply(Id id) {
-            PersistentEObject object;
             EClass eClass = DirectWriteHBaseStore.this.resolveInstanceOf(id);
-            if (nonNull(eClass)) {
-                EObject eObject;
-                if (Objects.equals(eClass.getEPackage().getClass(), EPackageImpl.class)) {
-                    // Dynamic EMF
-                    eObject = PersistenceFactory.getInstance().create(eClass);
-                }
-                else {
-                    eObject = EcoreUtil.create(eClass);
-                }
-                object = PersistentEObject.from(eObject);
-                object.id(id);
-                object.setMapped(true);
-            }
-            else {
+            if (isNull(eClass)) {
                 throw new RuntimeException("Element " + id + " does not have an associated EClass");
             }
-            return object;
+            return createObject(id, eClass);
         }
     }
 }
\ No newline at end of file
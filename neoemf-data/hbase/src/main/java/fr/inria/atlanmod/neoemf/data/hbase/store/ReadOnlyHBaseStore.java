@@ -12,13 +12,13 @@
 package fr.inria.atlanmod.neoemf.data.hbase.store;
 
 import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 
 import fr.inria.atlanmod.neoemf.core.PersistentEObject;
 import fr.inria.atlanmod.neoemf.data.hbase.structure.HBaseFeatureKey;
 import fr.inria.atlanmod.neoemf.data.hbase.util.HBaseEncoderUtil;
 import fr.inria.atlanmod.neoemf.data.store.AbstractPersistentStoreDecorator;
 import fr.inria.atlanmod.neoemf.data.structure.FeatureKey;
+import fr.inria.atlanmod.neoemf.util.cache.CacheGovernor;
 import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
 
 import org.apache.hadoop.hbase.TableName;
@@ -65,7 +65,7 @@ public class ReadOnlyHBaseStore extends DirectWriteHBaseStore {
      */
     public ReadOnlyHBaseStore(Resource.Internal resource) throws IOException {
         super(resource);
-        this.objectsCache = Caffeine.newBuilder().maximumSize(DEFAULT_CACHE_SIZE).build();
+        this.objectsCache = CacheGovernor.getInstance().newCache(DEFAULT_CACHE_SIZE);
     }
 
     /**
@@ -110,7 +110,7 @@ public class ReadOnlyHBaseStore extends DirectWriteHBaseStore {
      * Gets the {@link EStructuralFeature} {@code feature} from the {@link Table} for the {@link
      * PersistentEObject} {@code object}.
      *
-     * @return The value of the {@code feature}. It can be a {@link String} for single-valued {@link
+     * @return The value of the {@code feature}. It can be a native value or a {@link String} for single-valued {@link
      * EStructuralFeature}s or a {@link String}[] for many-valued {@link EStructuralFeature}s
      */
     @Override
@@ -212,6 +212,9 @@ public class ReadOnlyHBaseStore extends DirectWriteHBaseStore {
 
             byte[] value = result.getValue(PROPERTY_FAMILY, Bytes.toBytes(featureKey.name()));
             if (!hBaseFeatureKey.feature().isMany()) {
+                if (hBaseFeatureKey.feature() instanceof EAttribute) {
+                    return HBaseEncoderUtil.toObject(value);
+                }
                 return Bytes.toString(value);
             }
             else {
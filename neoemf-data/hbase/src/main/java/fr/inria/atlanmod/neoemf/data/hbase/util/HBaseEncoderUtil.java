@@ -50,6 +50,31 @@ public class HBaseEncoderUtil {
      */
     public static final char VALUE_SEPERATOR_DEFAULT = ',';
 
+    /**
+     * The first {@code byte} of an encoded native value, which is never the first {@code byte} of the string
+     * literals stored by the previous versions of NeoEMF.
+     *
+     * @see HBaseEncoderUtil#toBytes(Object)
+     */
+    private static final byte NATIVE_MARKER = 0;
+
+    /**
+     * The types of the native values, in the order of their encoding tag, starting from {@code 1}.
+     */
+    private static final Class<?>[] NATIVE_TYPES = {
+            Boolean.class, Byte.class, Character.class, Short.class,
+            Integer.class, Long.class, Float.class, Double.class, String.class
+    };
+
+    /**
+     * The length (in {@code bytes}) of the payload of the native values, in the same order as {@link #NATIVE_TYPES};
+     * {@code -1} for a variable length.
+     */
+    private static final int[] NATIVE_LENGTHS = {
+            Bytes.SIZEOF_BOOLEAN, Bytes.SIZEOF_BYTE, Bytes.SIZEOF_CHAR, Bytes.SIZEOF_SHORT,
+            Bytes.SIZEOF_INT, Bytes.SIZEOF_LONG, Bytes.SIZEOF_FLOAT, Bytes.SIZEOF_DOUBLE, -1
+    };
+
     /**
      * Decodes the provided {@code byte} array into an array of {@link String} representing {@link EReference}s.
      *
@@ -154,4 +179,122 @@ public class HBaseEncoderUtil {
         }
         return strings;
     }
+
+    /**
+     * Encodes a single attribute value into an array of {@code bytes} that can be stored in the database.
+     * <p>
+     * Primitive wrappers are encoded in their binary form (e.g. with {@link Bytes#toBytes(long)}), prefixed by a
+     * marker and a type tag. Strings are encoded in UTF-8, as the string literals of the previous versions of NeoEMF,
+     * unless they begin with the marker. Any other value is encoded as its string representation.
+     *
+     * @param value the value to encode
+     *
+     * @return the encoded {@code byte} array, or {@code null} if {@code value} is {@code null}
+     *
+     * @see HBaseEncoderUtil#toObject(byte[])
+     */
+    public static byte[] toBytes(Object value) {
+        if (isNull(value)) {
+            return null;
+        }
+
+        byte[] payload;
+        if (value instanceof Boolean) {
+            payload = Bytes.toBytes((Boolean) value);
+        }
+        else if (value instanceof Byte) {
+            payload = new byte[]{(Byte) value};
+        }
+        else if (value instanceof Character) {
+            payload = Bytes.toBytes((short) ((Character) value).charValue());
+        }
+        else if (value instanceof Short) {
+            payload = Bytes.toBytes((Short) value);
+        }
+        else if (value instanceof Integer) {
+            payload = Bytes.toBytes((Integer) value);
+        }
+        else if (value instanceof Long) {
+            payload = Bytes.toBytes((Long) value);
+        }
+        else if (value instanceof Float) {
+            payload = Bytes.toBytes((Float) value);
+        }
+        else if (value instanceof Double) {
+            payload = Bytes.toBytes((Double) value);
+        }
+        else {
+            payload = Bytes.toBytes(value.toString());
+            if (payload.length == 0 || payload[0] != NATIVE_MARKER) {
+                return payload;
+            }
+            value = value.toString();
+        }
+        return Bytes.add(new byte[]{NATIVE_MARKER, (byte) (tagOf(value.getClass()) + 1)}, payload);
+    }
+
+    /**
+     * Decodes an array of {@code bytes} into a single attribute value.
+     * <p>
+     * Values that are not encoded in their binary form, such as the string literals stored by the previous versions
+     * of NeoEMF, are decoded as {@link String}s.
+     *
+     * @param bytes the {@code byte} array to decode
+     *
+     * @return the decoded value, or {@code null} if {@code bytes} is {@code null}
+     *
+     * @see HBaseEncoderUtil#toBytes(Object)
+     */
+    public static Object toObject(byte[] bytes) {
+        if (isNull(bytes)) {
+            return null;
+        }
+        if (bytes.length < 2 || bytes[0] != NATIVE_MARKER || bytes[1] < 1 || bytes[1] > NATIVE_TYPES.length) {
+            return Bytes.toString(bytes);
+        }
+
+        int tag = bytes[1] - 1;
+        int length = bytes.length - 2;
+        if (NATIVE_LENGTHS[tag] != -1 && NATIVE_LENGTHS[tag] != length) {
+            return Bytes.toString(bytes);
+        }
+
+        Class<?> type = NATIVE_TYPES[tag];
+        if (type == Boolean.class) {
+            return Bytes.toBoolean(Arrays.copyOfRange(bytes, 2, bytes.length));
+        }
+        else if (type == Byte.class) {
+            return bytes[2];
+        }
+        else if (type == Character.class) {
+            return (char) Bytes.toShort(bytes, 2);
+        }
+        else if (type == Short.class) {
+            return Bytes.toShort(bytes, 2);
+        }
+        else if (type == Integer.class) {
+            return Bytes.toInt(bytes, 2);
+        }
+        else if (type == Long.class) {
+            return Bytes.toLong(bytes, 2);
+        }
+        else if (type == Float.class) {
+            return Bytes.toFloat(bytes, 2);
+        }
+        else if (type == Double.class) {
+            return Bytes.toDouble(bytes, 2);
+        }
+        return Bytes.toString(bytes, 2, length);
+    }
+
+    /**
+     * Returns the index of the given {@code type} in {@link #NATIVE_TYPES}.
+     *
+     * @param type the type of a native value
+     *
+     * @return the index of the type
+     */
+    private static int tagOf(Class<?> type) {
+        return Arrays.asList(NATIVE_TYPES).indexOf(type);
+    }
 }
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.hbase.util;
+
+import fr.inria.atlanmod.neoemf.AbstractTest;
+
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HBaseEncoderUtilTest extends AbstractTest {
+
+    @Test
+    public void testEncodeDecodeNative() {
+        Object[] values = {true, (byte) 7, 'c', (short) -3, 42, Long.MAX_VALUE, 1.5f, -2.25d};
+        for (Object value : values) {
+            assertThat(HBaseEncoderUtil.toObject(HBaseEncoderUtil.toBytes(value))).isEqualTo(value);
+        }
+    }
+
+    @Test
+    public void testEncodeLong() {
+        byte[] bytes = HBaseEncoderUtil.toBytes(42L);
+        assertThat(bytes).hasSize(2 + Bytes.SIZEOF_LONG);
+        assertThat(Bytes.toLong(bytes, 2)).isEqualTo(42L);
+    }
+
+    @Test
+    public void testEncodeDecodeString() {
+        assertThat(HBaseEncoderUtil.toBytes("value")).isEqualTo(Bytes.toBytes("value"));
+        assertThat(HBaseEncoderUtil.toObject(HBaseEncoderUtil.toBytes("value"))).isEqualTo("value");
+        assertThat(HBaseEncoderUtil.toObject(HBaseEncoderUtil.toBytes(""))).isEqualTo("");
+        assertThat(HBaseEncoderUtil.toObject(HBaseEncoderUtil.toBytes("\u0000\u0005"))).isEqualTo("\u0000\u0005");
+    }
+
+    @Test
+    public void testDecodeLegacyLiteral() {
+        assertThat(HBaseEncoderUtil.toObject(Bytes.toBytes("42"))).isEqualTo("42");
+        assertThat(HBaseEncoderUtil.toObject(Bytes.toBytes("true"))).isEqualTo("true");
+    }
+
+    @Test
+    public void testEncodeDecodeNull() {
+        assertThat(HBaseEncoderUtil.toBytes((Object) null)).isNull();
+        assertThat(HBaseEncoderUtil.toObject(null)).isNull();
+    }
+}
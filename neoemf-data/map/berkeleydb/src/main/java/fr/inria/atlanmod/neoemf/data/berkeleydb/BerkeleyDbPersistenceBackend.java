@@ -11,6 +11,11 @@
 
 package fr.inria.atlanmod.neoemf.data.berkeleydb;
 
+import com.google.common.primitives.UnsignedBytes;
+import com.sleepycat.bind.tuple.IntegerBinding;
+import com.sleepycat.collections.StoredKeySet;
+import com.sleepycat.collections.StoredSortedKeySet;
+import com.sleepycat.collections.StoredSortedMap;
 import com.sleepycat.je.Cursor;
 import com.sleepycat.je.Database;
 import com.sleepycat.je.DatabaseConfig;
@@ -25,22 +30,44 @@ import fr.inria.atlanmod.neoemf.annotations.Experimental;
 import fr.inria.atlanmod.neoemf.core.Id;
 import fr.inria.atlanmod.neoemf.core.PersistentEObject;
 import fr.inria.atlanmod.neoemf.data.AbstractPersistenceBackend;
+import fr.inria.atlanmod.neoemf.data.AttributeIndex;
+import fr.inria.atlanmod.neoemf.data.InverseReferenceIndex;
+import fr.inria.atlanmod.neoemf.data.StatisticsTable;
 import fr.inria.atlanmod.neoemf.data.berkeleydb.serializer.ClassInfoSerializer;
 import fr.inria.atlanmod.neoemf.data.berkeleydb.serializer.ContainerInfoSerializer;
 import fr.inria.atlanmod.neoemf.data.berkeleydb.serializer.FeatureKeySerializer;
 import fr.inria.atlanmod.neoemf.data.berkeleydb.serializer.IdSerializer;
 import fr.inria.atlanmod.neoemf.data.berkeleydb.serializer.ObjectSerializer;
+import fr.inria.atlanmod.neoemf.data.berkeleydb.serializer.SerializerBinding;
+import fr.inria.atlanmod.neoemf.data.berkeleydb.serializer.StringSerializer;
 import fr.inria.atlanmod.neoemf.data.map.core.MapBackend;
 import fr.inria.atlanmod.neoemf.data.structure.ClassInfo;
 import fr.inria.atlanmod.neoemf.data.structure.ContainerInfo;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureCardinality;
 import fr.inria.atlanmod.neoemf.data.structure.FeatureKey;
+import fr.inria.atlanmod.neoemf.data.structure.InverseReferenceInfo;
 import fr.inria.atlanmod.neoemf.data.structure.MultivaluedFeatureKey;
 import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
 
+import org.eclipse.emf.ecore.EAttribute;
 import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 /**
  * ???
@@ -73,6 +100,31 @@ public class BerkeleyDbPersistenceBackend extends AbstractPersistenceBackend imp
      */
     private static final String KEY_MULTIVALUED_FEATURES = "multivaluedFeatures";
 
+    /**
+     * The name of the database holding the identifiers of the detached objects, which are not counted as instances.
+     */
+    private static final String KEY_DETACHED = "detached";
+
+    /**
+     * The name of the database holding the {@link StatisticsTable}, and the key of its single record.
+     */
+    private static final String KEY_STATISTICS = "statistics";
+
+    /**
+     * The name of the database holding the entries of the {@link InverseReferenceIndex}.
+     */
+    private static final String KEY_INVERSE_REFERENCES = "inverseReferenceEntries";
+
+    /**
+     * The name of the database holding the indexed attributes of the {@link AttributeIndex}.
+     */
+    private static final String KEY_INDEXED_ATTRIBUTES = "indexedAttributes";
+
+    /**
+     * The name of the database holding the entry keys of the {@link AttributeIndex}.
+     */
+    private static final String KEY_ATTRIBUTE_ENTRIES = "attributeEntries";
+
     /**
      * ???
      */
@@ -98,6 +150,12 @@ public class BerkeleyDbPersistenceBackend extends AbstractPersistenceBackend imp
      */
     private static final ObjectSerializer objSerializer = new ObjectSerializer();
 
+    /**
+     * The serializer of the keys of the {@link #indexedAttributes}, {@link #attributeEntries} and {@link
+     * #inverseReferences} databases, which keeps the entry keys sorted by their characters.
+     */
+    private static final StringSerializer stringSerializer = new StringSerializer();
+
     /**
      * ???
      */
@@ -141,6 +199,57 @@ public class BerkeleyDbPersistenceBackend extends AbstractPersistenceBackend imp
      */
     private Database multivaluedFeatures;
 
+    /**
+     * A persistent set that stores the identifiers of the {@link PersistentEObject}s that have been detached from
+     * their container, and are not counted as instances until they are attached again.
+     */
+    private Database detached;
+
+    /**
+     * A persistent map that stores the content of the {@link #statistics} table as a single record.
+     */
+    private Database statisticsDatabase;
+
+    /**
+     * The statistics about the content of the database, persisted in {@link #statisticsDatabase} when saving.
+     */
+    private final StatisticsTable statistics = new StatisticsTable();
+
+    /**
+     * A persistent sorted map that stores the entries of the {@link #inverseReferenceIndex}, or {@code null} if the
+     * inverse reference index is not enabled.
+     */
+    private Database inverseReferences;
+
+    /**
+     * The index of the inverse references of each object, or {@code null} if it is not enabled.
+     */
+    private InverseReferenceIndex inverseReferenceIndex;
+
+    /**
+     * A persistent set that stores the attributes indexed by the {@link #attributeIndex}, or {@code null} if no
+     * attribute is indexed.
+     */
+    private Database indexedAttributes;
+
+    /**
+     * A persistent sorted set that stores the entry keys of the {@link #attributeIndex}, or {@code null} if no
+     * attribute is indexed.
+     */
+    private Database attributeEntries;
+
+    /**
+     * The index of the values of the indexed attributes, or {@code null} if no attribute is indexed.
+     */
+    private AttributeIndex attributeIndex;
+
+    /**
+     * The metaclasses registered since this back-end has been opened, whose annotated attributes are indexed.
+     *
+     * @see #registerMetaclass(EClass)
+     */
+    private final Set<EClass> registeredMetaclasses = ConcurrentHashMap.newKeySet();
+
     /**
      * ???
      */
@@ -179,6 +288,25 @@ public class BerkeleyDbPersistenceBackend extends AbstractPersistenceBackend imp
             this.instances = environment.openDatabase(null, KEY_INSTANCE_OF, databaseConfig);
             this.features = environment.openDatabase(null, KEY_FEATURES, databaseConfig);
             this.multivaluedFeatures = environment.openDatabase(null, KEY_MULTIVALUED_FEATURES, databaseConfig);
+            this.detached = environment.openDatabase(null, KEY_DETACHED, databaseConfig);
+            this.statisticsDatabase = environment.openDatabase(null, KEY_STATISTICS, databaseConfig);
+            if (environment.getDatabaseNames().contains(KEY_INVERSE_REFERENCES)) {
+                openInverseReferenceIndex();
+            }
+            else {
+                this.inverseReferences = null;
+                this.inverseReferenceIndex = null;
+            }
+            if (environment.getDatabaseNames().contains(KEY_INDEXED_ATTRIBUTES)) {
+                openAttributeIndex();
+            }
+            else {
+                this.indexedAttributes = null;
+                this.attributeEntries = null;
+                this.attributeIndex = null;
+            }
+            registeredMetaclasses.clear();
+            loadStatistics();
             isClosed = false;
         }
         catch (DatabaseException e) {
@@ -186,6 +314,120 @@ public class BerkeleyDbPersistenceBackend extends AbstractPersistenceBackend imp
         }
     }
 
+    /**
+     * Initializes the database of the {@link #inverseReferenceIndex} from the current environment.
+     */
+    private void openInverseReferenceIndex() {
+        inverseReferences = environment.openDatabase(null, KEY_INVERSE_REFERENCES, databaseConfig);
+        inverseReferenceIndex = new InverseReferenceIndex(new StoredSortedMap<>(inverseReferences,
+                new SerializerBinding<>(stringSerializer), new IntegerBinding(), true));
+    }
+
+    /**
+     * Enables the index of the inverse references of each object of this back-end, and builds it from the current
+     * references if it did not exist yet.
+     * <p>
+     * Once enabled, the index is persisted and maintained every time this database is opened.
+     *
+     * @see InverseReferenceIndex
+     */
+    public void enableInverseReferenceIndex() {
+        if (isNull(inverseReferenceIndex)) {
+            openInverseReferenceIndex();
+        }
+        if (inverseReferenceIndex.isEmpty() && !isEmpty(features)) {
+            NeoLogger.info("Building the inverse reference index");
+            rebuildInverseReferenceIndex();
+        }
+    }
+
+    /**
+     * Indexes the current references of all the objects, by scanning the {@link #features}.
+     */
+    private void rebuildInverseReferenceIndex() {
+        inverseReferenceIndex.clear();
+        try (Cursor cursor = features.openCursor(null, null)) {
+            DatabaseEntry key = new DatabaseEntry();
+            DatabaseEntry value = new DatabaseEntry();
+            while (cursor.getNext(key, value, LockMode.DEFAULT) == OperationStatus.SUCCESS) {
+                FeatureKey featureKey = fkSerializer.deserialize(key.getData());
+                ClassInfo metaclass = metaclassFor(featureKey.id());
+                EClass eClass = isNull(metaclass) ? null : metaclass.eClass();
+                EStructuralFeature feature = isNull(eClass) ? null : eClass.getEStructuralFeature(featureKey.name());
+                if (feature instanceof EReference) {
+                    inverseReferenceIndex.valueLoaded(featureKey.id(), (EReference) feature, objSerializer.deserialize(value.getData()),
+                            i -> valueAtIndex(featureKey.withPosition(i)));
+                }
+            }
+        }
+        catch (DatabaseException e) {
+            NeoLogger.error(e);
+        }
+    }
+
+    /**
+     * Initializes the databases of the {@link #attributeIndex} from the current environment.
+     * <p>
+     * The entry keys are the keys of a sorted database, viewed as a {@link java.util.SortedSet}: the records of the
+     * {@link #features} are keyed by their {@link FeatureKey}, which does not tell whether they hold an indexed value
+     * without a lookup of the metaclass of the object, so the index can not be a secondary database of the features.
+     */
+    private void openAttributeIndex() {
+        indexedAttributes = environment.openDatabase(null, KEY_INDEXED_ATTRIBUTES, databaseConfig);
+        attributeEntries = environment.openDatabase(null, KEY_ATTRIBUTE_ENTRIES, databaseConfig);
+        attributeIndex = new AttributeIndex(
+                new StoredSortedKeySet<>(attributeEntries, new SerializerBinding<>(stringSerializer), true),
+                new StoredKeySet<>(indexedAttributes, new SerializerBinding<>(stringSerializer), true));
+    }
+
+    /**
+     * Enables the index of the values of the given single-valued {@code attribute}, and indexes its current values if
+     * it was not indexed yet.
+     * <p>
+     * Once enabled, the index is persisted and maintained every time this database is opened.
+     *
+     * @param attribute the attribute to index
+     *
+     * @see AttributeIndex
+     */
+    public void enableAttributeIndex(EAttribute attribute) {
+        if (isNull(attributeIndex)) {
+            openAttributeIndex();
+        }
+        if (attributeIndex.declare(attribute) && !isEmpty(features)) {
+            NeoLogger.info("Building the index of attribute {0}", attribute.getName());
+            rebuildAttributeIndex(attribute);
+        }
+    }
+
+    /**
+     * Indexes the current values of the given {@code attribute}, or of all the indexed attributes if {@code attribute}
+     * is {@code null}, by scanning the {@link #features}.
+     *
+     * @param attribute the attribute to index, or {@code null}
+     */
+    private void rebuildAttributeIndex(EAttribute attribute) {
+        try (Cursor cursor = features.openCursor(null, null)) {
+            DatabaseEntry key = new DatabaseEntry();
+            DatabaseEntry value = new DatabaseEntry();
+            while (cursor.getNext(key, value, LockMode.DEFAULT) == OperationStatus.SUCCESS) {
+                FeatureKey featureKey = fkSerializer.deserialize(key.getData());
+                if (nonNull(attribute) && !Objects.equals(featureKey.name(), attribute.getName())) {
+                    continue;
+                }
+                ClassInfo metaclass = metaclassFor(featureKey.id());
+                EClass eClass = isNull(metaclass) ? null : metaclass.eClass();
+                EStructuralFeature feature = isNull(eClass) ? null : eClass.getEStructuralFeature(featureKey.name());
+                if (feature instanceof EAttribute && (isNull(attribute) ? attributeIndex.isIndexed((EAttribute) feature) : feature == attribute)) {
+                    attributeIndex.valueChanged(featureKey.id(), (EAttribute) feature, null, objSerializer.deserialize(value.getData()));
+                }
+            }
+        }
+        catch (DatabaseException e) {
+            NeoLogger.error(e);
+        }
+    }
+
     /**
      * ???
      *
@@ -221,6 +463,15 @@ public class BerkeleyDbPersistenceBackend extends AbstractPersistenceBackend imp
             this.instances.close();
             this.features.close();
             this.multivaluedFeatures.close();
+            this.detached.close();
+            this.statisticsDatabase.close();
+            if (nonNull(inverseReferences)) {
+                this.inverseReferences.close();
+            }
+            if (nonNull(attributeIndex)) {
+                this.indexedAttributes.close();
+                this.attributeEntries.close();
+            }
             this.environment.close();
             isClosed = true;
         }
@@ -236,6 +487,15 @@ public class BerkeleyDbPersistenceBackend extends AbstractPersistenceBackend imp
             this.instances.sync();
             this.features.sync();
             this.multivaluedFeatures.sync();
+            this.detached.sync();
+            if (nonNull(inverseReferences)) {
+                this.inverseReferences.sync();
+            }
+            if (nonNull(attributeIndex)) {
+                this.indexedAttributes.sync();
+                this.attributeEntries.sync();
+            }
+            saveStatistics();
 //            env.sync();
         }
         catch (DatabaseException e) {
@@ -288,6 +548,49 @@ public class BerkeleyDbPersistenceBackend extends AbstractPersistenceBackend imp
         }
     }
 
+    @Override
+    public void removeContainer(Id id) {
+        DatabaseEntry key = new DatabaseEntry(idSerializer.serialize(id));
+        try {
+            containers.delete(null, key);
+        }
+        catch (DatabaseException e) {
+            NeoLogger.error(e);
+        }
+    }
+
+    @Override
+    public void detach(Id id) {
+        ClassInfo metaclass = metaclassFor(id);
+        if (nonNull(metaclass)) {
+            DatabaseEntry key = new DatabaseEntry(idSerializer.serialize(id));
+            try {
+                if (detached.putNoOverwrite(null, key, new DatabaseEntry(new byte[]{1})) == OperationStatus.SUCCESS) {
+                    statistics.instanceDeleted(metaclass);
+                }
+            }
+            catch (DatabaseException e) {
+                NeoLogger.error(e);
+            }
+        }
+    }
+
+    @Override
+    public void attach(Id id) {
+        DatabaseEntry key = new DatabaseEntry(idSerializer.serialize(id));
+        try {
+            if (detached.delete(null, key) == OperationStatus.SUCCESS) {
+                ClassInfo metaclass = metaclassFor(id);
+                if (nonNull(metaclass)) {
+                    statistics.instanceCreated(metaclass);
+                }
+            }
+        }
+        catch (DatabaseException e) {
+            NeoLogger.error(e);
+        }
+    }
+
     /**
      * Retrieves the metaclass (EClass) for a given object id.
      *
@@ -311,6 +614,35 @@ public class BerkeleyDbPersistenceBackend extends AbstractPersistenceBackend imp
         return classInfo;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The keys are looked up in their storage order with a single {@link Cursor}, instead of one database access per
+     * identifier.
+     */
+    @Override
+    public Map<Id, ClassInfo> metaclassesFor(Collection<Id> ids) {
+        Map<byte[], Id> keys = new TreeMap<>(UnsignedBytes.lexicographicalComparator());
+        for (Id id : ids) {
+            keys.put(idSerializer.serialize(id), id);
+        }
+
+        Map<Id, ClassInfo> metaclasses = new HashMap<>(keys.size());
+        try (Cursor cursor = instances.openCursor(null, null)) {
+            DatabaseEntry value = new DatabaseEntry();
+            for (Map.Entry<byte[], Id> entry : keys.entrySet()) {
+                DatabaseEntry key = new DatabaseEntry(entry.getKey());
+                if (cursor.getSearchKey(key, value, LockMode.DEFAULT) == OperationStatus.SUCCESS) {
+                    metaclasses.put(entry.getValue(), classSerializer.deserialize(value.getData()));
+                }
+            }
+        }
+        catch (DatabaseException e) {
+            NeoLogger.error(e);
+        }
+        return metaclasses;
+    }
+
     /**
      * Stores the metaclass (EClass) information for an object id.
      *
@@ -321,7 +653,12 @@ public class BerkeleyDbPersistenceBackend extends AbstractPersistenceBackend imp
         DatabaseEntry key = new DatabaseEntry(idSerializer.serialize(id));
         DatabaseEntry value = new DatabaseEntry(classSerializer.serialize(metaclass));
         try {
-            instances.put(null, key, value);
+            if (instances.putNoOverwrite(null, key, value) == OperationStatus.SUCCESS) {
+                statistics.instanceCreated(metaclass);
+            }
+            else {
+                instances.put(null, key, value);
+            }
         }
         catch (DatabaseException e) {
             NeoLogger.error(e);
@@ -458,6 +795,223 @@ public class BerkeleyDbPersistenceBackend extends AbstractPersistenceBackend imp
         return old;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The instances are counted in a {@link StatisticsTable}, updated every time a new metaclass is stored, and every
+     * time an object is detached or attached again.
+     */
+    @Override
+    public long countInstances(EClass eClass, boolean strict) {
+        return rebuiltStatistics().countInstances(eClass, strict);
+    }
+
+    @Override
+    public FeatureCardinality cardinalityOf(EStructuralFeature feature) {
+        return rebuiltStatistics().cardinalityOf(feature);
+    }
+
+    @Override
+    public boolean hasInverseReferenceIndex() {
+        return nonNull(inverseReferenceIndex);
+    }
+
+    @Override
+    public void referenceChanged(Id source, EReference reference, Id oldTarget, Id newTarget) {
+        if (nonNull(inverseReferenceIndex)) {
+            inverseReferenceIndex.referenceChanged(source, reference, oldTarget, newTarget);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The inverse references are read from the {@link InverseReferenceIndex}, if it has been enabled.
+     *
+     * @see #enableInverseReferenceIndex()
+     */
+    @Override
+    public InverseReferenceInfo inverseReferencesOf(Id id) {
+        if (isNull(inverseReferenceIndex)) {
+            return MapBackend.super.inverseReferencesOf(id);
+        }
+        return inverseReferenceIndex.inverseReferencesOf(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The index of the annotated attributes of the {@code eClass} is {@link #enableAttributeIndex(EAttribute) enabled}
+     * the first time it is registered.
+     *
+     * @see AttributeIndex#annotatedAttributes(EClass)
+     */
+    @Override
+    public void registerMetaclass(EClass eClass) {
+        if (registeredMetaclasses.add(eClass)) {
+            for (EAttribute attribute : AttributeIndex.annotatedAttributes(eClass)) {
+                enableAttributeIndex(attribute);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * An attribute is indexed once it has been {@link #enableAttributeIndex(EAttribute) enabled}, either explicitly,
+     * or because it is annotated in its metamodel and its metaclass has been {@link #registerMetaclass(EClass)
+     * registered}.
+     */
+    @Override
+    public boolean isIndexed(EAttribute attribute) {
+        return nonNull(attributeIndex) && attributeIndex.isIndexed(attribute);
+    }
+
+    @Override
+    public void attributeChanged(Id id, EAttribute attribute, Object oldValue, Object newValue) {
+        if (nonNull(attributeIndex)) {
+            attributeIndex.valueChanged(id, attribute, oldValue, newValue);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The identifiers are read from the {@link AttributeIndex}, if the attribute is indexed.
+     *
+     * @see #enableAttributeIndex(EAttribute)
+     */
+    @Override
+    public List<Id> findBy(EAttribute attribute, Object value) {
+        if (!isIndexed(attribute)) {
+            return MapBackend.super.findBy(attribute, value);
+        }
+        return attributeIndex.find(attribute, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The identifiers are read from the {@link AttributeIndex}, if the attribute is indexed.
+     *
+     * @see #enableAttributeIndex(EAttribute)
+     */
+    @Override
+    public List<Id> findByRange(EAttribute attribute, Object from, Object to) {
+        if (!isIndexed(attribute)) {
+            return MapBackend.super.findByRange(attribute, from, to);
+        }
+        return attributeIndex.findRange(attribute, from, to);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The identifiers are read from the {@link AttributeIndex}, if the attribute is indexed.
+     *
+     * @see #enableAttributeIndex(EAttribute)
+     */
+    @Override
+    public List<Id> findByPrefix(EAttribute attribute, String prefix) {
+        if (!isIndexed(attribute)) {
+            return MapBackend.super.findByPrefix(attribute, prefix);
+        }
+        return attributeIndex.findPrefix(attribute, prefix);
+    }
+
+    /**
+     * Starts tracking the cardinalities of the multi-valued features of this back-end. The cardinalities can only be
+     * tracked from the creation of the database: this method has no effect on a database that already contains
+     * objects, and whose cardinalities are not tracked yet.
+     * <p>
+     * Once enabled, the cardinalities are persisted and maintained every time this database is opened.
+     *
+     * @see StatisticsTable#trackFeatures()
+     */
+    public void enableFeatureStatistics() {
+        if (!statistics.trackFeatures()) {
+            NeoLogger.warn("The feature statistics can only be enabled on an empty database");
+        }
+    }
+
+    @Override
+    public boolean isTrackingCardinalities() {
+        return statistics.isTrackingFeatures();
+    }
+
+    @Override
+    public void updateCardinality(EStructuralFeature feature, int delta, int size) {
+        statistics.updateCardinality(feature, delta, size);
+    }
+
+    /**
+     * Returns the {@link #statistics} table, after having counted the instances of the database if they are not
+     * tracked yet, i.e. if the database has been created before the statistics existed.
+     *
+     * @return the statistics table
+     */
+    private StatisticsTable rebuiltStatistics() {
+        if (!statistics.isTrackingInstances()) {
+            NeoLogger.info("Rebuilding the instance statistics");
+            List<ClassInfo> metaclasses = new ArrayList<>();
+            try (Cursor cursor = instances.openCursor(null, null)) {
+                DatabaseEntry key = new DatabaseEntry();
+                DatabaseEntry value = new DatabaseEntry();
+                while (cursor.getNext(key, value, LockMode.DEFAULT) == OperationStatus.SUCCESS) {
+                    if (detached.get(null, key, new DatabaseEntry(), LockMode.DEFAULT) != OperationStatus.SUCCESS) {
+                        metaclasses.add(classSerializer.deserialize(value.getData()));
+                    }
+                }
+            }
+            catch (DatabaseException e) {
+                NeoLogger.error(e);
+            }
+            statistics.rebuildInstances(metaclasses);
+        }
+        return statistics;
+    }
+
+    /**
+     * Loads the {@link #statistics} table from the database, or starts tracking them if the database is empty.
+     */
+    @SuppressWarnings("unchecked")
+    private void loadStatistics() {
+        DatabaseEntry key = new DatabaseEntry(KEY_STATISTICS.getBytes(StandardCharsets.UTF_8));
+        DatabaseEntry value = new DatabaseEntry();
+        if (statisticsDatabase.get(null, key, value, LockMode.DEFAULT) == OperationStatus.SUCCESS) {
+            statistics.load((Map<String, Long>) objSerializer.deserialize(value.getData()));
+        }
+        else if (isEmpty(instances)) {
+            statistics.reset();
+        }
+        else {
+            statistics.invalidate();
+        }
+    }
+
+    /**
+     * Returns whether the given {@code database} contains no record.
+     *
+     * @param database the database
+     *
+     * @return {@code true} if the database is empty
+     */
+    private static boolean isEmpty(Database database) {
+        try (Cursor cursor = database.openCursor(null, null)) {
+            return cursor.getFirst(new DatabaseEntry(), new DatabaseEntry(), LockMode.DEFAULT) != OperationStatus.SUCCESS;
+        }
+    }
+
+    /**
+     * Writes the {@link #statistics} table in the database.
+     */
+    private void saveStatistics() {
+        DatabaseEntry key = new DatabaseEntry(KEY_STATISTICS.getBytes(StandardCharsets.UTF_8));
+        DatabaseEntry value = new DatabaseEntry(objSerializer.serialize(new HashMap<>(statistics.asMap())));
+        statisticsDatabase.put(null, key, value);
+        statisticsDatabase.sync();
+    }
+
     /**
      * Copies all the contents of this back-end to the target one.
      *
@@ -470,6 +1024,16 @@ public class BerkeleyDbPersistenceBackend extends AbstractPersistenceBackend imp
             this.copyDatabaseTo(features, target.features);
             this.copyDatabaseTo(containers, target.containers);
             this.copyDatabaseTo(multivaluedFeatures, target.multivaluedFeatures);
+            this.copyDatabaseTo(detached, target.detached);
+            target.statistics.merge(statistics.asMap());
+            if (nonNull(target.inverseReferenceIndex)) {
+                // The inverse reference index is rebuilt by the target, if it is enabled
+                target.rebuildInverseReferenceIndex();
+            }
+            if (nonNull(target.attributeIndex)) {
+                // The attribute index is rebuilt by the target, for the attributes it indexes
+                target.rebuildAttributeIndex(null);
+            }
         }
         catch (DatabaseException e) {
             NeoLogger.error(e);
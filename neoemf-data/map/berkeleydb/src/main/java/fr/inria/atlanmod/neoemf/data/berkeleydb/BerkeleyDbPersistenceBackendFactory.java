@@ -25,19 +25,25 @@ import fr.inria.atlanmod.neoemf.data.map.core.store.DirectWriteMapStoreWithIndic
 import fr.inria.atlanmod.neoemf.data.map.core.store.DirectWriteMapStoreWithLists;
 import fr.inria.atlanmod.neoemf.data.store.AutocommitStoreDecorator;
 import fr.inria.atlanmod.neoemf.data.store.PersistentStore;
+import fr.inria.atlanmod.neoemf.option.PersistentResourceOptions;
 import fr.inria.atlanmod.neoemf.option.PersistentStoreOptions;
 import fr.inria.atlanmod.neoemf.resource.PersistentResource;
 import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
 
+import org.eclipse.emf.ecore.EAttribute;
+
 import javax.annotation.Nonnull;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 /**
  * ???
@@ -97,7 +103,7 @@ public class BerkeleyDbPersistenceBackendFactory extends AbstractPersistenceBack
             throw new InvalidDataStoreException();
         }
         else if (storeOptions.contains(BerkeleyDbStoreOptions.AUTOCOMMIT)) {
-            store = new AutocommitStoreDecorator(store);
+            store = new AutocommitStoreDecorator(store, getCommitPolicy(options));
         }
         return store;
     }
@@ -142,6 +148,17 @@ public class BerkeleyDbPersistenceBackendFactory extends AbstractPersistenceBack
         }
         backend = new BerkeleyDbPersistenceBackend(dir, envConfig);
         backend.open();
+        if (nonNull(options) && Objects.equals(Boolean.TRUE, options.get(PersistentResourceOptions.FEATURE_STATISTICS))) {
+            backend.enableFeatureStatistics();
+        }
+        if (nonNull(options) && options.get(PersistentResourceOptions.ATTRIBUTE_INDEXES) instanceof Collection) {
+            for (Object attribute : (Collection<?>) options.get(PersistentResourceOptions.ATTRIBUTE_INDEXES)) {
+                backend.enableAttributeIndex((EAttribute) attribute);
+            }
+        }
+        if (nonNull(options) && Objects.equals(Boolean.TRUE, options.get(PersistentResourceOptions.INVERSE_REFERENCE_INDEX))) {
+            backend.enableInverseReferenceIndex();
+        }
         processGlobalConfiguration(directory);
         return backend;
     }
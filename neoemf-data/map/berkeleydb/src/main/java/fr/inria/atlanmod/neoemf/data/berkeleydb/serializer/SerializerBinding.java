@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.berkeleydb.serializer;
+
+import com.sleepycat.bind.EntryBinding;
+import com.sleepycat.je.DatabaseEntry;
+
+import fr.inria.atlanmod.neoemf.annotations.Experimental;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An {@link EntryBinding} that converts the records of a database with a {@link Serializer}, in order to access the
+ * database as a {@link com.sleepycat.collections.StoredMap}.
+ *
+ * @param <T> the type of the converted objects
+ */
+@Experimental
+public class SerializerBinding<T> implements EntryBinding<T> {
+
+    /**
+     * The serializer used to convert the records.
+     */
+    private final Serializer<T> serializer;
+
+    /**
+     * Constructs a new {@code SerializerBinding} with the given {@code serializer}.
+     *
+     * @param serializer the serializer used to convert the records
+     */
+    public SerializerBinding(Serializer<T> serializer) {
+        this.serializer = checkNotNull(serializer);
+    }
+
+    @Override
+    public T entryToObject(DatabaseEntry entry) {
+        return serializer.deserialize(entry.getData());
+    }
+
+    @Override
+    public void objectToEntry(T object, DatabaseEntry entry) {
+        entry.setData(serializer.serialize(object));
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.berkeleydb.serializer;
+
+import fr.inria.atlanmod.neoemf.annotations.Experimental;
+
+/**
+ * A {@link Serializer} of {@link String}s whose byte order is the order of {@link String#compareTo(String)}.
+ * <p>
+ * Each character is written as two big-endian bytes, so the keys of a database serialized with this serializer are
+ * sorted as the strings themselves, and can be accessed as a {@link java.util.SortedSet}.
+ */
+@Experimental
+public class StringSerializer implements Serializer<String> {
+
+    @Override
+    public byte[] serialize(String value) {
+        byte[] data = new byte[value.length() * 2];
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            data[2 * i] = (byte) (c >>> 8);
+            data[2 * i + 1] = (byte) c;
+        }
+        return data;
+    }
+
+    @Override
+    public String deserialize(byte[] data) {
+        char[] chars = new char[data.length / 2];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) (((data[2 * i] & 0xff) << 8) | (data[2 * i + 1] & 0xff));
+        }
+        return new String(chars);
+    }
+}
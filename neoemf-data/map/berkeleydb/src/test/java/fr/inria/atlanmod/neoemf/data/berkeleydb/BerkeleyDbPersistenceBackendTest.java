@@ -20,11 +20,14 @@ import fr.inria.atlanmod.neoemf.core.StringId;
 import fr.inria.atlanmod.neoemf.data.structure.ClassInfo;
 import fr.inria.atlanmod.neoemf.data.structure.ContainerInfo;
 import fr.inria.atlanmod.neoemf.data.structure.FeatureKey;
+import fr.inria.atlanmod.neoemf.data.structure.InverseReferenceInfo;
 import fr.inria.atlanmod.neoemf.data.structure.MultivaluedFeatureKey;
 
+import org.eclipse.emf.ecore.EAttribute;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EPackage;
 import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcorePackage;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -34,6 +37,10 @@ import org.junit.Test;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -168,5 +175,86 @@ public class BerkeleyDbPersistenceBackendTest extends AbstractTest {
         assertThat(classInfo.name()).isEqualTo("eClassTest");
         assertThat(classInfo.uri()).isEqualTo("URI://my.uri/");
     }
-}
 
+    @Test
+    public void testStoreMetaclasses() {
+        EPackage ePackage = mock(EPackage.class);
+        when(ePackage.getNsURI()).thenReturn("URI://my.uri/");
+
+        List<Id> ids = new ArrayList<>();
+        IntStream.range(0, 10).forEach(i -> {
+            EClass eClass = mock(EClass.class);
+            when(eClass.getName()).thenReturn("eClass" + i);
+            when(eClass.getEPackage()).thenReturn(ePackage);
+
+            PersistentEObject po = mock(PersistentEObject.class);
+            when(po.eClass()).thenReturn(eClass);
+
+            Id id = StringId.generate();
+            backend.storeMetaclass(id, ClassInfo.from(po));
+            ids.add(id);
+        });
+        Id unknownId = StringId.generate();
+        ids.add(unknownId);
+
+        Map<Id, ClassInfo> metaclasses = backend.metaclassesFor(ids);
+        assertThat(metaclasses).hasSize(10).doesNotContainKey(unknownId);
+        IntStream.range(0, 10).forEach(i -> assertThat(metaclasses.get(ids.get(i)).name()).isEqualTo("eClass" + i));
+    }
+
+    @Test
+    public void testAttributeIndex() {
+        EAttribute name = EcorePackage.Literals.ENAMED_ELEMENT__NAME;
+        Id id1 = StringId.generate();
+        Id id2 = StringId.generate();
+
+        backend.storeMetaclass(id1, ClassInfo.of(EcorePackage.Literals.ECLASS.getName(), EcorePackage.eNS_URI));
+        backend.storeMetaclass(id2, ClassInfo.of(EcorePackage.Literals.EPACKAGE.getName(), EcorePackage.eNS_URI));
+        backend.storeValue(FeatureKey.of(id1, "name"), "Foo");
+
+        // Built from the existing values
+        backend.enableAttributeIndex(name);
+        assertThat(backend.isIndexed(name)).isTrue();
+        assertThat(backend.findBy(name, "Foo")).containsExactly(id1);
+
+        backend.storeValue(FeatureKey.of(id2, "name"), "Foobar");
+        backend.attributeChanged(id2, name, null, "Foobar");
+        assertThat(backend.findByPrefix(name, "Foo")).containsExactly(id1, id2);
+        assertThat(backend.findByRange(name, "Fooa", null)).containsExactly(id2);
+
+        // Maintained without being enabled again
+        backend.close();
+        backend.open();
+        assertThat(backend.isIndexed(name)).isTrue();
+        backend.attributeChanged(id1, name, "Foo", "Bar");
+        assertThat(backend.findBy(name, "Foo")).isEmpty();
+        assertThat(backend.findBy(name, "Bar")).containsExactly(id1);
+    }
+
+    @Test
+    public void testInverseReferenceIndex() {
+        EReference superTypes = EcorePackage.Literals.ECLASS__ESUPER_TYPES;
+        Id id1 = StringId.generate();
+        Id id2 = StringId.generate();
+        Id id3 = StringId.generate();
+
+        backend.storeMetaclass(id1, ClassInfo.of(EcorePackage.Literals.ECLASS.getName(), EcorePackage.eNS_URI));
+        backend.storeValue(FeatureKey.of(id1, "eSuperTypes"), 1);
+        backend.storeValueAtIndex(FeatureKey.of(id1, "eSuperTypes").withPosition(0), id3);
+
+        // Built from the existing references
+        backend.enableInverseReferenceIndex();
+        assertThat(backend.inverseReferencesOf(id3)).isEqualTo(InverseReferenceInfo.of(Arrays.asList(id1), Arrays.asList("eSuperTypes")));
+
+        backend.referenceChanged(id2, superTypes, null, id3);
+        backend.referenceChanged(id2, superTypes, null, id3);
+        assertThat(backend.inverseReferencesOf(id3).size()).isEqualTo(3);
+
+        // Maintained without being enabled again
+        backend.close();
+        backend.open();
+        backend.referenceChanged(id1, superTypes, id3, null);
+        backend.referenceChanged(id2, superTypes, id3, null);
+        assertThat(backend.inverseReferencesOf(id3)).isEqualTo(InverseReferenceInfo.of(Arrays.asList(id2), Arrays.asList("eSuperTypes")));
+    }
+}
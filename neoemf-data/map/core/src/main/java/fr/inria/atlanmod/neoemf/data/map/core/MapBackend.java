@@ -22,8 +22,11 @@ import fr.inria.atlanmod.neoemf.data.structure.MultivaluedFeatureKey;
 import org.eclipse.emf.ecore.EClass;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 
+import static java.util.Objects.nonNull;
+
 /**
  * An adapter on top of a map-based database that provides specific methods for communicating with the database that it uses.
  * Each {@code MapBackend} manage one single instance of a database.
@@ -70,6 +73,32 @@ public interface MapBackend extends PersistenceBackend {
      */
     void storeContainer(Id id, ContainerInfo container);
 
+    /**
+     * Removes the container information of the element with the given {@link Id}, because it is not contained anymore.
+     *
+     * @param id the {@link Id} of the element
+     */
+    void removeContainer(Id id);
+
+    /**
+     * Records that the element with the given {@link Id} has been removed from its container, or from the contents of
+     * the resource, without being attached anywhere else. The element keeps its metaclass and its features, but is not
+     * counted as an instance anymore until it is {@link #attach(Id) attached} again.
+     *
+     * @param id the {@link Id} of the detached element
+     *
+     * @see fr.inria.atlanmod.neoemf.data.StatisticsTable#instanceDeleted(ClassInfo)
+     */
+    void detach(Id id);
+
+    /**
+     * Records that the element with the given {@link Id} has been attached to a container, or to the contents of the
+     * resource. If it has been {@link #detach(Id) detached} before, it is counted as an instance again.
+     *
+     * @param id the {@link Id} of the attached element
+     */
+    void attach(Id id);
+
     /**
      * Retrieves the metaclass ({@link EClass}) of the element with the given {@link Id}.
      *
@@ -80,6 +109,27 @@ public interface MapBackend extends PersistenceBackend {
      */
     ClassInfo metaclassFor(Id id);
 
+    /**
+     * Retrieves the metaclasses ({@link EClass}) of the elements with the given {@link Id}s.
+     * <p>
+     * By default, calls {@link #metaclassFor(Id)} for each identifier. Back-ends should override this method to
+     * retrieve all the metaclasses with a single lookup.
+     *
+     * @param ids the {@link Id}s of the elements
+     *
+     * @return a {@link Map} containing the {@link ClassInfo} descriptor of each element that has a metaclass
+     */
+    default Map<Id, ClassInfo> metaclassesFor(Collection<Id> ids) {
+        Map<Id, ClassInfo> metaclasses = new HashMap<>(ids.size());
+        for (Id id : ids) {
+            ClassInfo metaclass = metaclassFor(id);
+            if (nonNull(metaclass)) {
+                metaclasses.put(id, metaclass);
+            }
+        }
+        return metaclasses;
+    }
+
     /**
      * Stores metaclass ({@link EClass}) information for the element with the given {@link Id}.
      *
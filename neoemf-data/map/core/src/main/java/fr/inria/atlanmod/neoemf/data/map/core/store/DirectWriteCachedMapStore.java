@@ -13,15 +13,19 @@
 package fr.inria.atlanmod.neoemf.data.map.core.store;
 
 import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import fr.inria.atlanmod.neoemf.core.PersistentEObject;
 import fr.inria.atlanmod.neoemf.data.map.core.MapBackend;
 import fr.inria.atlanmod.neoemf.data.structure.FeatureKey;
+import fr.inria.atlanmod.neoemf.util.cache.CacheGovernor;
 import org.apache.commons.lang3.ArrayUtils;
 import org.eclipse.emf.ecore.EReference;
 import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.InternalEObject;
 import org.eclipse.emf.ecore.resource.Resource;
 
+import java.util.Collection;
+import java.util.Set;
+
 import static com.google.common.base.Preconditions.checkPositionIndex;
 import static java.util.Objects.isNull;
 
@@ -46,8 +50,7 @@ public class DirectWriteCachedMapStore<P extends MapBackend> extends DirectWrite
     /**
      * In-memory cache that holds ???, identified by the associated {@link FeatureKey}.
      */
-    private final Cache<FeatureKey, Object> objectsCache = Caffeine.newBuilder()
-            .maximumSize(DEFAULT_CACHE_SIZE).build();;
+    private final Cache<FeatureKey, Object> objectsCache = CacheGovernor.getInstance().newCache(DEFAULT_CACHE_SIZE);
 
     /**
      * Constructs a new {@code DirectWriteMapStore} between the given {@code resource} and the {@code backend}.
@@ -88,6 +91,37 @@ public class DirectWriteCachedMapStore<P extends MapBackend> extends DirectWrite
         }
     }
 
+    @Override
+    public void addAll(InternalEObject internalObject, EStructuralFeature feature, int index, Collection<?> values) {
+        super.addAll(internalObject, feature, index, values);
+        objectsCache.invalidate(FeatureKey.from(internalObject, feature));
+    }
+
+    @Override
+    public void removeRange(InternalEObject internalObject, EStructuralFeature feature, int fromIndex, int toIndex) {
+        super.removeRange(internalObject, feature, fromIndex, toIndex);
+        objectsCache.invalidate(FeatureKey.from(internalObject, feature));
+    }
+
+    @Override
+    public Object move(InternalEObject internalObject, EStructuralFeature feature, int targetIndex, int sourceIndex) {
+        Object moved = super.move(internalObject, feature, targetIndex, sourceIndex);
+        objectsCache.invalidate(FeatureKey.from(internalObject, feature));
+        return moved;
+    }
+
+    @Override
+    public void setAll(InternalEObject internalObject, EStructuralFeature feature, Collection<?> values) {
+        super.setAll(internalObject, feature, values);
+        objectsCache.invalidate(FeatureKey.from(internalObject, feature));
+    }
+
+    @Override
+    public void invalidate(Set<FeatureKey> featureKeys) {
+        super.invalidate(featureKeys);
+        objectsCache.invalidateAll(featureKeys);
+    }
+
     @Override
     protected Object getFromMap(PersistentEObject object, EStructuralFeature feature) {
         FeatureKey featureKey = FeatureKey.from(object, feature);
@@ -12,7 +12,6 @@
 package fr.inria.atlanmod.neoemf.data.map.core.store;
 
 import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import fr.inria.atlanmod.neoemf.core.Id;
 import fr.inria.atlanmod.neoemf.core.PersistenceFactory;
 import fr.inria.atlanmod.neoemf.core.PersistentEObject;
@@ -23,6 +22,7 @@ import fr.inria.atlanmod.neoemf.data.store.PersistentStore;
 import fr.inria.atlanmod.neoemf.data.structure.ClassInfo;
 import fr.inria.atlanmod.neoemf.data.structure.ContainerInfo;
 import fr.inria.atlanmod.neoemf.data.structure.FeatureKey;
+import fr.inria.atlanmod.neoemf.util.cache.CacheGovernor;
 import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
 import org.apache.commons.lang3.ArrayUtils;
 import org.eclipse.emf.ecore.*;
@@ -30,14 +30,23 @@ import org.eclipse.emf.ecore.impl.EPackageImpl;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.util.EcoreUtil;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkPositionIndex;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
@@ -59,8 +68,7 @@ public class DirectWriteMapStore<P extends MapBackend> extends AbstractDirectWri
     /**
      * In-memory cache that holds recently loaded {@link PersistentEObject}s, identified by their {@link Id}.
      */
-    protected final Cache<Id, PersistentEObject> persistentObjectsCache = Caffeine.newBuilder()
-            .maximumSize(DEFAULT_CACHE_SIZE).build();
+    protected final Cache<Id, PersistentEObject> persistentObjectsCache = CacheGovernor.getInstance().newCache(DEFAULT_CACHE_SIZE);
 
     /**
      * Constructs a new {@code DirectWriteMapStore} between the given {@code resource} and the {@code backend}.
@@ -72,6 +80,45 @@ public class DirectWriteMapStore<P extends MapBackend> extends AbstractDirectWri
         super(resource, backend);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The value of a single-valued attribute is read with the name and the representation of the attribute computed
+     * once for its metaclass. Any other feature is read by {@link #get(InternalEObject, EStructuralFeature, int)}.
+     */
+    @Override
+    public Object get(InternalEObject internalObject, int featureId, int index) {
+        checkNotNull(internalObject);
+
+        FeatureSlot slot = slotOf(internalObject.eClass(), featureId);
+        if (!slot.isAttribute() || slot.isMany()) {
+            return get(internalObject, slot.feature(), index);
+        }
+
+        return parseProperty(slot, getFromMap(PersistentEObject.from(internalObject), slot.feature()));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A non-null value of a single-valued attribute is written with the name and the representation of the attribute
+     * computed once for its metaclass. Any other value, and the value of an indexed attribute, is written by
+     * {@link #set(InternalEObject, EStructuralFeature, int, Object)}.
+     */
+    @Override
+    public Object set(InternalEObject internalObject, int featureId, int index, Object value) {
+        checkNotNull(internalObject);
+
+        FeatureSlot slot = slotOf(internalObject.eClass(), featureId);
+        if (!slot.isAttribute() || slot.isMany() || isNull(value) || isIndexed(slot.feature())) {
+            return set(internalObject, slot.feature(), index, value);
+        }
+
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        Object old = backend.storeValue(FeatureKey.of(object.id(), slot.name()), serializeToProperty(slot, value));
+        return parseProperty(slot, old);
+    }
+
     @Override
     public boolean isSet(InternalEObject internalObject, EStructuralFeature feature) {
         checkNotNull(internalObject);
@@ -86,8 +133,17 @@ public class DirectWriteMapStore<P extends MapBackend> extends AbstractDirectWri
         checkNotNull(internalObject);
         checkNotNull(feature);
 
-        FeatureKey featureKey = FeatureKey.from(internalObject, feature);
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        FeatureKey featureKey = FeatureKey.from(object, feature);
+        int size = sizeOfMany(internalObject, feature);
+        Object old = isIndexed(feature) ? parseProperty((EAttribute) feature, getFromMap(featureKey)) : null;
+        List<Id> contained = containedIds(object, feature);
         backend.removeFeature(featureKey);
+        detach(object, feature, contained);
+        updateCardinality(feature, -size, -1);
+        if (nonNull(old)) {
+            backend.attributeChanged(featureKey.id(), (EAttribute) feature, old, null);
+        }
     }
 
     @Override
@@ -106,6 +162,9 @@ public class DirectWriteMapStore<P extends MapBackend> extends AbstractDirectWri
      * As for {@link #updateContainment(PersistentEObject, EReference, PersistentEObject)}, instance-of information are
      * handled in a dedicated {@link Map}, easing their access. The method checks that the {@link Map} doesn't contain
      * another type information for {@code object} and save it.
+     * <p>
+     * The {@code object} is then {@link PersistentEObject#isMapped() mapped}, even if it is not attached to the resource
+     * yet: its identifier is stored.
      *
      * @param object the {@link PersistentEObject} to store the instance-of information from
      * @note The type is not updated if {@code object} was previously mapped to another type.
@@ -116,7 +175,9 @@ public class DirectWriteMapStore<P extends MapBackend> extends AbstractDirectWri
         ClassInfo info = backend.metaclassFor(object.id());
         if (isNull(info)) {
             backend.storeMetaclass(object.id(), ClassInfo.from(object));
+            backend.registerMetaclass(object.eClass());
         }
+        object.setMapped(true);
     }
 
     /**
@@ -140,6 +201,80 @@ public class DirectWriteMapStore<P extends MapBackend> extends AbstractDirectWri
                 backend.storeContainer(referencedObject.id(), ContainerInfo.from(object, reference));
             }
         }
+        else if (isContainment(reference) && referencedObject.isMapped()) {
+            // The object is moved to the contents of the resource: it is not contained anymore
+            backend.removeContainer(referencedObject.id());
+        }
+        if (isContainment(reference) && referencedObject.isMapped()) {
+            backend.attach(referencedObject.id());
+        }
+    }
+
+    /**
+     * Returns whether the given {@code feature} contains its values: a containment {@link EReference}, or the contents
+     * of the resource.
+     *
+     * @param feature the feature
+     *
+     * @return {@code true} if the {@code feature} contains its values
+     */
+    protected static boolean isContainment(EStructuralFeature feature) {
+        if (!(feature instanceof EReference)) {
+            return false;
+        }
+        EReference reference = (EReference) feature;
+        return reference.isContainment() || isNull(reference.getEContainingClass());
+    }
+
+    /**
+     * Returns the identifiers of the objects contained by the {@code feature} of the {@code object}, before they are
+     * removed from it.
+     *
+     * @param object  the {@link PersistentEObject} owning the {@code feature}
+     * @param feature the feature
+     *
+     * @return a copy of the identifiers, empty if the {@code feature} does not {@link #isContainment(EStructuralFeature)
+     * contain} its values
+     *
+     * @see #detach(PersistentEObject, EStructuralFeature, Collection)
+     */
+    protected List<Id> containedIds(PersistentEObject object, EStructuralFeature feature) {
+        if (!isContainment(feature)) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(referencedIds(object, (EReference) feature));
+    }
+
+    /**
+     * Tells the underlying database that the objects identified by {@code ids} have been removed from the {@code
+     * feature} of the {@code object}.
+     * <p>
+     * If the {@code feature} {@link #isContainment(EStructuralFeature) contains} its values, the objects that have not
+     * been attached anywhere else in the meantime are {@link MapBackend#detach(Id) detached}: they lose their container
+     * and are not counted as instances anymore. The objects they contain are left untouched.
+     *
+     * @param object  the {@link PersistentEObject} the objects have been removed from
+     * @param feature the feature the objects have been removed from
+     * @param ids     the identifiers of the removed objects
+     */
+    protected void detach(PersistentEObject object, EStructuralFeature feature, Collection<Id> ids) {
+        if (!isContainment(feature)) {
+            return;
+        }
+        boolean isResourceContents = isNull(((EReference) feature).getEContainingClass());
+        for (Id id : ids) {
+            ContainerInfo info = backend.containerFor(id);
+            if (isResourceContents) {
+                // A root that has been moved to a container has a container now
+                if (isNull(info)) {
+                    backend.detach(id);
+                }
+            }
+            else if (nonNull(info) && Objects.equals(info.id(), object.id()) && Objects.equals(info.name(), feature.getName())) {
+                backend.removeContainer(id);
+                backend.detach(id);
+            }
+        }
     }
 
     /**
@@ -173,6 +308,71 @@ public class DirectWriteMapStore<P extends MapBackend> extends AbstractDirectWri
         return getFromMap(FeatureKey.from(object, feature));
     }
 
+    /**
+     * Converts a {@code value} of the {@code feature} to its representation in the underlying database. If the
+     * {@code feature} is a reference, the containment and the type of the referenced object are persisted, as in
+     * {@link #addReference(PersistentEObject, EReference, int, PersistentEObject)}.
+     *
+     * @param object  the {@link PersistentEObject} owning the {@code feature}
+     * @param feature the {@link EStructuralFeature} of the {@code object}
+     * @param value   the value to convert
+     * @return a serialized property if the {@code feature} is an attribute, the {@link Id} of the referenced object
+     * otherwise
+     */
+    protected Object toStoredValue(PersistentEObject object, EStructuralFeature feature, Object value) {
+        checkNotNull(value);
+
+        if (feature instanceof EAttribute) {
+            return serializeToProperty((EAttribute) feature, value);
+        }
+        PersistentEObject referencedObject = PersistentEObject.from(value);
+        updateContainment(object, (EReference) feature, referencedObject);
+        updateInstanceOf(referencedObject);
+        persistentObjectsCache.put(referencedObject.id(), referencedObject);
+        return referencedObject.id();
+    }
+
+    /**
+     * Returns the first (or last) index of the stored representation of the {@code value} of the {@code attribute} in
+     * the given stored {@code values}.
+     * <p>
+     * The stored values can be a mix of native values and of string literals written by previous versions of NeoEMF,
+     * so both representations are looked for when they differ.
+     *
+     * @param values    the stored values of the attribute
+     * @param attribute the attribute the values belong to
+     * @param value     the value to look for
+     * @param last      {@code true} to look for the last index, {@code false} to look for the first one
+     * @return the index of the value, or {@link PersistentStore#NO_INDEX} if it is not found
+     */
+    protected int indexOfProperty(List<?> values, EAttribute attribute, Object value, boolean last) {
+        Object property = serializeToProperty(attribute, value);
+        int index = last ? values.lastIndexOf(property) : values.indexOf(property);
+
+        Object legacyProperty = serializeToLegacyProperty(attribute, value);
+        if (!Objects.equals(property, legacyProperty)) {
+            int legacyIndex = last ? values.lastIndexOf(legacyProperty) : values.indexOf(legacyProperty);
+            if (index == NO_INDEX || (legacyIndex != NO_INDEX && (last ? legacyIndex > index : legacyIndex < index))) {
+                index = legacyIndex;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Converts a value of the {@code feature} stored in the underlying database to its model representation.
+     *
+     * @param feature the {@link EStructuralFeature} the value belongs to
+     * @param stored  the stored value, as returned by {@link #toStoredValue(PersistentEObject, EStructuralFeature, Object)}
+     * @return the parsed attribute value, or the referenced {@link EObject}
+     */
+    protected Object fromStoredValue(EStructuralFeature feature, Object stored) {
+        if (feature instanceof EAttribute) {
+            return parseProperty((EAttribute) feature, stored);
+        }
+        return isNull(stored) ? null : eObject((Id) stored);
+    }
+
     @Override
     public EObject eObject(Id id) {
         checkNotNull(id);
@@ -187,6 +387,126 @@ public class DirectWriteMapStore<P extends MapBackend> extends AbstractDirectWri
         return object;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The objects that are not cached yet are created from the metaclasses retrieved with a single call to {@link
+     * MapBackend#metaclassesFor(Collection)}, and cached atomically as in {@link #eObject(Id)}, so that a single
+     * instance is ever created for each identifier.
+     */
+    @Override
+    public List<EObject> eObjects(Collection<Id> ids) {
+        Map<Id, PersistentEObject> objects = new HashMap<>(persistentObjectsCache.getAllPresent(ids));
+        if (objects.size() < ids.size()) {
+            Set<Id> missingIds = ids.stream()
+                    .filter(id -> !objects.containsKey(id))
+                    .collect(Collectors.toSet());
+
+            if (!missingIds.isEmpty()) {
+                Map<Id, ClassInfo> metaclasses = backend.metaclassesFor(missingIds);
+                for (Id id : missingIds) {
+                    ClassInfo classInfo = metaclasses.get(id);
+                    if (isNull(classInfo)) {
+                        throw new RuntimeException("Element " + id + " does not have an associated EClass");
+                    }
+                    // Another thread may have loaded the object since the cache was read: keep its instance
+                    objects.put(id, persistentObjectsCache.get(id, key -> createObject(key, classInfo.eClass())));
+                }
+            }
+        }
+
+        List<EObject> result = new ArrayList<>(ids.size());
+        for (Id id : ids) {
+            PersistentEObject object = objects.get(id);
+            if (object.resource() != resource()) {
+                object.resource(resource());
+            }
+            result.add(object);
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The identifiers of the contents of all the objects are read first, and then resolved with a single call to
+     * {@link #eObjects(Collection)}.
+     */
+    @Override
+    public List<List<EObject>> eContents(List<? extends InternalEObject> objects) {
+        List<Integer> sizes = new ArrayList<>(objects.size());
+        List<Id> ids = new ArrayList<>();
+        for (InternalEObject internalObject : objects) {
+            PersistentEObject object = PersistentEObject.from(internalObject);
+            int size = ids.size();
+            for (EReference reference : object.eClass().getEAllContainments()) {
+                ids.addAll(referencedIds(object, reference));
+            }
+            sizes.add(ids.size() - size);
+        }
+
+        List<EObject> allContents = eObjects(ids);
+        List<List<EObject>> contents = new ArrayList<>(objects.size());
+        int fromIndex = 0;
+        for (int size : sizes) {
+            contents.add(allContents.subList(fromIndex, fromIndex + size));
+            fromIndex += size;
+        }
+        return contents;
+    }
+
+    /**
+     * Returns the identifiers of the objects referenced by the {@code reference} of the {@code object}, in their order,
+     * without resolving them.
+     *
+     * @param object    the {@link PersistentEObject} owning the {@code reference}
+     * @param reference the {@link EReference} of the {@code object}
+     * @return a list of identifiers, empty if the {@code reference} is not set
+     */
+    protected List<Id> referencedIds(PersistentEObject object, EReference reference) {
+        Object value = getFromMap(object, reference);
+        if (isNull(value)) {
+            return Collections.emptyList();
+        }
+        return reference.isMany() ? idsOf((Object[]) value) : Collections.singletonList((Id) value);
+    }
+
+    /**
+     * Returns a view of the given {@code storedValues} of a reference as a list of {@link Id}s.
+     *
+     * @param storedValues the stored identifiers
+     *
+     * @return a list of identifiers
+     */
+    @SuppressWarnings("unchecked")
+    protected static List<Id> idsOf(Object[] storedValues) {
+        return (List<Id>) (List<?>) Arrays.asList(storedValues);
+    }
+
+    /**
+     * Creates a new {@link PersistentEObject} of the given {@code eClass}, mapped to the element identified by the
+     * given {@code id}.
+     *
+     * @param id     the identifier of the element
+     * @param eClass the metaclass of the element
+     *
+     * @return a new object
+     */
+    private PersistentEObject createObject(Id id, EClass eClass) {
+        EObject eObject;
+        if (Objects.equals(eClass.getEPackage().getClass(), EPackageImpl.class)) {
+            // Dynamic EMF
+            eObject = PersistenceFactory.getInstance().create(eClass);
+        }
+        else {
+            eObject = EcoreUtil.create(eClass);
+        }
+        PersistentEObject object = PersistentEObject.from(eObject);
+        object.id(id);
+        object.setMapped(true);
+        return object;
+    }
+
     /**
      * Compute the {@link EClass} associated to the model element with the provided {@link Id}.
      *
@@ -255,7 +575,7 @@ public class DirectWriteMapStore<P extends MapBackend> extends AbstractDirectWri
         if (isNull(array)) {
             index = ArrayUtils.INDEX_NOT_FOUND;
         } else if (feature instanceof EAttribute) {
-            index = ArrayUtils.indexOf(array, serializeToProperty((EAttribute) feature, value));
+            index = indexOfProperty(Arrays.asList(array), (EAttribute) feature, value, false);
         } else {
             PersistentEObject childEObject = PersistentEObject.from(value);
             index = ArrayUtils.indexOf(array, childEObject.id());
@@ -275,7 +595,7 @@ public class DirectWriteMapStore<P extends MapBackend> extends AbstractDirectWri
         if (isNull(array)) {
             index = ArrayUtils.INDEX_NOT_FOUND;
         } else if (feature instanceof EAttribute) {
-            index = ArrayUtils.lastIndexOf(array, serializeToProperty((EAttribute) feature, value));
+            index = indexOfProperty(Arrays.asList(array), (EAttribute) feature, value, true);
         } else {
             PersistentEObject childEObject = PersistentEObject.from(value);
             index = ArrayUtils.lastIndexOf(array, childEObject.id());
@@ -288,28 +608,153 @@ public class DirectWriteMapStore<P extends MapBackend> extends AbstractDirectWri
         checkNotNull(internalObject);
         checkNotNull(feature);
 
-        FeatureKey featureKey = FeatureKey.from(internalObject, feature);
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        FeatureKey featureKey = FeatureKey.from(object, feature);
+        int size = sizeOfMany(internalObject, feature);
+        List<Id> contained = containedIds(object, feature);
         backend.storeValue(featureKey, new Object[]{});
+        detach(object, feature, contained);
+        updateCardinality(feature, -size, -1);
     }
 
     /**
      * {@inheritDoc}
      * <p>
      * This method is an efficient implementation of
-     * {@link AbstractDirectWriteStore#toArray(InternalEObject, EStructuralFeature)}
+     * {@link PersistentStore#addAll(InternalEObject, EStructuralFeature, int, Collection)} that deserializes and
+     * stores the list once, whatever the number of added values.
+     */
+    @Override
+    public void addAll(InternalEObject internalObject, EStructuralFeature feature, int index, Collection<?> values) {
+        checkNotNull(internalObject);
+        checkNotNull(feature);
+        checkNotNull(values);
+
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        FeatureKey featureKey = FeatureKey.from(object, feature);
+        Object[] array = (Object[]) getFromMap(featureKey);
+        if (isNull(array)) {
+            array = new Object[]{};
+        }
+        int position = index == PersistentStore.NO_INDEX ? array.length : index;
+        checkPositionIndex(position, array.length, "Invalid add index");
+
+        Object[] newArray = new Object[array.length + values.size()];
+        System.arraycopy(array, 0, newArray, 0, position);
+        int i = position;
+        for (Object value : values) {
+            newArray[i++] = toStoredValue(object, feature, value);
+        }
+        System.arraycopy(array, position, newArray, i, array.length - position);
+        backend.storeValue(featureKey, newArray);
+        updateCardinality(feature, values.size(), newArray.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method is an efficient implementation of
+     * {@link PersistentStore#removeRange(InternalEObject, EStructuralFeature, int, int)} that deserializes and stores
+     * the list once, whatever the number of removed values.
+     */
+    @Override
+    public void removeRange(InternalEObject internalObject, EStructuralFeature feature, int fromIndex, int toIndex) {
+        checkNotNull(internalObject);
+        checkNotNull(feature);
+
+        FeatureKey featureKey = FeatureKey.from(internalObject, feature);
+        Object[] array = (Object[]) getFromMap(featureKey);
+        int size = isNull(array) ? 0 : array.length;
+        checkPositionIndexes(fromIndex, toIndex, size);
+
+        int count = toIndex - fromIndex;
+        if (count > 0) {
+            Object[] newArray = new Object[size - count];
+            System.arraycopy(array, 0, newArray, 0, fromIndex);
+            System.arraycopy(array, toIndex, newArray, fromIndex, size - toIndex);
+            backend.storeValue(featureKey, newArray);
+            detach(PersistentEObject.from(internalObject), feature, idsOf(Arrays.copyOfRange(array, fromIndex, toIndex)));
+            updateCardinality(feature, -count, newArray.length);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method is an efficient implementation of
+     * {@link AbstractDirectWriteStore#move(InternalEObject, EStructuralFeature, int, int)} that shifts the values
+     * between the two indices in place, instead of removing then adding the moved value.
+     */
+    @Override
+    public Object move(InternalEObject internalObject, EStructuralFeature feature, int targetIndex, int sourceIndex) {
+        checkNotNull(internalObject);
+        checkNotNull(feature);
+
+        FeatureKey featureKey = FeatureKey.from(internalObject, feature);
+        Object[] array = (Object[]) getFromMap(featureKey);
+        int size = isNull(array) ? 0 : array.length;
+        checkElementIndex(sourceIndex, size, "Invalid move source index");
+        checkElementIndex(targetIndex, size, "Invalid move target index");
+
+        Object moved = array[sourceIndex];
+        if (sourceIndex < targetIndex) {
+            System.arraycopy(array, sourceIndex + 1, array, sourceIndex, targetIndex - sourceIndex);
+        }
+        else {
+            System.arraycopy(array, targetIndex, array, targetIndex + 1, sourceIndex - targetIndex);
+        }
+        array[targetIndex] = moved;
+        backend.storeValue(featureKey, array);
+        return fromStoredValue(feature, moved);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method is an efficient implementation of
+     * {@link PersistentStore#setAll(InternalEObject, EStructuralFeature, Collection)} that replaces the stored list in
+     * a single operation.
+     */
+    @Override
+    public void setAll(InternalEObject internalObject, EStructuralFeature feature, Collection<?> values) {
+        checkNotNull(internalObject);
+        checkNotNull(feature);
+        checkNotNull(values);
+
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        FeatureKey featureKey = FeatureKey.from(object, feature);
+        int size = sizeOfMany(internalObject, feature);
+        // The values that are set again are attached back
+        detach(object, feature, containedIds(object, feature));
+
+        Object[] newArray = new Object[values.size()];
+        int i = 0;
+        for (Object value : values) {
+            newArray[i++] = toStoredValue(object, feature, value);
+        }
+        backend.storeValue(featureKey, newArray);
+        updateCardinality(feature, newArray.length - size, newArray.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method is an efficient implementation of
+     * {@link AbstractDirectWriteStore#getAll(InternalEObject, EStructuralFeature)}
      * that takes benefit of the underlying backend to deserialize the entire
      * list once and return it as an array, avoiding multiple {@code get()}
-     * operations.
+     * operations. The referenced objects are resolved with a single call to
+     * {@link #eObjects(Collection)}.
      */
     @Override
-    public Object[] toArray(InternalEObject internalObject, EStructuralFeature feature) {
+    public Object[] getAll(InternalEObject internalObject, EStructuralFeature feature) {
         checkArgument(feature instanceof EReference || feature instanceof EAttribute,
                 "Cannot compute toArray from feature {0}: unkown EStructuralFeature type {1}",
                 feature.getName(), feature.getClass().getSimpleName());
         PersistentEObject object = PersistentEObject.from(internalObject);
         Object value = getFromMap(object, feature);
         if (feature.isMany()) {
-            int valueLength = ((Object[]) value).length;
+            int valueLength = isNull(value) ? 0 : ((Object[]) value).length;
             return internalToArray(value, feature, new Object[valueLength]);
         } else {
             return internalToArray(value, feature, new Object[1]);
@@ -347,10 +792,11 @@ public class DirectWriteMapStore<P extends MapBackend> extends AbstractDirectWri
     @SuppressWarnings("unchecked")
     private <T> T[] internalToArray(Object value, EStructuralFeature feature, T[] output) {
         if(feature.isMany()) {
-            Object[] storedArray = (Object[])value;
+            Object[] storedArray = isNull(value) ? new Object[0] : (Object[])value;
             if(feature instanceof EReference) {
+                List<EObject> objects = eObjects(idsOf(storedArray));
                 for(int i = 0; i < storedArray.length; i++) {
-                    output[i] = (T)eObject((Id)storedArray[i]);
+                    output[i] = (T)objects.get(i);
                 }
             }
             else { // EAttribute
@@ -439,17 +885,20 @@ public class DirectWriteMapStore<P extends MapBackend> extends AbstractDirectWri
         FeatureKey featureKey = FeatureKey.from(object, reference);
         updateContainment(object, reference, value);
         updateInstanceOf(value);
+        Object oldId;
         if (!reference.isMany()) {
-            Object oldId = backend.storeValue(featureKey, value.id());
-            old = isNull(oldId) ? null : eObject((Id) oldId);
+            oldId = backend.storeValue(featureKey, value.id());
         } else {
             Object[] array = (Object[]) getFromMap(featureKey);
             checkPositionIndex(index, array.length, "Invalid set index " + index);
-            Object oldId = array[index];
+            oldId = array[index];
             array[index] = value.id();
             backend.storeValue(featureKey, array);
-            old = isNull(oldId) ? null : eObject((Id) oldId);
         }
+        if (nonNull(oldId) && !Objects.equals(oldId, value.id())) {
+            detach(object, reference, Collections.singletonList((Id) oldId));
+        }
+        old = isNull(oldId) ? null : eObject((Id) oldId);
         return old;
     }
 
@@ -529,6 +978,7 @@ public class DirectWriteMapStore<P extends MapBackend> extends AbstractDirectWri
         Object oldId = array[index];
         array = ArrayUtils.remove(array, index);
         backend.storeValue(featureKey, array);
+        detach(object, reference, Collections.singletonList((Id) oldId));
         return eObject((Id) oldId);
     }
 
@@ -540,25 +990,11 @@ public class DirectWriteMapStore<P extends MapBackend> extends AbstractDirectWri
 
         @Override
         public PersistentEObject apply(Id id) {
-            PersistentEObject object;
             EClass eClass = DirectWriteMapStore.this.resolveInstanceOf(id);
-            if (nonNull(eClass)) {
-                EObject eObject;
-                if (Objects.equals(eClass.getEPackage().getClass(), EPackageImpl.class)) {
-                    // Dynamic EMF
-                    eObject = PersistenceFactory.getInstance().create(eClass);
-                }
-                else {
-                    eObject = EcoreUtil.create(eClass);
-                }
-                object = PersistentEObject.from(eObject);
-                object.id(id);
-                object.setMapped(true);
-            }
-            else {
+            if (isNull(eClass)) {
                 throw new RuntimeException("Element " + id + " does not have an associated EClass");
             }
-            return object;
+            return createObject(id, eClass);
         }
     }
 }
@@ -20,16 +20,24 @@ import fr.inria.atlanmod.neoemf.data.structure.MultivaluedFeatureKey;
 import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
 import org.apache.commons.lang3.ArrayUtils;
 import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EReference;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.InternalEObject;
 import org.eclipse.emf.ecore.resource.Resource;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndex;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
@@ -94,6 +102,7 @@ public class DirectWriteMapStoreWithIndices<P extends MapBackend> extends Direct
         else {
             throw new IllegalArgumentException(feature.toString());
         }
+        updateCardinality(feature, 1, size + 1);
     }
 
 
@@ -111,6 +120,10 @@ public class DirectWriteMapStoreWithIndices<P extends MapBackend> extends Direct
             backend.storeValueAtIndex(featureKey.withPosition(i - 1), movingValue);
         }
         backend.storeValue(featureKey, new Integer(size - 1));
+        if (feature instanceof EReference) {
+            detach(PersistentEObject.from(internalObject), feature, Collections.singletonList((Id) old));
+        }
+        updateCardinality(feature, -1, -1);
         return old;
     }
 
@@ -132,8 +145,126 @@ public class DirectWriteMapStoreWithIndices<P extends MapBackend> extends Direct
 
     @Override
     public void clear(InternalEObject internalObject, EStructuralFeature feature) {
-        FeatureKey featureKey = FeatureKey.from(internalObject, feature);
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        FeatureKey featureKey = FeatureKey.from(object, feature);
+        int size = sizeOfMany(internalObject, feature);
+        List<Id> contained = containedIds(object, feature);
         backend.removeFeature(featureKey);
+        detach(object, feature, contained);
+        updateCardinality(feature, -size, -1);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The following elements are shifted once by the number of added values, instead of once per added value.
+     */
+    @Override
+    public void addAll(InternalEObject internalObject, EStructuralFeature feature, int index, Collection<?> values) {
+        PersistentEObject object = PersistentEObject.from(internalObject);
+
+        NeoLogger.debug("addAll({0}, {1}, {2}, {3})", new Object[]{object.id(), feature.getName(), index, values.size()});
+
+        FeatureKey featureKey = FeatureKey.from(object, feature);
+        Integer size = (Integer) backend.valueOf(featureKey);
+        if (isNull(size)) {
+            size = 0;
+        }
+        int position = index == NO_INDEX ? size : index;
+        checkPositionIndex(position, size, "Invalid add index");
+
+        // Make space for the new elements
+        int count = values.size();
+        for (int i = size - 1; i >= position; i--) {
+            Object movingValue = backend.valueAtIndex(featureKey.withPosition(i));
+            backend.storeValueAtIndex(featureKey.withPosition(i + count), movingValue);
+        }
+
+        // Add elements
+        int i = position;
+        for (Object value : values) {
+            backend.storeValueAtIndex(featureKey.withPosition(i++), toStoredValue(object, feature, value));
+        }
+        backend.storeValue(featureKey, size + count);
+        updateCardinality(feature, count, size + count);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The following elements are shifted once by the number of removed values, instead of once per removed value.
+     */
+    @Override
+    public void removeRange(InternalEObject internalObject, EStructuralFeature feature, int fromIndex, int toIndex) {
+        NeoLogger.debug("removeRange({0}, {1}, {2})", new Object[]{feature.getName(), fromIndex, toIndex});
+
+        FeatureKey featureKey = FeatureKey.from(internalObject, feature);
+        Integer size = (Integer) backend.valueOf(featureKey);
+        if (isNull(size)) {
+            size = 0;
+        }
+        checkPositionIndexes(fromIndex, toIndex, size);
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        List<Id> contained = containedIds(object, feature);
+
+        // Update indexes (elements to remove are overwritten)
+        int count = toIndex - fromIndex;
+        for (int i = toIndex; i < size; i++) {
+            Object movingValue = backend.valueAtIndex(featureKey.withPosition(i));
+            backend.storeValueAtIndex(featureKey.withPosition(i - count), movingValue);
+        }
+        backend.storeValue(featureKey, size - count);
+        detach(object, feature, contained.isEmpty() ? contained : contained.subList(fromIndex, toIndex));
+        updateCardinality(feature, -count, size - count);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only the elements between the two indices are shifted, instead of all the elements following them.
+     */
+    @Override
+    public Object move(InternalEObject internalObject, EStructuralFeature feature, int targetIndex, int sourceIndex) {
+        NeoLogger.debug("move({0}, {1}, {2})", new Object[]{feature.getName(), targetIndex, sourceIndex});
+
+        FeatureKey featureKey = FeatureKey.from(internalObject, feature);
+        int size = size(internalObject, feature);
+        checkElementIndex(sourceIndex, size, "Invalid move source index");
+        checkElementIndex(targetIndex, size, "Invalid move target index");
+
+        Object moved = backend.valueAtIndex(featureKey.withPosition(sourceIndex));
+        if (sourceIndex < targetIndex) {
+            for (int i = sourceIndex; i < targetIndex; i++) {
+                Object movingValue = backend.valueAtIndex(featureKey.withPosition(i + 1));
+                backend.storeValueAtIndex(featureKey.withPosition(i), movingValue);
+            }
+        }
+        else {
+            for (int i = sourceIndex; i > targetIndex; i--) {
+                Object movingValue = backend.valueAtIndex(featureKey.withPosition(i - 1));
+                backend.storeValueAtIndex(featureKey.withPosition(i), movingValue);
+            }
+        }
+        backend.storeValueAtIndex(featureKey.withPosition(targetIndex), moved);
+        return fromStoredValue(feature, moved);
+    }
+
+    @Override
+    public void setAll(InternalEObject internalObject, EStructuralFeature feature, Collection<?> values) {
+        PersistentEObject object = PersistentEObject.from(internalObject);
+
+        NeoLogger.debug("setAll({0}, {1}, {2})", new Object[]{object.id(), feature.getName(), values.size()});
+
+        FeatureKey featureKey = FeatureKey.from(object, feature);
+        int size = sizeOfMany(internalObject, feature);
+        // The values that are set again are attached back
+        detach(object, feature, containedIds(object, feature));
+        int i = 0;
+        for (Object value : values) {
+            backend.storeValueAtIndex(featureKey.withPosition(i++), toStoredValue(object, feature, value));
+        }
+        backend.storeValue(featureKey, values.size());
+        updateCardinality(feature, values.size() - size, values.size());
     }
 
     @Override
@@ -197,6 +328,9 @@ public class DirectWriteMapStoreWithIndices<P extends MapBackend> extends Direct
         } else {
             old = (Id) backend.storeValue(featureKey, value.id());
         }
+        if (nonNull(old) && !Objects.equals(old, value.id())) {
+            detach(object, reference, Collections.singletonList(old));
+        }
 
         return nonNull(old) ? eObject(old) : null;
     }
@@ -216,17 +350,33 @@ public class DirectWriteMapStoreWithIndices<P extends MapBackend> extends Direct
         return isNull(value) ? 0 : (Integer) value;
     }
 
+    @Override
+    protected List<Id> referencedIds(PersistentEObject object, EReference reference) {
+        if (!reference.isMany()) {
+            return super.referencedIds(object, reference);
+        }
+        Object size = getFromMap(object, reference);
+        int length = isNull(size) ? 0 : (int) size;
+        FeatureKey featureKey = FeatureKey.from(object, reference);
+        List<Id> ids = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            ids.add((Id) backend.valueAtIndex(featureKey.withPosition(i)));
+        }
+        return ids;
+    }
+
     /**
      * {@inheritDoc}
      * <p>
      * This method is an efficient implementation of
-     * {@link AbstractDirectWriteStore#toArray(InternalEObject, EStructuralFeature)}
+     * {@link AbstractDirectWriteStore#getAll(InternalEObject, EStructuralFeature)}
      * that takes benefit of the underlying backend to deserialize the entire
      * list once and return it as an array, avoiding multiple {@code get()}
-     * operations.
+     * operations. The referenced objects are resolved with a single call to
+     * {@link #eObjects(Collection)}.
      */
     @Override
-    public Object[] toArray(InternalEObject internalObject, EStructuralFeature feature) {
+    public Object[] getAll(InternalEObject internalObject, EStructuralFeature feature) {
         checkArgument(feature instanceof EReference || feature instanceof EAttribute,
                 "Cannot compute toArray from feature {0}: unkown EStructuralFeature type {1}",
                 feature.getName(), feature.getClass().getSimpleName());
@@ -234,7 +384,8 @@ public class DirectWriteMapStoreWithIndices<P extends MapBackend> extends Direct
         boolean isReference = feature instanceof EReference;
 
         if (feature.isMany()) {
-            int length = (int) getFromMap(object, feature);
+            Object size = getFromMap(object, feature);
+            int length = isNull(size) ? 0 : (int) size;
             if (isReference) {
                 return multiValuedReferenceToArray(object, (EReference) feature, new PersistentEObject[length]);
             } else {
@@ -314,9 +465,13 @@ public class DirectWriteMapStoreWithIndices<P extends MapBackend> extends Direct
     @SuppressWarnings("unchecked")
 	private <T> T[] multiValuedReferenceToArray(PersistentEObject object, EReference ref,  T[] output) {
         FeatureKey fk = FeatureKey.from(object,ref);
+        Id[] ids = new Id[output.length];
+        for (int i = 0; i < ids.length ; i++) {
+            ids[i] = (Id) backend.valueAtIndex(fk.withPosition(i));
+        }
+        List<EObject> objects = eObjects(Arrays.asList(ids));
         for (int i = 0; i < output.length ; i++) {
-            Id id = (Id) backend.valueAtIndex(fk.withPosition(i));
-            output[i] = (T) eObject(id);
+            output[i] = (T) objects.get(i);
         }
         return output;
     }
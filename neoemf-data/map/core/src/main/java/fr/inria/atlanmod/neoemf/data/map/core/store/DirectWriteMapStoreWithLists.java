@@ -12,12 +12,12 @@
 package fr.inria.atlanmod.neoemf.data.map.core.store;
 
 import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import fr.inria.atlanmod.neoemf.core.Id;
 import fr.inria.atlanmod.neoemf.core.PersistentEObject;
 import fr.inria.atlanmod.neoemf.data.map.core.MapBackend;
 import fr.inria.atlanmod.neoemf.data.store.AbstractPersistentStoreDecorator;
 import fr.inria.atlanmod.neoemf.data.structure.FeatureKey;
+import fr.inria.atlanmod.neoemf.util.cache.CacheGovernor;
 import org.eclipse.emf.ecore.EAttribute;
 import org.eclipse.emf.ecore.EReference;
 import org.eclipse.emf.ecore.EStructuralFeature;
@@ -26,13 +26,18 @@ import org.eclipse.emf.ecore.resource.Resource;
 import org.apache.commons.collections4.CollectionUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.function.Function;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkPositionIndex;
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 /**
  * A {@link DirectWriteMapStore} that uses Java {@link List}s instead of arrays to persist multi-valued
@@ -56,8 +61,7 @@ public class DirectWriteMapStoreWithLists<P extends MapBackend> extends DirectWr
      * In-memory cache that holds multi-valued {@link EStructuralFeature}s wrapped in a {@link List}, identified by
      * their associated {@link FeatureKey}.
      */
-    protected final Cache<FeatureKey, Object> objectsCache = Caffeine.newBuilder()
-            .maximumSize(DEFAULT_CACHE_SIZE).build();
+    protected final Cache<FeatureKey, Object> objectsCache = CacheGovernor.getInstance().newCache(DEFAULT_CACHE_SIZE);
 
     /**
      * Constructs a new {@code DirectWriteMapStore} between the given {@code resource} and the {@code backend}.
@@ -92,6 +96,16 @@ public class DirectWriteMapStoreWithLists<P extends MapBackend> extends DirectWr
         return value;
     }
 
+    @Override
+    @SuppressWarnings("unchecked") // Unchecked cast: 'List<Object>' to 'List<Id>'
+    protected List<Id> referencedIds(PersistentEObject object, EReference reference) {
+        if (!reference.isMany()) {
+            return super.referencedIds(object, reference);
+        }
+        List<Object> list = manyValueFrom(getFromMap(object, reference));
+        return isNull(list) ? Collections.emptyList() : (List<Id>) (List<?>) list;
+    }
+
     @Override
     public int size(InternalEObject internalObject, EStructuralFeature feature) {
         PersistentEObject object = PersistentEObject.from(internalObject);
@@ -99,6 +113,42 @@ public class DirectWriteMapStoreWithLists<P extends MapBackend> extends DirectWr
         return isNull(list) ? 0 : list.size();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The values are read from the cached {@link List}, and the referenced objects are resolved with a single call to
+     * {@link #eObjects(Collection)}.
+     */
+    @Override
+    public Object[] getAll(InternalEObject internalObject, EStructuralFeature feature) {
+        if (!feature.isMany()) {
+            return super.getAll(internalObject, feature);
+        }
+
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        List<Object> list = manyValueFrom(getFromMap(object, feature));
+        Object[] values = isNull(list) ? new Object[0] : list.toArray();
+        if (feature instanceof EReference) {
+            return eObjects(idsOf(values)).toArray();
+        }
+        for (int i = 0; i < values.length; i++) {
+            values[i] = parseProperty((EAttribute) feature, values[i]);
+        }
+        return values;
+    }
+
+    @Override
+    public <T> T[] toArray(InternalEObject internalObject, EStructuralFeature feature, T[] array) {
+        if (!feature.isMany()) {
+            return super.toArray(internalObject, feature, array);
+        }
+
+        Object[] values = getAll(internalObject, feature);
+        array = array.length < values.length ? Arrays.copyOf(array, values.length) : array;
+        System.arraycopy(values, 0, array, 0, values.length);
+        return array;
+    }
+
     @Override
     protected Object removeReference(PersistentEObject object, EReference reference, int index) {
         FeatureKey featureKey = FeatureKey.from(object, reference);
@@ -106,6 +156,7 @@ public class DirectWriteMapStoreWithLists<P extends MapBackend> extends DirectWr
         Object oldId = list.get(index);
         list.remove(index);
         backend.storeValue(featureKey, list.toArray());
+        detach(object, reference, Collections.singletonList((Id) oldId));
         return eObject((Id) oldId);
     }
 
@@ -143,6 +194,9 @@ public class DirectWriteMapStoreWithLists<P extends MapBackend> extends DirectWr
             list.set(index, value.id());
             backend.storeValue(featureKey, list.toArray());
         }
+        if (nonNull(oldId) && !Objects.equals(oldId, value.id())) {
+            detach(object, reference, Collections.singletonList((Id) oldId));
+        }
         return isNull(oldId) ? null : eObject((Id) oldId);
     }
 
@@ -205,8 +259,69 @@ public class DirectWriteMapStoreWithLists<P extends MapBackend> extends DirectWr
 
     @Override
     public void clear(InternalEObject internalObject, EStructuralFeature feature) {
-        FeatureKey featureKey = FeatureKey.from(internalObject, feature);
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        FeatureKey featureKey = FeatureKey.from(object, feature);
+        int size = sizeOfMany(internalObject, feature);
+        List<Id> contained = containedIds(object, feature);
         backend.storeValue(featureKey, new ArrayList<>());
+        detach(object, feature, contained);
+        updateCardinality(feature, -size, -1);
+    }
+
+    @Override
+    public void addAll(InternalEObject internalObject, EStructuralFeature feature, int index, Collection<?> values) {
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        FeatureKey featureKey = FeatureKey.from(object, feature);
+        List<Object> list = manyValueFrom(getFromMap(object, feature));
+        int position = index == NO_INDEX ? list.size() : index;
+        checkPositionIndex(position, list.size(), "Invalid add index");
+
+        List<Object> storedValues = new ArrayList<>(values.size());
+        for (Object value : values) {
+            storedValues.add(toStoredValue(object, feature, value));
+        }
+        list.addAll(position, storedValues);
+        backend.storeValue(featureKey, list.toArray());
+        updateCardinality(feature, storedValues.size(), list.size());
+    }
+
+    @Override
+    public void removeRange(InternalEObject internalObject, EStructuralFeature feature, int fromIndex, int toIndex) {
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        FeatureKey featureKey = FeatureKey.from(object, feature);
+        List<Object> list = manyValueFrom(getFromMap(object, feature));
+        List<Id> contained = containedIds(object, feature);
+        list.subList(fromIndex, toIndex).clear();
+        backend.storeValue(featureKey, list.toArray());
+        detach(object, feature, contained.isEmpty() ? contained : contained.subList(fromIndex, toIndex));
+        updateCardinality(feature, fromIndex - toIndex, list.size());
+    }
+
+    @Override
+    public Object move(InternalEObject internalObject, EStructuralFeature feature, int targetIndex, int sourceIndex) {
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        FeatureKey featureKey = FeatureKey.from(object, feature);
+        List<Object> list = manyValueFrom(getFromMap(object, feature));
+        Object moved = list.remove(sourceIndex);
+        list.add(targetIndex, moved);
+        backend.storeValue(featureKey, list.toArray());
+        return fromStoredValue(feature, moved);
+    }
+
+    @Override
+    public void setAll(InternalEObject internalObject, EStructuralFeature feature, Collection<?> values) {
+        PersistentEObject object = PersistentEObject.from(internalObject);
+        FeatureKey featureKey = FeatureKey.from(object, feature);
+        // The values that are set again are attached back
+        detach(object, feature, containedIds(object, feature));
+        List<Object> list = manyValueFrom(getFromMap(object, feature));
+        int size = list.size();
+        list.clear();
+        for (Object value : values) {
+            list.add(toStoredValue(object, feature, value));
+        }
+        backend.storeValue(featureKey, list.toArray());
+        updateCardinality(feature, list.size() - size, list.size());
     }
 
     @Override
@@ -217,7 +332,7 @@ public class DirectWriteMapStoreWithLists<P extends MapBackend> extends DirectWr
         if (isNull(list)) {
             index = NO_INDEX;
         } else if (feature instanceof EAttribute) {
-            index = list.lastIndexOf(serializeToProperty((EAttribute) feature, value));
+            index = indexOfProperty(list, (EAttribute) feature, value, true);
         } else {
             PersistentEObject childEObject = PersistentEObject.from(value);
             index = list.lastIndexOf(childEObject.id());
@@ -233,7 +348,7 @@ public class DirectWriteMapStoreWithLists<P extends MapBackend> extends DirectWr
         if (isNull(list)) {
             index = NO_INDEX;
         } else if (feature instanceof EAttribute) {
-            index = list.indexOf(serializeToProperty((EAttribute) feature, value));
+            index = indexOfProperty(list, (EAttribute) feature, value, false);
         } else {
             PersistentEObject childEObject = PersistentEObject.from(value);
             index = list.indexOf(childEObject.id());
@@ -241,6 +356,12 @@ public class DirectWriteMapStoreWithLists<P extends MapBackend> extends DirectWr
         return index;
     }
 
+    @Override
+    public void invalidate(Set<FeatureKey> featureKeys) {
+        super.invalidate(featureKeys);
+        objectsCache.invalidateAll(featureKeys);
+    }
+
 
     /**
      * A cache loader to retrieve a {@link Object} stored in the database.
@@ -15,23 +15,44 @@ import fr.inria.atlanmod.neoemf.annotations.VisibleForTesting;
 import fr.inria.atlanmod.neoemf.core.Id;
 import fr.inria.atlanmod.neoemf.core.PersistentEObject;
 import fr.inria.atlanmod.neoemf.data.AbstractPersistenceBackend;
+import fr.inria.atlanmod.neoemf.data.AncestorIndex;
+import fr.inria.atlanmod.neoemf.data.AttributeIndex;
+import fr.inria.atlanmod.neoemf.data.InverseReferenceIndex;
 import fr.inria.atlanmod.neoemf.data.PersistenceBackend;
+import fr.inria.atlanmod.neoemf.data.StatisticsTable;
 import fr.inria.atlanmod.neoemf.data.map.core.MapBackend;
 import fr.inria.atlanmod.neoemf.data.mapdb.serializer.FeatureKeySerializer;
 import fr.inria.atlanmod.neoemf.data.mapdb.serializer.IdSerializer;
 import fr.inria.atlanmod.neoemf.data.mapdb.serializer.MultivaluedFeatureKeySerializer;
+import fr.inria.atlanmod.neoemf.data.structure.AncestorInfo;
 import fr.inria.atlanmod.neoemf.data.structure.ClassInfo;
 import fr.inria.atlanmod.neoemf.data.structure.ContainerInfo;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureCardinality;
 import fr.inria.atlanmod.neoemf.data.structure.FeatureKey;
+import fr.inria.atlanmod.neoemf.data.structure.InverseReferenceInfo;
 import fr.inria.atlanmod.neoemf.data.structure.MultivaluedFeatureKey;
 import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EReference;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.mapdb.DB;
 import org.mapdb.HTreeMap;
 import org.mapdb.Serializer;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 /**
  * {@link PersistenceBackend} that is responsible of low-level access to a MapDB database.
@@ -82,32 +103,138 @@ public class MapDbPersistenceBackend extends AbstractPersistenceBackend implemen
      */
     private static final String KEY_MULTIVALUED_FEATURES = "multivaluedFeatures";
 
+    /**
+     * The name of the map holding the identifiers of the detached objects, which are not counted as instances.
+     */
+    private static final String KEY_DETACHED = "detached";
+
+    /**
+     * The name of the map holding the {@link StatisticsTable}.
+     */
+    private static final String KEY_STATISTICS = "statistics";
+
+    /**
+     * The name of the map holding the ancestors of each object in the {@link AncestorIndex}.
+     * <p>
+     * The name differs from the one of the former index, which held the full path of each object, so that the index
+     * of an existing database is rebuilt in the new format when it is enabled.
+     */
+    private static final String KEY_ANCESTORS = "ancestorLinks";
+
+    /**
+     * The name of the ordered set holding the link keys of the {@link AncestorIndex}.
+     */
+    private static final String KEY_ANCESTOR_CONTENTS = "ancestorContents";
+
+    /**
+     * The name of the set holding the indexed attributes of the {@link AttributeIndex}.
+     */
+    private static final String KEY_INDEXED_ATTRIBUTES = "indexedAttributes";
+
+    /**
+     * The name of the ordered set holding the entry keys of the {@link AttributeIndex}.
+     */
+    private static final String KEY_ATTRIBUTE_ENTRIES = "attributeEntries";
+
+    /**
+     * The name of the ordered map holding the entries of the {@link InverseReferenceIndex}.
+     */
+    private static final String KEY_INVERSE_REFERENCES = "inverseReferenceEntries";
+
+    /**
+     * The statistics about the content of the database, persisted in {@link #statisticsMap} when saving.
+     */
+    private final StatisticsTable statistics = new StatisticsTable();
+
     /**
      * The MapDB database.
      */
-    private final DB db;
+    private DB db;
 
     /**
      * A persistent map that stores the container of {@link PersistentEObject}s, identified by the object {@link Id}.
      */
-    private final HTreeMap<Id, ContainerInfo> containersMap;
+    private HTreeMap<Id, ContainerInfo> containersMap;
 
     /**
      * A persistent map that stores the EClass for {@link PersistentEObject}s, identified by the object {@link Id}.
      */
-    private final HTreeMap<Id, ClassInfo> instanceOfMap;
+    private HTreeMap<Id, ClassInfo> instanceOfMap;
 
     /**
      * A persistent map that stores Structural feature values for {@link PersistentEObject}s, identified by the
      * associated {@link FeatureKey}.
      */
-    private final HTreeMap<FeatureKey, Object> features;
+    private HTreeMap<FeatureKey, Object> features;
 
     /**
      * A persistent map that store the values of multi-valued features for {@link PersistentEObject}s, identified by the
      * associated {@link MultivaluedFeatureKey}.
      */
-    private final HTreeMap<MultivaluedFeatureKey, Object> multivaluedFeatures;
+    private HTreeMap<MultivaluedFeatureKey, Object> multivaluedFeatures;
+
+    /**
+     * A persistent map that stores the identifiers of the {@link PersistentEObject}s that have been detached from
+     * their container, and are not counted as instances until they are attached again.
+     */
+    private HTreeMap<Id, Boolean> detachedMap;
+
+    /**
+     * A persistent map that stores the content of the {@link #statistics} table.
+     */
+    private HTreeMap<String, Long> statisticsMap;
+
+    /**
+     * A persistent map that stores the ancestors of {@link PersistentEObject}s, identified by the object {@link Id}, or
+     * {@code null} if the ancestor index is not enabled.
+     */
+    private HTreeMap<Id, AncestorInfo> ancestorsMap;
+
+    /**
+     * A persistent ordered set that stores the link keys of the {@link #ancestorIndex}, or {@code null} if the ancestor
+     * index is not enabled.
+     */
+    private NavigableSet<String> ancestorContents;
+
+    /**
+     * The index of the ancestors of each object, or {@code null} if it is not enabled.
+     */
+    private AncestorIndex ancestorIndex;
+
+    /**
+     * A persistent set that stores the attributes indexed by the {@link #attributeIndex}, or {@code null} if no
+     * attribute is indexed.
+     */
+    private Set<String> indexedAttributes;
+
+    /**
+     * A persistent ordered set that stores the entry keys of the {@link #attributeIndex}, or {@code null} if no
+     * attribute is indexed.
+     */
+    private NavigableSet<String> attributeEntries;
+
+    /**
+     * The index of the values of some attributes, or {@code null} if no attribute is indexed.
+     */
+    private AttributeIndex attributeIndex;
+
+    /**
+     * The metaclasses registered since this back-end has been opened, whose annotated attributes are indexed.
+     *
+     * @see #registerMetaclass(EClass)
+     */
+    private final Set<EClass> registeredMetaclasses = ConcurrentHashMap.newKeySet();
+
+    /**
+     * A persistent ordered map that stores the entries of the {@link #inverseReferenceIndex}, or {@code null} if the
+     * inverse reference index is not enabled.
+     */
+    private NavigableMap<String, Integer> inverseReferencesMap;
+
+    /**
+     * The index of the inverse references of each object, or {@code null} if it is not enabled.
+     */
+    private InverseReferenceIndex inverseReferenceIndex;
 
     /**
      * Constructs a new {@code MapDbPersistenceBackend} wrapping the provided {@code db}.
@@ -122,9 +249,24 @@ public class MapDbPersistenceBackend extends AbstractPersistenceBackend implemen
      *
      * @see MapDbPersistenceBackendFactory
      */
-    @SuppressWarnings("unchecked")
     protected MapDbPersistenceBackend(DB db) {
+        open(db);
+
+        if (statisticsMap.isEmpty() && instanceOfMap.isEmpty()) {
+            statistics.reset();
+        }
+        else {
+            statistics.load(statisticsMap);
+        }
+    }
 
+    /**
+     * Initializes the different {@link Map}s from the given {@code db}, and uses it as the underlying database.
+     *
+     * @param db the {@link DB} used to creates the used {@link Map}s and manage the database
+     */
+    @SuppressWarnings("unchecked")
+    private void open(DB db) {
         this.db = db;
 
         containersMap = this.db.hashMap(KEY_CONTAINER)
@@ -146,6 +288,239 @@ public class MapDbPersistenceBackend extends AbstractPersistenceBackend implemen
                 .keySerializer(new MultivaluedFeatureKeySerializer())
                 .valueSerializer(Serializer.JAVA)
                 .createOrOpen();
+
+        detachedMap = this.db.hashMap(KEY_DETACHED)
+                .keySerializer(new IdSerializer())
+                .valueSerializer(Serializer.BOOLEAN)
+                .createOrOpen();
+
+        statisticsMap = this.db.hashMap(KEY_STATISTICS)
+                .keySerializer(Serializer.STRING)
+                .valueSerializer(Serializer.LONG)
+                .createOrOpen();
+
+        if (db.exists(KEY_ANCESTORS)) {
+            openAncestorIndex();
+        }
+        else {
+            ancestorsMap = null;
+            ancestorContents = null;
+            ancestorIndex = null;
+        }
+
+        if (db.exists(KEY_INDEXED_ATTRIBUTES)) {
+            openAttributeIndex();
+        }
+        else {
+            indexedAttributes = null;
+            attributeEntries = null;
+            attributeIndex = null;
+        }
+
+        if (db.exists(KEY_INVERSE_REFERENCES)) {
+            openInverseReferenceIndex();
+        }
+        else {
+            inverseReferencesMap = null;
+            inverseReferenceIndex = null;
+        }
+    }
+
+    /**
+     * Initializes the structures of the {@link #ancestorIndex} from the current database.
+     */
+    private void openAncestorIndex() {
+        ancestorsMap = this.db.hashMap(KEY_ANCESTORS)
+                .keySerializer(new IdSerializer())
+                .valueSerializer(Serializer.JAVA)
+                .createOrOpen();
+
+        ancestorContents = this.db.treeSet(KEY_ANCESTOR_CONTENTS, Serializer.STRING)
+                .createOrOpen();
+
+        ancestorIndex = new AncestorIndex(ancestorsMap, ancestorContents);
+    }
+
+    /**
+     * Enables the index of the ancestors of each object of this back-end, and builds it from the current containers
+     * if it did not exist yet.
+     * <p>
+     * Once enabled, the index is persisted and maintained every time this database is opened.
+     *
+     * @see AncestorIndex
+     */
+    public void enableAncestorIndex() {
+        if (isNull(ancestorIndex)) {
+            openAncestorIndex();
+        }
+        if (ancestorIndex.isEmpty() && !containersMap.isEmpty()) {
+            NeoLogger.info("Building the ancestor index");
+            ancestorIndex.rebuild(containersMap);
+        }
+    }
+
+    /**
+     * Initializes the structures of the {@link #attributeIndex} from the current database.
+     */
+    private void openAttributeIndex() {
+        indexedAttributes = this.db.hashSet(KEY_INDEXED_ATTRIBUTES, Serializer.STRING)
+                .createOrOpen();
+
+        attributeEntries = this.db.treeSet(KEY_ATTRIBUTE_ENTRIES, Serializer.STRING)
+                .createOrOpen();
+
+        attributeIndex = new AttributeIndex(attributeEntries, indexedAttributes);
+    }
+
+    /**
+     * Enables the index of the values of the given single-valued {@code attribute}, and indexes its current values if
+     * it was not indexed yet.
+     * <p>
+     * Once enabled, the index is persisted and maintained every time this database is opened.
+     *
+     * @param attribute the attribute to index
+     *
+     * @see AttributeIndex
+     */
+    public void enableAttributeIndex(EAttribute attribute) {
+        if (isNull(attributeIndex)) {
+            openAttributeIndex();
+        }
+        if (attributeIndex.declare(attribute) && !features.isEmpty()) {
+            NeoLogger.info("Building the index of attribute {0}", attribute.getName());
+            rebuildAttributeIndex(attribute);
+        }
+    }
+
+    /**
+     * Indexes the current values of the given {@code attribute}, or of all the indexed attributes if {@code attribute}
+     * is {@code null}, by scanning the {@link #features}.
+     *
+     * @param attribute the attribute to index, or {@code null}
+     */
+    private void rebuildAttributeIndex(EAttribute attribute) {
+        Map<FeatureKey, Object> values = features;
+        for (Map.Entry<FeatureKey, Object> entry : values.entrySet()) {
+            FeatureKey key = entry.getKey();
+            if (nonNull(attribute) && !Objects.equals(key.name(), attribute.getName())) {
+                continue;
+            }
+            ClassInfo metaclass = instanceOfMap.get(key.id());
+            EClass eClass = isNull(metaclass) ? null : metaclass.eClass();
+            if (isNull(eClass) || isNull(entry.getValue())) {
+                continue;
+            }
+            EStructuralFeature feature = eClass.getEStructuralFeature(key.name());
+            if (feature instanceof EAttribute && (isNull(attribute) ? attributeIndex.isIndexed((EAttribute) feature) : feature == attribute)) {
+                attributeIndex.valueChanged(key.id(), (EAttribute) feature, null, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Initializes the structures of the {@link #inverseReferenceIndex} from the current database.
+     */
+    private void openInverseReferenceIndex() {
+        inverseReferencesMap = this.db.treeMap(KEY_INVERSE_REFERENCES, Serializer.STRING, Serializer.INTEGER)
+                .createOrOpen();
+
+        inverseReferenceIndex = new InverseReferenceIndex(inverseReferencesMap);
+    }
+
+    /**
+     * Enables the index of the inverse references of each object of this back-end, and builds it from the current
+     * references if it did not exist yet.
+     * <p>
+     * Once enabled, the index is persisted and maintained every time this database is opened.
+     *
+     * @see InverseReferenceIndex
+     */
+    public void enableInverseReferenceIndex() {
+        if (isNull(inverseReferenceIndex)) {
+            openInverseReferenceIndex();
+        }
+        if (inverseReferenceIndex.isEmpty() && !features.isEmpty()) {
+            NeoLogger.info("Building the inverse reference index");
+            rebuildInverseReferenceIndex();
+        }
+    }
+
+    /**
+     * Indexes the current references of all the objects, by scanning the {@link #features}.
+     */
+    private void rebuildInverseReferenceIndex() {
+        inverseReferenceIndex.clear();
+
+        Map<FeatureKey, Object> values = features;
+        for (Map.Entry<FeatureKey, Object> entry : values.entrySet()) {
+            FeatureKey key = entry.getKey();
+            ClassInfo metaclass = instanceOfMap.get(key.id());
+            EClass eClass = isNull(metaclass) ? null : metaclass.eClass();
+            EStructuralFeature feature = isNull(eClass) ? null : eClass.getEStructuralFeature(key.name());
+            if (feature instanceof EReference) {
+                inverseReferenceIndex.valueLoaded(key.id(), (EReference) feature, entry.getValue(), i -> multivaluedFeatures.get(key.withPosition(i)));
+            }
+        }
+    }
+
+    /**
+     * Returns the underlying MapDB database.
+     *
+     * @return the database
+     */
+    protected DB db() {
+        return db;
+    }
+
+    /**
+     * Moves all the content of this back-end to the given {@code target} database, and uses it as the new underlying
+     * database. The previous database is closed.
+     *
+     * @param target the database to move to
+     */
+    protected void moveTo(DB target) {
+        DB source = db;
+        Map<Id, ContainerInfo> sourceContainers = containersMap;
+        Map<Id, ClassInfo> sourceInstanceOf = instanceOfMap;
+        Map<FeatureKey, Object> sourceFeatures = features;
+        Map<MultivaluedFeatureKey, Object> sourceMultivaluedFeatures = multivaluedFeatures;
+        Map<Id, Boolean> sourceDetached = detachedMap;
+        Map<String, Long> sourceStatistics = statisticsMap;
+        Map<Id, AncestorInfo> sourceAncestors = ancestorsMap;
+        Set<String> sourceAncestorContents = ancestorContents;
+        Set<String> sourceIndexedAttributes = indexedAttributes;
+        Set<String> sourceAttributeEntries = attributeEntries;
+        Map<String, Integer> sourceInverseReferences = inverseReferencesMap;
+
+        open(target);
+
+        containersMap.putAll(sourceContainers);
+        instanceOfMap.putAll(sourceInstanceOf);
+        features.putAll(sourceFeatures);
+        multivaluedFeatures.putAll(sourceMultivaluedFeatures);
+        detachedMap.putAll(sourceDetached);
+        statisticsMap.putAll(sourceStatistics);
+        if (nonNull(sourceAncestors)) {
+            openAncestorIndex();
+            ancestorsMap.putAll(sourceAncestors);
+            ancestorContents.addAll(sourceAncestorContents);
+        }
+        if (nonNull(sourceIndexedAttributes)) {
+            openAttributeIndex();
+            indexedAttributes.addAll(sourceIndexedAttributes);
+            attributeEntries.addAll(sourceAttributeEntries);
+        }
+        if (nonNull(sourceInverseReferences)) {
+            openInverseReferenceIndex();
+            inverseReferencesMap.putAll(sourceInverseReferences);
+        }
+
+        try {
+            source.close();
+        }
+        catch (Exception e) {
+            NeoLogger.warn(e);
+        }
     }
 
     @Override
@@ -156,6 +531,9 @@ public class MapDbPersistenceBackend extends AbstractPersistenceBackend implemen
     @Override
     public void close() {
         try {
+            if (!db.isClosed()) {
+                flushStatistics();
+            }
             db.close();
         }
         catch (Exception e) {
@@ -165,9 +543,36 @@ public class MapDbPersistenceBackend extends AbstractPersistenceBackend implemen
 
     @Override
     public void save() {
+        flushStatistics();
         db.commit();
     }
 
+    /**
+     * Returns the {@link #statistics} table, after having counted the instances of the database if they are not
+     * tracked yet, i.e. if the database has been created before the statistics existed.
+     *
+     * @return the statistics table
+     */
+    private StatisticsTable rebuiltStatistics() {
+        if (!statistics.isTrackingInstances()) {
+            NeoLogger.info("Rebuilding the instance statistics");
+            Set<Id> ids = instanceOfMap.keySet();
+            statistics.rebuildInstances(ids.stream()
+                    .filter(id -> !detachedMap.containsKey(id))
+                    .map(instanceOfMap::get)
+                    .collect(Collectors.toList()));
+        }
+        return statistics;
+    }
+
+    /**
+     * Writes the content of the {@link #statistics} table in the database.
+     */
+    private void flushStatistics() {
+        statisticsMap.clear();
+        statisticsMap.putAll(statistics.asMap());
+    }
+
     @Override
     public boolean isDistributed() {
         return false;
@@ -193,6 +598,34 @@ public class MapDbPersistenceBackend extends AbstractPersistenceBackend implemen
     @Override
     public void storeContainer(Id id, ContainerInfo container) {
         containersMap.put(id, container);
+        if (nonNull(ancestorIndex)) {
+            ancestorIndex.containerChanged(id, container.id());
+        }
+    }
+
+    @Override
+    public void removeContainer(Id id) {
+        if (nonNull(containersMap.remove(id)) && nonNull(ancestorIndex)) {
+            ancestorIndex.containerChanged(id, null);
+        }
+    }
+
+    @Override
+    public void detach(Id id) {
+        ClassInfo metaclass = instanceOfMap.get(id);
+        if (nonNull(metaclass) && isNull(detachedMap.put(id, true))) {
+            statistics.instanceDeleted(metaclass);
+        }
+    }
+
+    @Override
+    public void attach(Id id) {
+        if (nonNull(detachedMap.remove(id))) {
+            ClassInfo metaclass = instanceOfMap.get(id);
+            if (nonNull(metaclass)) {
+                statistics.instanceCreated(metaclass);
+            }
+        }
     }
 
     @Override
@@ -202,7 +635,188 @@ public class MapDbPersistenceBackend extends AbstractPersistenceBackend implemen
 
     @Override
     public void storeMetaclass(Id id, ClassInfo metaclass) {
-        instanceOfMap.put(id, metaclass);
+        if (isNull(instanceOfMap.put(id, metaclass))) {
+            statistics.instanceCreated(metaclass);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The instances are counted in a {@link StatisticsTable}, updated every time a new metaclass is stored, and every
+     * time an object is detached or attached again.
+     */
+    @Override
+    public long countInstances(EClass eClass, boolean strict) {
+        return rebuiltStatistics().countInstances(eClass, strict);
+    }
+
+    @Override
+    public FeatureCardinality cardinalityOf(EStructuralFeature feature) {
+        return rebuiltStatistics().cardinalityOf(feature);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The ancestors are read from the {@link AncestorIndex}, if it has been enabled.
+     *
+     * @see #enableAncestorIndex()
+     */
+    @Override
+    public AncestorInfo ancestorsOf(Id id) {
+        if (isNull(ancestorIndex)) {
+            return MapBackend.super.ancestorsOf(id);
+        }
+        return ancestorIndex.ancestorsOf(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The descendants are read from the {@link AncestorIndex}, if it has been enabled.
+     *
+     * @see #enableAncestorIndex()
+     */
+    @Override
+    public List<Id> descendantsOf(Id id) {
+        if (isNull(ancestorIndex)) {
+            return MapBackend.super.descendantsOf(id);
+        }
+        return ancestorIndex.descendantsOf(id);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The index of the annotated attributes of the {@code eClass} is {@link #enableAttributeIndex(EAttribute) enabled}
+     * the first time it is registered.
+     *
+     * @see AttributeIndex#annotatedAttributes(EClass)
+     */
+    @Override
+    public void registerMetaclass(EClass eClass) {
+        if (registeredMetaclasses.add(eClass)) {
+            for (EAttribute attribute : AttributeIndex.annotatedAttributes(eClass)) {
+                enableAttributeIndex(attribute);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * An attribute is indexed once it has been {@link #enableAttributeIndex(EAttribute) enabled}, either explicitly,
+     * or because it is annotated in its metamodel and its metaclass has been {@link #registerMetaclass(EClass)
+     * registered}.
+     */
+    @Override
+    public boolean isIndexed(EAttribute attribute) {
+        return nonNull(attributeIndex) && attributeIndex.isIndexed(attribute);
+    }
+
+    @Override
+    public void attributeChanged(Id id, EAttribute attribute, Object oldValue, Object newValue) {
+        if (nonNull(attributeIndex)) {
+            attributeIndex.valueChanged(id, attribute, oldValue, newValue);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The identifiers are read from the {@link AttributeIndex}, if the attribute is indexed.
+     *
+     * @see #enableAttributeIndex(EAttribute)
+     */
+    @Override
+    public List<Id> findBy(EAttribute attribute, Object value) {
+        if (!isIndexed(attribute)) {
+            return MapBackend.super.findBy(attribute, value);
+        }
+        return attributeIndex.find(attribute, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The identifiers are read from the {@link AttributeIndex}, if the attribute is indexed.
+     *
+     * @see #enableAttributeIndex(EAttribute)
+     */
+    @Override
+    public List<Id> findByRange(EAttribute attribute, Object from, Object to) {
+        if (!isIndexed(attribute)) {
+            return MapBackend.super.findByRange(attribute, from, to);
+        }
+        return attributeIndex.findRange(attribute, from, to);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The identifiers are read from the {@link AttributeIndex}, if the attribute is indexed.
+     *
+     * @see #enableAttributeIndex(EAttribute)
+     */
+    @Override
+    public List<Id> findByPrefix(EAttribute attribute, String prefix) {
+        if (!isIndexed(attribute)) {
+            return MapBackend.super.findByPrefix(attribute, prefix);
+        }
+        return attributeIndex.findPrefix(attribute, prefix);
+    }
+
+    @Override
+    public boolean hasInverseReferenceIndex() {
+        return nonNull(inverseReferenceIndex);
+    }
+
+    @Override
+    public void referenceChanged(Id source, EReference reference, Id oldTarget, Id newTarget) {
+        if (nonNull(inverseReferenceIndex)) {
+            inverseReferenceIndex.referenceChanged(source, reference, oldTarget, newTarget);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The inverse references are read from the {@link InverseReferenceIndex}, if it has been enabled.
+     *
+     * @see #enableInverseReferenceIndex()
+     */
+    @Override
+    public InverseReferenceInfo inverseReferencesOf(Id id) {
+        if (isNull(inverseReferenceIndex)) {
+            return MapBackend.super.inverseReferencesOf(id);
+        }
+        return inverseReferenceIndex.inverseReferencesOf(id);
+    }
+
+    /**
+     * Starts tracking the cardinalities of the multi-valued features of this back-end. The cardinalities can only be
+     * tracked from the creation of the database: this method has no effect on a database that already contains
+     * objects, and whose cardinalities are not tracked yet.
+     * <p>
+     * Once enabled, the cardinalities are persisted and maintained every time this database is opened.
+     *
+     * @see StatisticsTable#trackFeatures()
+     */
+    public void enableFeatureStatistics() {
+        if (!statistics.trackFeatures()) {
+            NeoLogger.warn("The feature statistics can only be enabled on an empty database");
+        }
+    }
+
+    @Override
+    public boolean isTrackingCardinalities() {
+        return statistics.isTrackingFeatures();
+    }
+
+    @Override
+    public void updateCardinality(EStructuralFeature feature, int delta, int size) {
+        statistics.updateCardinality(feature, delta, size);
     }
 
     @Override
@@ -238,7 +852,20 @@ public class MapDbPersistenceBackend extends AbstractPersistenceBackend implemen
     //@Override
     @SuppressWarnings({"unchecked", "rawtypes"}) // Unchecked cast: 'Map' to 'Map<...>'
     public void copyTo(MapDbPersistenceBackend target) {
+        flushStatistics();
         for (Map.Entry<String, Object> entry : db.getAll().entrySet()) {
+            if (Objects.equals(entry.getKey(), KEY_ANCESTORS) || Objects.equals(entry.getKey(), KEY_ANCESTOR_CONTENTS)) {
+                // The ancestor index is rebuilt by the target, if it is enabled
+                continue;
+            }
+            if (Objects.equals(entry.getKey(), KEY_INDEXED_ATTRIBUTES) || Objects.equals(entry.getKey(), KEY_ATTRIBUTE_ENTRIES)) {
+                // The attribute index is rebuilt by the target, for the attributes it indexes
+                continue;
+            }
+            if (Objects.equals(entry.getKey(), KEY_INVERSE_REFERENCES)) {
+                // The inverse reference index is rebuilt by the target, if it is enabled
+                continue;
+            }
             Object collection = entry.getValue();
             if (collection instanceof Map) {
                 Map fromMap = (Map) collection;
@@ -250,5 +877,15 @@ public class MapDbPersistenceBackend extends AbstractPersistenceBackend implemen
                 throw new UnsupportedOperationException("Cannot copy MapDB backend: store type " + collection.getClass().getSimpleName() + " is not supported");
             }
         }
+        target.statistics.merge(statistics.asMap());
+        if (nonNull(target.ancestorIndex)) {
+            target.ancestorIndex.rebuild(target.containersMap);
+        }
+        if (nonNull(target.attributeIndex)) {
+            target.rebuildAttributeIndex(null);
+        }
+        if (nonNull(target.inverseReferenceIndex)) {
+            target.rebuildInverseReferenceIndex();
+        }
     }
 }
@@ -24,25 +24,30 @@ import fr.inria.atlanmod.neoemf.data.mapdb.option.MapDbStoreOptions;
 import fr.inria.atlanmod.neoemf.data.mapdb.util.MapDbURI;
 import fr.inria.atlanmod.neoemf.data.store.AutocommitStoreDecorator;
 import fr.inria.atlanmod.neoemf.data.store.PersistentStore;
+import fr.inria.atlanmod.neoemf.option.PersistentResourceOptions;
 import fr.inria.atlanmod.neoemf.option.PersistentStoreOptions;
 import fr.inria.atlanmod.neoemf.resource.PersistentResource;
 import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
 
 import org.apache.commons.io.FileUtils;
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
 import org.mapdb.DB;
 import org.mapdb.DBMaker;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 import javax.annotation.Nonnull;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 /**
  * A factory that creates instances of {@link MapDbPersistenceBackend}.
@@ -66,6 +71,12 @@ public class MapDbPersistenceBackendFactory extends AbstractPersistenceBackendFa
      */
     public static final String NAME = MapDbPersistenceBackend.NAME;
 
+    /**
+     * The system property defining the number of bytes that transient back-ends can allocate in direct memory, before
+     * being moved to a temporary file.
+     */
+    public static final String TRANSIENT_MEMORY_BUDGET = "neoemf.mapdb.transient.budget";
+
     /**
      * Constructs a new {@code MapDbPersistenceBackendFactory}.
      */
@@ -113,13 +124,27 @@ public class MapDbPersistenceBackendFactory extends AbstractPersistenceBackendFa
             throw new InvalidDataStoreException();
         }
         else if (storeOptions.contains(MapDbStoreOptions.AUTOCOMMIT)) {
-            store = new AutocommitStoreDecorator(store);
+            store = new AutocommitStoreDecorator(store, getCommitPolicy(options));
         }
         return store;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * By default, the created back-end is stored in the Java heap. If the system property {@value
+     * #TRANSIENT_MEMORY_BUDGET} is defined, the back-end is stored in direct memory and is moved to a temporary file
+     * when its size exceeds the defined number of bytes.
+     *
+     * @see OffHeapMapDbPersistenceBackend
+     */
     @Override
     public PersistenceBackend createTransientBackend() {
+        long memoryBudget = Long.getLong(TRANSIENT_MEMORY_BUDGET, -1L);
+        if (memoryBudget > 0) {
+            return new OffHeapMapDbPersistenceBackend(memoryBudget);
+        }
+
         DB db = DBMaker.memoryDB().make();
         return new MapDbPersistenceBackend(db);
     }
@@ -140,6 +165,20 @@ public class MapDbPersistenceBackendFactory extends AbstractPersistenceBackendFa
 
         DB db = DBMaker.fileDB(dbFile).fileMmapEnableIfSupported().make();
         backend = new MapDbPersistenceBackend(db);
+        if (nonNull(options) && Objects.equals(Boolean.TRUE, options.get(PersistentResourceOptions.FEATURE_STATISTICS))) {
+            backend.enableFeatureStatistics();
+        }
+        if (nonNull(options) && Objects.equals(Boolean.TRUE, options.get(PersistentResourceOptions.ANCESTOR_INDEX))) {
+            backend.enableAncestorIndex();
+        }
+        if (nonNull(options) && options.get(PersistentResourceOptions.ATTRIBUTE_INDEXES) instanceof Collection) {
+            for (Object attribute : (Collection<?>) options.get(PersistentResourceOptions.ATTRIBUTE_INDEXES)) {
+                backend.enableAttributeIndex((EAttribute) attribute);
+            }
+        }
+        if (nonNull(options) && Objects.equals(Boolean.TRUE, options.get(PersistentResourceOptions.INVERSE_REFERENCE_INDEX))) {
+            backend.enableInverseReferenceIndex();
+        }
         processGlobalConfiguration(directory);
 
         return backend;
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.data.mapdb;
+
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.data.structure.ClassInfo;
+import fr.inria.atlanmod.neoemf.data.structure.ContainerInfo;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureKey;
+import fr.inria.atlanmod.neoemf.data.structure.MultivaluedFeatureKey;
+import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
+
+import org.mapdb.DBMaker;
+import org.mapdb.Store;
+import org.mapdb.StoreDirect;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A transient {@link MapDbPersistenceBackend} that stores its content in direct (off-heap) memory, and moves it to a
+ * temporary file when its size exceeds a memory budget.
+ * <p>
+ * Keeping the content out of the Java heap avoids increasing the garbage collection pauses when building large models
+ * before saving them. The temporary file is deleted when this back-end is closed.
+ *
+ * @see MapDbPersistenceBackendFactory#createTransientBackend()
+ */
+public class OffHeapMapDbPersistenceBackend extends MapDbPersistenceBackend {
+
+    /**
+     * The number of write operations between two checks of the memory used by the database.
+     */
+    private static final int CHECK_INTERVAL = 10000;
+
+    /**
+     * The maximum number of bytes that can be allocated in memory before moving the database to a temporary file.
+     */
+    private final long memoryBudget;
+
+    /**
+     * The number of write operations since the last check of the memory used by the database.
+     */
+    private int writeCount;
+
+    /**
+     * Whether the database has been moved to a temporary file.
+     */
+    private boolean isSpilled;
+
+    /**
+     * Constructs a new {@code OffHeapMapDbPersistenceBackend} with the given {@code memoryBudget}.
+     * <p>
+     * This constructor is protected. To create a new {@code OffHeapMapDbPersistenceBackend} use {@link
+     * MapDbPersistenceBackendFactory#createTransientBackend()}.
+     *
+     * @param memoryBudget the maximum number of bytes that can be allocated in memory before moving the database to a
+     *                     temporary file
+     */
+    protected OffHeapMapDbPersistenceBackend(long memoryBudget) {
+        super(DBMaker.memoryDirectDB().cleanerHackEnable().make());
+        checkArgument(memoryBudget > 0, "The memory budget must be positive");
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Returns whether the database has been moved to a temporary file.
+     *
+     * @return {@code true} if the database is stored in a temporary file, {@code false} if it is still in memory
+     */
+    public boolean isSpilled() {
+        return isSpilled;
+    }
+
+    @Override
+    public void storeContainer(Id id, ContainerInfo container) {
+        super.storeContainer(id, container);
+        written();
+    }
+
+    @Override
+    public void storeMetaclass(Id id, ClassInfo metaclass) {
+        super.storeMetaclass(id, metaclass);
+        written();
+    }
+
+    @Override
+    public Object storeValue(FeatureKey key, Object value) {
+        Object old = super.storeValue(key, value);
+        written();
+        return old;
+    }
+
+    @Override
+    public Object storeValueAtIndex(MultivaluedFeatureKey key, Object value) {
+        Object old = super.storeValueAtIndex(key, value);
+        written();
+        return old;
+    }
+
+    /**
+     * Records a write operation, and periodically checks whether the database exceeds the memory budget. If so, the
+     * database is moved to a temporary file.
+     */
+    private void written() {
+        if (isSpilled || ++writeCount < CHECK_INTERVAL) {
+            return;
+        }
+        writeCount = 0;
+
+        long size = allocatedSize();
+        if (size > memoryBudget) {
+            NeoLogger.info("Moving the transient database to a temporary file ({0} bytes allocated, budget = {1} bytes)", size, memoryBudget);
+            moveTo(DBMaker.tempFileDB().fileMmapEnableIfSupported().cleanerHackEnable().deleteFilesAfterClose().make());
+            isSpilled = true;
+        }
+    }
+
+    /**
+     * Returns the number of bytes allocated by the in-memory database.
+     *
+     * @return the number of bytes
+     */
+    private long allocatedSize() {
+        Store store = db().getStore();
+        return store instanceof StoreDirect ? ((StoreDirect) store).getTotalSize() : 0;
+    }
+}
@@ -39,6 +39,19 @@ public class MapDbPersistenceBackendFactoryTest extends AbstractPersistenceBacke
         // TODO Need to test further the nature of the MapDB engine
     }
 
+    @Test
+    public void testCreateOffHeapTransientBackend() {
+        System.setProperty(MapDbPersistenceBackendFactory.TRANSIENT_MEMORY_BUDGET, "1048576");
+        try {
+            PersistenceBackend backend = context().persistenceBackendFactory().createTransientBackend();
+            assertThat(backend).isInstanceOf(OffHeapMapDbPersistenceBackend.class);
+            backend.close();
+        }
+        finally {
+            System.clearProperty(MapDbPersistenceBackendFactory.TRANSIENT_MEMORY_BUDGET);
+        }
+    }
+
     @Test
     public void testCreateTransientEStore() throws NoSuchFieldException, SecurityException, IllegalArgumentException, IllegalAccessException {
         PersistenceBackend backend = context().persistenceBackendFactory().createTransientBackend();
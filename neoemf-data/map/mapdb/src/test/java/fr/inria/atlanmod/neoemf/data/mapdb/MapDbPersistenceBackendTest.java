@@ -12,10 +12,24 @@
 package fr.inria.atlanmod.neoemf.data.mapdb;
 
 import fr.inria.atlanmod.neoemf.AbstractTest;
+import fr.inria.atlanmod.neoemf.core.Id;
 import fr.inria.atlanmod.neoemf.core.StringId;
+import fr.inria.atlanmod.neoemf.data.AttributeIndex;
+import fr.inria.atlanmod.neoemf.data.structure.AncestorInfo;
+import fr.inria.atlanmod.neoemf.data.structure.ClassInfo;
+import fr.inria.atlanmod.neoemf.data.structure.ContainerInfo;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureCardinality;
 import fr.inria.atlanmod.neoemf.data.structure.FeatureKey;
+import fr.inria.atlanmod.neoemf.data.structure.InverseReferenceInfo;
 import fr.inria.atlanmod.neoemf.data.structure.MultivaluedFeatureKey;
 
+import org.eclipse.emf.ecore.EAnnotation;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
 import org.junit.Test;
 import org.mapdb.DB;
 import org.mapdb.DBMaker;
@@ -23,7 +37,11 @@ import org.mapdb.DataInput2;
 import org.mapdb.DataOutput2;
 import org.mapdb.Serializer;
 
+import java.util.Arrays;
+import java.util.Map;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 
 public class MapDbPersistenceBackendTest extends AbstractTest {
 
@@ -56,6 +74,241 @@ public class MapDbPersistenceBackendTest extends AbstractTest {
         }
     }
 
+    @Test
+    public void testOffHeapMovedToFile() {
+        final int TIMES = 20000;
+        OffHeapMapDbPersistenceBackend backend = new OffHeapMapDbPersistenceBackend(1);
+
+        for (int i = 0; i < TIMES; i++) {
+            backend.storeValue(FeatureKey.of(new StringId("object" + i), "name"), "value" + i);
+        }
+
+        assertThat(backend.isSpilled()).isTrue();
+
+        for (int i = 0; i < TIMES; i++) {
+            assertThat(backend.valueOf(FeatureKey.of(new StringId("object" + i), "name"))).isEqualTo("value" + i);
+        }
+
+        backend.close();
+        assertThat(backend.isClosed()).isTrue();
+    }
+
+    @Test
+    public void testOffHeapInMemory() {
+        OffHeapMapDbPersistenceBackend backend = new OffHeapMapDbPersistenceBackend(Long.MAX_VALUE);
+        FeatureKey key = FeatureKey.of(new StringId("object1"), "name");
+        backend.storeValue(key, "value");
+
+        assertThat(backend.isSpilled()).isFalse();
+        assertThat(backend.valueOf(key)).isEqualTo("value");
+
+        backend.close();
+    }
+
+    @Test
+    public void testCountInstances() {
+        DB db = DBMaker.memoryDB().make();
+        MapDbPersistenceBackend backend = new MapDbPersistenceBackend(db);
+        ClassInfo eClass = ClassInfo.of("EClass", EcorePackage.eNS_URI);
+        backend.enableFeatureStatistics();
+
+        backend.storeMetaclass(new StringId("object1"), eClass);
+        backend.storeMetaclass(new StringId("object2"), eClass);
+        backend.storeMetaclass(new StringId("object2"), eClass);
+        backend.storeMetaclass(new StringId("object3"), ClassInfo.of("EEnum", EcorePackage.eNS_URI));
+        backend.updateCardinality(EcorePackage.Literals.ECLASS__ESUPER_TYPES, 1, 1);
+        backend.save();
+
+        assertThat(backend.countInstances(EcorePackage.Literals.ECLASS, true)).isEqualTo(2);
+        assertThat(backend.countInstances(EcorePackage.Literals.ECLASSIFIER, false)).isEqualTo(3);
+
+        MapDbPersistenceBackend reopened = new MapDbPersistenceBackend(db);
+        assertThat(reopened.countInstances(EcorePackage.Literals.ECLASSIFIER, false)).isEqualTo(3);
+        assertThat(reopened.cardinalityOf(EcorePackage.Literals.ECLASS__ESUPER_TYPES)).isEqualTo(FeatureCardinality.of(2, 1, 1));
+    }
+
+    @Test
+    public void testCountInstancesDetached() {
+        DB db = DBMaker.memoryDB().make();
+        MapDbPersistenceBackend backend = new MapDbPersistenceBackend(db);
+        Id object1 = new StringId("object1");
+        backend.storeMetaclass(object1, ClassInfo.of("EClass", EcorePackage.eNS_URI));
+        backend.storeMetaclass(new StringId("object2"), ClassInfo.of("EClass", EcorePackage.eNS_URI));
+
+        backend.detach(object1);
+        backend.detach(object1);
+        assertThat(backend.countInstances(EcorePackage.Literals.ECLASS, true)).isEqualTo(1);
+
+        // Detached objects are not counted when the statistics are rebuilt
+        backend.<Map<String, Long>>get("statistics").clear();
+        assertThat(new MapDbPersistenceBackend(db).countInstances(EcorePackage.Literals.ECLASS, true)).isEqualTo(1);
+
+        backend.attach(object1);
+        backend.attach(object1);
+        assertThat(backend.countInstances(EcorePackage.Literals.ECLASS, true)).isEqualTo(2);
+    }
+
+    @Test
+    public void testCountInstancesRebuilt() {
+        DB db = DBMaker.memoryDB().make();
+        MapDbPersistenceBackend backend = new MapDbPersistenceBackend(db);
+        backend.storeMetaclass(new StringId("object1"), ClassInfo.of("EClass", EcorePackage.eNS_URI));
+
+        // Simulates a database created before the statistics existed
+        backend.<Map<String, Long>>get("statistics").clear();
+
+        MapDbPersistenceBackend reopened = new MapDbPersistenceBackend(db);
+        assertThat(reopened.countInstances(EcorePackage.Literals.ECLASS, true)).isEqualTo(1);
+
+        Throwable thrown = catchThrowable(() -> reopened.cardinalityOf(EcorePackage.Literals.ECLASS__ESUPER_TYPES));
+        assertThat(thrown).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void testAncestorIndex() {
+        DB db = DBMaker.memoryDB().make();
+        MapDbPersistenceBackend backend = new MapDbPersistenceBackend(db);
+        Id root = new StringId("root");
+        Id object1 = new StringId("object1");
+        Id object2 = new StringId("object2");
+
+        backend.storeContainer(object1, ContainerInfo.of(root, "contents"));
+
+        Throwable thrown = catchThrowable(() -> backend.ancestorsOf(object1));
+        assertThat(thrown).isInstanceOf(UnsupportedOperationException.class);
+
+        // Built from the existing containers
+        backend.enableAncestorIndex();
+        backend.storeContainer(object2, ContainerInfo.of(object1, "children"));
+        backend.save();
+
+        assertThat(backend.ancestorsOf(object2)).isEqualTo(AncestorInfo.of(root, object1, 2));
+        assertThat(backend.descendantsOf(root)).containsOnly(object1, object2);
+
+        // Maintained without being enabled again
+        MapDbPersistenceBackend reopened = new MapDbPersistenceBackend(db);
+        assertThat(reopened.ancestorsOf(object2)).isEqualTo(AncestorInfo.of(root, object1, 2));
+        assertThat(reopened.descendantsOf(object1)).containsOnly(object2);
+    }
+
+    @Test
+    public void testAttributeIndex() {
+        DB db = DBMaker.memoryDB().make();
+        MapDbPersistenceBackend backend = new MapDbPersistenceBackend(db);
+        EAttribute name = EcorePackage.Literals.ENAMED_ELEMENT__NAME;
+        Id object1 = new StringId("object1");
+        Id object2 = new StringId("object2");
+
+        backend.storeMetaclass(object1, ClassInfo.of(EcorePackage.Literals.ECLASS.getName(), EcorePackage.eNS_URI));
+        backend.storeMetaclass(object2, ClassInfo.of(EcorePackage.Literals.EPACKAGE.getName(), EcorePackage.eNS_URI));
+        backend.storeValue(FeatureKey.of(object1, "name"), "Foo");
+
+        assertThat(backend.isIndexed(name)).isFalse();
+        Throwable thrown = catchThrowable(() -> backend.findBy(name, "Foo"));
+        assertThat(thrown).isInstanceOf(UnsupportedOperationException.class);
+
+        // Built from the existing values
+        backend.enableAttributeIndex(name);
+        assertThat(backend.isIndexed(name)).isTrue();
+        assertThat(backend.findBy(name, "Foo")).containsExactly(object1);
+
+        backend.storeValue(FeatureKey.of(object2, "name"), "Foobar");
+        backend.attributeChanged(object2, name, null, "Foobar");
+        backend.save();
+
+        assertThat(backend.findByPrefix(name, "Foo")).containsExactly(object1, object2);
+        assertThat(backend.findByRange(name, "Fooa", null)).containsExactly(object2);
+
+        // Maintained without being enabled again
+        MapDbPersistenceBackend reopened = new MapDbPersistenceBackend(db);
+        assertThat(reopened.isIndexed(name)).isTrue();
+        reopened.attributeChanged(object1, name, "Foo", "Bar");
+        assertThat(reopened.findBy(name, "Foo")).isEmpty();
+        assertThat(reopened.findBy(name, "Bar")).containsExactly(object1);
+    }
+
+    @Test
+    public void testAnnotatedAttributeIndex() {
+        EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+        ePackage.setName("annotated");
+        ePackage.setNsURI("http://neoemf/test/annotated");
+        EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+        eClass.setName("Item");
+        ePackage.getEClassifiers().add(eClass);
+        EAttribute code = EcoreFactory.eINSTANCE.createEAttribute();
+        code.setName("code");
+        code.setEType(EcorePackage.Literals.ESTRING);
+        EAnnotation annotation = EcoreFactory.eINSTANCE.createEAnnotation();
+        annotation.setSource(AttributeIndex.ANNOTATION_SOURCE);
+        code.getEAnnotations().add(annotation);
+        eClass.getEStructuralFeatures().add(code);
+        EPackage.Registry.INSTANCE.put(ePackage.getNsURI(), ePackage);
+
+        try {
+            MapDbPersistenceBackend backend = new MapDbPersistenceBackend(DBMaker.memoryDB().make());
+            Id object1 = new StringId("object1");
+            Id object2 = new StringId("object2");
+            backend.storeMetaclass(object1, ClassInfo.of(eClass.getName(), ePackage.getNsURI()));
+            backend.storeValue(FeatureKey.of(object1, "code"), "A1");
+
+            // Not enabled by a query
+            assertThat(backend.isIndexed(code)).isFalse();
+            Throwable thrown = catchThrowable(() -> backend.findBy(code, "A1"));
+            assertThat(thrown).isInstanceOf(UnsupportedOperationException.class);
+            assertThat(backend.isIndexed(code)).isFalse();
+
+            // Enabled and built from the existing values when the metaclass is registered
+            backend.registerMetaclass(eClass);
+            assertThat(backend.isIndexed(code)).isTrue();
+            assertThat(backend.findBy(code, "A1")).containsExactly(object1);
+
+            backend.storeMetaclass(object2, ClassInfo.of(eClass.getName(), ePackage.getNsURI()));
+            backend.registerMetaclass(eClass);
+            backend.storeValue(FeatureKey.of(object2, "code"), "A2");
+            backend.attributeChanged(object2, code, null, "A2");
+            assertThat(backend.findByPrefix(code, "A")).containsExactly(object1, object2);
+        }
+        finally {
+            EPackage.Registry.INSTANCE.remove(ePackage.getNsURI());
+        }
+    }
+
+    @Test
+    public void testInverseReferenceIndex() {
+        DB db = DBMaker.memoryDB().make();
+        MapDbPersistenceBackend backend = new MapDbPersistenceBackend(db);
+        EReference superTypes = EcorePackage.Literals.ECLASS__ESUPER_TYPES;
+        Id object1 = new StringId("object1");
+        Id object2 = new StringId("object2");
+        Id object3 = new StringId("object3");
+
+        ClassInfo eClass = ClassInfo.of(EcorePackage.Literals.ECLASS.getName(), EcorePackage.eNS_URI);
+        backend.storeMetaclass(object1, eClass);
+        backend.storeMetaclass(object2, eClass);
+        backend.storeMetaclass(object3, eClass);
+        backend.storeValue(FeatureKey.of(object1, "eSuperTypes"), new Object[]{object3});
+
+        assertThat(backend.hasInverseReferenceIndex()).isFalse();
+        Throwable thrown = catchThrowable(() -> backend.inverseReferencesOf(object3));
+        assertThat(thrown).isInstanceOf(UnsupportedOperationException.class);
+
+        // Built from the existing references
+        backend.enableInverseReferenceIndex();
+        assertThat(backend.hasInverseReferenceIndex()).isTrue();
+        assertThat(backend.inverseReferencesOf(object3)).isEqualTo(InverseReferenceInfo.of(Arrays.asList(object1), Arrays.asList("eSuperTypes")));
+
+        backend.storeValue(FeatureKey.of(object2, "eSuperTypes"), new Object[]{object3});
+        backend.referenceChanged(object2, superTypes, null, object3);
+        backend.save();
+
+        // Maintained without being enabled again
+        MapDbPersistenceBackend reopened = new MapDbPersistenceBackend(db);
+        assertThat(reopened.hasInverseReferenceIndex()).isTrue();
+        reopened.referenceChanged(object1, superTypes, object3, object2);
+        assertThat(reopened.inverseReferencesOf(object3)).isEqualTo(InverseReferenceInfo.of(Arrays.asList(object2), Arrays.asList("eSuperTypes")));
+        assertThat(reopened.inverseReferencesOf(object2)).isEqualTo(InverseReferenceInfo.of(Arrays.asList(object1), Arrays.asList("eSuperTypes")));
+    }
+
     @Test
     @SuppressWarnings("unchecked") // Unchecked cast: 'GroupSerializer' to 'Serializer<...>'
     public void testSerialize() throws Exception {
@@ -17,6 +17,8 @@ import com.google.common.collect.HashMultimap;
 
 import fr.inria.atlanmod.neoemf.core.Id;
 import fr.inria.atlanmod.neoemf.data.PersistenceBackend;
+import fr.inria.atlanmod.neoemf.data.commit.CommitPolicy;
+import fr.inria.atlanmod.neoemf.data.commit.CommitTracker;
 import fr.inria.atlanmod.neoemf.io.AlreadyExistingIdException;
 import fr.inria.atlanmod.neoemf.io.hash.HasherFactory;
 import fr.inria.atlanmod.neoemf.io.structure.Attribute;
@@ -24,6 +26,7 @@ import fr.inria.atlanmod.neoemf.io.structure.Element;
 import fr.inria.atlanmod.neoemf.io.structure.Identifier;
 import fr.inria.atlanmod.neoemf.io.structure.MetaClass;
 import fr.inria.atlanmod.neoemf.io.structure.Reference;
+import fr.inria.atlanmod.neoemf.util.cache.CacheGovernor;
 import fr.inria.atlanmod.neoemf.util.logging.NeoLogger;
 
 import java.util.ArrayDeque;
@@ -95,29 +98,41 @@ public abstract class AbstractPersistenceHandler<P extends PersistenceBackend> i
     private final Cache<String, Id> conflictElementIdCache;
 
     /**
-     * Current number of modifications modulo {@link #OPS_BETWEEN_COMMITS_DEFAULT}.
+     * The tracker of the modifications made since the last commit.
      * Used for automatically saves modifications as calls are made.
      */
-    private long opCount;
+    private final CommitTracker commitTracker;
 
     /**
-     * Constructs a new {@code AbstractPersistenceHandler} on top of the {@code backend}.
+     * Constructs a new {@code AbstractPersistenceHandler} on top of the {@code backend}, that commits every {@link
+     * #OPS_BETWEEN_COMMITS_DEFAULT} modifications.
      *
      * @param backend the persistence back-end where to store data
      */
     protected AbstractPersistenceHandler(P backend) {
+        this(backend, CommitPolicy.everyOperations(OPS_BETWEEN_COMMITS_DEFAULT));
+        NeoLogger.info("{0} chunk = {1}", getClass().getSimpleName(), OPS_BETWEEN_COMMITS_DEFAULT);
+    }
+
+    /**
+     * Constructs a new {@code AbstractPersistenceHandler} on top of the {@code backend}, that commits according to the
+     * given {@code policy}.
+     *
+     * @param backend the persistence back-end where to store data
+     * @param policy  the policy that decides when to commit
+     */
+    protected AbstractPersistenceHandler(P backend, CommitPolicy policy) {
         this.backend = backend;
-        this.opCount = 0;
+        this.commitTracker = new CommitTracker(policy, backend::save);
         this.elementIdStack = new ArrayDeque<>();
 
-        this.elementIdCache = Caffeine.newBuilder().maximumSize(DEFAULT_CACHE_SIZE).build();
+        this.elementIdCache = CacheGovernor.getInstance().newCache(DEFAULT_CACHE_SIZE);
         this.metaclassIdCache = Caffeine.newBuilder().build();
 
         this.unlinkedElementsMap = HashMultimap.create();
         this.conflictElementIdCache = Caffeine.newBuilder().build();
 
         NeoLogger.info("{0} created", getClass().getSimpleName());
-        NeoLogger.info("{0} chunk = {1}", getClass().getSimpleName(), OPS_BETWEEN_COMMITS_DEFAULT);
     }
 
     /**
@@ -230,7 +245,7 @@ public abstract class AbstractPersistenceHandler<P extends PersistenceBackend> i
         }
 
         addAttribute(id, attribute.name(), attribute.index(), attribute.many(), attribute.value());
-        incrementAndCommit();
+        incrementAndCommit(attribute.value());
     }
 
     @Override
@@ -247,7 +262,7 @@ public abstract class AbstractPersistenceHandler<P extends PersistenceBackend> i
 
         try {
             addReference(id, reference.name(), reference.index(), reference.many(), reference.containment(), idReference);
-            incrementAndCommit();
+            incrementAndCommit(null);
         }
         catch (NoSuchElementException e) {
             // Referenced element does not exist : we save it in a cache
@@ -277,7 +292,7 @@ public abstract class AbstractPersistenceHandler<P extends PersistenceBackend> i
             conflictElementIdCache.invalidateAll();
         }
 
-        backend.save();
+        commitTracker.commit();
     }
 
     @Override
@@ -302,7 +317,7 @@ public abstract class AbstractPersistenceHandler<P extends PersistenceBackend> i
         checkNotNull(id);
 
         addElement(id, element.ns().uri(), element.className(), element.root());
-        incrementAndCommit();
+        incrementAndCommit(null);
 
         tryLink(element.id().value(), id);
 
@@ -375,7 +390,7 @@ public abstract class AbstractPersistenceHandler<P extends PersistenceBackend> i
             return newId;
         });
 
-        incrementAndCommit();
+        incrementAndCommit(null);
 
         return id;
     }
@@ -427,14 +442,13 @@ public abstract class AbstractPersistenceHandler<P extends PersistenceBackend> i
     }
 
     /**
-     * Increments the operation counter, and commit the persistence back-end if the number of operation is equals to
-     * {@code OPS_BETWEEN_COMMITS_DEFAULT}.
+     * Records a modification that writes the given {@code value}, and commits the persistence back-end if the commit
+     * policy decides to.
+     *
+     * @param value the written value, or {@code null} if the modification does not write any value
      */
-    private void incrementAndCommit() {
-        opCount = (opCount + 1) % OPS_BETWEEN_COMMITS_DEFAULT;
-        if (opCount == 0) {
-            backend.save();
-        }
+    private void incrementAndCommit(Object value) {
+        commitTracker.record(value);
     }
 
     /**
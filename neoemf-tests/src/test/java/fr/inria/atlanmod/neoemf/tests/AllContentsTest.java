@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.tests;
+
+import com.google.common.collect.Lists;
+
+import fr.inria.atlanmod.neoemf.context.Tags;
+import fr.inria.atlanmod.neoemf.data.store.PersistentStore;
+import fr.inria.atlanmod.neoemf.resource.PersistentResource;
+import fr.inria.atlanmod.neoemf.tests.models.mapSample.Pack;
+import fr.inria.atlanmod.neoemf.tests.models.mapSample.PackContent;
+import fr.inria.atlanmod.neoemf.util.NeoEAllContentsTreeIterator;
+
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link PersistentResource#getAllContents()}, which reads the content of the objects by batches with
+ * a {@link NeoEAllContentsTreeIterator}.
+ */
+public class AllContentsTest extends AbstractBackendTest {
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testAllContentsOrder() {
+        PersistentResource resource = createPersistentStore();
+        createResourceContent(resource);
+
+        List<EObject> expected = Lists.newArrayList(EcoreUtil.<EObject>getAllContents(resource.getContents(), false));
+        assertThat(expected).hasSize(12);
+        assertThat(Lists.newArrayList(resource.getAllContents())).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testAllContentsOrderWithSmallBatches() {
+        PersistentResource resource = createPersistentStore();
+        Pack root = createResourceContent(resource);
+
+        List<EObject> expected = Lists.newArrayList(EcoreUtil.<EObject>getAllContents(resource.getContents(), false));
+        TreeIterator<EObject> it = new NeoEAllContentsTreeIterator(resource, (PersistentStore) root.eStore(), 2);
+        assertThat(Lists.newArrayList(it)).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testPrune() {
+        PersistentResource resource = createPersistentStore();
+        createResourceContent(resource);
+
+        List<String> names = new ArrayList<>();
+        TreeIterator<EObject> it = resource.getAllContents();
+        while (it.hasNext()) {
+            EObject eObject = it.next();
+            if (eObject instanceof Pack) {
+                Pack pack = (Pack) eObject;
+                names.add(pack.getName());
+                if (pack.getName().equals("p1")) {
+                    it.prune();
+                }
+            }
+            else {
+                names.add(((PackContent) eObject).getName());
+            }
+        }
+        assertThat(names).containsExactly("root", "p0", "p0.p0", "p0.p1", "p0.pc0", "p0.pc1", "p1", "p2");
+    }
+
+    /**
+     * Creates a tree of {@link Pack}s, some of them owning {@link PackContent}s.
+     *
+     * @param resource the resource to fill
+     *
+     * @return the root of the tree
+     */
+    private Pack createResourceContent(PersistentResource resource) {
+        Pack root = createPack("root");
+        resource.getContents().add(root);
+
+        for (int i = 0; i < 3; i++) {
+            Pack pack = createPack("p" + i);
+            root.getPacks().add(pack);
+            if (i == 2) {
+                continue;
+            }
+            for (int j = 0; j < 2; j++) {
+                pack.getPacks().add(createPack(pack.getName() + ".p" + j));
+
+                PackContent content = EFACTORY.createPackContent();
+                content.setName(pack.getName() + ".pc" + j);
+                pack.getOwnedContents().add(content);
+            }
+        }
+        return root;
+    }
+
+    private Pack createPack(String name) {
+        Pack pack = EFACTORY.createPack();
+        pack.setName(name);
+        return pack;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.tests;
+
+import fr.inria.atlanmod.neoemf.context.Tags;
+import fr.inria.atlanmod.neoemf.resource.PersistentResource;
+import fr.inria.atlanmod.neoemf.tests.models.mapSample.AbstractPackContentComment;
+import fr.inria.atlanmod.neoemf.tests.models.mapSample.Pack;
+import fr.inria.atlanmod.neoemf.tests.models.mapSample.SampleModel;
+import fr.inria.atlanmod.neoemf.tests.models.mapSample.SampleModelContentObject;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the bulk operations on multi-valued features of persistent objects, which are delegated to the
+ * {@link fr.inria.atlanmod.neoemf.data.store.PersistentStore} in a single call.
+ */
+public class BulkListOperationsTest extends AbstractBackendTest {
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testAddAllAtIndex() {
+        PersistentResource resource = createPersistentStore();
+        SampleModel model = createResourceContent(resource, 3);
+
+        model.getContentObjects().addAll(1, Arrays.asList(createContentObject("n0"), createContentObject("n1")));
+
+        assertThat(model.getContentObjects()).extracting(SampleModelContentObject::getName)
+                .containsExactly("c0", "n0", "n1", "c1", "c2");
+        assertThat(model.getContentObjects().get(2).eContainer()).isSameAs(model);
+    }
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testAddAllAtEnd() {
+        PersistentResource resource = createPersistentStore();
+        SampleModel model = createResourceContent(resource, 2);
+
+        model.getContentObjects().addAll(Arrays.asList(createContentObject("n0"), createContentObject("n1")));
+
+        assertThat(model.getContentObjects()).extracting(SampleModelContentObject::getName)
+                .containsExactly("c0", "c1", "n0", "n1");
+    }
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testMove() {
+        PersistentResource resource = createPersistentStore();
+        SampleModel model = createResourceContent(resource, 5);
+
+        model.getContentObjects().move(3, 0);
+        assertThat(model.getContentObjects()).extracting(SampleModelContentObject::getName)
+                .containsExactly("c1", "c2", "c3", "c0", "c4");
+
+        model.getContentObjects().move(0, 4);
+        assertThat(model.getContentObjects()).extracting(SampleModelContentObject::getName)
+                .containsExactly("c4", "c1", "c2", "c3", "c0");
+    }
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testRemoveAll() {
+        PersistentResource resource = createPersistentStore();
+        Pack pack = EFACTORY.createPack();
+        resource.getContents().add(pack);
+        List<AbstractPackContentComment> comments = createComments(resource, 6);
+        pack.getNonContainmentRefComments().addAll(comments);
+
+        pack.getNonContainmentRefComments().removeAll(Arrays.asList(comments.get(1), comments.get(2), comments.get(5)));
+
+        assertThat(pack.getNonContainmentRefComments()).extracting(AbstractPackContentComment::getContent)
+                .containsExactly("comment0", "comment3", "comment4");
+    }
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testSetAll() {
+        PersistentResource resource = createPersistentStore();
+        Pack pack = EFACTORY.createPack();
+        resource.getContents().add(pack);
+        List<AbstractPackContentComment> comments = createComments(resource, 4);
+        pack.getNonContainmentRefComments().addAll(comments);
+
+        pack.eSet(pack.eClass().getEStructuralFeature("nonContainmentRefComments"), Arrays.asList(comments.get(3), comments.get(0)));
+
+        assertThat(pack.getNonContainmentRefComments()).extracting(AbstractPackContentComment::getContent)
+                .containsExactly("comment3", "comment0");
+    }
+
+    private SampleModel createResourceContent(PersistentResource resource, int count) {
+        SampleModel model = EFACTORY.createSampleModel();
+        model.setName("Model");
+        resource.getContents().add(model);
+
+        IntStream.range(0, count).forEach(i -> model.getContentObjects().add(createContentObject("c" + i)));
+        return model;
+    }
+
+    private SampleModelContentObject createContentObject(String name) {
+        SampleModelContentObject object = EFACTORY.createSampleModelContentObject();
+        object.setName(name);
+        return object;
+    }
+
+    private List<AbstractPackContentComment> createComments(PersistentResource resource, int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            AbstractPackContentComment comment = EFACTORY.createAbstractPackContentComment();
+            comment.setContent("comment" + i);
+            resource.getContents().add(comment);
+            return comment;
+        }).collect(Collectors.toList());
+    }
+}
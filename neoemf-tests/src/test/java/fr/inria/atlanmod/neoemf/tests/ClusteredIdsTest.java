@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.tests;
+
+import fr.inria.atlanmod.neoemf.context.Tags;
+import fr.inria.atlanmod.neoemf.core.ClusteredIdAllocator;
+import fr.inria.atlanmod.neoemf.core.Id;
+import fr.inria.atlanmod.neoemf.core.PersistentEObject;
+import fr.inria.atlanmod.neoemf.option.CommonOptionsBuilder;
+import fr.inria.atlanmod.neoemf.resource.PersistentResource;
+import fr.inria.atlanmod.neoemf.resource.PersistentResourceFactory;
+import fr.inria.atlanmod.neoemf.tests.models.mapSample.AbstractPackContentComment;
+import fr.inria.atlanmod.neoemf.tests.models.mapSample.Pack;
+import fr.inria.atlanmod.neoemf.tests.models.mapSample.PackContent;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the objects identified by a {@link ClusteredIdAllocator} when they are attached to a resource.
+ */
+public class ClusteredIdsTest extends AbstractBackendTest {
+
+    private static final Map<String, Object> OPTIONS = CommonOptionsBuilder.newBuilder().clusteredIds().asMap();
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testSubtreeIdentifiedByInterval() throws IOException {
+        PersistentResource resource = createResource();
+
+        Pack root = createPack("root");
+        for (int i = 0; i < 3; i++) {
+            Pack pack = createPack("pack" + i);
+            root.getPacks().add(pack);
+            for (int j = 0; j < 3; j++) {
+                pack.getPacks().add(createPack("pack" + i + j));
+            }
+        }
+        resource.getContents().add(root);
+
+        List<String> ids = literalIdsOf(root);
+        assertThat(ids).hasSize(13);
+        assertIdentifiedByInterval(ids);
+
+        resource.save(OPTIONS);
+        resource.close();
+
+        PersistentResource loadedResource = loadResource();
+        Pack loadedRoot = (Pack) loadedResource.getContents().get(0);
+        assertThat(literalIdsOf(loadedRoot)).isEqualTo(ids);
+        assertThat(loadedRoot.getPacks().get(2).getPacks().get(1).getName()).isEqualTo("pack21");
+    }
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testAttachedSubtreeIdentifiedByInterval() throws IOException {
+        PersistentResource resource = createResource();
+
+        Pack root = createPack("root");
+        resource.getContents().add(root);
+
+        // A subtree added to a containment list of an object of the resource
+        Pack added = createPack("added");
+        for (int i = 0; i < 3; i++) {
+            Pack pack = createPack("added" + i);
+            added.getPacks().add(pack);
+            pack.getPacks().add(createPack("added" + i + "0"));
+        }
+        root.getPacks().add(added);
+
+        // A subtree attached by setting its container
+        Pack contained = createPack("contained");
+        for (int i = 0; i < 3; i++) {
+            contained.getPacks().add(createPack("contained" + i));
+        }
+        contained.setParentPack(root);
+
+        List<String> addedIds = literalIdsOf(added);
+        assertThat(addedIds).hasSize(7);
+        assertIdentifiedByInterval(addedIds);
+
+        List<String> containedIds = literalIdsOf(contained);
+        assertThat(containedIds).hasSize(4);
+        assertIdentifiedByInterval(containedIds);
+
+        resource.save(OPTIONS);
+        resource.close();
+
+        PersistentResource loadedResource = loadResource();
+        Pack loadedRoot = (Pack) loadedResource.getContents().get(0);
+        assertThat(literalIdsOf(loadedRoot.getPacks().get(0))).isEqualTo(addedIds);
+        assertThat(literalIdsOf(loadedRoot.getPacks().get(1))).isEqualTo(containedIds);
+        assertThat(loadedRoot.getPacks().get(0).getPacks().get(2).getPacks().get(0).getName()).isEqualTo("added20");
+    }
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testStoredIdIsKept() throws IOException {
+        PersistentResource resource = createResource();
+
+        Pack root = createPack("root");
+        resource.getContents().add(root);
+
+        // The comment is referenced before being attached: its identifier is already stored
+        AbstractPackContentComment comment = EFACTORY.createAbstractPackContentComment();
+        comment.setContent("comment");
+        root.getNonContainmentRefComments().add(comment);
+        Id commentId = PersistentEObject.from(comment).id();
+
+        Pack other = createPack("other");
+        PackContent content = EFACTORY.createPackContent();
+        content.setName("content");
+        content.getContainmentNoOppositeRefComment().add(comment);
+        other.getOwnedContents().add(content);
+        resource.getContents().add(other);
+
+        assertThat(PersistentEObject.from(comment).id()).isEqualTo(commentId);
+
+        resource.save(OPTIONS);
+        resource.close();
+
+        PersistentResource loadedResource = loadResource();
+        Pack loadedRoot = (Pack) loadedResource.getContents().get(0);
+        Pack loadedOther = (Pack) loadedResource.getContents().get(1);
+        AbstractPackContentComment loadedComment = loadedRoot.getNonContainmentRefComments().get(0);
+        assertThat(loadedComment.getContent()).isEqualTo("comment");
+        assertThat(loadedComment).isSameAs(loadedOther.getOwnedContents().get(0).getContainmentNoOppositeRefComment().get(0));
+    }
+
+    private Pack createPack(String name) {
+        Pack pack = EFACTORY.createPack();
+        pack.setName(name);
+        return pack;
+    }
+
+    /**
+     * Checks that the given identifiers, listed in pre-order, form a single sorted interval: they are distinct,
+     * sorted, and belong to the same cluster with sequence numbers of the same length.
+     */
+    private void assertIdentifiedByInterval(List<String> ids) {
+        assertThat(ids).doesNotHaveDuplicates().isSorted();
+        String cluster = ids.get(0).substring(0, ids.get(0).lastIndexOf('.') + 1);
+        for (String id : ids) {
+            assertThat(id).startsWith(cluster).hasSameSizeAs(ids.get(0));
+        }
+    }
+
+    private List<String> literalIdsOf(EObject root) {
+        List<String> ids = new ArrayList<>();
+        ids.add(PersistentEObject.from(root).id().toString());
+        Iterator<EObject> it = root.eAllContents();
+        while (it.hasNext()) {
+            ids.add(PersistentEObject.from(it.next()).id().toString());
+        }
+        return ids;
+    }
+
+    private PersistentResource createResource() throws IOException {
+        // Creates an empty database, and registers its back-end
+        createPersistentStore().close();
+        return loadResource();
+    }
+
+    private PersistentResource loadResource() throws IOException {
+        PersistentResource resource = (PersistentResource) resourceSet().createResource(context().createFileURI(file()));
+        resource.load(OPTIONS);
+        return closeAtExit(resource);
+    }
+
+    private ResourceSet resourceSet() {
+        ResourceSet rSet = new ResourceSetImpl();
+        rSet.getResourceFactoryRegistry().getProtocolToFactoryMap().put(context().uriScheme(), PersistentResourceFactory.getInstance());
+        return rSet;
+    }
+}
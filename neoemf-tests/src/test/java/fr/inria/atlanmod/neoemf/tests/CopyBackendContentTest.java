@@ -53,6 +53,30 @@ public class CopyBackendContentTest extends AbstractBackendTest {
         assertThat(contentObjects.get(1).eContainer()).isSameAs(sampleModel); // "Second element in contentObjects collection has an invalid container"
     }
 
+    @Test
+    @Category(Tags.TransientTests.class)
+    public void testCopyBackendThenModify() throws IOException {
+        PersistentResource resource = createTransientStore();
+        createResourceContent(resource);
+
+        // The objects attached before saving are still usable once the transient back-end is closed
+        SampleModel sampleModel = (SampleModel) resource.getContents().get(0);
+        SampleModelContentObject content1 = sampleModel.getContentObjects().get(0);
+
+        resource.save(CommonOptionsBuilder.noOption());
+
+        sampleModel.setName(MODEL_NAME + "'");
+        content1.setName(CONTENT1_NAME + "'");
+        SampleModelContentObject content3 = EFACTORY.createSampleModelContentObject();
+        sampleModel.getContentObjects().add(content3);
+
+        SampleModel savedModel = (SampleModel) resource.getContents().get(0);
+        assertThat(savedModel.getName()).isEqualTo(MODEL_NAME + "'");
+        assertThat(savedModel.getContentObjects()).hasSize(3);
+        assertThat(savedModel.getContentObjects().get(0).getName()).isEqualTo(CONTENT1_NAME + "'");
+        assertThat(savedModel.getContentObjects().get(2).eContainer()).isEqualTo(sampleModel);
+    }
+
     private void createResourceContent(final PersistentResource resource) {
         SampleModel model = EFACTORY.createSampleModel();
         model.setName(MODEL_NAME);
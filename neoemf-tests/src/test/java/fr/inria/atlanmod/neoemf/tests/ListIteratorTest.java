@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.tests;
+
+import fr.inria.atlanmod.neoemf.context.Tags;
+import fr.inria.atlanmod.neoemf.resource.PersistentResource;
+import fr.inria.atlanmod.neoemf.tests.models.mapSample.SampleModel;
+import fr.inria.atlanmod.neoemf.tests.models.mapSample.SampleModelContentObject;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+/**
+ * Test class for the iteration over multi-valued features of persistent objects.
+ */
+public class ListIteratorTest extends AbstractBackendTest {
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testSameListInstance() {
+        PersistentResource resource = createPersistentStore();
+        SampleModel model = createResourceContent(resource, 3);
+
+        assertThat(model.getContentObjects()).isSameAs(model.getContentObjects());
+    }
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testIterate() {
+        PersistentResource resource = createPersistentStore();
+        SampleModel model = createResourceContent(resource, 10);
+
+        List<SampleModelContentObject> iterated = new ArrayList<>();
+        for (SampleModelContentObject o : model.getContentObjects()) {
+            iterated.add(o);
+        }
+
+        assertThat(iterated).containsExactlyElementsOf(model.getContentObjects());
+    }
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testIteratorRemove() {
+        PersistentResource resource = createPersistentStore();
+        SampleModel model = createResourceContent(resource, 5);
+
+        Iterator<SampleModelContentObject> it = model.getContentObjects().iterator();
+        while (it.hasNext()) {
+            SampleModelContentObject o = it.next();
+            if (o.getName().equals("c1") || o.getName().equals("c2")) {
+                it.remove();
+            }
+        }
+
+        assertThat(model.getContentObjects()).extracting(SampleModelContentObject::getName)
+                .containsExactly("c0", "c3", "c4", "c5");
+    }
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testConcurrentModification() {
+        PersistentResource resource = createPersistentStore();
+        SampleModel model = createResourceContent(resource, 3);
+
+        Iterator<SampleModelContentObject> it = model.getContentObjects().iterator();
+        it.next();
+        model.getContentObjects().add(EFACTORY.createSampleModelContentObject());
+
+        Throwable thrown = catchThrowable(it::next);
+        assertThat(thrown).isInstanceOf(ConcurrentModificationException.class);
+    }
+
+    private SampleModel createResourceContent(final PersistentResource resource, final int count) {
+        SampleModel model = EFACTORY.createSampleModel();
+        model.setName("Model");
+        resource.getContents().add(model);
+
+        IntStream.rangeClosed(0, count).forEach(i -> {
+            SampleModelContentObject c = EFACTORY.createSampleModelContentObject();
+            c.setName("c" + i);
+            model.getContentObjects().add(c);
+        });
+
+        return model;
+    }
+}
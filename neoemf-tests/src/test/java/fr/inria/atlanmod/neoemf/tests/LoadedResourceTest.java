@@ -45,6 +45,18 @@ public class LoadedResourceTest extends AbstractBackendTest {
         assertThat(modelContent.eContainer()).isSameAs(model);
     }
 
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testGetAllElementsContainer() throws IOException {
+        PersistentResource resource = createResourceContent(createPersistentStore());
+
+        SampleModel model = (SampleModel) resource.getContents().get(0);
+        Object[] modelContents = model.getContentObjects().toArray();
+        assertThat(modelContents).hasSize(1);
+        assertThat(modelContents[0]).isSameAs(model.getContentObjects().get(0));
+        assertThat(((SampleModelContentObject) modelContents[0]).eContainer()).isSameAs(model);
+    }
+
     @Test
     @Category(Tags.PersistentTests.class)
     public void testGetAllContentsContainer() throws IOException {
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.tests;
+
+import fr.inria.atlanmod.neoemf.context.Tags;
+import fr.inria.atlanmod.neoemf.data.PersistenceBackendPool;
+import fr.inria.atlanmod.neoemf.option.CommonOptionsBuilder;
+import fr.inria.atlanmod.neoemf.resource.PersistentResource;
+import fr.inria.atlanmod.neoemf.resource.PersistentResourceFactory;
+import fr.inria.atlanmod.neoemf.tests.models.mapSample.AbstractPackContentComment;
+import fr.inria.atlanmod.neoemf.tests.models.mapSample.Pack;
+import fr.inria.atlanmod.neoemf.tests.models.mapSample.PackContent;
+
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link PersistentResource}s stored in a namespace of a shared database.
+ */
+public class NamespaceTest extends AbstractBackendTest {
+
+    private static final String NAMESPACE_1 = "model1";
+    private static final String NAMESPACE_2 = "model2";
+
+    @After
+    public void closePool() {
+        PersistenceBackendPool.closeAll();
+    }
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testSeparateContents() throws IOException {
+        PersistentResource resource1 = createResource(new ResourceSetImpl(), NAMESPACE_1);
+        resource1.getContents().add(createPack("pack1"));
+        resource1.save(CommonOptionsBuilder.noOption());
+
+        PersistentResource resource2 = createResource(new ResourceSetImpl(), NAMESPACE_2);
+        resource2.getContents().add(createPack("pack2"));
+        resource2.getContents().add(createPack("pack3"));
+        resource2.save(CommonOptionsBuilder.noOption());
+
+        resource1.close();
+        resource2.close();
+
+        resource1 = loadResource(NAMESPACE_1);
+        assertThat(resource1.getContents()).hasSize(1);
+        assertThat(((Pack) resource1.getContents().get(0)).getName()).isEqualTo("pack1");
+
+        resource2 = loadResource(NAMESPACE_2);
+        assertThat(resource2.getContents()).hasSize(2);
+        assertThat(((Pack) resource2.getContents().get(0)).getName()).isEqualTo("pack2");
+    }
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testCrossResourceReference() throws IOException {
+        PersistentResource resource2 = createResource(new ResourceSetImpl(), NAMESPACE_2);
+        AbstractPackContentComment comment = EFACTORY.createAbstractPackContentComment();
+        comment.setContent("comment");
+        resource2.getContents().add(comment);
+        Pack pack2 = createPack("pack2");
+        PackContent content = EFACTORY.createPackContent();
+        AbstractPackContentComment containedComment = EFACTORY.createAbstractPackContentComment();
+        containedComment.setContent("containedComment");
+        content.getContainmentNoOppositeRefComment().add(containedComment);
+        pack2.getOwnedContents().add(content);
+        resource2.getContents().add(pack2);
+        resource2.save(CommonOptionsBuilder.noOption());
+
+        PersistentResource resource1 = createResource(new ResourceSetImpl(), NAMESPACE_1);
+        Pack pack = createPack("pack1");
+        resource1.getContents().add(pack);
+        resource1.save(CommonOptionsBuilder.noOption());
+        pack.getNonContainmentRefComments().add(comment);
+        pack.getNonContainmentRefComments().add(containedComment);
+
+        resource1.close();
+        resource2.close();
+
+        resource1 = loadResource(NAMESPACE_1);
+        Pack loadedPack = (Pack) resource1.getContents().get(0);
+        assertThat(loadedPack.getNonContainmentRefComments()).hasSize(2);
+
+        AbstractPackContentComment loadedComment = loadedPack.getNonContainmentRefComments().get(0);
+        assertThat(loadedComment.eIsProxy()).isFalse();
+        assertThat(loadedComment.getContent()).isEqualTo("comment");
+
+        // The referenced objects belong to their own resource once it is open
+        resource2 = loadResource(NAMESPACE_2);
+        loadedComment = loadedPack.getNonContainmentRefComments().get(0);
+        assertThat(loadedComment.eResource()).isSameAs(resource2);
+        assertThat(loadedComment.eContainer()).isNull();
+        assertThat(loadedComment).isSameAs(resource2.getContents().get(0));
+
+        AbstractPackContentComment loadedContainedComment = loadedPack.getNonContainmentRefComments().get(1);
+        assertThat(loadedContainedComment.getContent()).isEqualTo("containedComment");
+        assertThat(loadedContainedComment.eResource()).isSameAs(resource2);
+        assertThat(loadedContainedComment.eContainer()).isSameAs(((Pack) resource2.getContents().get(1)).getOwnedContents().get(0));
+
+        // The iteration and the bulk reads return the same objects as the indexed reads
+        List<AbstractPackContentComment> iteratedComments = new ArrayList<>();
+        for (AbstractPackContentComment c : loadedPack.getNonContainmentRefComments()) {
+            iteratedComments.add(c);
+        }
+        assertThat(iteratedComments).containsExactly(loadedComment, loadedContainedComment);
+        assertThat(loadedPack.getNonContainmentRefComments().toArray()).containsExactly(loadedComment, loadedContainedComment);
+        for (AbstractPackContentComment c : iteratedComments) {
+            assertThat(c.eResource()).isSameAs(resource2);
+        }
+    }
+
+    private Pack createPack(String name) {
+        Pack pack = EFACTORY.createPack();
+        pack.setName(name);
+        return pack;
+    }
+
+    private PersistentResource createResource(ResourceSet rSet, String namespace) {
+        rSet.getResourceFactoryRegistry().getProtocolToFactoryMap().put(context().uriScheme(), PersistentResourceFactory.getInstance());
+
+        PersistentResource resource = (PersistentResource) rSet.createResource(context().createFileURI(file()).appendQuery(namespace));
+        return closeAtExit(resource);
+    }
+
+    private PersistentResource loadResource(String namespace) throws IOException {
+        PersistentResource resource = createResource(new ResourceSetImpl(), namespace);
+        resource.load(CommonOptionsBuilder.noOption());
+        return resource;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.tests;
+
+import fr.inria.atlanmod.neoemf.context.Tags;
+import fr.inria.atlanmod.neoemf.data.PersistenceBackendPool;
+import fr.inria.atlanmod.neoemf.option.CommonOptionsBuilder;
+import fr.inria.atlanmod.neoemf.resource.PersistentResource;
+import fr.inria.atlanmod.neoemf.resource.PersistentResourceFactory;
+import fr.inria.atlanmod.neoemf.tests.models.mapSample.Pack;
+
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link PersistentResource}s sharing their back-end through the {@link PersistenceBackendPool}.
+ */
+public class SharedBackendTest extends AbstractBackendTest {
+
+    @After
+    public void closePool() {
+        PersistenceBackendPool.closeAll();
+    }
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testLoadTwiceShared() throws IOException {
+        createResourceContent();
+
+        Map<String, Object> options = CommonOptionsBuilder.newBuilder().sharedBackend().asMap();
+        PersistentResource resource1 = loadResource(options);
+        PersistentResource resource2 = loadResource(options);
+
+        assertThat(PersistenceBackendPool.size()).isEqualTo(1);
+        assertThat(((Pack) resource1.getContents().get(0)).getName()).isEqualTo("root");
+        assertThat(((Pack) resource2.getContents().get(0)).getName()).isEqualTo("root");
+
+        resource1.close();
+        assertThat(((Pack) resource2.getContents().get(0)).getName()).isEqualTo("root");
+    }
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testReloadShared() throws IOException {
+        createResourceContent();
+
+        Map<String, Object> options = CommonOptionsBuilder.newBuilder().sharedBackend().asMap();
+        PersistentResource resource = loadResource(options);
+        resource.close();
+
+        resource = loadResource(options);
+        assertThat(PersistenceBackendPool.size()).isEqualTo(1);
+        assertThat(((Pack) resource.getContents().get(0)).getName()).isEqualTo("root");
+    }
+
+    private void createResourceContent() throws IOException {
+        PersistentResource resource = createPersistentStore();
+
+        Pack rootPack = EFACTORY.createPack();
+        rootPack.setName("root");
+        resource.getContents().add(rootPack);
+
+        resource.save(CommonOptionsBuilder.noOption());
+        resource.close();
+    }
+
+    private PersistentResource loadResource(Map<String, Object> options) throws IOException {
+        ResourceSet rSet = new ResourceSetImpl();
+        rSet.getResourceFactoryRegistry().getProtocolToFactoryMap().put(context().uriScheme(), PersistentResourceFactory.getInstance());
+
+        PersistentResource resource = (PersistentResource) rSet.createResource(context().createFileURI(file()));
+        resource.load(options);
+        return closeAtExit(resource);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.tests;
+
+import fr.inria.atlanmod.neoemf.context.Tags;
+import fr.inria.atlanmod.neoemf.resource.PersistentResource;
+import fr.inria.atlanmod.neoemf.tests.models.mapSample.SampleModel;
+import fr.inria.atlanmod.neoemf.tests.models.mapSample.SampleModelContentObject;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+/**
+ * Test class for the read-only snapshots of {@link PersistentResource}s.
+ */
+public class SnapshotTest extends AbstractBackendTest {
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testSnapshotIsNotModified() {
+        PersistentResource resource = createPersistentStore();
+        SampleModel model = EFACTORY.createSampleModel();
+        model.setName("Model");
+        resource.getContents().add(model);
+
+        PersistentResource snapshot = closeAtExit(resource.snapshot());
+
+        model.setName("Modified");
+        SampleModelContentObject content = EFACTORY.createSampleModelContentObject();
+        model.getContentObjects().add(content);
+
+        SampleModel snapshotModel = (SampleModel) snapshot.getContents().get(0);
+        assertThat(snapshotModel).isNotSameAs(model);
+        assertThat(snapshotModel.getName()).isEqualTo("Model");
+        assertThat(snapshotModel.getContentObjects()).isEmpty();
+    }
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testSnapshotIsReadOnly() {
+        PersistentResource resource = createPersistentStore();
+        SampleModel model = EFACTORY.createSampleModel();
+        model.setName("Model");
+        resource.getContents().add(model);
+
+        PersistentResource snapshot = closeAtExit(resource.snapshot());
+        SampleModel snapshotModel = (SampleModel) snapshot.getContents().get(0);
+
+        Throwable thrown = catchThrowable(() -> snapshotModel.setName("Modified"));
+        assertThat(thrown).isInstanceOf(UnsupportedOperationException.class);
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.tests;
+
+import fr.inria.atlanmod.neoemf.context.Tags;
+import fr.inria.atlanmod.neoemf.data.structure.FeatureCardinality;
+import fr.inria.atlanmod.neoemf.option.CommonOptionsBuilder;
+import fr.inria.atlanmod.neoemf.resource.PersistentResource;
+import fr.inria.atlanmod.neoemf.tests.models.mapSample.MapSamplePackage;
+import fr.inria.atlanmod.neoemf.tests.models.mapSample.Pack;
+import fr.inria.atlanmod.neoemf.tests.models.mapSample.PackContent;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the instance and cardinality statistics of {@link PersistentResource}s.
+ */
+public class StatisticsTest extends AbstractBackendTest {
+
+    // These variables should be updated if createResourceContent is changed
+    private static final int PACK_COUNT = 4;
+    private static final int PACK_CONTENT_COUNT = 6;
+    private static final int MAX_OWNED_CONTENTS = 3;
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testCountInstancesPersistent() {
+        PersistentResource resource = createPersistentStore();
+        createResourceContent(resource);
+
+        assertStatistics(resource);
+    }
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testCountInstancesPersistentLoaded() throws IOException {
+        PersistentResource resource = createPersistentStore();
+        createResourceContent(resource);
+
+        resource.save(CommonOptionsBuilder.noOption());
+        resource.close();
+        resource.load(CommonOptionsBuilder.noOption());
+
+        assertStatistics(resource);
+    }
+
+    @Test
+    @Category(Tags.TransientTests.class)
+    public void testCountInstancesTransient() {
+        PersistentResource resource = createTransientStore();
+        createResourceContent(resource);
+
+        assertStatistics(resource);
+    }
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testCountInstancesAfterRemoval() {
+        PersistentResource resource = createPersistentStore();
+        createResourceContent(resource);
+
+        Pack rootPack = (Pack) resource.getContents().get(0);
+        rootPack.getPacks().get(0).getOwnedContents().remove(0);
+
+        FeatureCardinality cardinality = resource.cardinalityOf(MapSamplePackage.eINSTANCE.getPack_OwnedContents());
+        assertThat(cardinality.totalSize()).isEqualTo(PACK_CONTENT_COUNT - 1);
+        assertThat(cardinality.maxSize()).isEqualTo(MAX_OWNED_CONTENTS);
+    }
+
+    private void createResourceContent(final PersistentResource resource) {
+        Pack rootPack = EFACTORY.createPack();
+        rootPack.setName("root");
+
+        IntStream.range(0, 3).forEach(i -> {
+            Pack newPack = EFACTORY.createPack();
+            newPack.setName("pack" + i);
+            rootPack.getPacks().add(newPack);
+
+            IntStream.range(0, i + 1).forEach(j -> {
+                PackContent newPackContent = EFACTORY.createPackContent();
+                newPackContent.setName("pContent" + i + '-' + j);
+                newPack.getOwnedContents().add(newPackContent);
+            });
+        });
+        resource.getContents().add(rootPack);
+    }
+
+    private void assertStatistics(final PersistentResource resource) {
+        MapSamplePackage ePackage = MapSamplePackage.eINSTANCE;
+
+        assertThat(resource.countInstances(ePackage.getPack())).isEqualTo(PACK_COUNT);
+        assertThat(resource.countInstances(ePackage.getPackContent(), true)).isEqualTo(PACK_CONTENT_COUNT);
+        assertThat(resource.countInstances(ePackage.getAbstractPackContent(), true)).isEqualTo(0);
+        assertThat(resource.countInstances(ePackage.getAbstractPackContent(), false)).isEqualTo(PACK_CONTENT_COUNT);
+
+        FeatureCardinality cardinality = resource.cardinalityOf(ePackage.getPack_OwnedContents());
+        assertThat(cardinality.owners()).isEqualTo(PACK_COUNT);
+        assertThat(cardinality.totalSize()).isEqualTo(PACK_CONTENT_COUNT);
+        assertThat(cardinality.maxSize()).isEqualTo(MAX_OWNED_CONTENTS);
+        assertThat(cardinality.averageSize()).isEqualTo((double) PACK_CONTENT_COUNT / PACK_COUNT);
+    }
+}
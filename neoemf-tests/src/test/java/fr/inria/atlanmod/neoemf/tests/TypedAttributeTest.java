@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.tests;
+
+import fr.inria.atlanmod.neoemf.context.Tags;
+import fr.inria.atlanmod.neoemf.core.PersistenceFactory;
+import fr.inria.atlanmod.neoemf.option.CommonOptionsBuilder;
+import fr.inria.atlanmod.neoemf.resource.PersistentResource;
+import fr.inria.atlanmod.neoemf.resource.PersistentResourceFactory;
+
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.EEnum;
+import org.eclipse.emf.ecore.EEnumLiteral;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the attributes whose values are stored in their native form, instead of their string literal
+ * representation.
+ */
+public class TypedAttributeTest extends AbstractBackendTest {
+
+    private static final EPackage PACKAGE = EcoreFactory.eINSTANCE.createEPackage();
+
+    private static final EClass ITEM = EcoreFactory.eINSTANCE.createEClass();
+
+    private static final EEnum KIND = EcoreFactory.eINSTANCE.createEEnum();
+
+    @BeforeClass
+    public static void registerPackage() {
+        if (!PACKAGE.getEClassifiers().isEmpty()) {
+            return;
+        }
+
+        for (String literal : Arrays.asList("SMALL", "LARGE")) {
+            EEnumLiteral enumLiteral = EcoreFactory.eINSTANCE.createEEnumLiteral();
+            enumLiteral.setName(literal);
+            enumLiteral.setLiteral(literal);
+            enumLiteral.setValue(KIND.getELiterals().size());
+            KIND.getELiterals().add(enumLiteral);
+        }
+        KIND.setName("Kind");
+
+        ITEM.setName("Item");
+        addAttribute("count", EcorePackage.Literals.EINT, false);
+        addAttribute("size", EcorePackage.Literals.ELONG, false);
+        addAttribute("enabled", EcorePackage.Literals.EBOOLEAN, false);
+        addAttribute("ratio", EcorePackage.Literals.EDOUBLE, false);
+        addAttribute("kind", KIND, false);
+        addAttribute("amount", EcorePackage.Literals.EBIG_DECIMAL, false);
+        addAttribute("scores", EcorePackage.Literals.EINT, true);
+
+        PACKAGE.setName("typed");
+        PACKAGE.setNsPrefix("typed");
+        PACKAGE.setNsURI("http://www.inria.fr/atlanmod/neoemf/tests/typed");
+        PACKAGE.getEClassifiers().add(ITEM);
+        PACKAGE.getEClassifiers().add(KIND);
+        EPackage.Registry.INSTANCE.put(PACKAGE.getNsURI(), PACKAGE);
+    }
+
+    private static void addAttribute(String name, EDataType type, boolean many) {
+        EAttribute attribute = EcoreFactory.eINSTANCE.createEAttribute();
+        attribute.setName(name);
+        attribute.setEType(type);
+        attribute.setUpperBound(many ? -1 : 1);
+        attribute.setUnique(!many);
+        ITEM.getEStructuralFeatures().add(attribute);
+    }
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testGetSetTypedAttributes() {
+        PersistentResource resource = createPersistentStore();
+        EObject item = createItem();
+        resource.getContents().add(item);
+
+        assertItem(item);
+    }
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testLoadTypedAttributes() throws IOException {
+        PersistentResource resource = createPersistentStore();
+        resource.getContents().add(createItem());
+        resource.save(CommonOptionsBuilder.noOption());
+        resource.close();
+
+        ResourceSet rSet = new ResourceSetImpl();
+        rSet.getResourceFactoryRegistry().getProtocolToFactoryMap().put(context().uriScheme(), PersistentResourceFactory.getInstance());
+        resource = closeAtExit((PersistentResource) rSet.createResource(context().createFileURI(file())));
+        resource.load(CommonOptionsBuilder.noOption());
+
+        assertItem(resource.getContents().get(0));
+    }
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    @SuppressWarnings("unchecked")
+    public void testIndexOfTypedAttribute() {
+        PersistentResource resource = createPersistentStore();
+        EObject item = createItem();
+        resource.getContents().add(item);
+
+        EList<Integer> scores = (EList<Integer>) item.eGet(feature("scores"));
+        assertThat(scores.indexOf(5)).isEqualTo(1);
+        assertThat(scores.lastIndexOf(3)).isEqualTo(2);
+        assertThat(scores.contains(7)).isFalse();
+    }
+
+    private EObject createItem() {
+        EObject item = PersistenceFactory.getInstance().create(ITEM);
+        item.eSet(feature("count"), 42);
+        item.eSet(feature("size"), Long.MAX_VALUE);
+        item.eSet(feature("enabled"), true);
+        item.eSet(feature("ratio"), 0.5d);
+        item.eSet(feature("kind"), KIND.getEEnumLiteral("LARGE"));
+        item.eSet(feature("amount"), new BigDecimal("12.50"));
+        item.eSet(feature("scores"), Arrays.asList(3, 5, 3));
+        return item;
+    }
+
+    private void assertItem(EObject item) {
+        assertThat(item.eGet(feature("count"))).isEqualTo(42);
+        assertThat(item.eGet(feature("size"))).isEqualTo(Long.MAX_VALUE);
+        assertThat(item.eGet(feature("enabled"))).isEqualTo(true);
+        assertThat(item.eGet(feature("ratio"))).isEqualTo(0.5d);
+        assertThat(item.eGet(feature("kind"))).isSameAs(KIND.getEEnumLiteral("LARGE"));
+        assertThat(item.eGet(feature("amount"))).isEqualTo(new BigDecimal("12.50"));
+        assertThat((Iterable<?>) item.eGet(feature("scores"))).containsExactly(3, 5, 3);
+    }
+
+    private static EAttribute feature(String name) {
+        return (EAttribute) ITEM.getEStructuralFeature(name);
+    }
+}
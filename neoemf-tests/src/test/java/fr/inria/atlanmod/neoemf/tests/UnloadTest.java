@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2013-2017 Atlanmod INRIA LINA Mines Nantes.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Atlanmod INRIA LINA Mines Nantes - initial API and implementation
+ */
+
+package fr.inria.atlanmod.neoemf.tests;
+
+import fr.inria.atlanmod.neoemf.context.Tags;
+import fr.inria.atlanmod.neoemf.core.PersistentEObject;
+import fr.inria.atlanmod.neoemf.option.CommonOptionsBuilder;
+import fr.inria.atlanmod.neoemf.resource.PersistentResource;
+import fr.inria.atlanmod.neoemf.tests.models.mapSample.Pack;
+
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link PersistentResource#unload()}, which only unloads the objects materialized in memory.
+ */
+public class UnloadTest extends AbstractBackendTest {
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testUnloadCreatedObjects() throws IOException {
+        PersistentResource resource = createPersistentStore();
+        Pack root = createPack("root");
+        resource.getContents().add(root);
+        Pack child = createPack("child");
+        root.getPacks().add(child);
+        resource.save(CommonOptionsBuilder.noOption());
+
+        resource.unload();
+
+        assertThat(resource.isLoaded()).isFalse();
+        assertThat(root.eIsProxy()).isTrue();
+        assertThat(child.eIsProxy()).isTrue();
+        assertThat(EcoreUtil.getURI(child).fragment()).isEqualTo(PersistentEObject.from(child).id().toString());
+    }
+
+    @Test
+    @Category(Tags.PersistentTests.class)
+    public void testUnloadLoadedObjects() throws IOException {
+        PersistentResource resource = createPersistentStore();
+        Pack root = createPack("root");
+        resource.getContents().add(root);
+        for (int i = 0; i < 10; i++) {
+            root.getPacks().add(createPack("p" + i));
+        }
+        resource.save(CommonOptionsBuilder.noOption());
+        resource.close();
+
+        resource.load(CommonOptionsBuilder.noOption());
+        Pack loadedRoot = (Pack) resource.getContents().get(0);
+        Pack loadedChild = loadedRoot.getPacks().get(3);
+
+        resource.unload();
+
+        assertThat(loadedRoot.eIsProxy()).isTrue();
+        assertThat(loadedChild.eIsProxy()).isTrue();
+    }
+
+    private Pack createPack(String name) {
+        Pack pack = EFACTORY.createPack();
+        pack.setName(name);
+        return pack;
+    }
+}
@@ -41,7 +41,7 @@ public abstract class NeoImporterUtil {
     }
 
     public static String adjustGenModel(GenModel genModel) {
-        return adjustGenModel(genModel, GenDelegationKind.REFLECTIVE_LITERAL);
+        return adjustGenModel(genModel, GenDelegationKind.DYNAMIC_LITERAL);
     }
 
     private static String adjustGenModel(GenModel genModel, GenDelegationKind featureDelegation) {